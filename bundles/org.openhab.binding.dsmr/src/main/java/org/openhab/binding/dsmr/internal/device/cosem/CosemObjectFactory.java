@@ -30,6 +30,12 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class CosemObjectFactory {
+    /**
+     * Maximum number of OBIS Identifier strings remembered in {@link #lastCosemObjects} and {@link #resolvedObisIds}. A
+     * meter sends a few dozen different ones, this only limits the memory used when receiving corrupted data.
+     */
+    private static final int MAX_CACHED_OBIS_IDS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(CosemObjectFactory.class);
 
     /**
@@ -52,6 +58,42 @@ public class CosemObjectFactory {
      */
     private final List<CosemObjectType> obisWildcardCosemTypeList = new ArrayList<>();
 
+    /**
+     * The last Cosem Object created for each OBIS Identifier string and the values it was created from. Meters send
+     * a telegram every few seconds with mostly unchanged values, for which the previous Cosem Object is returned
+     * instead of parsing the OBIS Identifier and values again.
+     */
+    private final Map<String, CachedCosemObject> lastCosemObjects = new HashMap<>();
+
+    /**
+     * The OBIS Identifier parsed from each OBIS Identifier string, so changed values don't need to parse it again.
+     */
+    private final Map<String, ResolvedObisId> resolvedObisIds = new HashMap<>();
+
+    private static class ResolvedObisId {
+        private final OBISIdentifier obisId;
+        private final OBISIdentifier reducedObisId;
+        private final OBISIdentifier reducedObisIdGroupE;
+        // the Cosem Object type found in the lookup tables, if it does not depend on the values
+        private @Nullable CosemObjectType objectType;
+
+        private ResolvedObisId(OBISIdentifier obisId) {
+            this.obisId = obisId;
+            reducedObisId = obisId.getReducedOBISIdentifier();
+            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
+        }
+    }
+
+    private static class CachedCosemObject {
+        private final String cosemStringValues;
+        private final @Nullable CosemObject cosemObject;
+
+        private CachedCosemObject(String cosemStringValues, @Nullable CosemObject cosemObject) {
+            this.cosemStringValues = cosemStringValues;
+            this.cosemObject = cosemObject;
+        }
+    }
+
     /**
      * Creates a new CosemObjectFactory
      */
@@ -84,31 +126,63 @@ public class CosemObjectFactory {
 
     /**
      * Return Cosem Object from specified string or null if string couldn't be
-     * parsed correctly or no corresponding Cosem Object was found
+     * parsed correctly or no corresponding Cosem Object was found.
+     * <p>
+     * If the values are the same as the last time this OBIS identifier was received, the same Cosem Object as the last
+     * time is returned.
+     * Otherwise the OBIS identifier and its Cosem Object type are taken from the previous telegrams and only the values
+     * are parsed.
      *
      * @param obisIdString String containing the OBIS message identifier
-     * @param cosemStringValues String containing Cosem values
+     * @param cosemValues Cosem values
      * @return CosemObject or null if parsing failed
      */
-    public @Nullable CosemObject getCosemObject(String obisIdString, String cosemStringValues) {
-        OBISIdentifier obisId;
-        OBISIdentifier reducedObisId;
-        OBISIdentifier reducedObisIdGroupE;
+    public @Nullable CosemObject getCosemObject(String obisIdString, CharSequence cosemValues) {
+        CachedCosemObject cached = lastCosemObjects.get(obisIdString);
 
-        try {
-            obisId = new OBISIdentifier(obisIdString);
-            reducedObisId = obisId.getReducedOBISIdentifier();
-            reducedObisIdGroupE = obisId.getReducedOBISIdentifierGroupE();
-        } catch (final ParseException pe) {
-            logger.debug("Received invalid OBIS identifier: {}", obisIdString);
-            return null;
+        if (cached != null && cached.cosemStringValues.contentEquals(cosemValues)) {
+            logger.trace("Received unchanged values for obisIdString {}", obisIdString);
+            return cached.cosemObject;
+        }
+        String cosemStringValues = cosemValues.toString();
+        CosemObject cosemObject = parseCosemObject(obisIdString, cosemStringValues);
+
+        if (cached == null && lastCosemObjects.size() >= MAX_CACHED_OBIS_IDS) {
+            lastCosemObjects.clear();
+        }
+        lastCosemObjects.put(obisIdString, new CachedCosemObject(cosemStringValues, cosemObject));
+        return cosemObject;
+    }
+
+    private @Nullable CosemObject parseCosemObject(String obisIdString, String cosemStringValues) {
+        ResolvedObisId resolved = resolvedObisIds.get(obisIdString);
+
+        if (resolved == null) {
+            try {
+                resolved = new ResolvedObisId(new OBISIdentifier(obisIdString));
+            } catch (final ParseException pe) {
+                logger.debug("Received invalid OBIS identifier: {}", obisIdString);
+                return null;
+            }
+            if (resolvedObisIds.size() >= MAX_CACHED_OBIS_IDS) {
+                resolvedObisIds.clear();
+            }
+            resolvedObisIds.put(obisIdString, resolved);
         }
+        OBISIdentifier obisId = resolved.obisId;
+        OBISIdentifier reducedObisId = resolved.reducedObisId;
 
         logger.trace("Received obisIdString {}, obisId: {}, values: {}", obisIdString, obisId, cosemStringValues);
 
-        CosemObjectType objectType = obisLookupTableFixed.get(reducedObisId);
+        CosemObjectType objectType = resolved.objectType;
+        if (objectType != null) {
+            return getCosemObjectInternal(objectType, obisId, cosemStringValues);
+        }
+
+        objectType = obisLookupTableFixed.get(reducedObisId);
         if (objectType != null) {
             logger.trace("Found obisId {} in the fixed lookup table", reducedObisId);
+            resolved.objectType = objectType;
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
@@ -123,14 +197,23 @@ public class CosemObjectFactory {
             }
         }
 
+        // the types of conflicting identifiers depend on the values, so they are looked up each time
+        boolean valueIndependent = objectTypeList == null;
+
         objectType = obisLookupTableDynamic.get(reducedObisId);
         if (objectType != null) {
             logger.trace("Found obisId {} in the dynamic lookup table", reducedObisId);
+            if (valueIndependent) {
+                resolved.objectType = objectType;
+            }
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
-        objectType = obisLookupTableFixed.get(reducedObisIdGroupE);
+        objectType = obisLookupTableFixed.get(resolved.reducedObisIdGroupE);
         if (objectType != null) {
+            if (valueIndependent) {
+                resolved.objectType = objectType;
+            }
             return getCosemObjectInternal(objectType, obisId, cosemStringValues);
         }
 
@@ -18,7 +18,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.dsmr.internal.device.cosem.CosemObject;
@@ -60,9 +59,9 @@ public class P1TelegramParser implements TelegramParser {
     }
 
     /**
-     * Pattern for the CRC-code
+     * Number of hexadecimal digits of the CRC-code
      */
-    private static final String CRC_PATTERN = "[0-9A-Z]{4}";
+    private static final int CRC_LENGTH = 4;
 
     private final Logger logger = LoggerFactory.getLogger(P1TelegramParser.class);
 
@@ -245,11 +244,12 @@ public class P1TelegramParser implements TelegramParser {
                         logger.trace("telegramState {}, crcValue to check 0x{}", telegramState, crcValue);
                         // Only perform CRC check if telegram is still ok
                         if (telegramState == TelegramState.OK && crcValue.length() > 0) {
-                            if (Pattern.matches(CRC_PATTERN, crcValue)) {
-                                int crcP1Telegram = Integer.parseInt(crcValue.toString(), 16);
+                            int crcP1Telegram = parseCRC(crcValue);
+
+                            if (crcP1Telegram >= 0) {
                                 int calculatedCRC = crc.getCurrentCRCCode();
 
-                                if (logger.isDebugEnabled()) {
+                                if (logger.isTraceEnabled()) {
                                     logger.trace("received CRC value: {}, calculated CRC value: 0x{}", crcValue,
                                             String.format("%04X", calculatedCRC));
                                 }
@@ -280,6 +280,33 @@ public class P1TelegramParser implements TelegramParser {
         logger.trace("State after parsing: {}", state);
     }
 
+    /**
+     * Parses the CRC-code, 4 hexadecimal digits in upper case.
+     *
+     * @param crcValue the received CRC-code
+     * @return the CRC value or -1 if the CRC-code is invalid
+     */
+    private static int parseCRC(CharSequence crcValue) {
+        if (crcValue.length() != CRC_LENGTH) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < CRC_LENGTH; i++) {
+            char c = crcValue.charAt(i);
+            int digit;
+
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
     private P1Telegram constructTelegram() {
         final List<CosemObject> cosemObjectsCopy = new ArrayList<>(cosemObjects);
 
@@ -378,12 +405,12 @@ public class P1TelegramParser implements TelegramParser {
         String obisIdString = obisId.toString();
 
         if (!obisIdString.isEmpty()) {
-            final String obisValueString = obisValue.toString();
-            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValueString);
+            // the factory only creates a string of the value if it changed since the previous telegram
+            CosemObject cosemObject = factory.getCosemObject(obisIdString, obisValue);
 
             if (cosemObject == null) {
                 if (lenientMode) {
-                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValueString));
+                    unknownCosemObjects.add(new SimpleEntry<>(obisIdString, obisValue.toString()));
                 }
             } else {
                 logger.trace("Adding {} to list of Cosem Objects", cosemObject);
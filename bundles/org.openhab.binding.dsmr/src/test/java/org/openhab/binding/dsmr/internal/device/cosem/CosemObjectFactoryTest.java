@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.dsmr.internal.device.cosem;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for {@link CosemObjectFactory}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CosemObjectFactoryTest {
+
+    private final CosemObjectFactory factory = new CosemObjectFactory();
+
+    @Test
+    public void testUnchangedValuesReturnTheSameObject() {
+        CosemObject first = factory.getCosemObject("1-0:1.8.1", "(000123.456*kWh)");
+        CosemObject second = factory.getCosemObject("1-0:1.8.1", "(000123.456*kWh)");
+
+        assertNotNull(first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testChangedValuesAreParsedWithTheSameType() {
+        CosemObject first = factory.getCosemObject("1-0:1.8.1", "(000123.456*kWh)");
+        CosemObject second = factory.getCosemObject("1-0:1.8.1", "(000124.000*kWh)");
+        CosemObject third = factory.getCosemObject("1-0:1.8.1", "(000125.000*kWh)");
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotNull(third);
+        assertEquals(CosemObjectType.EMETER_DELIVERY_TARIFF1, first.getType());
+        assertEquals(first.getType(), second.getType());
+        assertEquals(first.getType(), third.getType());
+        assertNotEquals(first.getCosemValues(), second.getCosemValues());
+        assertNotEquals(second.getCosemValues(), third.getCosemValues());
+    }
+
+    @Test
+    public void testInvalidValuesForAKnownIdentifier() {
+        assertNotNull(factory.getCosemObject("1-0:1.8.1", "(000123.456*kWh)"));
+        assertNull(factory.getCosemObject("1-0:1.8.1", "(invalid)"));
+        assertNotNull(factory.getCosemObject("1-0:1.8.1", "(000124.000*kWh)"));
+    }
+
+    @Test
+    public void testInvalidIdentifier() {
+        assertNull(factory.getCosemObject("invalid", "(000123.456*kWh)"));
+        assertNull(factory.getCosemObject("invalid", "(000124.000*kWh)"));
+    }
+}
@@ -12,12 +12,14 @@
  */
 package org.openhab.binding.dsmr.internal.device.p1telegram;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.openhab.binding.dsmr.internal.TelegramReaderUtil;
@@ -60,4 +62,22 @@ public class P1TelegramParserTest {
                 telegram.getCosemObjects().stream().mapToInt(co -> co.getCosemValues().size()).sum(),
                 "Expected number of objects");
     }
+
+    @Test
+    public void testUnchangedValuesReuseCosemObjects() {
+        List<P1Telegram> telegrams = new ArrayList<>();
+        byte[] telegram = TelegramReaderUtil.readRawTelegram("dsmr_50");
+        P1TelegramParser parser = new P1TelegramParser(telegrams::add);
+
+        parser.parse(telegram, telegram.length);
+        parser.parse(telegram, telegram.length);
+        assertEquals(2, telegrams.size(), "Expected both telegrams to be received");
+        List<?> first = telegrams.get(0).getCosemObjects();
+        List<?> second = telegrams.get(1).getCosemObjects();
+        assertEquals(TelegramState.OK, telegrams.get(1).getTelegramState());
+        assertEquals(first.size(), second.size(), "Expected the same objects in both telegrams");
+        for (int i = 0; i < first.size(); i++) {
+            assertSame(first.get(i), second.get(i), "Expected unchanged values not to be parsed again");
+        }
+    }
 }
@@ -20,6 +20,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
 import org.openhab.binding.http.internal.transform.CascadedValueTransformationImpl;
 import org.openhab.binding.http.internal.transform.NoOpValueTransformation;
 import org.openhab.binding.http.internal.transform.ValueTransformation;
@@ -53,6 +54,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
 
     private final HttpClient secureClient;
     private final HttpClient insecureClient;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry = new RefreshingUrlCacheRegistry();
 
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
 
@@ -74,6 +76,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
 
     @Deactivate
     public void deactivate() {
+        urlCacheRegistry.stop();
         try {
             secureClient.stop();
             insecureClient.stop();
@@ -93,7 +96,7 @@ public class HttpHandlerFactory extends BaseThingHandlerFactory
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_URL.equals(thingTypeUID)) {
-            return new HttpThingHandler(thing, this, this, httpDynamicStateDescriptionProvider);
+            return new HttpThingHandler(thing, this, this, httpDynamicStateDescriptionProvider, urlCacheRegistry);
         }
 
         return null;
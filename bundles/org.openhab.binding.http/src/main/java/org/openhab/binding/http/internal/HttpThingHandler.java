@@ -15,13 +15,17 @@ package org.openhab.binding.http.internal;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -29,10 +33,10 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.api.Authentication;
 import org.eclipse.jetty.client.api.AuthenticationStore;
-import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.util.BasicAuthentication;
 import org.eclipse.jetty.client.util.DigestAuthentication;
 import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpMethod;
 import org.openhab.binding.http.internal.config.HttpChannelConfig;
 import org.openhab.binding.http.internal.config.HttpChannelMode;
@@ -51,7 +55,9 @@ import org.openhab.binding.http.internal.http.Content;
 import org.openhab.binding.http.internal.http.HttpAuthException;
 import org.openhab.binding.http.internal.http.HttpResponseListener;
 import org.openhab.binding.http.internal.http.RateLimitedHttpClient;
+import org.openhab.binding.http.internal.http.RateLimitedHttpClient.Priority;
 import org.openhab.binding.http.internal.http.RefreshingUrlCache;
+import org.openhab.binding.http.internal.http.RefreshingUrlCacheRegistry;
 import org.openhab.binding.http.internal.transform.ValueTransformationProvider;
 import org.openhab.core.library.types.DateTimeType;
 import org.openhab.core.library.types.PointType;
@@ -86,21 +92,26 @@ public class HttpThingHandler extends BaseThingHandler {
     private HttpClient httpClient;
     private RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry;
 
     private HttpThingConfig config = new HttpThingConfig();
+    private List<HttpField> headers = List.of();
     private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
     private final Map<ChannelUID, ItemValueConverter> channels = new HashMap<>();
     private final Map<ChannelUID, String> channelUrls = new HashMap<>();
+    private final Map<ChannelUID, Consumer<Content>> channelConsumers = new HashMap<>();
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
             ValueTransformationProvider valueTransformationProvider,
-            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider) {
+            HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider,
+            RefreshingUrlCacheRegistry urlCacheRegistry) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
         this.httpClient = httpClientProvider.getSecureClient();
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
         this.valueTransformationProvider = valueTransformationProvider;
         this.httpDynamicStateDescriptionProvider = httpDynamicStateDescriptionProvider;
+        this.urlCacheRegistry = urlCacheRegistry;
     }
 
     @Override
@@ -126,6 +137,7 @@ public class HttpThingHandler extends BaseThingHandler {
         } else {
             try {
                 itemValueConverter.send(command);
+                processNextState(channelUID);
             } catch (IllegalArgumentException e) {
                 logger.warn("Failed to convert command '{}' to channel '{}' for sending", command, channelUID);
             } catch (IllegalStateException e) {
@@ -134,6 +146,21 @@ public class HttpThingHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Make the next refresh update the channel even if the content did not change, so the state is corrected if the
+     * command failed or was ignored.
+     */
+    private void processNextState(ChannelUID channelUID) {
+        String key = channelUrls.get(channelUID);
+        Consumer<Content> consumer = channelConsumers.get(channelUID);
+        if (key != null && consumer != null) {
+            RefreshingUrlCache refreshingUrlCache = urlHandlers.get(key);
+            if (refreshingUrlCache != null) {
+                refreshingUrlCache.processNextContent(this, consumer);
+            }
+        }
+    }
+
     @Override
     public void initialize() {
         config = getConfigAs(HttpThingConfig.class);
@@ -200,6 +227,9 @@ public class HttpThingHandler extends BaseThingHandler {
             logger.debug("No authentication configured for thing '{}'", thing.getUID());
         }
 
+        // parse headers once, they are added to every request
+        headers = parseHeaders(config.headers);
+
         // create channels
         thing.getChannels().forEach(this::createChannel);
 
@@ -208,14 +238,16 @@ public class HttpThingHandler extends BaseThingHandler {
 
     @Override
     public void dispose() {
-        // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        // stop update tasks (if no other thing uses them)
+        urlCacheRegistry.unsubscribe(this);
+        logger.debug("Request statistics for thing '{}': {}", thing.getUID(), rateLimitedHttpClient);
         rateLimitedHttpClient.shutdown();
 
         // clear lists
         urlHandlers.clear();
         channels.clear();
         channelUrls.clear();
+        channelConsumers.clear();
 
         // remove state descriptions
         httpDynamicStateDescriptionProvider.removeDescriptionsForThing(thing.getUID());
@@ -292,8 +324,13 @@ public class HttpThingHandler extends BaseThingHandler {
             // we need a key consisting of stateContent and URL, only if both are equal, we can use the same cache
             String key = channelConfig.stateContent + "$" + stateUrl;
             channelUrls.put(channelUID, key);
-            urlHandlers.computeIfAbsent(key, k -> new RefreshingUrlCache(scheduler, rateLimitedHttpClient, stateUrl,
-                    config, channelConfig.stateContent)).addConsumer(itemValueConverter::process);
+            // the cache is shared with all other things requesting the same URL with the same parameters
+            RefreshingUrlCache refreshingUrlCache = urlHandlers.computeIfAbsent(key,
+                    k -> urlCacheRegistry.subscribe(this, scheduler, rateLimitedHttpClient, stateUrl, config, headers,
+                            channelConfig.stateContent));
+            Consumer<Content> consumer = itemValueConverter::process;
+            channelConsumers.put(channelUID, consumer);
+            refreshingUrlCache.addConsumer(this, consumer);
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
@@ -313,56 +350,70 @@ public class HttpThingHandler extends BaseThingHandler {
             // format URL
             URI uri = Util.uriFromString(String.format(commandUrl, new Date(), command));
 
-            // build request
-            Request request = httpClient.newRequest(uri).timeout(config.timeout, TimeUnit.MILLISECONDS)
-                    .method(config.commandMethod);
-            if (config.commandMethod != HttpMethod.GET) {
-                final String contentType = config.contentType;
-                if (contentType != null) {
-                    request.content(new StringContentProvider(command), contentType);
-                } else {
-                    request.content(new StringContentProvider(command));
+            // build request, commands are sent before the refreshes queued for the same host
+            rateLimitedHttpClient.newRequest(uri, config.commandMethod, "", Priority.COMMAND).thenAccept(request -> {
+                request.timeout(config.timeout, TimeUnit.MILLISECONDS);
+                if (config.commandMethod != HttpMethod.GET) {
+                    final String contentType = config.contentType;
+                    if (contentType != null) {
+                        request.content(new StringContentProvider(command), contentType);
+                    } else {
+                        request.content(new StringContentProvider(command));
+                    }
                 }
-            }
 
-            config.headers.forEach(header -> {
-                String[] keyValuePair = header.split("=", 2);
-                if (keyValuePair.length == 2) {
-                    request.header(keyValuePair[0], keyValuePair[1]);
-                } else {
-                    logger.warn("Splitting header '{}' failed. No '=' was found. Ignoring", header);
-                }
-            });
+                headers.forEach(header -> request.header(header.getName(), header.getValue()));
 
-            if (logger.isTraceEnabled()) {
-                logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
-            }
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
+                }
 
-            CompletableFuture<@Nullable Content> f = new CompletableFuture<>();
-            f.exceptionally(e -> {
-                if (e instanceof HttpAuthException) {
-                    if (isRetry) {
-                        logger.warn("Retry after authentication failure failed again for '{}', failing here", uri);
-                    } else {
-                        AuthenticationStore authStore = httpClient.getAuthenticationStore();
-                        Authentication.Result authResult = authStore.findAuthenticationResult(uri);
-                        if (authResult != null) {
-                            authStore.removeAuthenticationResult(authResult);
-                            logger.debug("Cleared authentication result for '{}', retrying immediately", uri);
-                            sendHttpValue(commandUrl, command, true);
+                CompletableFuture<@Nullable Content> f = new CompletableFuture<>();
+                f.exceptionally(e -> {
+                    if (e instanceof HttpAuthException) {
+                        if (isRetry) {
+                            logger.warn("Retry after authentication failure failed again for '{}', failing here", uri);
                         } else {
-                            logger.warn("Could not find authentication result for '{}', failing here", uri);
+                            AuthenticationStore authStore = httpClient.getAuthenticationStore();
+                            Authentication.Result authResult = authStore.findAuthenticationResult(uri);
+                            if (authResult != null) {
+                                authStore.removeAuthenticationResult(authResult);
+                                logger.debug("Cleared authentication result for '{}', retrying immediately", uri);
+                                sendHttpValue(commandUrl, command, true);
+                            } else {
+                                logger.warn("Could not find authentication result for '{}', failing here", uri);
+                            }
                         }
                     }
+                    return null;
+                });
+                request.send(new HttpResponseListener(f, null, config.bufferSize));
+            }).exceptionally(e -> {
+                if (e instanceof CancellationException) {
+                    logger.debug("Request to URL {} was cancelled by thing handler.", uri);
+                } else {
+                    logger.warn("Request to URL {} failed: {}", uri, e.getMessage());
                 }
                 return null;
             });
-            request.send(new HttpResponseListener(f, null, config.bufferSize));
         } catch (IllegalArgumentException | URISyntaxException | MalformedURLException e) {
             logger.warn("Creating request for '{}' failed: {}", commandUrl, e.getMessage());
         }
     }
 
+    private List<HttpField> parseHeaders(List<String> headers) {
+        List<HttpField> parsedHeaders = new ArrayList<>();
+        for (String header : headers) {
+            String[] keyValuePair = header.split("=", 2);
+            if (keyValuePair.length == 2) {
+                parsedHeaders.add(new HttpField(keyValuePair[0].trim(), keyValuePair[1].trim()));
+            } else {
+                logger.warn("Splitting header '{}' failed. No '=' was found. Ignoring", header);
+            }
+        }
+        return parsedHeaders;
+    }
+
     private String concatenateUrlParts(String baseUrl, @Nullable String extension) {
         if (extension != null && !extension.isEmpty()) {
             if (!URL_PART_DELIMITER.contains(baseUrl.charAt(baseUrl.length() - 1))
@@ -14,6 +14,8 @@ package org.openhab.binding.http.internal.http;
 
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -28,10 +30,28 @@ public class Content {
     private final byte[] rawContent;
     private final Charset encoding;
     private final @Nullable String mediaType;
+    private final @Nullable String etag;
+    private final @Nullable String lastModified;
+    private final int hash;
 
     public Content(byte[] rawContent, String encoding, @Nullable String mediaType) {
+        this(rawContent, encoding, mediaType, null, null);
+    }
+
+    /**
+     * @param rawContent the response body
+     * @param encoding the encoding of the body
+     * @param mediaType the media type of the body
+     * @param etag the ETag header of the response, if any
+     * @param lastModified the Last-Modified header of the response, if any
+     */
+    public Content(byte[] rawContent, String encoding, @Nullable String mediaType, @Nullable String etag,
+            @Nullable String lastModified) {
         this.rawContent = rawContent;
         this.mediaType = mediaType;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.hash = Arrays.hashCode(rawContent);
 
         Charset finalEncoding = StandardCharsets.UTF_8;
         try {
@@ -52,4 +72,23 @@ public class Content {
     public @Nullable String getMediaType() {
         return mediaType;
     }
+
+    public @Nullable String getETag() {
+        return etag;
+    }
+
+    public @Nullable String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Check if this content has the same body, encoding and media type as another one
+     *
+     * @param other the content to compare with
+     * @return true if processing the other content gives the same result as processing this one
+     */
+    public boolean isSameAs(@Nullable Content other) {
+        return other != null && hash == other.hash && encoding.equals(other.encoding)
+                && Objects.equals(mediaType, other.mediaType) && Arrays.equals(rawContent, other.rawContent);
+    }
 }
@@ -13,9 +13,15 @@
 package org.openhab.binding.http.internal.http;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -28,22 +34,44 @@ import org.eclipse.jetty.client.api.AuthenticationStore;
 import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The {@link RateLimitedHttpClient} is a wrapper for a Jetty HTTP client that limits the number of requests by delaying
  * the request creation
  *
+ * Each host has its own token bucket and queue, so a slow host does not delay the requests to other hosts. The bucket
+ * holds a single token which is refilled after the configured delay, i.e. two requests to the same host are at least
+ * the delay apart. Hosts with a token are served in turns, and commands are sent before refreshes of the same host.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
 public class RateLimitedHttpClient {
-    private static final int MAX_QUEUE_SIZE = 1000; // maximum queue size
+    private static final int MAX_QUEUE_SIZE = 1000; // maximum queue size per host
+    private final Logger logger = LoggerFactory.getLogger(RateLimitedHttpClient.class);
     private HttpClient httpClient;
     private int delay = 0; // in ms
     private final ScheduledExecutorService scheduler;
-    private final LinkedBlockingQueue<RequestQueueEntry> requestQueue = new LinkedBlockingQueue<>(MAX_QUEUE_SIZE);
+    // the host queues in the order they are served, a host is moved to the end when a request was sent to it
+    private final Map<String, HostQueue> hostQueues = new LinkedHashMap<>();
 
     private @Nullable ScheduledFuture<?> processJob;
+    private long processJobTime;
+
+    private long sentCount;
+    private long rejectedCount;
+    private long totalWaitTime;
+    private long maxWaitTime;
+
+    /**
+     * The priority of a request, requests with a higher priority are sent first
+     */
+    public enum Priority {
+        COMMAND,
+        REFRESH
+    }
 
     public RateLimitedHttpClient(HttpClient httpClient, ScheduledExecutorService scheduler) {
         this.httpClient = httpClient;
@@ -54,23 +82,29 @@ public class RateLimitedHttpClient {
      * Stop processing the queue and clear it
      */
     public void shutdown() {
-        stopProcessJob();
-        requestQueue.forEach(queueEntry -> queueEntry.future.completeExceptionally(new CancellationException()));
+        List<RequestQueueEntry> queueEntries = new ArrayList<>();
+        synchronized (this) {
+            stopProcessJob();
+            hostQueues.values().forEach(hostQueue -> queueEntries.addAll(hostQueue.clear()));
+            hostQueues.clear();
+        }
+        queueEntries.forEach(queueEntry -> queueEntry.future.completeExceptionally(new CancellationException()));
     }
 
     /**
      * Set a new delay
      *
-     * @param delay in ms between to requests
+     * @param delay in ms between to requests to the same host
      */
-    public void setDelay(int delay) {
+    public synchronized void setDelay(int delay) {
         if (delay < 0) {
             throw new IllegalArgumentException("Delay needs to be larger or equal to zero");
         }
         this.delay = delay;
         stopProcessJob();
-        if (delay != 0) {
-            processJob = scheduler.scheduleWithFixedDelay(this::processQueue, 0, delay, TimeUnit.MILLISECONDS);
+        if (!hostQueues.isEmpty()) {
+            // send the queued requests with the new delay
+            scheduleProcessJob(System.nanoTime());
         }
     }
 
@@ -84,7 +118,7 @@ public class RateLimitedHttpClient {
     }
 
     /**
-     * Create a new request to the given URL respecting rate-limits
+     * Create a new request to refresh the given URL respecting rate-limits
      *
      * @param finalUrl the request URL
      * @param method http request method GET/PUT/POST
@@ -92,16 +126,49 @@ public class RateLimitedHttpClient {
      * @return a CompletableFuture that completes with the request
      */
     public CompletableFuture<Request> newRequest(URI finalUrl, HttpMethod method, String content) {
-        // if no delay is set, return a completed CompletableFuture
+        return newRequest(finalUrl, method, content, Priority.REFRESH);
+    }
+
+    /**
+     * Create a new request to the given URL respecting rate-limits
+     *
+     * @param finalUrl the request URL
+     * @param method http request method GET/PUT/POST
+     * @param content the content (if method PUT/POST)
+     * @param priority the priority of the request
+     * @return a CompletableFuture that completes with the request
+     */
+    public CompletableFuture<Request> newRequest(URI finalUrl, HttpMethod method, String content, Priority priority) {
         CompletableFuture<Request> future = new CompletableFuture<>();
-        RequestQueueEntry queueEntry = new RequestQueueEntry(finalUrl, method, content, future);
-        if (delay == 0) {
-            queueEntry.completeFuture(httpClient);
-        } else {
-            if (!requestQueue.offer(queueEntry)) {
-                future.completeExceptionally(new RejectedExecutionException("Maximum queue size exceeded."));
+        RequestQueueEntry queueEntry = new RequestQueueEntry(finalUrl, method, content, priority, future);
+        RequestQueueEntry rejectedEntry = null;
+        boolean queued = false;
+        synchronized (this) {
+            // if no delay is set, complete the future immediately
+            if (delay != 0) {
+                queued = true;
+                HostQueue hostQueue = hostQueues.computeIfAbsent(getHostKey(finalUrl), k -> new HostQueue());
+                if (hostQueue.size() >= MAX_QUEUE_SIZE) {
+                    // a command replaces the newest refresh, refreshes are repeated anyway
+                    rejectedEntry = priority == Priority.COMMAND ? hostQueue.removeNewest(Priority.REFRESH) : null;
+                    if (rejectedEntry == null) {
+                        rejectedEntry = queueEntry;
+                    }
+                    rejectedCount++;
+                }
+                if (rejectedEntry != queueEntry) {
+                    hostQueue.add(queueEntry);
+                    scheduleProcessJob(hostQueue.nextTokenTime);
+                }
             }
         }
+        if (!queued) {
+            queueEntry.completeFuture(httpClient);
+        }
+        if (rejectedEntry != null) {
+            logger.debug("Rejecting request to '{}', maximum queue size exceeded", rejectedEntry.finalUrl);
+            rejectedEntry.future.completeExceptionally(new RejectedExecutionException("Maximum queue size exceeded."));
+        }
         return future;
     }
 
@@ -114,6 +181,58 @@ public class RateLimitedHttpClient {
         return httpClient.getAuthenticationStore();
     }
 
+    /**
+     * Get the number of queued requests
+     *
+     * @return the number of requests of all hosts waiting to be sent
+     */
+    public synchronized int getQueueSize() {
+        return hostQueues.values().stream().mapToInt(HostQueue::size).sum();
+    }
+
+    /**
+     * Get the number of requests taken from the queue
+     *
+     * @return the number of requests
+     */
+    public synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Get the number of requests rejected because the queue of their host was full
+     *
+     * @return the number of requests
+     */
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Get the average time a request was queued
+     *
+     * @return the average wait time in ms
+     */
+    public synchronized long getAverageWaitTime() {
+        return sentCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitTime / sentCount);
+    }
+
+    /**
+     * Get the longest time a request was queued
+     *
+     * @return the maximum wait time in ms
+     */
+    public synchronized long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTime);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "RateLimitedHttpClient [hosts=" + hostQueues.size() + ", queued=" + getQueueSize() + ", sent="
+                + sentCount + ", rejected=" + rejectedCount + ", averageWaitTime=" + getAverageWaitTime()
+                + "ms, maxWaitTime=" + getMaxWaitTime() + "ms]";
+    }
+
     private void stopProcessJob() {
         ScheduledFuture<?> processJob = this.processJob;
         if (processJob != null) {
@@ -122,10 +241,106 @@ public class RateLimitedHttpClient {
         }
     }
 
+    /**
+     * Schedule the process job, unless it is already scheduled earlier
+     *
+     * @param time the {@link System#nanoTime()} to process the queues at
+     */
+    private void scheduleProcessJob(long time) {
+        if (processJob != null && processJobTime <= time) {
+            return;
+        }
+        stopProcessJob();
+        processJobTime = time;
+        processJob = scheduler.schedule(this::processQueue, Math.max(0, time - System.nanoTime()),
+                TimeUnit.NANOSECONDS);
+    }
+
     private void processQueue() {
-        RequestQueueEntry queueEntry = requestQueue.poll();
-        if (queueEntry != null) {
+        List<RequestQueueEntry> queueEntries = new ArrayList<>();
+        synchronized (this) {
+            processJob = null;
+            long now = System.nanoTime();
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(delay);
+            long nextTime = Long.MAX_VALUE;
+            // each host with a token sends one request, in the order the hosts were served last
+            for (Map.Entry<String, HostQueue> entry : new ArrayList<>(hostQueues.entrySet())) {
+                HostQueue hostQueue = entry.getValue();
+                if (hostQueue.nextTokenTime <= now) {
+                    RequestQueueEntry queueEntry = hostQueue.poll();
+                    if (queueEntry != null) {
+                        long waitTime = now - queueEntry.queued;
+                        sentCount++;
+                        totalWaitTime += waitTime;
+                        maxWaitTime = Math.max(maxWaitTime, waitTime);
+                        queueEntries.add(queueEntry);
+                        hostQueue.nextTokenTime = now + delayNanos;
+                        // move the host to the end of the round
+                        hostQueues.remove(entry.getKey());
+                        hostQueues.put(entry.getKey(), hostQueue);
+                    }
+                }
+                if (hostQueue.size() == 0) {
+                    if (hostQueue.nextTokenTime <= now) {
+                        // the bucket is full again, no need to remember the host
+                        hostQueues.remove(entry.getKey());
+                    }
+                } else {
+                    nextTime = Math.min(nextTime, hostQueue.nextTokenTime);
+                }
+            }
+            if (nextTime != Long.MAX_VALUE) {
+                scheduleProcessJob(nextTime);
+            }
+        }
+        queueEntries.forEach(queueEntry -> {
+            if (logger.isTraceEnabled()) {
+                logger.trace("Sending {} request to '{}' after {}ms in the queue", queueEntry.priority,
+                        queueEntry.finalUrl, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queueEntry.queued));
+            }
             queueEntry.completeFuture(httpClient);
+        });
+    }
+
+    private static String getHostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * The token bucket and the queued requests of a single host
+     */
+    private static class HostQueue {
+        private final Map<Priority, Deque<RequestQueueEntry>> queues = new EnumMap<>(Priority.class);
+        private long nextTokenTime = System.nanoTime();
+
+        private void add(RequestQueueEntry queueEntry) {
+            queues.computeIfAbsent(queueEntry.priority, p -> new ArrayDeque<>()).add(queueEntry);
+        }
+
+        private @Nullable RequestQueueEntry poll() {
+            for (Deque<RequestQueueEntry> queue : queues.values()) {
+                RequestQueueEntry queueEntry = queue.poll();
+                if (queueEntry != null) {
+                    return queueEntry;
+                }
+            }
+            return null;
+        }
+
+        private @Nullable RequestQueueEntry removeNewest(Priority priority) {
+            Deque<RequestQueueEntry> queue = queues.get(priority);
+            return queue != null ? queue.pollLast() : null;
+        }
+
+        private List<RequestQueueEntry> clear() {
+            List<RequestQueueEntry> queueEntries = new ArrayList<>();
+            queues.values().forEach(queueEntries::addAll);
+            queues.clear();
+            return queueEntries;
+        }
+
+        private int size() {
+            return queues.values().stream().mapToInt(Deque::size).sum();
         }
     }
 
@@ -133,12 +348,16 @@ public class RateLimitedHttpClient {
         private URI finalUrl;
         private HttpMethod method;
         private String content;
+        private Priority priority;
         private CompletableFuture<Request> future;
+        private long queued = System.nanoTime();
 
-        public RequestQueueEntry(URI finalUrl, HttpMethod method, String content, CompletableFuture<Request> future) {
+        public RequestQueueEntry(URI finalUrl, HttpMethod method, String content, Priority priority,
+                CompletableFuture<Request> future) {
             this.finalUrl = finalUrl;
             this.method = method;
             this.content = content;
+            this.priority = priority;
             this.future = future;
         }
 
@@ -15,8 +15,11 @@ package org.openhab.binding.http.internal.http;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
@@ -31,6 +34,8 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.api.Authentication;
 import org.eclipse.jetty.client.api.AuthenticationStore;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
@@ -41,6 +46,11 @@ import org.slf4j.LoggerFactory;
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
  * channels
  *
+ * The cache is shared by all things requesting the same URL with the same parameters (see
+ * {@link RefreshingUrlCacheRegistry}). It refreshes with the shortest refresh interval of its subscribers, sends
+ * conditional requests if the server provided an ETag or Last-Modified header and only passes the content to the
+ * channels if it changed, or to channels which were added or received a command since the last refresh.
+ *
  * @author Jan N. Klug - Initial contribution
  */
 @NonNullByDefault
@@ -48,31 +58,99 @@ public class RefreshingUrlCache {
     private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCache.class);
 
     private final String url;
-    private final RateLimitedHttpClient httpClient;
+    private final ScheduledExecutorService executor;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
-    private final Set<Consumer<Content>> consumers = ConcurrentHashMap.newKeySet();
-    private final List<String> headers;
+    private final Map<Object, Subscriber> subscribers = new LinkedHashMap<>();
+    private final Set<Consumer<Content>> newConsumers = ConcurrentHashMap.newKeySet();
+    private final List<HttpField> headers;
     private final HttpMethod httpMethod;
     private final String httpContent;
 
-    private final ScheduledFuture<?> future;
-    private @Nullable Content lastContent;
+    private @Nullable ScheduledFuture<?> future;
+    private int refresh;
+    private volatile @Nullable Content lastContent;
+    private volatile @Nullable URI lastUri;
+
+    /**
+     * A thing using the cache
+     */
+    private static class Subscriber {
+        private final RateLimitedHttpClient httpClient;
+        private final int refresh;
+        private final Set<Consumer<Content>> consumers = ConcurrentHashMap.newKeySet();
+
+        private Subscriber(RateLimitedHttpClient httpClient, int refresh) {
+            this.httpClient = httpClient;
+            this.refresh = refresh;
+        }
+    }
 
-    public RefreshingUrlCache(ScheduledExecutorService executor, RateLimitedHttpClient httpClient, String url,
-            HttpThingConfig thingConfig, String httpContent) {
-        this.httpClient = httpClient;
+    /**
+     * Create a new cache. It starts refreshing when the first subscriber is added.
+     *
+     * @param executor the executor for the refresh task
+     * @param url the URL (may contain a date format)
+     * @param thingConfig the configuration of the first thing using the cache
+     * @param headers the parsed headers to add to each request
+     * @param httpContent the content of the request (if method PUT/POST)
+     */
+    public RefreshingUrlCache(ScheduledExecutorService executor, String url, HttpThingConfig thingConfig,
+            List<HttpField> headers, String httpContent) {
+        this.executor = executor;
         this.url = url;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
-        this.headers = thingConfig.headers;
+        this.headers = List.copyOf(headers);
         this.httpMethod = thingConfig.stateMethod;
         this.httpContent = httpContent;
         fallbackEncoding = thingConfig.encoding;
+    }
 
-        future = executor.scheduleWithFixedDelay(this::refresh, 1, thingConfig.refresh, TimeUnit.SECONDS);
-        logger.trace("Started refresh task for URL '{}' with interval {}s", url, thingConfig.refresh);
+    /**
+     * Add a subscriber. The requests are sent through the client of the oldest subscriber.
+     *
+     * @param owner the subscriber, usually a thing handler
+     * @param httpClient the rate limited client of the subscriber
+     * @param refresh the refresh interval of the subscriber in s
+     */
+    public synchronized void subscribe(Object owner, RateLimitedHttpClient httpClient, int refresh) {
+        subscribers.computeIfAbsent(owner, o -> new Subscriber(httpClient, refresh));
+        reschedule();
+    }
+
+    /**
+     * Remove a subscriber and all its consumers
+     *
+     * @param owner the subscriber
+     * @return true if no subscribers are left and the cache was stopped
+     */
+    public synchronized boolean unsubscribe(Object owner) {
+        Subscriber subscriber = subscribers.remove(owner);
+        if (subscriber != null) {
+            newConsumers.removeAll(subscriber.consumers);
+            if (subscribers.isEmpty()) {
+                stop();
+            } else {
+                reschedule();
+            }
+        }
+        return subscribers.isEmpty();
+    }
+
+    private void reschedule() {
+        int newRefresh = subscribers.values().stream().mapToInt(subscriber -> subscriber.refresh).min().orElse(0);
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            if (newRefresh == refresh) {
+                return;
+            }
+            future.cancel(false);
+        }
+        refresh = newRefresh;
+        this.future = executor.scheduleWithFixedDelay(this::refresh, 1, newRefresh, TimeUnit.SECONDS);
+        logger.trace("Started refresh task for URL '{}' with interval {}s", url, newRefresh);
     }
 
     private void refresh() {
@@ -80,9 +158,13 @@ public class RefreshingUrlCache {
     }
 
     private void refresh(boolean isRetry) {
-        if (consumers.isEmpty()) {
-            // do not refresh if we don't have listeners
-            return;
+        RateLimitedHttpClient httpClient;
+        synchronized (this) {
+            if (subscribers.values().stream().allMatch(subscriber -> subscriber.consumers.isEmpty())) {
+                // do not refresh if we don't have listeners
+                return;
+            }
+            httpClient = subscribers.values().iterator().next().httpClient;
         }
 
         // format URL
@@ -93,14 +175,20 @@ public class RefreshingUrlCache {
             httpClient.newRequest(uri, httpMethod, httpContent).thenAccept(request -> {
                 request.timeout(timeout, TimeUnit.MILLISECONDS);
 
-                headers.forEach(header -> {
-                    String[] keyValuePair = header.split("=", 2);
-                    if (keyValuePair.length == 2) {
-                        request.header(keyValuePair[0].trim(), keyValuePair[1].trim());
-                    } else {
-                        logger.warn("Splitting header '{}' failed. No '=' was found. Ignoring", header);
+                headers.forEach(header -> request.header(header.getName(), header.getValue()));
+
+                // only ask for changes of the same resource, the URL may contain a date
+                Content cachedContent = httpMethod == HttpMethod.GET && uri.equals(lastUri) ? lastContent : null;
+                if (cachedContent != null) {
+                    String etag = cachedContent.getETag();
+                    if (etag != null) {
+                        request.header(HttpHeader.IF_NONE_MATCH, etag);
+                    }
+                    String lastModified = cachedContent.getLastModified();
+                    if (lastModified != null) {
+                        request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
                     }
-                });
+                }
 
                 CompletableFuture<@Nullable Content> response = new CompletableFuture<>();
                 response.exceptionally(e -> {
@@ -120,13 +208,13 @@ public class RefreshingUrlCache {
                         }
                     }
                     return null;
-                }).thenAccept(this::processResult);
+                }).thenAccept(content -> processResult(uri, content));
 
                 if (logger.isTraceEnabled()) {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
-                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize));
+                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize, cachedContent));
             }).exceptionally(e -> {
                 if (e instanceof CancellationException) {
                     logger.debug("Request to URL {} was cancelled by thing handler.", uri);
@@ -140,15 +228,45 @@ public class RefreshingUrlCache {
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         // clearing all listeners to prevent further updates
-        consumers.clear();
-        future.cancel(false);
+        subscribers.clear();
+        newConsumers.clear();
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
         logger.trace("Stopped refresh task for URL '{}'", url);
     }
 
-    public void addConsumer(Consumer<Content> consumer) {
-        consumers.add(consumer);
+    /**
+     * Add a consumer for the content. It receives the next content even if it did not change.
+     *
+     * @param owner the subscriber the consumer belongs to
+     * @param consumer the consumer
+     */
+    public synchronized void addConsumer(Object owner, Consumer<Content> consumer) {
+        Subscriber subscriber = subscribers.get(owner);
+        if (subscriber == null) {
+            throw new IllegalStateException("Consumers can only be added by subscribers");
+        }
+        subscriber.consumers.add(consumer);
+        newConsumers.add(consumer);
+    }
+
+    /**
+     * Pass the next content to a consumer even if it did not change, for example because a command was sent and the
+     * state of the channel may differ from the content now.
+     *
+     * @param owner the subscriber the consumer belongs to
+     * @param consumer a consumer added before
+     */
+    public synchronized void processNextContent(Object owner, Consumer<Content> consumer) {
+        Subscriber subscriber = subscribers.get(owner);
+        if (subscriber != null && subscriber.consumers.contains(consumer)) {
+            newConsumers.add(consumer);
+        }
     }
 
     public Optional<Content> get() {
@@ -160,8 +278,27 @@ public class RefreshingUrlCache {
         }
     }
 
-    private void processResult(@Nullable Content content) {
+    // package-private for tests
+    void processResult(URI uri, @Nullable Content content) {
+        Content previousContent = lastContent;
+        boolean unchanged = content == previousContent
+                || (uri.equals(lastUri) && content != null && content.isSameAs(previousContent));
+        lastContent = content;
+        lastUri = uri;
         if (content != null) {
+            List<Consumer<Content>> consumers = new ArrayList<>();
+            synchronized (this) {
+                if (unchanged) {
+                    consumers.addAll(newConsumers);
+                } else {
+                    subscribers.values().forEach(subscriber -> consumers.addAll(subscriber.consumers));
+                }
+                newConsumers.clear();
+            }
+            if (unchanged) {
+                logger.trace("Content of '{}' did not change, processing it only for {} new channels", uri,
+                        consumers.size());
+            }
             for (Consumer<Content> consumer : consumers) {
                 try {
                     consumer.accept(content);
@@ -170,6 +307,5 @@ public class RefreshingUrlCache {
                 }
             }
         }
-        lastContent = content;
     }
 }
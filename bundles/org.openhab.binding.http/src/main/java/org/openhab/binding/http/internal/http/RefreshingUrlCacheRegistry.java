@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.http.HttpField;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} holds the {@link RefreshingUrlCache}s of all things, so that things requesting
+ * the same URL with the same method, content, headers and client settings share one cache and one refresh task
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Map<List<Object>, RefreshingUrlCache> caches = new HashMap<>();
+
+    /**
+     * Subscribe to the cache for a URL, creating the cache if necessary
+     *
+     * @param owner the subscriber, usually a thing handler
+     * @param executor the executor for the refresh task if a new cache is created
+     * @param httpClient the rate limited client of the subscriber
+     * @param url the URL (may contain a date format)
+     * @param thingConfig the configuration of the subscriber
+     * @param headers the parsed headers of the subscriber
+     * @param httpContent the content of the request (if method PUT/POST)
+     * @return the cache the subscriber can add its consumers to
+     */
+    public synchronized RefreshingUrlCache subscribe(Object owner, ScheduledExecutorService executor,
+            RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig, List<HttpField> headers,
+            String httpContent) {
+        String encoding = thingConfig.encoding;
+        List<Object> key = List.of(url, thingConfig.stateMethod, httpContent,
+                headers.stream().map(HttpField::toString).collect(Collectors.toList()), thingConfig.timeout,
+                thingConfig.bufferSize, encoding != null ? encoding : "",
+                thingConfig.ignoreSSLErrors, thingConfig.username, thingConfig.password, thingConfig.authMode);
+        RefreshingUrlCache cache = caches.computeIfAbsent(key,
+                k -> new RefreshingUrlCache(executor, url, thingConfig, headers, httpContent));
+        cache.subscribe(owner, httpClient, thingConfig.refresh);
+        return cache;
+    }
+
+    /**
+     * Unsubscribe from all caches, stopping the caches without subscribers
+     *
+     * @param owner the subscriber
+     */
+    public synchronized void unsubscribe(Object owner) {
+        caches.values().removeIf(cache -> cache.unsubscribe(owner));
+    }
+
+    /**
+     * Stop all caches
+     */
+    public synchronized void stop() {
+        caches.values().forEach(RefreshingUrlCache::stop);
+        caches.clear();
+    }
+
+    /**
+     * Get the number of caches, i.e. the number of distinct requests refreshed
+     *
+     * @return the number of caches
+     */
+    public synchronized int size() {
+        return caches.size();
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpMethod;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.http.internal.http.RateLimitedHttpClient.Priority;
+
+/**
+ * The {@link RateLimitedHttpClientTest} is a test class for the request scheduling of the rate limited client
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RateLimitedHttpClientTest {
+    private static final URI HOST_A = URI.create("http://a.example.org/state");
+    private static final URI HOST_B = URI.create("http://b.example.org/state");
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final HttpClient httpClient = mock(HttpClient.class);
+    private final List<Runnable> scheduledJobs = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        Request request = mock(Request.class);
+        when(request.method(any(HttpMethod.class))).thenReturn(request);
+        when(httpClient.newRequest(any(URI.class))).thenReturn(request);
+        when(scheduler.schedule(any(Runnable.class), anyLong(), any())).thenAnswer(invocation -> {
+            scheduledJobs.add(invocation.getArgument(0));
+            return mock(ScheduledFuture.class);
+        });
+    }
+
+    private void runScheduledJobs() {
+        List<Runnable> jobs = new ArrayList<>(scheduledJobs);
+        scheduledJobs.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+    @Test
+    public void noDelayCompletesImmediately() {
+        RateLimitedHttpClient client = new RateLimitedHttpClient(httpClient, scheduler);
+        assertTrue(client.newRequest(HOST_A, HttpMethod.GET, "").isDone());
+        verifyNoInteractions(scheduler);
+    }
+
+    @Test
+    public void hostsAreLimitedSeparatelyAndCommandsGoFirst() {
+        RateLimitedHttpClient client = new RateLimitedHttpClient(httpClient, scheduler);
+        client.setDelay(1000);
+
+        CompletableFuture<Request> firstRefresh = client.newRequest(HOST_A, HttpMethod.GET, "");
+        CompletableFuture<Request> secondRefresh = client.newRequest(HOST_A, HttpMethod.GET, "");
+        CompletableFuture<Request> command = client.newRequest(HOST_A, HttpMethod.GET, "", Priority.COMMAND);
+        CompletableFuture<Request> otherHost = client.newRequest(HOST_B, HttpMethod.GET, "");
+        assertEquals(4, client.getQueueSize());
+
+        runScheduledJobs();
+        // one request per host, the command first
+        assertTrue(command.isDone());
+        assertTrue(otherHost.isDone());
+        assertFalse(firstRefresh.isDone());
+        assertFalse(secondRefresh.isDone());
+        assertEquals(2, client.getSentCount());
+        assertEquals(2, client.getQueueSize());
+        // the next request to host A is scheduled after the delay
+        verify(scheduler, atLeastOnce()).schedule(any(Runnable.class), longThat(delay -> delay > 0), any());
+
+        client.shutdown();
+        assertTrue(firstRefresh.isCompletedExceptionally());
+        assertTrue(secondRefresh.isCompletedExceptionally());
+    }
+
+    @Test
+    public void commandsReplaceRefreshesInFullQueue() {
+        RateLimitedHttpClient client = new RateLimitedHttpClient(httpClient, scheduler);
+        client.setDelay(1000);
+
+        List<CompletableFuture<Request>> refreshes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            refreshes.add(client.newRequest(HOST_A, HttpMethod.GET, ""));
+        }
+        assertTrue(client.newRequest(HOST_A, HttpMethod.GET, "").isCompletedExceptionally());
+
+        CompletableFuture<Request> command = client.newRequest(HOST_A, HttpMethod.GET, "", Priority.COMMAND);
+        assertFalse(command.isDone());
+        assertTrue(refreshes.get(999).isCompletedExceptionally());
+        assertEquals(2, client.getRejectedCount());
+
+        // requests to another host are not affected
+        assertFalse(client.newRequest(HOST_B, HttpMethod.GET, "").isDone());
+        assertEquals(1001, client.getQueueSize());
+    }
+}
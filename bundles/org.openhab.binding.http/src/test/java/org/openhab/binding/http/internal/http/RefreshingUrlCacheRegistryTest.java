@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.http.HttpField;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.http.internal.config.HttpAuthMode;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+/**
+ * The {@link RefreshingUrlCacheRegistryTest} is a test class for sharing URL caches between things
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistryTest {
+    private static final String URL = "http://example.org/state";
+
+    private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+    private final RateLimitedHttpClient httpClient = mock(RateLimitedHttpClient.class);
+
+    @Test
+    public void identicalRequestsShareACache() {
+        doReturn(future).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        RefreshingUrlCacheRegistry registry = new RefreshingUrlCacheRegistry();
+        List<HttpField> headers = List.of(new HttpField("X-Api-Key", "secret"));
+        HttpThingConfig firstConfig = new HttpThingConfig();
+        HttpThingConfig secondConfig = new HttpThingConfig();
+        secondConfig.refresh = 10;
+
+        RefreshingUrlCache first = registry.subscribe("first", executor, httpClient, URL, firstConfig, headers, "");
+        RefreshingUrlCache second = registry.subscribe("second", executor, httpClient, URL, secondConfig,
+                List.of(new HttpField("X-Api-Key", "secret")), "");
+        assertSame(first, second);
+        assertEquals(1, registry.size());
+        // the shorter refresh interval is used
+        verify(executor).scheduleWithFixedDelay(any(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+        verify(executor).scheduleWithFixedDelay(any(), eq(1L), eq(10L), eq(TimeUnit.SECONDS));
+
+        registry.subscribe("third", executor, httpClient, URL, firstConfig, List.of(), "");
+        registry.subscribe("fourth", executor, httpClient, URL, firstConfig, headers, "content");
+        assertEquals(3, registry.size());
+
+        // the credentials are part of the request
+        HttpThingConfig passwordConfig = new HttpThingConfig();
+        passwordConfig.password = "password";
+        HttpThingConfig authModeConfig = new HttpThingConfig();
+        authModeConfig.authMode = HttpAuthMode.DIGEST;
+        assertNotSame(first, registry.subscribe("fifth", executor, httpClient, URL, passwordConfig, headers, ""));
+        assertNotSame(first, registry.subscribe("sixth", executor, httpClient, URL, authModeConfig, headers, ""));
+        assertEquals(5, registry.size());
+    }
+
+    @Test
+    public void cacheIsStoppedWhenLastSubscriberIsRemoved() {
+        doReturn(future).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        RefreshingUrlCacheRegistry registry = new RefreshingUrlCacheRegistry();
+        HttpThingConfig config = new HttpThingConfig();
+        registry.subscribe("first", executor, httpClient, URL, config, List.of(), "");
+        registry.subscribe("second", executor, httpClient, URL, config, List.of(), "");
+
+        registry.unsubscribe("first");
+        assertEquals(1, registry.size());
+        verify(future, never()).cancel(anyBoolean());
+
+        registry.unsubscribe("second");
+        assertEquals(0, registry.size());
+        verify(future).cancel(false);
+    }
+
+    @Test
+    public void unchangedContentIsOnlyPassedToNewConsumers() throws URISyntaxException {
+        doReturn(future).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        RefreshingUrlCache cache = new RefreshingUrlCache(executor, URL, new HttpThingConfig(), List.of(), "");
+        cache.subscribe("thing", httpClient, 30);
+        List<Content> firstReceived = new ArrayList<>();
+        List<Content> secondReceived = new ArrayList<>();
+        URI uri = new URI(URL);
+        byte[] body = "{\"value\":1}".getBytes(StandardCharsets.UTF_8);
+        Content content = new Content(body, "UTF-8", "application/json", "\"1\"", null);
+
+        cache.addConsumer("thing", firstReceived::add);
+        cache.processResult(uri, content);
+        assertEquals(1, firstReceived.size());
+
+        // not modified (304), the cached content is passed again
+        cache.addConsumer("thing", secondReceived::add);
+        cache.processResult(uri, content);
+        assertEquals(1, firstReceived.size());
+        assertEquals(1, secondReceived.size());
+
+        // unchanged body
+        cache.processResult(uri, new Content(body.clone(), "UTF-8", "application/json"));
+        assertEquals(1, firstReceived.size());
+        assertEquals(1, secondReceived.size());
+
+        cache.processResult(uri,
+                new Content("{\"value\":2}".getBytes(StandardCharsets.UTF_8), "UTF-8", "application/json"));
+        assertEquals(2, firstReceived.size());
+        assertEquals(2, secondReceived.size());
+    }
+
+    @Test
+    public void unchangedContentIsPassedAgainAfterCommand() throws URISyntaxException {
+        doReturn(future).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        RefreshingUrlCache cache = new RefreshingUrlCache(executor, URL, new HttpThingConfig(), List.of(), "");
+        cache.subscribe("thing", httpClient, 30);
+        List<Content> commanded = new ArrayList<>();
+        List<Content> other = new ArrayList<>();
+        Consumer<Content> commandedConsumer = commanded::add;
+        URI uri = new URI(URL);
+        Content content = new Content("{\"value\":1}".getBytes(StandardCharsets.UTF_8), "UTF-8", "application/json");
+
+        cache.addConsumer("thing", commandedConsumer);
+        cache.addConsumer("thing", other::add);
+        cache.processResult(uri, content);
+        cache.processNextContent("thing", commandedConsumer);
+        cache.processResult(uri, content);
+        assertEquals(2, commanded.size());
+        assertEquals(1, other.size());
+
+        // only once
+        cache.processResult(uri, content);
+        assertEquals(2, commanded.size());
+
+        // consumers of other subscribers are ignored
+        cache.processNextContent("other", commandedConsumer);
+        cache.processResult(uri, content);
+        assertEquals(2, commanded.size());
+    }
+
+    @Test
+    public void contentComparison() {
+        byte[] body = "{\"value\":1}".getBytes(StandardCharsets.UTF_8);
+        Content content = new Content(body, "UTF-8", "application/json", "\"1\"", null);
+        assertTrue(content.isSameAs(new Content(body.clone(), "UTF-8", "application/json")));
+        assertFalse(content.isSameAs(new Content(body, "UTF-8", "text/plain")));
+        assertFalse(content.isSameAs(
+                new Content("{\"value\":2}".getBytes(StandardCharsets.UTF_8), "UTF-8", "application/json")));
+        assertFalse(content.isSameAs(null));
+    }
+}
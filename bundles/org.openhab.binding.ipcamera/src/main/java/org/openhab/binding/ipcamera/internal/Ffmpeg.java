@@ -21,14 +21,15 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.handler.IpCameraHandler;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.slf4j.Logger;
@@ -37,12 +38,20 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link Ffmpeg} class is responsible for handling multiple ffmpeg conversions which are used for many tasks
  *
+ * The long running conversions (HLS, MJPEG, snapshots and alarms) are supervised. If FFmpeg exits without being asked
+ * to, or stops delivering frames, it is restarted with an increasing delay so a camera which is offline does not keep
+ * the CPU busy with starting FFmpeg over and over.
  *
  * @author Matthew Skinner - Initial contribution
  */
 
 @NonNullByDefault
 public class Ffmpeg {
+    private static final ScheduledExecutorService SCHEDULER = ThreadPoolManager.getScheduledPool("ipcamera");
+    private static final long MIN_RESTART_DELAY_MS = 1000;
+    private static final long MAX_RESTART_DELAY_MS = 60000;
+    // longest time a running FFmpeg may go without delivering a frame before it is restarted
+    private static final long FRAME_TIMEOUT_MS = 60000;
     private final Logger logger = LoggerFactory.getLogger(getClass());
     private IpCameraHandler ipCameraHandler;
     private @Nullable Process process = null;
@@ -52,6 +61,15 @@ public class Ffmpeg {
     private IpCameraFfmpegThread ipCameraFfmpegThread = new IpCameraFfmpegThread();
     private int keepAlive = 8;
     private String password;
+    // true from startConverting() until stopConverting(), even while waiting to be restarted
+    private volatile boolean running = false;
+    private volatile long startTime = 0;
+    private volatile long lastFrameTime = 0;
+    private volatile long frameInterval = 0;
+    private long restartDelay = MIN_RESTART_DELAY_MS;
+    // true once a failure was logged as a warning, further failures are logged at debug level until FFmpeg runs fine
+    private volatile boolean failing = false;
+    private @Nullable ScheduledFuture<?> restartJob;
 
     public Ffmpeg(IpCameraHandler handle, FFmpegFormat format, String ffmpegLocation, String inputArguments,
             String input, String outArguments, String output, String username, String password) {
@@ -96,7 +114,6 @@ public class Ffmpeg {
     }
 
     private class IpCameraFfmpegThread extends Thread {
-        private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(2);
         public int countOfMotions;
 
         IpCameraFfmpegThread() {
@@ -118,6 +135,10 @@ public class Ffmpeg {
 
         @Override
         public void run() {
+            startTime = System.nanoTime();
+            // the interval of the previous process does not tell anything about this one
+            lastFrameTime = 0;
+            frameInterval = 0;
             try {
                 process = Runtime.getRuntime().exec(commandArrayList.toArray(new String[commandArrayList.size()]));
                 Process localProcess = process;
@@ -171,16 +192,23 @@ public class Ffmpeg {
                     }
                 }
             } catch (IOException e) {
-                logger.warn("An error occured trying to process the messages from FFmpeg.");
+                if (failing) {
+                    logger.debug("An error occured trying to process the messages from FFmpeg: {}", e.getMessage());
+                } else {
+                    logger.warn("An error occured trying to process the messages from FFmpeg: {}", e.getMessage());
+                }
             } finally {
                 switch (format) {
                     case GIF:
-                        threadPool.schedule(this::gifCreated, 800, TimeUnit.MILLISECONDS);
+                        SCHEDULER.schedule(this::gifCreated, 800, TimeUnit.MILLISECONDS);
                         break;
                     case RECORD:
-                        threadPool.schedule(this::mp4Created, 800, TimeUnit.MILLISECONDS);
+                        SCHEDULER.schedule(this::mp4Created, 800, TimeUnit.MILLISECONDS);
                         break;
                     default:
+                        if (running) {
+                            scheduleRestart();
+                        }
                         break;
                 }
             }
@@ -188,6 +216,15 @@ public class Ffmpeg {
     }
 
     public void startConverting() {
+        running = true;
+        failing = false;
+        startThread();
+        if (keepAlive != -1) {
+            keepAlive = 8;
+        }
+    }
+
+    private synchronized void startThread() {
         if (!ipCameraFfmpegThread.isAlive()) {
             ipCameraFfmpegThread = new IpCameraFfmpegThread();
             logger.debug("Starting ffmpeg with this command now:{}", ffmpegCommand.replaceAll(password, "********"));
@@ -196,11 +233,79 @@ public class Ffmpeg {
                 ipCameraHandler.setChannelState(CHANNEL_START_STREAM, OnOffType.ON);
             }
         }
-        if (keepAlive != -1) {
-            keepAlive = 8;
+    }
+
+    private synchronized void scheduleRestart() {
+        if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) > MAX_RESTART_DELAY_MS) {
+            // it ran fine for a while, so this is not a camera that keeps failing
+            restartDelay = MIN_RESTART_DELAY_MS;
+            failing = false;
+        }
+        if (failing) {
+            logger.debug("FFmpeg {} stopped unexpectedly, restarting it in {}ms.", format, restartDelay);
+        } else {
+            logger.warn("FFmpeg {} stopped unexpectedly, restarting it in {}ms.", format, restartDelay);
+            failing = true;
+        }
+        ipCameraHandler.ffmpegRestarted();
+        restartJob = SCHEDULER.schedule(this::restart, restartDelay, TimeUnit.MILLISECONDS);
+        restartDelay = Math.min(restartDelay * 2, MAX_RESTART_DELAY_MS);
+    }
+
+    private void restart() {
+        if (running) {
+            startThread();
         }
     }
 
+    /**
+     * Must be called each time FFmpeg delivers a frame, so a FFmpeg that hangs can be found and restarted.
+     */
+    public void frameReceived() {
+        long now = System.nanoTime();
+        long last = lastFrameTime;
+        if (last != 0) {
+            frameInterval = TimeUnit.NANOSECONDS.toMillis(now - last);
+        }
+        lastFrameTime = now;
+    }
+
+    /**
+     * @return the time in ms between the last two frames FFmpeg delivered, or the time since the last frame if that is
+     *         longer, so a FFmpeg that hangs shows up. 0 until the first two frames were delivered.
+     */
+    public long getFrameInterval() {
+        long last = lastFrameTime;
+        if (last == 0) {
+            return frameInterval;
+        }
+        return Math.max(frameInterval, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - last));
+    }
+
+    /**
+     * Restarts FFmpeg if it is running but did not deliver a frame for too long. Call regularly for the formats which
+     * deliver frames.
+     */
+    public void checkFrames() {
+        Process localProcess = process;
+        if (!running || localProcess == null || !localProcess.isAlive()) {
+            return;
+        }
+        long lastActivity = Math.max(lastFrameTime, startTime);
+        if (TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity) > FRAME_TIMEOUT_MS) {
+            logger.warn("FFmpeg {} has not delivered a frame for {}ms, restarting it.", format, FRAME_TIMEOUT_MS);
+            // the supervision restarts it once the process ended
+            localProcess.destroyForcibly();
+        }
+    }
+
+    /**
+     * @return true if FFmpeg was started and not stopped yet, even if it is currently waiting to be restarted.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
     public boolean getIsAlive() {
         Process localProcess = process;
         if (localProcess != null) {
@@ -210,6 +315,14 @@ public class Ffmpeg {
     }
 
     public void stopConverting() {
+        running = false;
+        synchronized (this) {
+            ScheduledFuture<?> localRestartJob = restartJob;
+            if (localRestartJob != null) {
+                localRestartJob.cancel(false);
+                restartJob = null;
+            }
+        }
         if (ipCameraFfmpegThread.isAlive()) {
             logger.debug("Stopping ffmpeg {} now when keepalive is:{}", format, keepAlive);
             Process localProcess = process;
@@ -87,6 +87,8 @@ public class IpCameraBindingConstants {
     public static final String CHANNEL_MP4_PREROLL = "mp4Preroll";
     public static final String CHANNEL_MP4_HISTORY = "mp4History";
     public static final String CHANNEL_MP4_HISTORY_LENGTH = "mp4HistoryLength";
+    public static final String CHANNEL_FFMPEG_RESTARTS = "ffmpegRestarts";
+    public static final String CHANNEL_FFMPEG_FRAME_INTERVAL = "ffmpegFrameInterval";
     public static final String CHANNEL_IMAGE = "image";
     public static final String CHANNEL_RTSP_URL = "rtspUrl";
     public static final String CHANNEL_IMAGE_URL = "imageUrl";
@@ -35,6 +35,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -152,6 +153,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private String mp4History = "";
     public int gifHistoryLength;
     public int mp4HistoryLength;
+    private final AtomicInteger ffmpegRestarts = new AtomicInteger();
+    private long lastTappedSnapshot = 0;
     private String mp4Filename = "ipcamera";
     private int mp4RecordTime;
     private int gifRecordTime = 5;
@@ -262,11 +265,10 @@ public class IpCameraHandler extends BaseThingHandler {
                     if (mjpegUri.equals(requestUrl)) {
                         // multiple MJPEG stream packets come back as this.
                         HttpContent content = (HttpContent) msg;
-                        byte[] chunkedFrame = new byte[content.content().readableBytes()];
-                        content.content().getBytes(content.content().readerIndex(), chunkedFrame);
                         CameraServlet localServlet = servlet;
                         if (localServlet != null) {
-                            localServlet.openStreams.queueFrame(chunkedFrame);
+                            // the streams share the received buffer instead of a copy
+                            localServlet.openStreams.queueStreamData(content.content().retainedDuplicate());
                         }
                     } else {
                         HttpContent content = (HttpContent) msg;
@@ -675,6 +677,48 @@ public class IpCameraHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Handles a frame FFmpeg created for the ipcamera.mjpeg stream. While FFmpeg is needed for both the stream and the
+     * snapshots, the snapshots are taken from the stream, instead of decoding the camera's stream twice.
+     */
+    public void processFfmpegMjpegFrame(byte[] frame) {
+        Ffmpeg localMjpeg = ffmpegMjpeg;
+        if (localMjpeg != null) {
+            localMjpeg.frameReceived();
+        }
+        if (ffmpegSnapshotGeneration) {
+            long now = System.nanoTime();
+            // one snapshot a second, as when FFmpeg creates them, which the GIF preroll depends on
+            if (now - lastTappedSnapshot >= TimeUnit.SECONDS.toNanos(1)) {
+                lastTappedSnapshot = now;
+                processSnapshot(frame);
+            }
+        }
+    }
+
+    /**
+     * Handles a snapshot FFmpeg created from the camera's stream.
+     */
+    public void processFfmpegSnapshot(byte[] snapshot) {
+        Ffmpeg localSnaps = ffmpegSnapshot;
+        if (localSnaps != null) {
+            localSnaps.frameReceived();
+        }
+        processSnapshot(snapshot);
+    }
+
+    /**
+     * Called by a supervised FFmpeg each time it has to be restarted.
+     */
+    public void ffmpegRestarted() {
+        setChannelState(CHANNEL_FFMPEG_RESTARTS, new DecimalType(ffmpegRestarts.incrementAndGet()));
+    }
+
+    private boolean isFfmpegMjpegRunning() {
+        Ffmpeg localMjpeg = ffmpegMjpeg;
+        return localMjpeg != null && localMjpeg.isRunning();
+    }
+
     public void startStreamServer() {
         if (servlet == null) {
             servlet = new CameraServlet(this, httpService);
@@ -923,9 +967,18 @@ public class IpCameraHandler extends BaseThingHandler {
                 Ffmpeg localMjpeg = ffmpegMjpeg;
                 if (localMjpeg != null) {
                     localMjpeg.startConverting();
+                    Ffmpeg localSnapshot = ffmpegSnapshot;
+                    if (ffmpegSnapshotGeneration && localSnapshot != null) {
+                        logger.debug("Snapshots are now taken from the MJPEG stream created by FFmpeg.");
+                        localSnapshot.stopConverting();
+                    }
                 }
                 break;
             case SNAPSHOT:
+                if (isFfmpegMjpegRunning()) {
+                    // snapshots are taken from the MJPEG stream, see processFfmpegMjpegFrame
+                    break;
+                }
                 // if mjpeg stream you can use 'ffmpeg -i input -codec:v copy -bsf:v mjpeg2jpeg output.jpg'
                 if (ffmpegSnapshot == null) {
                     if (inputOptions.isEmpty()) {
@@ -1168,8 +1221,9 @@ public class IpCameraHandler extends BaseThingHandler {
                         Ffmpeg localSnaps = ffmpegSnapshot;
                         if (localSnaps != null) {
                             localSnaps.stopConverting();
-                            ffmpegSnapshotGeneration = false;
                         }
+                        // also stops taking snapshots from the MJPEG stream
+                        ffmpegSnapshotGeneration = false;
                         updateImageChannel = false;
                     }
                     return;
@@ -1544,12 +1598,30 @@ public class IpCameraHandler extends BaseThingHandler {
         if (localHLS != null) {
             localHLS.checkKeepAlive();
         }
+        checkFfmpegFrames();
         if (openChannels.size() > 18) {
             logger.debug("There are {} open Channels being tracked.", openChannels.size());
             cleanChannels();
         }
     }
 
+    /**
+     * Restarts the FFmpeg creating frames if it hangs and updates the time between its frames.
+     */
+    private void checkFfmpegFrames() {
+        Ffmpeg localMjpeg = ffmpegMjpeg;
+        if (localMjpeg != null && localMjpeg.isRunning()) {
+            localMjpeg.checkFrames();
+            setChannelState(CHANNEL_FFMPEG_FRAME_INTERVAL, new DecimalType(localMjpeg.getFrameInterval()));
+            return;
+        }
+        Ffmpeg localSnaps = ffmpegSnapshot;
+        if (localSnaps != null && localSnaps.isRunning()) {
+            localSnaps.checkFrames();
+            setChannelState(CHANNEL_FFMPEG_FRAME_INTERVAL, new DecimalType(localSnaps.getFrameInterval()));
+        }
+    }
+
     @Override
     public void initialize() {
         cameraConfig = getConfigAs(CameraConfig.class);
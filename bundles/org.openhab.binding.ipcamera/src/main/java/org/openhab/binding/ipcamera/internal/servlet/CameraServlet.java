@@ -60,12 +60,14 @@ public class CameraServlet extends IpCameraServlet {
             case "/ipcamera.jpg":
                 // ffmpeg sends data here for ipcamera.mjpeg streams when camera has no native stream.
                 ServletInputStream snapshotData = req.getInputStream();
-                openStreams.queueFrame(snapshotData.readAllBytes());
+                byte[] frame = snapshotData.readAllBytes();
+                openStreams.queueFrame(frame);
+                handler.processFfmpegMjpegFrame(frame);
                 snapshotData.close();
                 break;
             case "/snapshot.jpg":
                 snapshotData = req.getInputStream();
-                handler.processSnapshot(snapshotData.readAllBytes());
+                handler.processFfmpegSnapshot(snapshotData.readAllBytes());
                 snapshotData.close();
                 break;
             case "/OnvifEvent":
@@ -174,6 +176,10 @@ public class CameraServlet extends IpCameraServlet {
                                 if (localMjpeg != null) {
                                     localMjpeg.stopConverting();
                                 }
+                                if (handler.ffmpegSnapshotGeneration) {
+                                    // snapshots were taken from the stream, so FFmpeg needs to create them again
+                                    handler.setupFfmpegFormat(FFmpegFormat.SNAPSHOT);
+                                }
                             } else {
                                 handler.closeChannel(handler.getTinyUrl(handler.mjpegUri));
                             }
@@ -236,7 +242,7 @@ public class CameraServlet extends IpCameraServlet {
 
     @Override
     public void dispose() {
-        openStreams.closeAllStreams();
+        openStreams.dispose();
         super.dispose();
     }
 }
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.servlet;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * The {@link FrameRingBuffer} holds the last frames of a camera stream as reference counted buffers, so all viewers
+ * share the same frames without copying them. Each viewer reads with its own {@link Cursor}. A viewer which is too slow
+ * to keep up skips the frames which were overwritten in the meantime and continues with the oldest frame left, so each
+ * published buffer has to be a whole frame.
+ *
+ * @author agent - Initial contribution
+ */
+
+@NonNullByDefault
+public class FrameRingBuffer {
+    private final @Nullable ByteBuf[] frames;
+    // sequence number of the next frame to be published
+    private long nextSequence = 0;
+    private long droppedFrames = 0;
+    private boolean closed = false;
+
+    /**
+     * A reading position of a single viewer
+     */
+    public class Cursor {
+        private long sequence;
+
+        private Cursor() {
+            // start with the next frame, so the viewer does not get outdated frames
+            sequence = nextSequence;
+        }
+
+        /**
+         * Return the next frame, waiting if the viewer has seen all frames.
+         *
+         * @param timeoutMs the longest time to wait for a frame
+         * @return the next frame with a reference the caller has to release, or null if there was no frame in time or
+         *         the buffer was closed
+         */
+        public @Nullable ByteBuf next(long timeoutMs) throws InterruptedException {
+            synchronized (FrameRingBuffer.this) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                while (!closed && sequence >= nextSequence) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    FrameRingBuffer.this.wait(remaining);
+                }
+                if (closed) {
+                    return null;
+                }
+                long oldestSequence = Math.max(0, nextSequence - frames.length);
+                if (sequence < oldestSequence) {
+                    // drop the frames this viewer was too slow for
+                    droppedFrames += oldestSequence - sequence;
+                    sequence = oldestSequence;
+                }
+                ByteBuf frame = frames[index(sequence++)];
+                return frame != null ? frame.retainedDuplicate() : null;
+            }
+        }
+    }
+
+    /**
+     * @param capacity the number of frames to keep
+     */
+    public FrameRingBuffer(int capacity) {
+        frames = new ByteBuf[capacity];
+    }
+
+    /**
+     * Add a frame, replacing the oldest one. The buffer takes over the reference of the caller.
+     *
+     * @param frame the frame to add
+     */
+    public synchronized void publish(ByteBuf frame) {
+        if (closed) {
+            frame.release();
+            return;
+        }
+        int index = index(nextSequence);
+        ByteBuf oldest = frames[index];
+        if (oldest != null) {
+            oldest.release();
+        }
+        frames[index] = frame;
+        nextSequence++;
+        notifyAll();
+    }
+
+    /**
+     * Create a cursor which starts with the next frame published.
+     */
+    public synchronized Cursor newCursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Release all frames, for example when the last viewer stopped watching. Cursors continue with the next frame
+     * published.
+     */
+    public synchronized void clear() {
+        for (int i = 0; i < frames.length; i++) {
+            ByteBuf frame = frames[i];
+            if (frame != null) {
+                frame.release();
+                frames[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Release all frames and stop all cursors.
+     */
+    public synchronized void close() {
+        clear();
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Return the number of frames which were skipped by viewers that were too slow.
+     */
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % frames.length);
+    }
+}
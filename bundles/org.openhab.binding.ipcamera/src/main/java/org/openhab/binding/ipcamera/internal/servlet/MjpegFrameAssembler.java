@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.servlet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * The {@link MjpegFrameAssembler} joins the chunks of a multipart mjpeg stream from a camera into whole parts. Each
+ * part starts with the line of its boundary and holds the headers and the jpeg of one frame, so a viewer which skips
+ * parts still receives a valid stream. The data before the first boundary is dropped, so every viewer starts with a
+ * whole frame. The chunks are not copied, a part is a slice of the received buffers.
+ *
+ * This class is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+
+@NonNullByDefault
+public class MjpegFrameAssembler {
+    // a part which grows larger than this without a boundary is not a frame, but a broken stream
+    private static final int MAX_PART_SIZE = 8 * 1024 * 1024;
+    private static final int MAX_COMPONENTS = 1024;
+    private final Consumer<ByteBuf> partConsumer;
+    private CompositeByteBuf pending = Unpooled.compositeBuffer(MAX_COMPONENTS);
+    private byte @Nullable [] boundary;
+    // offset from the reader index where the search for the next boundary continues
+    private int searchOffset = 0;
+    private boolean partStarted = false;
+
+    /**
+     * @param partConsumer receives each whole part and takes over its reference
+     */
+    public MjpegFrameAssembler(Consumer<ByteBuf> partConsumer) {
+        this.partConsumer = partConsumer;
+    }
+
+    /**
+     * Start a new stream, dropping any incomplete part of the previous one.
+     *
+     * @param contentType the multipart content type of the stream, which holds the boundary
+     */
+    public void reset(String contentType) {
+        release();
+        String value = "";
+        int index = contentType.indexOf("boundary=");
+        if (index >= 0) {
+            value = contentType.substring(index + "boundary=".length());
+            int end = value.indexOf(';');
+            if (end >= 0) {
+                value = value.substring(0, end);
+            }
+            value = value.trim();
+            if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+        }
+        boundary = value.isEmpty() ? null : value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Add the next chunk of the stream. Takes over the reference of the caller.
+     */
+    public void add(ByteBuf chunk) {
+        byte[] localBoundary = boundary;
+        if (localBoundary == null) {
+            // without a boundary the parts can't be found, so pass the stream on as it is
+            partConsumer.accept(chunk);
+            return;
+        }
+        pending.addComponent(true, chunk);
+        int boundaryIndex;
+        while ((boundaryIndex = indexOf(localBoundary)) >= 0) {
+            int lineStart = lineStart(boundaryIndex);
+            int partLength = lineStart - pending.readerIndex();
+            if (partStarted && partLength > 0) {
+                partConsumer.accept(retainedPart(partLength));
+            }
+            partStarted = true;
+            searchOffset = boundaryIndex + localBoundary.length - lineStart;
+            pending.readerIndex(lineStart);
+            pending.discardReadComponents();
+        }
+        if (pending.readableBytes() > MAX_PART_SIZE) {
+            // drop the data, the next boundary starts a new part
+            release();
+        }
+    }
+
+    /**
+     * Release the incomplete part.
+     */
+    public void release() {
+        pending.release();
+        pending = Unpooled.compositeBuffer(MAX_COMPONENTS);
+        searchOffset = 0;
+        partStarted = false;
+    }
+
+    /**
+     * Return the next bytes as a buffer of its own, which stays valid when the read components are discarded.
+     */
+    private ByteBuf retainedPart(int length) {
+        List<ByteBuf> components = pending.decompose(pending.readerIndex(), length);
+        ByteBuf[] part = new ByteBuf[components.size()];
+        for (int i = 0; i < part.length; i++) {
+            part[i] = components.get(i).retain();
+        }
+        return Unpooled.wrappedBuffer(part);
+    }
+
+    /**
+     * Return the index of the boundary after the search offset, or -1 if the received data has no further boundary.
+     * The search offset is advanced, so no byte is searched twice.
+     */
+    private int indexOf(byte[] localBoundary) {
+        int from = pending.readerIndex() + searchOffset;
+        int last = pending.writerIndex() - localBoundary.length;
+        while (from <= last) {
+            int index = pending.indexOf(from, last + 1, localBoundary[0]);
+            if (index < 0) {
+                break;
+            }
+            if (matches(index, localBoundary)) {
+                return index;
+            }
+            from = index + 1;
+        }
+        searchOffset = Math.max(searchOffset, last + 1 - pending.readerIndex());
+        return -1;
+    }
+
+    private boolean matches(int index, byte[] localBoundary) {
+        for (int i = 1; i < localBoundary.length; i++) {
+            if (pending.getByte(index + i) != localBoundary[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the index where the line of the boundary starts, so the dashes in front of it belong to the new part.
+     */
+    private int lineStart(int boundaryIndex) {
+        int index = boundaryIndex;
+        while (index > pending.readerIndex() && pending.getByte(index - 1) != '\n') {
+            index--;
+        }
+        return index;
+    }
+}
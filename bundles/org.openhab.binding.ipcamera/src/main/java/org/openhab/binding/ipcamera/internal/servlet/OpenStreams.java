@@ -18,9 +18,14 @@ import java.util.List;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
 /**
- * The {@link OpenStreams} Keeps track of all open mjpeg streams so the byte[] can be given to all FIFO buffers to allow
- * 1 to many streams without needing to open more than 1 source stream.
+ * The {@link OpenStreams} Keeps track of all open mjpeg streams. The frames are put into a single
+ * {@link FrameRingBuffer} which all streams read from, to allow 1 to many streams without needing to open more than 1
+ * source stream or to copy the frames for each stream. The chunks of a stream from the camera are joined into whole
+ * frames first, so a viewer which is too slow skips whole frames only.
  *
  *
  * @author Matthew Skinner - Initial contribution
@@ -28,14 +33,23 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 
 @NonNullByDefault
 public class OpenStreams {
+    private static final int FRAME_BUFFER_SIZE = 16;
     private List<StreamOutput> openStreams = Collections.synchronizedList(new ArrayList<StreamOutput>());
+    private final FrameRingBuffer frames = new FrameRingBuffer(FRAME_BUFFER_SIZE);
+    private final MjpegFrameAssembler assembler = new MjpegFrameAssembler(this::queueFrame);
 
     public synchronized void addStream(StreamOutput stream) {
+        stream.setCursor(frames.newCursor());
         openStreams.add(stream);
     }
 
     public synchronized void removeStream(StreamOutput stream) {
         openStreams.remove(stream);
+        if (openStreams.isEmpty()) {
+            // no need to keep the frames in RAM
+            frames.clear();
+            assembler.release();
+        }
     }
 
     public synchronized int getNumberOfStreams() {
@@ -46,15 +60,40 @@ public class OpenStreams {
         return openStreams.isEmpty();
     }
 
+    /**
+     * Start a new stream from the camera.
+     */
     public synchronized void updateContentType(String contentType) {
+        assembler.reset(contentType);
         for (StreamOutput stream : openStreams) {
             stream.updateContentType(contentType);
         }
     }
 
-    public synchronized void queueFrame(byte[] frame) {
-        for (StreamOutput stream : openStreams) {
-            stream.queueFrame(frame);
+    public void queueFrame(byte[] frame) {
+        queueFrame(Unpooled.wrappedBuffer(frame));
+    }
+
+    /**
+     * Pass a frame to all streams. Takes over the reference of the caller.
+     */
+    public synchronized void queueFrame(ByteBuf frame) {
+        if (openStreams.isEmpty()) {
+            frame.release();
+        } else {
+            frames.publish(frame);
+        }
+    }
+
+    /**
+     * Pass the next chunk of the stream from the camera on, once its frames are complete. Takes over the reference of
+     * the caller.
+     */
+    public synchronized void queueStreamData(ByteBuf chunk) {
+        if (openStreams.isEmpty()) {
+            chunk.release();
+        } else {
+            assembler.add(chunk);
         }
     }
 
@@ -63,5 +102,15 @@ public class OpenStreams {
             stream.close();
         }
         openStreams.clear();
+        frames.clear();
+        assembler.release();
+    }
+
+    /**
+     * Close all streams and release the frames for good.
+     */
+    public synchronized void dispose() {
+        closeAllStreams();
+        frames.close();
     }
 }
@@ -13,13 +13,15 @@
 package org.openhab.binding.ipcamera.internal.servlet;
 
 import java.io.IOException;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 /**
  * The {@link StreamOutput} Streams mjpeg out to a client
@@ -33,8 +35,10 @@ public class StreamOutput {
     private final String boundary;
     private String contentType;
     private final ServletOutputStream output;
-    private BlockingQueue<byte[]> fifo = new ArrayBlockingQueue<byte[]>(6);
+    private static final long FRAME_TIMEOUT_MS = 10000;
+    private @Nullable FrameRingBuffer.Cursor cursor;
     private boolean connected = false;
+    private volatile boolean closed = false;
     public boolean isSnapshotBased = false;
 
     public StreamOutput(HttpServletResponse response) throws IOException {
@@ -57,23 +61,37 @@ public class StreamOutput {
     }
 
     public void sendSnapshotBasedFrame(byte[] currentSnapshot) throws IOException {
+        sendSnapshotBasedFrame(Unpooled.wrappedBuffer(currentSnapshot));
+    }
+
+    private void sendSnapshotBasedFrame(ByteBuf currentSnapshot) throws IOException {
         String header = "--" + boundary + "\r\n" + "Content-Type: image/jpeg" + "\r\n" + "Content-Length: "
-                + currentSnapshot.length + "\r\n\r\n";
+                + currentSnapshot.readableBytes() + "\r\n\r\n";
         if (!connected) {
             sendInitialHeaders();
             // iOS needs to have two jpgs sent for the picture to appear instantly.
             output.write(header.getBytes());
-            output.write(currentSnapshot);
+            writeFrame(currentSnapshot);
             output.write("\r\n".getBytes());
             connected = true;
         }
         output.write(header.getBytes());
-        output.write(currentSnapshot);
+        writeFrame(currentSnapshot);
         output.write("\r\n".getBytes());
     }
 
-    public void queueFrame(byte[] frame) {
-        fifo.add(frame);
+    /**
+     * Write the frame straight from the shared buffer, without copying it first.
+     */
+    private void writeFrame(ByteBuf frame) throws IOException {
+        frame.getBytes(frame.readerIndex(), output, frame.readableBytes());
+    }
+
+    /**
+     * Set the cursor to read the frames of the stream with
+     */
+    public void setCursor(FrameRingBuffer.Cursor cursor) {
+        this.cursor = cursor;
     }
 
     public void updateContentType(String contentType) {
@@ -85,10 +103,26 @@ public class StreamOutput {
     }
 
     public void sendFrame() throws IOException, InterruptedException {
-        if (isSnapshotBased) {
-            sendSnapshotBasedFrame(fifo.take());
-        } else if (connected) {
-            output.write(fifo.take());
+        FrameRingBuffer.Cursor localCursor = cursor;
+        if (localCursor == null || closed) {
+            throw new IOException("Stream is closed");
+        }
+        ByteBuf frame = localCursor.next(FRAME_TIMEOUT_MS);
+        if (frame == null) {
+            // no frame in time, try again unless the stream was closed meanwhile
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            return;
+        }
+        try {
+            if (isSnapshotBased) {
+                sendSnapshotBasedFrame(frame);
+            } else if (connected) {
+                writeFrame(frame);
+            }
+        } finally {
+            frame.release();
         }
     }
 
@@ -99,6 +133,7 @@ public class StreamOutput {
     }
 
     public void close() {
+        closed = true;
         try {
             output.close();
         } catch (IOException e) {
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.servlet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class FrameRingBufferTest {
+
+    private static ByteBuf frame(int value) {
+        return Unpooled.buffer(1).writeByte(value);
+    }
+
+    private static ByteBuf next(FrameRingBuffer.Cursor cursor) throws InterruptedException {
+        ByteBuf frame = cursor.next(0);
+        assertNotNull(frame);
+        return frame;
+    }
+
+    @Test
+    public void testOldestFrameIsReleasedWhenFull() {
+        FrameRingBuffer buffer = new FrameRingBuffer(2);
+        ByteBuf first = frame(1);
+        ByteBuf second = frame(2);
+        ByteBuf third = frame(3);
+        buffer.publish(first);
+        buffer.publish(second);
+        assertEquals(1, first.refCnt());
+
+        buffer.publish(third);
+        assertEquals(0, first.refCnt());
+        assertEquals(1, second.refCnt());
+        assertEquals(1, third.refCnt());
+    }
+
+    @Test
+    public void testSlowCursorSkipsTheDroppedFrames() throws InterruptedException {
+        FrameRingBuffer buffer = new FrameRingBuffer(2);
+        FrameRingBuffer.Cursor cursor = buffer.newCursor();
+        for (int i = 1; i <= 5; i++) {
+            buffer.publish(frame(i));
+        }
+
+        ByteBuf frame = next(cursor);
+        assertEquals(4, frame.getByte(0));
+        frame.release();
+        frame = next(cursor);
+        assertEquals(5, frame.getByte(0));
+        frame.release();
+        assertNull(cursor.next(0));
+        assertEquals(3, buffer.getDroppedFrames());
+    }
+
+    @Test
+    public void testFrameStaysValidUntilTheViewerReleasesIt() throws InterruptedException {
+        FrameRingBuffer buffer = new FrameRingBuffer(1);
+        FrameRingBuffer.Cursor cursor = buffer.newCursor();
+        ByteBuf first = frame(1);
+        buffer.publish(first);
+
+        ByteBuf frame = next(cursor);
+        buffer.publish(frame(2));
+        assertEquals(1, first.refCnt());
+        assertEquals(1, frame.getByte(0));
+
+        frame.release();
+        assertEquals(0, first.refCnt());
+    }
+
+    @Test
+    public void testClearAndCloseReleaseAllFrames() throws InterruptedException {
+        FrameRingBuffer buffer = new FrameRingBuffer(4);
+        FrameRingBuffer.Cursor cursor = buffer.newCursor();
+        ByteBuf first = frame(1);
+        ByteBuf second = frame(2);
+        buffer.publish(first);
+        buffer.publish(second);
+
+        buffer.clear();
+        assertEquals(0, first.refCnt());
+        assertEquals(0, second.refCnt());
+
+        ByteBuf third = frame(3);
+        buffer.publish(third);
+        buffer.close();
+        assertEquals(0, third.refCnt());
+        assertNull(cursor.next(0));
+
+        ByteBuf late = frame(4);
+        buffer.publish(late);
+        assertEquals(0, late.refCnt());
+    }
+
+    @Test
+    public void testCursorStartsWithTheNextFrame() throws InterruptedException {
+        FrameRingBuffer buffer = new FrameRingBuffer(4);
+        buffer.publish(frame(1));
+        FrameRingBuffer.Cursor cursor = buffer.newCursor();
+        assertNull(cursor.next(0));
+
+        buffer.publish(frame(2));
+        ByteBuf frame = next(cursor);
+        assertEquals(2, frame.getByte(0));
+        frame.release();
+        buffer.close();
+    }
+}
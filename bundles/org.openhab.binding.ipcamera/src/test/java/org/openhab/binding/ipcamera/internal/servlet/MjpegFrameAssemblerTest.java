@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal.servlet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MjpegFrameAssemblerTest {
+    private static final String CONTENT_TYPE = "multipart/x-mixed-replace; boundary=myboundary";
+
+    private final List<String> parts = new ArrayList<>();
+    private final MjpegFrameAssembler assembler = new MjpegFrameAssembler(part -> {
+        parts.add(part.toString(StandardCharsets.US_ASCII));
+        part.release();
+    });
+
+    private static String part(String jpeg) {
+        return "--myboundary\r\nContent-Type: image/jpeg\r\nContent-Length: " + jpeg.length() + "\r\n\r\n" + jpeg
+                + "\r\n";
+    }
+
+    private static ByteBuf chunk(String data) {
+        return Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void testChunksAreJoinedIntoWholeParts() {
+        assembler.reset(CONTENT_TYPE);
+        String stream = part("first") + part("second") + part("third");
+        // split the stream everywhere, also within the boundaries
+        for (int i = 0; i < stream.length(); i += 7) {
+            assembler.add(chunk(stream.substring(i, Math.min(stream.length(), i + 7))));
+        }
+
+        // the last part is only complete with the next boundary
+        assertEquals(List.of(part("first"), part("second")), parts);
+        assembler.add(chunk("--myboundary"));
+        assertEquals(List.of(part("first"), part("second"), part("third")), parts);
+    }
+
+    @Test
+    public void testDataBeforeTheFirstBoundaryIsDropped() {
+        assembler.reset(CONTENT_TYPE);
+        assembler.add(chunk("partial jpeg\r\n" + part("first") + part("second")));
+
+        assertEquals(List.of(part("first")), parts);
+    }
+
+    @Test
+    public void testQuotedBoundaryIsFound() {
+        assembler.reset("multipart/x-mixed-replace;boundary=\"myboundary\"");
+        assembler.add(chunk(part("first") + part("second")));
+
+        assertEquals(List.of(part("first")), parts);
+    }
+
+    @Test
+    public void testPartsStayValidWhenTheChunksAreReleased() {
+        List<ByteBuf> received = new ArrayList<>();
+        MjpegFrameAssembler keeping = new MjpegFrameAssembler(received::add);
+        keeping.reset(CONTENT_TYPE);
+        ByteBuf firstChunk = chunk(part("first") + "--my");
+        ByteBuf secondChunk = chunk("boundary\r\n");
+        keeping.add(firstChunk);
+        keeping.add(secondChunk);
+
+        assertEquals(1, received.size());
+        keeping.release();
+        assertEquals(1, firstChunk.refCnt());
+        assertEquals(0, secondChunk.refCnt());
+        assertEquals(part("first"), received.get(0).toString(StandardCharsets.US_ASCII));
+
+        received.get(0).release();
+        assertEquals(0, firstChunk.refCnt());
+    }
+}
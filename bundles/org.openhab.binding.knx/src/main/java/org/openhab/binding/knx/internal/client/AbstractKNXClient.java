@@ -12,12 +12,16 @@
  */
 package org.openhab.binding.knx.internal.client;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -64,6 +68,7 @@ import tuwien.auto.calimero.process.ProcessListener;
 public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClient {
 
     private static final int MAX_SEND_ATTEMPTS = 2;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
 
     private final Logger logger = LoggerFactory.getLogger(AbstractKNXClient.class);
     private final KNXTypeMapper typeHelper = new KNXCoreTypeMapper();
@@ -73,6 +78,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private final int readingPause;
     private final int autoReconnectPeriod;
     private final int readRetriesLimit;
+    private final int maxTelegramsPerSecond;
     private final StatusUpdateCallback statusUpdateCallback;
     private final ScheduledExecutorService knxScheduler;
 
@@ -85,8 +91,16 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private @Nullable ScheduledFuture<?> busJob;
     private @Nullable ScheduledFuture<?> connectJob;
 
-    private final Set<GroupAddressListener> groupAddressListeners = new CopyOnWriteArraySet<>();
+    // listeners per group address, and the group addresses each listener was indexed with
+    private final Map<GroupAddress, Set<GroupAddressListener>> groupAddressListeners = new ConcurrentHashMap<>();
+    private final Map<GroupAddressListener, Set<GroupAddress>> listenerGroupAddresses = new HashMap<>();
     private final LinkedBlockingQueue<ReadDatapoint> readDatapoints = new LinkedBlockingQueue<>();
+    private final KNXSendQueue sendQueue = new KNXSendQueue();
+
+    // guards sending to the bus, and the System.nanoTime() from which on the next telegram may be sent
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private long nextSend = System.nanoTime();
+    private long lastRead = System.nanoTime();
 
     @FunctionalInterface
     private interface ListenerNotification {
@@ -123,13 +137,18 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         }
     };
 
+    /**
+     * @param maxTelegramsPerSecond the number of telegrams sent to the bus per second at most, 0 for no limit
+     */
     public AbstractKNXClient(int autoReconnectPeriod, ThingUID thingUID, int responseTimeout, int readingPause,
-            int readRetriesLimit, ScheduledExecutorService knxScheduler, StatusUpdateCallback statusUpdateCallback) {
+            int readRetriesLimit, int maxTelegramsPerSecond, ScheduledExecutorService knxScheduler,
+            StatusUpdateCallback statusUpdateCallback) {
         this.autoReconnectPeriod = autoReconnectPeriod;
         this.thingUID = thingUID;
         this.responseTimeout = responseTimeout;
         this.readingPause = readingPause;
         this.readRetriesLimit = readRetriesLimit;
+        this.maxTelegramsPerSecond = Math.max(0, maxTelegramsPerSecond);
         this.knxScheduler = knxScheduler;
         this.statusUpdateCallback = statusUpdateCallback;
     }
@@ -196,7 +215,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
             link.addLinkListener(this);
 
-            busJob = knxScheduler.scheduleWithFixedDelay(() -> readNextQueuedDatapoint(), 0, readingPause,
+            busJob = knxScheduler.scheduleWithFixedDelay(this::processBus, 0, getBusJobPeriod(),
                     TimeUnit.MILLISECONDS);
 
             statusUpdateCallback.updateStatus(ThingStatus.ONLINE);
@@ -225,6 +244,11 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     private void releaseConnection() {
         logger.debug("Bridge {} is disconnecting from the KNX bus", thingUID);
         readDatapoints.clear();
+        if (!sendQueue.isEmpty()) {
+            logger.debug("Dropping {} telegrams queued to be sent by bridge {}", sendQueue.size(), thingUID);
+            sendQueue.clear();
+        }
+        logger.debug("Send queue statistics of bridge {}: {}", thingUID, sendQueue);
         busJob = nullify(busJob, j -> j.cancel(true));
         deviceInfoClient = null;
         managementProcedures = nullify(managementProcedures, mp -> mp.detach());
@@ -252,11 +276,22 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         IndividualAddress source = event.getSourceAddr();
         byte[] asdu = event.getASDU();
         logger.trace("Received a {} telegram from '{}' to '{}' with value '{}'", task, source, destination, asdu);
-        for (GroupAddressListener listener : groupAddressListeners) {
-            if (listener.listensTo(destination)) {
-                knxScheduler.schedule(() -> action.apply(listener, source, destination, asdu), 0, TimeUnit.SECONDS);
-            }
+        Set<GroupAddressListener> listeners = groupAddressListeners.get(destination);
+        if (listeners == null || listeners.isEmpty()) {
+            return;
         }
+        knxScheduler.execute(() -> {
+            for (GroupAddressListener listener : listeners) {
+                if (listener.listensTo(destination)) {
+                    try {
+                        action.apply(listener, source, destination, asdu);
+                    } catch (RuntimeException e) {
+                        logger.warn("Error processing a {} telegram to '{}': {}", task, destination, e.getMessage(),
+                                e);
+                    }
+                }
+            }
+        });
     }
 
     /**
@@ -271,35 +306,122 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         return typeHelper.toDPTValue(type, dpt);
     }
 
-    @SuppressWarnings("null")
-    private void readNextQueuedDatapoint() {
+    /**
+     * Period of the bus job, which sends queued telegrams if they could not be sent immediately and reads
+     * datapoints.
+     */
+    private long getBusJobPeriod() {
+        long period = readingPause;
+        if (maxTelegramsPerSecond > 0) {
+            period = Math.min(period, (1000 + maxTelegramsPerSecond - 1) / maxTelegramsPerSecond);
+        }
+        return Math.max(1, period);
+    }
+
+    private long getSendInterval() {
+        return maxTelegramsPerSecond > 0 ? NANOS_PER_SECOND / maxTelegramsPerSecond : 0;
+    }
+
+    private void processBus() {
         if (!connectIfNotAutomatic()) {
             return;
         }
+        sendQueuedTelegrams();
+        if (!sendLock.tryLock()) {
+            return;
+        }
+        try {
+            // datapoints are only read while no writes or responses are waiting, and not more often than the
+            // reading pause allows
+            long now = System.nanoTime();
+            if (sendQueue.isEmpty() && now - nextSend >= 0
+                    && now - lastRead >= TimeUnit.MILLISECONDS.toNanos(readingPause)
+                    && readNextQueuedDatapoint()) {
+                lastRead = now;
+                nextSend = now + getSendInterval();
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the queued telegrams as far as the budget of telegrams per second allows. The remaining telegrams are
+     * sent by the bus job.
+     */
+    private void sendQueuedTelegrams() {
+        if (!sendLock.tryLock()) {
+            // the telegrams are sent by the thread holding the lock, or by the next run of the bus job
+            return;
+        }
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                if (now - nextSend < 0) {
+                    return;
+                }
+                KNXSendQueue.Telegram telegram = sendQueue.poll();
+                if (telegram == null) {
+                    return;
+                }
+                nextSend = now + getSendInterval();
+                send(telegram);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private void send(KNXSendQueue.Telegram telegram) {
+        @Nullable
+        ProcessCommunicationBase communicator = telegram.isResponse() ? responseCommunicator : processCommunicator;
+        KNXNetworkLink link = this.link;
+        if (communicator == null || link == null) {
+            logger.debug("Cannot send {} to the KNX bus, the bridge {} is disconnected", telegram, thingUID);
+            return;
+        }
+        logger.trace("Sending {} (queue depth {})", telegram, sendQueue.size());
+        try {
+            sendToKNX(communicator, link, telegram.getGroupAddress(), telegram.getDPT(), telegram.getType());
+        } catch (KNXException e) {
+            // already logged
+        } catch (RuntimeException e) {
+            logger.warn("Error sending {} to the KNX bus: {}", telegram, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sends a read request for the next queued datapoint.
+     *
+     * @return true if a telegram was sent to the bus
+     */
+    @SuppressWarnings("null")
+    private boolean readNextQueuedDatapoint() {
         ProcessCommunicator processCommunicator = this.processCommunicator;
         if (processCommunicator == null) {
-            return;
+            return false;
         }
         ReadDatapoint datapoint = readDatapoints.poll();
-        if (datapoint != null) {
-            datapoint.incrementRetries();
-            try {
-                logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
-                processCommunicator.read(datapoint.getDatapoint());
-            } catch (KNXException e) {
-                if (datapoint.getRetries() < datapoint.getLimit()) {
-                    readDatapoints.add(datapoint);
-                    logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
-                            datapoint.getDatapoint().getMainAddress(), e.getMessage());
-                } else {
-                    logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
-                            datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
-                }
-            } catch (InterruptedException e) {
-                logger.debug("Interrupted sending KNX read request");
-                return;
+        if (datapoint == null) {
+            return false;
+        }
+        datapoint.incrementRetries();
+        try {
+            logger.trace("Sending a Group Read Request telegram for {}", datapoint.getDatapoint().getMainAddress());
+            processCommunicator.read(datapoint.getDatapoint());
+        } catch (KNXException e) {
+            if (datapoint.getRetries() < datapoint.getLimit()) {
+                readDatapoints.add(datapoint);
+                logger.debug("Could not read value for datapoint {}: {}. Going to retry.",
+                        datapoint.getDatapoint().getMainAddress(), e.getMessage());
+            } else {
+                logger.warn("Giving up reading datapoint {}, the number of maximum retries ({}) is reached.",
+                        datapoint.getDatapoint().getMainAddress(), datapoint.getLimit());
             }
+        } catch (InterruptedException e) {
+            logger.debug("Interrupted sending KNX read request");
         }
+        return true;
     }
 
     public void dispose() {
@@ -378,12 +500,37 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
 
     @Override
     public final boolean registerGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.add(listener);
+        synchronized (listenerGroupAddresses) {
+            // index the current group addresses again, if the listener was registered before
+            boolean added = !removeFromIndex(listener);
+            Set<GroupAddress> groupAddresses = listener.getGroupAddresses();
+            for (GroupAddress groupAddress : groupAddresses) {
+                groupAddressListeners.computeIfAbsent(groupAddress, ga -> new CopyOnWriteArraySet<>()).add(listener);
+            }
+            listenerGroupAddresses.put(listener, groupAddresses);
+            return added;
+        }
     }
 
     @Override
     public final boolean unregisterGroupAddressListener(GroupAddressListener listener) {
-        return groupAddressListeners.remove(listener);
+        synchronized (listenerGroupAddresses) {
+            return removeFromIndex(listener);
+        }
+    }
+
+    private boolean removeFromIndex(GroupAddressListener listener) {
+        Set<GroupAddress> groupAddresses = listenerGroupAddresses.remove(listener);
+        if (groupAddresses == null) {
+            return false;
+        }
+        for (GroupAddress groupAddress : groupAddresses) {
+            groupAddressListeners.computeIfPresent(groupAddress, (ga, listeners) -> {
+                listeners.remove(listener);
+                return listeners.isEmpty() ? null : listeners;
+            });
+        }
+        return true;
     }
 
     @Override
@@ -402,7 +549,7 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
     }
 
     @Override
-    public void writeToKNX(OutboundSpec commandSpec) throws KNXException {
+    public void writeToKNX(OutboundSpec commandSpec) {
         ProcessCommunicator processCommunicator = this.processCommunicator;
         KNXNetworkLink link = this.link;
         if (processCommunicator == null || link == null) {
@@ -416,12 +563,12 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         logger.trace("writeToKNX groupAddress '{}', commandSpec '{}'", groupAddress, commandSpec);
 
         if (groupAddress != null) {
-            sendToKNX(processCommunicator, link, groupAddress, commandSpec.getDPT(), commandSpec.getType());
+            enqueue(new KNXSendQueue.Telegram(groupAddress, commandSpec.getDPT(), commandSpec.getType(), false));
         }
     }
 
     @Override
-    public void respondToKNX(OutboundSpec responseSpec) throws KNXException {
+    public void respondToKNX(OutboundSpec responseSpec) {
         ProcessCommunicationResponder responseCommunicator = this.responseCommunicator;
         KNXNetworkLink link = this.link;
         if (responseCommunicator == null || link == null) {
@@ -435,7 +582,16 @@ public abstract class AbstractKNXClient implements NetworkLinkListener, KNXClien
         logger.trace("respondToKNX groupAddress '{}', responseSpec '{}'", groupAddress, responseSpec);
 
         if (groupAddress != null) {
-            sendToKNX(responseCommunicator, link, groupAddress, responseSpec.getDPT(), responseSpec.getType());
+            enqueue(new KNXSendQueue.Telegram(groupAddress, responseSpec.getDPT(), responseSpec.getType(), true));
+        }
+    }
+
+    private void enqueue(KNXSendQueue.Telegram telegram) {
+        if (sendQueue.offer(telegram)) {
+            // send right away, unless the budget of telegrams per second is used up
+            knxScheduler.execute(this::sendQueuedTelegrams);
+        } else {
+            logger.trace("Queued {} behind {} other telegrams", telegram, sendQueue.size() - 1);
         }
     }
 
@@ -86,16 +86,20 @@ public interface KNXClient {
     /**
      * Write a command to the KNX bus.
      *
+     * The command is queued and sent asynchronously, communication errors are logged. A queued command to the same
+     * group address is replaced.
+     *
      * @param commandSpec the outbound spec
-     * @throws KNXException if any problem with the communication arises.
      */
-    void writeToKNX(OutboundSpec commandSpec) throws KNXException;
+    void writeToKNX(OutboundSpec commandSpec);
 
     /**
      * Send a state as a read-response to the KNX bus.
      *
+     * The response is queued and sent asynchronously in order with the queued commands, communication errors are
+     * logged.
+     *
      * @param responseSpec the outbound spec
-     * @throws KNXException if any problem with the communication arises.
      */
-    void respondToKNX(OutboundSpec responseSpec) throws KNXException;
+    void respondToKNX(OutboundSpec responseSpec);
 }
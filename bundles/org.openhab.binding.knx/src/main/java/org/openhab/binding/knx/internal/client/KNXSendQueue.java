@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.types.Type;
+
+import tuwien.auto.calimero.GroupAddress;
+
+/**
+ * Queue of the group value writes and responses to be sent to the KNX bus by a bridge.
+ *
+ * Telegrams are sent in the order they were queued, datapoint reads are only sent while this queue is empty. A queued
+ * telegram is superseded by a newer one of the same kind to the same group address: only the latest value is sent, at
+ * the position of the newer one, so the last values written to different group addresses arrive in the order they
+ * were written. Relative dimming and blind steps (main number 3) are never merged, as each step counts.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class KNXSendQueue {
+
+    /**
+     * A group value write or response waiting to be sent.
+     */
+    static class Telegram {
+        private final GroupAddress groupAddress;
+        private final String dpt;
+        private final Type type;
+        private final boolean response;
+        private long enqueued;
+
+        Telegram(GroupAddress groupAddress, String dpt, Type type, boolean response) {
+            this.groupAddress = groupAddress;
+            this.dpt = dpt;
+            this.type = type;
+            this.response = response;
+            this.enqueued = System.nanoTime();
+        }
+
+        GroupAddress getGroupAddress() {
+            return groupAddress;
+        }
+
+        String getDPT() {
+            return dpt;
+        }
+
+        Type getType() {
+            return type;
+        }
+
+        boolean isResponse() {
+            return response;
+        }
+
+        private Object getKey() {
+            return mainNumber(dpt) == 3 ? this : new Key(groupAddress, response);
+        }
+
+        @Override
+        public String toString() {
+            return (response ? "response " : "write ") + type + " to " + groupAddress + " (" + dpt + ")";
+        }
+    }
+
+    private static class Key {
+        private final GroupAddress groupAddress;
+        private final boolean response;
+
+        private Key(GroupAddress groupAddress, boolean response) {
+            this.groupAddress = groupAddress;
+            this.response = response;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(groupAddress, response);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return response == other.response && groupAddress.equals(other.groupAddress);
+        }
+    }
+
+    private final Map<Object, Telegram> queue = new LinkedHashMap<>();
+
+    private long enqueuedCount;
+    private long coalescedCount;
+    private long sentCount;
+    private int maxDepth;
+    private long totalLatency;
+    private long maxLatency;
+
+    /**
+     * Adds a telegram to the end of the queue, removing a queued telegram it supersedes.
+     *
+     * @return true if the queue was empty before
+     */
+    synchronized boolean offer(Telegram telegram) {
+        boolean wasEmpty = queue.isEmpty();
+        Telegram superseded = queue.remove(telegram.getKey());
+        queue.put(telegram.getKey(), telegram);
+        enqueuedCount++;
+        if (superseded != null) {
+            // the latency counts from the superseded value, which was requested first
+            telegram.enqueued = superseded.enqueued;
+            coalescedCount++;
+        }
+        maxDepth = Math.max(maxDepth, queue.size());
+        return wasEmpty;
+    }
+
+    /**
+     * Removes the next telegram to be sent from the queue.
+     *
+     * @return the first telegram of the queue, or null
+     */
+    synchronized @Nullable Telegram poll() {
+        Iterator<Telegram> iterator = queue.values().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Telegram telegram = iterator.next();
+        iterator.remove();
+        long latency = System.nanoTime() - telegram.enqueued;
+        sentCount++;
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        return telegram;
+    }
+
+    synchronized boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    synchronized void clear() {
+        queue.clear();
+    }
+
+    /**
+     * Returns the number of queued telegrams.
+     */
+    synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the largest number of telegrams queued at once.
+     */
+    synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the number of telegrams which were superseded by a newer value before being sent.
+     */
+    synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * Returns the number of telegrams taken from the queue to be sent.
+     */
+    synchronized long getSentCount() {
+        return sentCount;
+    }
+
+    /**
+     * Returns the average time in milliseconds a telegram was queued.
+     */
+    synchronized long getAverageLatency() {
+        return sentCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatency / sentCount);
+    }
+
+    /**
+     * Returns the longest time in milliseconds a telegram was queued.
+     */
+    synchronized long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "KNXSendQueue [depth=" + size() + ", maxDepth=" + maxDepth + ", enqueued=" + enqueuedCount
+                + ", coalesced=" + coalescedCount + ", sent=" + sentCount + ", averageLatency=" + getAverageLatency()
+                + "ms, maxLatency=" + getMaxLatency() + "ms]";
+    }
+
+    private static int mainNumber(String dpt) {
+        int dot = dpt.indexOf('.');
+        try {
+            return Integer.parseInt(dot < 0 ? dpt : dpt.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
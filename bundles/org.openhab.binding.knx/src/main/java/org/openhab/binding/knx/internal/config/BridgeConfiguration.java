@@ -27,6 +27,7 @@ public class BridgeConfiguration {
     private BigDecimal readingPause;
     private BigDecimal readRetriesLimit;
     private BigDecimal responseTimeout;
+    private BigDecimal maxTelegramsPerSecond = BigDecimal.valueOf(20);
 
     public int getAutoReconnectPeriod() {
         return autoReconnectPeriod;
@@ -44,6 +45,10 @@ public class BridgeConfiguration {
         return responseTimeout;
     }
 
+    public BigDecimal getMaxTelegramsPerSecond() {
+        return maxTelegramsPerSecond;
+    }
+
     public void setAutoReconnectPeriod(int period) {
         autoReconnectPeriod = period;
     }
@@ -108,6 +108,11 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /**
+     * translators are not thread-safe, so the translators created for each main number and DPT are reused per thread
+     */
+    private final ThreadLocal<Map<String, DPTXlator>> translators = ThreadLocal.withInitial(HashMap::new);
+
     public KNXCoreTypeMapper() {
         @SuppressWarnings("unused")
         final List<Class<?>> xlators = Arrays.<Class<?>> asList(DPTXlator1BitControlled.class,
@@ -586,7 +591,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         }
 
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            DPTXlator translator = getTranslator(mainNumber, dptID);
             dpt = translator.getType();
         } catch (KNXException e) {
             return null;
@@ -674,7 +679,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+            DPTXlator translator = getTranslator(datapoint.getMainNumber(), datapoint.getDPT());
             translator.setData(data);
             String value = translator.getValue();
 
@@ -860,6 +865,26 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Returns the translator of the calling thread for the given main number and datapoint type, creating it on first
+     * use.
+     *
+     * @param mainNumber the main number of the datapoint type, or 0 to derive it from the datapoint type id
+     * @param dptID the datapoint type id
+     * @return the translator
+     * @throws KNXException if no translator is available for the datapoint type
+     */
+    private DPTXlator getTranslator(int mainNumber, String dptID) throws KNXException {
+        Map<String, DPTXlator> threadTranslators = translators.get();
+        String key = mainNumber + "/" + dptID;
+        DPTXlator translator = threadTranslators.get(key);
+        if (translator == null) {
+            translator = TranslatorTypes.createTranslator(mainNumber, dptID);
+            threadTranslators.put(key, translator);
+        }
+        return translator;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -82,10 +82,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
 
     @Override
     public void initialize() {
-        super.initialize();
+        // the group addresses have to be known before the handler registers itself as listener
         DeviceConfig config = getConfigAs(DeviceConfig.class);
         readInterval = config.getReadInterval().intValue();
         initializeGroupAddresses();
+        super.initialize();
     }
 
     private void initializeGroupAddresses() {
@@ -216,6 +217,11 @@ public class DeviceThingHandler extends AbstractKNXThingHandler {
         return groupAddresses.contains(destination);
     }
 
+    @Override
+    public Set<GroupAddress> getGroupAddresses() {
+        return Set.copyOf(groupAddresses);
+    }
+
     /** KNXIO remember controls, removeIf may be null */
     @SuppressWarnings("null")
     private void rememberRespondingSpec(OutboundSpec commandSpec, boolean add) {
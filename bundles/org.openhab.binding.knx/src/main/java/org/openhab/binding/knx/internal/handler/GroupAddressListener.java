@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.knx.internal.handler;
 
+import java.util.Set;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.knx.internal.client.BusMessageListener;
 
@@ -33,4 +35,10 @@ public interface GroupAddressListener extends BusMessageListener {
      * @param destination
      */
     public boolean listensTo(GroupAddress destination);
+
+    /**
+     * Returns the GroupAddresses the GroupAddressListener has an interest in. They are read when the listener is
+     * registered at the client, to dispatch telegrams without asking every listener.
+     */
+    public Set<GroupAddress> getGroupAddresses();
 }
@@ -101,7 +101,8 @@ public class IPBridgeThingHandler extends KNXBridgeBaseThingHandler {
         updateStatus(ThingStatus.UNKNOWN);
         client = new IPClient(ipConnectionType, ip, localSource, port, localEndPoint, useNAT, autoReconnectPeriod,
                 thing.getUID(), config.getResponseTimeout().intValue(), config.getReadingPause().intValue(),
-                config.getReadRetriesLimit().intValue(), getScheduler(), this);
+                config.getReadRetriesLimit().intValue(), config.getMaxTelegramsPerSecond().intValue(), getScheduler(),
+                this);
 
         client.initialize();
     }
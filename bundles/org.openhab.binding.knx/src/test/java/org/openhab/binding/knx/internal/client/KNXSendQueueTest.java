@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.knx.internal.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.IncreaseDecreaseType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.PercentType;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+
+/**
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class KNXSendQueueTest {
+
+    @Test
+    public void testTelegramsAreSentInOrder() throws KNXFormatException {
+        KNXSendQueue queue = new KNXSendQueue();
+        assertTrue(queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new PercentType(50),
+                false)));
+        assertFalse(queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/2"), "1.001", OnOffType.OFF, false)));
+
+        assertEquals(new GroupAddress("1/0/1"), queue.poll().getGroupAddress());
+        assertEquals(new GroupAddress("1/0/2"), queue.poll().getGroupAddress());
+        assertNull(queue.poll());
+        assertEquals(2, queue.getSentCount());
+    }
+
+    @Test
+    public void testSupersedingValueKeepsTheOrderOfTheLastValues() throws KNXFormatException {
+        KNXSendQueue queue = new KNXSendQueue();
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new PercentType(50), false));
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/2"), "1.001", OnOffType.OFF, false));
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new PercentType(30), false));
+
+        // the dimmer is switched off first and then dimmed to 30%, like the commands were issued
+        assertEquals(OnOffType.OFF, queue.poll().getType());
+        assertEquals(new PercentType(30), queue.poll().getType());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSupersededValueIsReplaced() throws KNXFormatException {
+        KNXSendQueue queue = new KNXSendQueue();
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new DecimalType(10), false));
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/2"), "5.001", new DecimalType(20), false));
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new DecimalType(30), false));
+        // a response to the same group address is not superseded by a write
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/1"), "5.001", new DecimalType(40), true));
+
+        assertEquals(3, queue.size());
+        assertEquals(1, queue.getCoalescedCount());
+
+        assertEquals(new GroupAddress("1/0/2"), queue.poll().getGroupAddress());
+        KNXSendQueue.Telegram write = queue.poll();
+        assertEquals(new GroupAddress("1/0/1"), write.getGroupAddress());
+        assertEquals(new DecimalType(30), write.getType());
+        assertFalse(write.isResponse());
+        assertTrue(queue.poll().isResponse());
+        assertTrue(queue.isEmpty());
+        assertEquals(3, queue.getMaxDepth());
+    }
+
+    @Test
+    public void testRelativeDimmingIsNotMerged() throws KNXFormatException {
+        KNXSendQueue queue = new KNXSendQueue();
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/3"), "3.007", IncreaseDecreaseType.INCREASE,
+                false));
+        queue.offer(new KNXSendQueue.Telegram(new GroupAddress("1/0/3"), "3.007", IncreaseDecreaseType.INCREASE,
+                false));
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getCoalescedCount());
+    }
+}
@@ -16,6 +16,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.KNXFormatException;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
 
 /**
  *
@@ -29,4 +35,18 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    @Test
+    public void testToType_reusedTranslator() throws KNXFormatException {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Datapoint switchDatapoint = new CommandDP(new GroupAddress("1/2/3"), "test", 0, "1.001");
+        Datapoint temperatureDatapoint = new CommandDP(new GroupAddress("1/2/4"), "test", 0, "9.001");
+
+        assertEquals(OnOffType.ON, mapper.toType(switchDatapoint, new byte[] { 1 }));
+        assertEquals(21.0, ((DecimalType) mapper.toType(temperatureDatapoint, new byte[] { 0x0C, 0x1A })).doubleValue(),
+                0.001);
+        assertEquals(OnOffType.OFF, mapper.toType(switchDatapoint, new byte[] { 0 }));
+        assertEquals(20.0, ((DecimalType) mapper.toType(temperatureDatapoint, new byte[] { 0x07, (byte) 0xD0 }))
+                .doubleValue(), 0.001);
+    }
 }
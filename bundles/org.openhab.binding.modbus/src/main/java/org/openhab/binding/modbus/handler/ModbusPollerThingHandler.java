@@ -22,6 +22,7 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.internal.AtomicStampedValue;
 import org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal;
+import org.openhab.binding.modbus.internal.ModbusPollMerger;
 import org.openhab.binding.modbus.internal.config.ModbusPollerConfiguration;
 import org.openhab.binding.modbus.internal.handler.ModbusDataThingHandler;
 import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
@@ -189,6 +190,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     private @NonNullByDefault({}) ModbusPollerConfiguration config;
     private long cacheMillis;
     private volatile @Nullable PollTask pollTask;
+    private volatile ModbusPollMerger.@Nullable Registration mergedPoll;
     private volatile @Nullable ModbusReadRequestBlueprint request;
     private volatile boolean disposed;
     private volatile List<ModbusDataThingHandler> childCallbacks = new CopyOnWriteArrayList<>();
@@ -313,7 +315,13 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Unregistering polling from ModbusManager");
             comms.unregisterRegularPoll(localPollTask);
         }
+        ModbusPollMerger.Registration localMergedPoll = this.mergedPoll;
+        if (localMergedPoll != null) {
+            logger.debug("Unregistering polling from the poll merger of the endpoint");
+            localMergedPoll.unregister();
+        }
         this.pollTask = null;
+        this.mergedPoll = null;
         request = null;
         comms = null;
         updateStatus(ThingStatus.OFFLINE);
@@ -328,7 +336,7 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
     @SuppressWarnings("null")
     private synchronized void registerPollTask() throws EndpointNotInitializedException {
         logger.trace("registerPollTask()");
-        if (pollTask != null) {
+        if (pollTask != null || mergedPoll != null) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR);
             logger.debug("pollTask should be unregistered before registering a new one!");
             return;
@@ -362,10 +370,17 @@ public class ModbusPollerThingHandler extends BaseBridgeHandler {
             logger.debug("Not registering polling with ModbusManager since refresh disabled");
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Not polling");
         } else {
-            logger.debug("Registering polling with ModbusManager");
-            pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
-                    callbackDelegator);
-            assert pollTask != null;
+            ModbusPollMerger pollMerger = slaveEndpointThingHandler.getPollMerger();
+            if (pollMerger != null) {
+                logger.debug("Registering polling with the poll merger of the endpoint");
+                mergedPoll = pollMerger.register(localRequest, config.getRefresh(), callbackDelegator,
+                        callbackDelegator);
+            } else {
+                logger.debug("Registering polling with ModbusManager");
+                pollTask = localComms.registerRegularPoll(localRequest, config.getRefresh(), 0, callbackDelegator,
+                        callbackDelegator);
+                assert pollTask != null;
+            }
             updateStatus(ThingStatus.ONLINE);
         }
     }
@@ -0,0 +1,285 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusConstants;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Merges the regular polls of the pollers of one endpoint into fewer, larger reads.
+ *
+ * Polls with the same slave id, function code, refresh interval and maximum tries are merged if their ranges
+ * overlap or are at most <code>maxGap</code> registers (or coils/discrete inputs) apart, as long as the merged read
+ * does not exceed the protocol limits. The response of a merged read is sliced, and each poller receives the
+ * registers or bits of its own request, as if it was polled alone.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollMerger {
+
+    /**
+     * A regular poll registered with the merger
+     */
+    public class Registration {
+        private final ModbusReadRequestBlueprint request;
+        private final long refreshMillis;
+        private final ModbusReadCallback resultCallback;
+        private final ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback;
+        private final List<Object> key;
+
+        private Registration(ModbusReadRequestBlueprint request, long refreshMillis,
+                ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+            this.request = request;
+            this.refreshMillis = refreshMillis;
+            this.resultCallback = resultCallback;
+            this.failureCallback = failureCallback;
+            this.key = List.of(request.getUnitID(), request.getFunctionCode(), refreshMillis, request.getMaxTries());
+        }
+
+        public ModbusReadRequestBlueprint getRequest() {
+            return request;
+        }
+
+        /**
+         * Unregister the poll from the merger it was registered with
+         */
+        public void unregister() {
+            ModbusPollMerger.this.unregister(this);
+        }
+
+        private int getStart() {
+            return request.getReference();
+        }
+
+        private int getEnd() {
+            return request.getReference() + request.getDataLength();
+        }
+
+        private void handle(AsyncModbusReadResult result) {
+            ModbusReadRequestBlueprint merged = result.getRequest();
+            int offset = getStart() - merged.getReference();
+            int length = request.getDataLength();
+            Optional<ModbusRegisterArray> registers = result.getRegisters();
+            Optional<BitArray> bits = result.getBits();
+            if (registers.isPresent() && registers.get().size() >= offset + length) {
+                byte[] bytes = registers.get().getBytes();
+                resultCallback.handle(new AsyncModbusReadResult(request,
+                        new ModbusRegisterArray(Arrays.copyOfRange(bytes, 2 * offset, 2 * (offset + length)))));
+            } else if (bits.isPresent() && bits.get().size() >= offset + length) {
+                BitArray slice = new BitArray(length);
+                for (int i = 0; i < length; i++) {
+                    slice.setBit(i, bits.get().getBit(offset + i));
+                }
+                resultCallback.handle(new AsyncModbusReadResult(request, slice));
+            } else {
+                failureCallback.handle(new AsyncModbusFailure<>(request, new IllegalStateException(
+                        String.format("Response to merged read %s does not contain the data of %s", merged, request))));
+            }
+        }
+
+        private void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failureCallback.handle(new AsyncModbusFailure<>(request, failure.getCause()));
+        }
+    }
+
+    /**
+     * A read registered with the communication interface, serving one or more registrations
+     */
+    private class MergedPoll implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final ModbusReadRequestBlueprint request;
+        private final List<Registration> members;
+        private @Nullable PollTask task;
+
+        private MergedPoll(ModbusReadRequestBlueprint request, List<Registration> members) {
+            this.request = request;
+            this.members = members;
+        }
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            members.forEach(member -> member.handle(result));
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            members.forEach(member -> member.handle(failure));
+        }
+
+        private boolean isSameAs(ModbusReadRequestBlueprint otherRequest, List<Registration> otherMembers) {
+            return request.getReference() == otherRequest.getReference()
+                    && request.getDataLength() == otherRequest.getDataLength() && members.equals(otherMembers);
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ModbusPollMerger.class);
+    private final ModbusCommunicationInterface comms;
+    private final int maxGap;
+    private final Map<List<Object>, List<Registration>> registrations = new HashMap<>();
+    private final Map<List<Object>, List<MergedPoll>> polls = new HashMap<>();
+
+    /**
+     * @param comms communication interface to register the merged polls with
+     * @param maxGap largest number of registers or bits between two polls which are still read in one request
+     */
+    public ModbusPollMerger(ModbusCommunicationInterface comms, int maxGap) {
+        if (maxGap < 0) {
+            throw new IllegalArgumentException("maxGap must not be negative");
+        }
+        this.comms = comms;
+        this.maxGap = maxGap;
+    }
+
+    /**
+     * Register a regular poll, to be merged with the other polls of the endpoint
+     *
+     * @param request request to poll
+     * @param refreshMillis poll interval in milliseconds
+     * @param resultCallback callback receiving the data of the request
+     * @param failureCallback callback receiving the errors
+     * @return registration to unregister the poll with
+     */
+    public synchronized Registration register(ModbusReadRequestBlueprint request, long refreshMillis,
+            ModbusReadCallback resultCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback) {
+        Registration registration = new Registration(request, refreshMillis, resultCallback, failureCallback);
+        registrations.computeIfAbsent(registration.key, key -> new ArrayList<>()).add(registration);
+        update(registration.key);
+        return registration;
+    }
+
+    /**
+     * Unregister a poll. No-op if the poll is not registered anymore.
+     */
+    public synchronized void unregister(Registration registration) {
+        List<Registration> keyRegistrations = registrations.get(registration.key);
+        if (keyRegistrations == null || !keyRegistrations.remove(registration)) {
+            return;
+        }
+        if (keyRegistrations.isEmpty()) {
+            registrations.remove(registration.key);
+        }
+        update(registration.key);
+    }
+
+    /**
+     * Unregister all polls
+     */
+    public synchronized void close() {
+        polls.values().forEach(keyPolls -> keyPolls.forEach(this::unregisterPoll));
+        polls.clear();
+        registrations.clear();
+    }
+
+    /**
+     * Return the number of reads registered with the communication interface
+     */
+    public synchronized int getPollCount() {
+        return polls.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Plan the merged polls of a key again, re-registering only the ones which changed
+     */
+    private void update(List<Object> key) {
+        List<MergedPoll> oldPolls = polls.getOrDefault(key, List.of());
+        List<MergedPoll> newPolls = new ArrayList<>();
+        for (List<Registration> members : merge(registrations.getOrDefault(key, List.of()))) {
+            Registration first = members.get(0);
+            int start = first.getStart();
+            int end = members.stream().mapToInt(Registration::getEnd).max().orElse(start);
+            ModbusReadRequestBlueprint request = new ModbusReadRequestBlueprint(first.request.getUnitID(),
+                    first.request.getFunctionCode(), start, end - start, first.request.getMaxTries());
+            MergedPoll poll = oldPolls.stream().filter(old -> old.isSameAs(request, members)).findFirst()
+                    .orElse(null);
+            if (poll == null) {
+                poll = new MergedPoll(request, members);
+                logger.debug("Registering merged poll {} for {} pollers", request, members.size());
+                poll.task = comms.registerRegularPoll(request, first.refreshMillis, 0, poll, poll);
+            }
+            newPolls.add(poll);
+        }
+        oldPolls.stream().filter(old -> !newPolls.contains(old)).forEach(this::unregisterPoll);
+        if (newPolls.isEmpty()) {
+            polls.remove(key);
+        } else {
+            polls.put(key, newPolls);
+        }
+    }
+
+    private void unregisterPoll(MergedPoll poll) {
+        PollTask task = poll.task;
+        if (task != null) {
+            logger.debug("Unregistering merged poll {}", poll.request);
+            comms.unregisterRegularPoll(task);
+        }
+    }
+
+    /**
+     * Group registrations with the same key into reads, in the order of their start address
+     */
+    private List<List<Registration>> merge(List<Registration> keyRegistrations) {
+        List<Registration> sorted = new ArrayList<>(keyRegistrations);
+        sorted.sort(Comparator.comparingInt(Registration::getStart).thenComparingInt(Registration::getEnd));
+        List<List<Registration>> groups = new ArrayList<>();
+        List<Registration> group = new ArrayList<>();
+        int groupStart = 0;
+        int groupEnd = 0;
+        for (Registration registration : sorted) {
+            int maxLength = isBitRead(registration.request.getFunctionCode()) ? ModbusConstants.MAX_BITS_READ_COUNT
+                    : ModbusConstants.MAX_REGISTERS_READ_COUNT;
+            int end = Math.max(groupEnd, registration.getEnd());
+            if (!group.isEmpty() && registration.getStart() - groupEnd <= maxGap && end - groupStart <= maxLength) {
+                group.add(registration);
+                groupEnd = end;
+            } else {
+                if (!group.isEmpty()) {
+                    groups.add(group);
+                }
+                group = new ArrayList<>();
+                group.add(registration);
+                groupStart = registration.getStart();
+                groupEnd = registration.getEnd();
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    private static boolean isBitRead(ModbusReadFunctionCode functionCode) {
+        return functionCode == ModbusReadFunctionCode.READ_COILS
+                || functionCode == ModbusReadFunctionCode.READ_INPUT_DISCRETES;
+    }
+}
@@ -38,6 +38,8 @@ public class ModbusSerialConfiguration {
     private int connectMaxTries = 1;
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
+    private boolean mergePolls;
+    private int mergePollsMaxGap;
 
     public @Nullable String getPort() {
         return port;
@@ -158,4 +160,20 @@ public class ModbusSerialConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public boolean isMergePolls() {
+        return mergePolls;
+    }
+
+    public void setMergePolls(boolean mergePolls) {
+        this.mergePolls = mergePolls;
+    }
+
+    public int getMergePollsMaxGap() {
+        return mergePollsMaxGap;
+    }
+
+    public void setMergePollsMaxGap(int mergePollsMaxGap) {
+        this.mergePollsMaxGap = mergePollsMaxGap;
+    }
 }
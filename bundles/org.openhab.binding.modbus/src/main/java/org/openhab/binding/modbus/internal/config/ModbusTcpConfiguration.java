@@ -32,6 +32,8 @@ public class ModbusTcpConfiguration {
     private int reconnectAfterMillis;
     private int connectTimeoutMillis = 10_000;
     private boolean enableDiscovery;
+    private boolean mergePolls;
+    private int mergePollsMaxGap;
     private boolean rtuEncoded;
 
     public boolean getRtuEncoded() {
@@ -109,4 +111,20 @@ public class ModbusTcpConfiguration {
     public void setDiscoveryEnabled(boolean enableDiscovery) {
         this.enableDiscovery = enableDiscovery;
     }
+
+    public boolean isMergePolls() {
+        return mergePolls;
+    }
+
+    public void setMergePolls(boolean mergePolls) {
+        this.mergePolls = mergePolls;
+    }
+
+    public int getMergePollsMaxGap() {
+        return mergePollsMaxGap;
+    }
+
+    public void setMergePollsMaxGap(int mergePollsMaxGap) {
+        this.mergePollsMaxGap = mergePollsMaxGap;
+    }
 }
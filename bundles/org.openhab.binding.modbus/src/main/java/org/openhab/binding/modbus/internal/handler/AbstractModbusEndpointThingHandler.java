@@ -17,6 +17,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.modbus.handler.EndpointNotInitializedException;
 import org.openhab.binding.modbus.handler.ModbusEndpointThingHandler;
 import org.openhab.binding.modbus.internal.ModbusConfigurationException;
+import org.openhab.binding.modbus.internal.ModbusPollMerger;
 import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
 import org.openhab.core.io.transport.modbus.ModbusManager;
 import org.openhab.core.io.transport.modbus.endpoint.EndpointPoolConfiguration;
@@ -48,6 +49,7 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
     protected volatile @NonNullByDefault({}) EndpointPoolConfiguration poolConfiguration;
     private final Logger logger = LoggerFactory.getLogger(AbstractModbusEndpointThingHandler.class);
     private @NonNullByDefault({}) ModbusCommunicationInterface comms;
+    private volatile @Nullable ModbusPollMerger pollMerger;
 
     public AbstractModbusEndpointThingHandler(Bridge bridge, ModbusManager modbusManager) {
         super(bridge);
@@ -76,6 +78,8 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
                 }
                 try {
                     comms = modbusManager.newModbusCommunicationInterface(endpoint, poolConfiguration);
+                    int mergePollsMaxGap = getMergePollsMaxGap();
+                    pollMerger = mergePollsMaxGap >= 0 ? new ModbusPollMerger(comms, mergePollsMaxGap) : null;
                     updateStatus(ThingStatus.ONLINE);
                 } catch (IllegalArgumentException e) {
                     updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
@@ -93,6 +97,11 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
 
     @Override
     public void dispose() {
+        ModbusPollMerger localPollMerger = pollMerger;
+        if (localPollMerger != null) {
+            localPollMerger.close();
+            pollMerger = null;
+        }
         try {
             ModbusCommunicationInterface localComms = comms;
             if (localComms != null) {
@@ -110,6 +119,11 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
         return comms;
     }
 
+    @Override
+    public @Nullable ModbusPollMerger getPollMerger() {
+        return pollMerger;
+    }
+
     @Nullable
     public E getEndpoint() {
         return endpoint;
@@ -123,6 +137,12 @@ public abstract class AbstractModbusEndpointThingHandler<E extends ModbusSlaveEn
      */
     protected abstract void configure() throws ModbusConfigurationException;
 
+    /**
+     * Return the largest gap, in registers or bits, between the polls of two pollers that are still merged into one
+     * read, or -1 if the polls of this endpoint are not merged
+     */
+    protected abstract int getMergePollsMaxGap();
+
     /**
      * Format error message in case some other endpoint has been configured with different
      * {@link EndpointPoolConfiguration}
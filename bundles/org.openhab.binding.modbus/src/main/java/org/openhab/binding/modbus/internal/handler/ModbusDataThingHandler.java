@@ -17,6 +17,7 @@ import static org.openhab.binding.modbus.internal.ModbusBindingConstantsInternal
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -99,6 +101,39 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class ModbusDataThingHandler extends BaseThingHandler {
 
+    /**
+     * Everything needed to convert polled data to the state of a data channel, resolved once on initialization
+     */
+    private static class ReadChannel {
+        private final String channelId;
+        private final ChannelUID uid;
+        private final List<Class<? extends State>> acceptedDataTypes;
+        private final @Nullable State onState;
+        private final @Nullable State offState;
+        /**
+         * Whether parsing the string of a numeric state with the accepted data types returns an equal state
+         */
+        private final boolean acceptsNumericState;
+
+        private ReadChannel(String channelId, ChannelUID uid, List<Class<? extends State>> acceptedDataTypes) {
+            this.channelId = channelId;
+            this.uid = uid;
+            this.acceptedDataTypes = acceptedDataTypes;
+            if (containsOnOff(acceptedDataTypes)) {
+                onState = OnOffType.ON;
+                offState = OnOffType.OFF;
+            } else if (containsOpenClosed(acceptedDataTypes)) {
+                onState = OpenClosedType.OPEN;
+                offState = OpenClosedType.CLOSED;
+            } else {
+                onState = null;
+                offState = null;
+            }
+            acceptsNumericState = DecimalType.class.equals(acceptedDataTypes.get(0))
+                    && acceptedDataTypes.contains(UnDefType.class);
+        }
+    }
+
     private final Logger logger = LoggerFactory.getLogger(ModbusDataThingHandler.class);
 
     private final BundleContext bundleContext;
@@ -151,6 +186,12 @@ public class ModbusDataThingHandler extends BaseThingHandler {
     private volatile Map<String, ChannelUID> channelCache = new HashMap<>();
     private volatile Map<ChannelUID, Long> channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
     private volatile Map<ChannelUID, State> channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+    private volatile List<ReadChannel> readChannels = Collections.emptyList();
+    // raw polled data of the value, to skip decoding and transforming unchanged values
+    private volatile boolean lastReadRawValid;
+    private volatile long lastReadRaw;
+    private volatile int lastReadLinkedChannels;
+    private volatile long lastReadDecodedMillis;
 
     private volatile LocalDateTime lastStatusInfoUpdate = LocalDateTime.MIN;
     private volatile ThingStatusInfo statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE,
@@ -402,6 +443,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         try {
             logger.trace("initialize() of thing {} '{}' starting", thing.getUID(), thing.getLabel());
             ModbusDataConfiguration localConfig = config = getConfigAs(ModbusDataConfiguration.class);
+            lastReadRawValid = false;
             updateUnchangedValuesEveryMillis = localConfig.getUpdateUnchangedValuesEveryMillis();
             Bridge bridge = getBridge();
             if (bridge == null || !bridge.getStatus().equals(ThingStatus.ONLINE)) {
@@ -447,6 +489,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             validateAndParseReadParameters(localConfig);
             validateAndParseWriteParameters(localConfig);
             validateMustReadOrWrite();
+            readChannels = createReadChannels();
 
             updateStatusIfChanged(ThingStatus.ONLINE);
         } catch (ModbusConfigurationException | EndpointNotInitializedException e) {
@@ -484,6 +527,11 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         statusInfo = new ThingStatusInfo(ThingStatus.UNKNOWN, ThingStatusDetail.NONE, null);
         channelLastUpdated = new HashMap<>(NUMER_OF_CHANNELS_HINT);
         channelLastState = new HashMap<>(NUMER_OF_CHANNELS_HINT);
+        readChannels = Collections.emptyList();
+        lastReadRawValid = false;
+        lastReadRaw = 0;
+        lastReadLinkedChannels = 0;
+        lastReadDecodedMillis = 0;
     }
 
     @Override
@@ -505,6 +553,16 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
     }
 
+    private List<ReadChannel> createReadChannels() {
+        List<ReadChannel> localReadChannels = new ArrayList<>();
+        CHANNEL_ID_TO_ACCEPTED_TYPES.forEach((channelId, acceptedDataTypes) -> {
+            if (!acceptedDataTypes.isEmpty()) {
+                localReadChannels.add(new ReadChannel(channelId, getChannelUID(channelId), acceptedDataTypes));
+            }
+        });
+        return localReadChannels;
+    }
+
     private void validateAndParseReadParameters(ModbusDataConfiguration config) throws ModbusConfigurationException {
         ModbusReadFunctionCode functionCode = this.functionCode;
         boolean readingDiscreteOrCoil = functionCode == ModbusReadFunctionCode.READ_COILS
@@ -782,13 +840,13 @@ public class ModbusDataThingHandler extends BaseThingHandler {
         }
     }
 
-    private boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
+    private static boolean containsOnOff(List<Class<? extends State>> channelAcceptedDataTypes) {
         return channelAcceptedDataTypes.stream().anyMatch(clz -> {
             return clz.equals(OnOffType.class);
         });
     }
 
-    private boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
+    private static boolean containsOpenClosed(List<Class<? extends State>> acceptedDataTypes) {
         return acceptedDataTypes.stream().anyMatch(clz -> {
             return clz.equals(OpenClosedType.class);
         });
@@ -838,10 +896,28 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             int itemsPerRegister = 16 / readValueType.getBits();
             extractIndex = (readIndex.get() - pollStart) * itemsPerRegister + subIndex;
         }
+        int registerIndex = readIndex.get() - pollStart;
+        int registerCount = Math.max(1, readValueType.getBits() / 16);
+        OptionalLong raw = OptionalLong.empty();
+        if (registerIndex >= 0 && registerIndex + registerCount <= registers.size()) {
+            long registersRaw = 0;
+            for (int i = 0; i < registerCount; i++) {
+                registersRaw = (registersRaw << 16) | registers.getRegister(registerIndex + i);
+            }
+            if (isReadUnchanged(registersRaw)) {
+                processUnchangedValue();
+                logger.trace("Thing {} registers of the value unchanged. Registers {} for request {}",
+                        thing.getUID(), registers, request);
+                return;
+            }
+            raw = OptionalLong.of(registersRaw);
+        }
+        // forget the previous read, so the value is decoded on the next poll if decoding fails
+        lastReadRawValid = false;
         numericState = ModbusBitUtilities.extractStateFromRegisters(registers, extractIndex, readValueType)
                 .map(state -> (State) state).orElse(UnDefType.UNDEF);
         boolean boolValue = !numericState.equals(DecimalType.ZERO);
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue, raw);
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={}, readSubIndex(or 0)={}, extractIndex={} -> numeric value {} and boolValue={}. Registers {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, readSubIndex.orElse(0), extractIndex, numericState,
@@ -855,8 +931,16 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             return;
         }
         boolean boolValue = bits.getBit(readIndex.get() - pollStart);
+        if (isReadUnchanged(boolValue ? 1 : 0)) {
+            processUnchangedValue();
+            logger.trace("Thing {} bit of the value unchanged. Bits {} for request {}",
+                    thing.getUID(), bits, request);
+            return;
+        }
+        lastReadRawValid = false;
         DecimalType numericState = boolValue ? new DecimalType(BigDecimal.ONE) : DecimalType.ZERO;
-        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue);
+        Map<ChannelUID, State> values = processUpdatedValue(numericState, boolValue,
+                OptionalLong.of(boolValue ? 1 : 0));
         logger.debug(
                 "Thing {} channels updated: {}. readValueType={}, readIndex={} -> numeric value {} and boolValue={}. Bits {} for request {}",
                 thing.getUID(), values, readValueType, readIndex, numericState, boolValue, bits, request);
@@ -953,9 +1037,10 @@ public class ModbusDataThingHandler extends BaseThingHandler {
      *
      * @param numericState numeric state corresponding to polled data (or UNDEF with floating point NaN or infinity)
      * @param boolValue boolean value corresponding to polled data
+     * @param raw raw polled data, remembered to skip decoding it again if all linked channels could be updated
      * @return updated channel data
      */
-    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue) {
+    private Map<ChannelUID, State> processUpdatedValue(State numericState, boolean boolValue, OptionalLong raw) {
         ValueTransformation localReadTransformation = readTransformation;
         if (localReadTransformation == null) {
             // We should always have transformation available if thing is initalized properly
@@ -963,30 +1048,26 @@ public class ModbusDataThingHandler extends BaseThingHandler {
             return Collections.emptyMap();
         }
         Map<ChannelUID, State> states = new HashMap<>();
-        CHANNEL_ID_TO_ACCEPTED_TYPES.keySet().stream().forEach(channelId -> {
-            ChannelUID channelUID = getChannelUID(channelId);
+        boolean transformed = true;
+        for (ReadChannel readChannel : readChannels) {
+            String channelId = readChannel.channelId;
+            ChannelUID channelUID = readChannel.uid;
             if (!isLinked(channelUID)) {
-                return;
-            }
-            List<Class<? extends State>> acceptedDataTypes = CHANNEL_ID_TO_ACCEPTED_TYPES.get(channelId);
-            if (acceptedDataTypes.isEmpty()) {
-                return;
+                continue;
             }
+            List<Class<? extends State>> acceptedDataTypes = readChannel.acceptedDataTypes;
 
-            State boolLikeState;
-            if (containsOnOff(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OnOffType.ON : OnOffType.OFF;
-            } else if (containsOpenClosed(acceptedDataTypes)) {
-                boolLikeState = boolValue ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
-            } else {
-                boolLikeState = null;
-            }
+            State boolLikeState = boolValue ? readChannel.onState : readChannel.offState;
 
             State transformedState;
             if (localReadTransformation.isIdentityTransform()) {
                 if (boolLikeState != null) {
                     // A bit of smartness for ON/OFF and OPEN/CLOSED with boolean like items
                     transformedState = boolLikeState;
+                } else if (readChannel.acceptsNumericState
+                        && (numericState instanceof DecimalType || numericState == UnDefType.UNDEF)) {
+                    // The string round trip of the transformation would return an equal state
+                    transformedState = numericState;
                 } else {
                     // Numeric states always go through transformation. This allows value of 17.5 to be
                     // converted to
@@ -1007,6 +1088,7 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                         localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
                 states.put(channelUID, transformedState);
             } else {
+                transformed = false;
                 String types = String.join(", ",
                         acceptedDataTypes.stream().map(cls -> cls.getSimpleName()).toArray(String[]::new));
                 logger.warn(
@@ -1014,16 +1096,81 @@ public class ModbusDataThingHandler extends BaseThingHandler {
                         channelId, types, numericState, readValueType, boolValue,
                         localReadTransformation.isIdentityTransform() ? "<identity>" : localReadTransformation);
             }
-        });
+        }
 
         ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
         if (isLinked(lastReadSuccessUID)) {
             states.put(lastReadSuccessUID, new DateTimeType());
         }
         updateExpiredChannels(states);
+        if (transformed && raw.isPresent()) {
+            rememberRead(raw.getAsLong());
+        }
         return states;
     }
 
+    /**
+     * Check whether the raw polled data of the value is the same as on the previous successful read. Decoding and
+     * transforming is skipped for unchanged values, until the linked channels change or unchanged values are to be
+     * updated again (updateUnchangedValuesEveryMillis), so transformations are still applied periodically.
+     *
+     * @param raw raw registers or bit of the value
+     * @return true if the states of the previous read can be reused
+     */
+    private boolean isReadUnchanged(long raw) {
+        return lastReadRawValid && lastReadRaw == raw && lastReadLinkedChannels == getLinkedReadChannels()
+                && System.currentTimeMillis() - lastReadDecodedMillis < updateUnchangedValuesEveryMillis;
+    }
+
+    /**
+     * Remember the raw polled data of a value which was decoded and transformed for all linked channels
+     *
+     * @param raw raw registers or bit of the value
+     */
+    private void rememberRead(long raw) {
+        lastReadRaw = raw;
+        lastReadLinkedChannels = getLinkedReadChannels();
+        lastReadDecodedMillis = System.currentTimeMillis();
+        lastReadRawValid = true;
+    }
+
+    /**
+     * @return bit mask of the linked channels in {@link #readChannels}
+     */
+    private int getLinkedReadChannels() {
+        int linkedChannels = 0;
+        List<ReadChannel> localReadChannels = readChannels;
+        for (int i = 0; i < localReadChannels.size(); i++) {
+            if (isLinked(localReadChannels.get(i).uid)) {
+                linkedChannels |= 1 << i;
+            }
+        }
+        return linkedChannels;
+    }
+
+    /**
+     * Update linked channels with the states of the previous read, as polled data has not changed
+     */
+    private void processUnchangedValue() {
+        synchronized (this) {
+            updateStatusIfChanged(ThingStatus.ONLINE);
+            long now = System.currentTimeMillis();
+            ChannelUID lastReadSuccessUID = getChannelUID(ModbusBindingConstantsInternal.CHANNEL_LAST_READ_SUCCESS);
+            channelLastState.forEach((uid, state) -> {
+                if (!uid.equals(lastReadSuccessUID)) {
+                    updateExpiredChannel(now, uid, state);
+                }
+            });
+            if (isLinked(lastReadSuccessUID)) {
+                DateTimeType lastReadSuccess = new DateTimeType();
+                updateExpiredChannel(now, lastReadSuccessUID, lastReadSuccess);
+                channelLastState.put(lastReadSuccessUID, lastReadSuccess);
+            } else {
+                channelLastState.remove(lastReadSuccessUID);
+            }
+        }
+    }
+
     private void updateExpiredChannels(Map<ChannelUID, State> states) {
         synchronized (this) {
             updateStatusIfChanged(ThingStatus.ONLINE);
@@ -85,6 +85,12 @@ public class ModbusSerialThingHandler
         }
     }
 
+    @Override
+    protected int getMergePollsMaxGap() {
+        ModbusSerialConfiguration localConfig = config;
+        return localConfig != null && localConfig.isMergePolls() ? localConfig.getMergePollsMaxGap() : -1;
+    }
+
     @SuppressWarnings("null") // Since endpoint in Optional.map cannot be null
     @Override
     protected String formatConflictingParameterError() {
@@ -98,6 +98,12 @@ public class ModbusTcpThingHandler
         }
     }
 
+    @Override
+    protected int getMergePollsMaxGap() {
+        ModbusTcpConfiguration localConfig = config;
+        return localConfig != null && localConfig.isMergePolls() ? localConfig.getMergePollsMaxGap() : -1;
+    }
+
     @Override
     public Collection<Class<? extends ThingHandlerService>> getServices() {
         return Collections.singleton(ModbusEndpointDiscoveryService.class);
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.modbus.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.io.transport.modbus.AsyncModbusFailure;
+import org.openhab.core.io.transport.modbus.AsyncModbusReadResult;
+import org.openhab.core.io.transport.modbus.BitArray;
+import org.openhab.core.io.transport.modbus.ModbusCommunicationInterface;
+import org.openhab.core.io.transport.modbus.ModbusFailureCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadCallback;
+import org.openhab.core.io.transport.modbus.ModbusReadFunctionCode;
+import org.openhab.core.io.transport.modbus.ModbusReadRequestBlueprint;
+import org.openhab.core.io.transport.modbus.ModbusRegisterArray;
+import org.openhab.core.io.transport.modbus.PollTask;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ModbusPollMergerTest {
+
+    private static class Callback implements ModbusReadCallback, ModbusFailureCallback<ModbusReadRequestBlueprint> {
+        private final List<AsyncModbusReadResult> results = new ArrayList<>();
+        private final List<AsyncModbusFailure<ModbusReadRequestBlueprint>> failures = new ArrayList<>();
+
+        @Override
+        public void handle(AsyncModbusReadResult result) {
+            results.add(result);
+        }
+
+        @Override
+        public void handle(AsyncModbusFailure<ModbusReadRequestBlueprint> failure) {
+            failures.add(failure);
+        }
+    }
+
+    private final ModbusCommunicationInterface comms = mock(ModbusCommunicationInterface.class);
+
+    private static ModbusReadRequestBlueprint holding(int start, int length) {
+        return new ModbusReadRequestBlueprint(1, ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS, start, length, 3);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ModbusReadCallback> captureRegisteredPolls(List<ModbusReadRequestBlueprint> requests) {
+        ArgumentCaptor<ModbusReadRequestBlueprint> requestCaptor = ArgumentCaptor
+                .forClass(ModbusReadRequestBlueprint.class);
+        ArgumentCaptor<ModbusReadCallback> callbackCaptor = ArgumentCaptor.forClass(ModbusReadCallback.class);
+        verify(comms, atLeastOnce()).registerRegularPoll(requestCaptor.capture(), anyLong(), anyLong(),
+                callbackCaptor.capture(), any(ModbusFailureCallback.class));
+        requests.addAll(requestCaptor.getAllValues());
+        return callbackCaptor.getAllValues();
+    }
+
+    @Test
+    public void testAdjacentPollsAreMergedAndSliced() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollMerger merger = new ModbusPollMerger(comms, 0);
+        Callback first = new Callback();
+        Callback second = new Callback();
+        merger.register(holding(0, 2), 1000, first, first);
+        merger.register(holding(2, 1), 1000, second, second);
+
+        assertEquals(1, merger.getPollCount());
+        List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+        List<ModbusReadCallback> callbacks = captureRegisteredPolls(requests);
+        ModbusReadRequestBlueprint merged = requests.get(requests.size() - 1);
+        assertEquals(0, merged.getReference());
+        assertEquals(3, merged.getDataLength());
+
+        callbacks.get(callbacks.size() - 1).handle(new AsyncModbusReadResult(merged,
+                new ModbusRegisterArray(new byte[] { 0, 1, 0, 2, 0, 3 })));
+        assertEquals(1, first.results.size());
+        assertEquals(0, first.results.get(0).getRequest().getReference());
+        assertEquals(new ModbusRegisterArray(new byte[] { 0, 1, 0, 2 }), first.results.get(0).getRegisters().get());
+        assertEquals(1, second.results.size());
+        assertEquals(new ModbusRegisterArray(new byte[] { 0, 3 }), second.results.get(0).getRegisters().get());
+    }
+
+    @Test
+    public void testGapLimitAndRefreshSeparatePolls() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollMerger merger = new ModbusPollMerger(comms, 2);
+        Callback callback = new Callback();
+        merger.register(holding(0, 2), 1000, callback, callback);
+        merger.register(holding(4, 2), 1000, callback, callback);
+        assertEquals(1, merger.getPollCount());
+        merger.register(holding(9, 2), 1000, callback, callback);
+        assertEquals(2, merger.getPollCount());
+        merger.register(holding(2, 2), 500, callback, callback);
+        assertEquals(3, merger.getPollCount());
+    }
+
+    @Test
+    public void testMergedReadDoesNotExceedProtocolLimit() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollMerger merger = new ModbusPollMerger(comms, 0);
+        Callback callback = new Callback();
+        merger.register(holding(0, 100), 1000, callback, callback);
+        merger.register(holding(100, 26), 1000, callback, callback);
+        assertEquals(2, merger.getPollCount());
+    }
+
+    @Test
+    public void testBitsAndFailuresAreForwarded() {
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(mock(PollTask.class));
+        ModbusPollMerger merger = new ModbusPollMerger(comms, 0);
+        Callback first = new Callback();
+        Callback second = new Callback();
+        ModbusReadRequestBlueprint firstRequest = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_COILS, 0, 2, 3);
+        ModbusReadRequestBlueprint secondRequest = new ModbusReadRequestBlueprint(1,
+                ModbusReadFunctionCode.READ_COILS, 1, 2, 3);
+        merger.register(firstRequest, 1000, first, first);
+        merger.register(secondRequest, 1000, second, second);
+
+        List<ModbusReadRequestBlueprint> requests = new ArrayList<>();
+        List<ModbusReadCallback> callbacks = captureRegisteredPolls(requests);
+        ModbusReadRequestBlueprint merged = requests.get(requests.size() - 1);
+        assertEquals(3, merged.getDataLength());
+        ModbusReadCallback poll = callbacks.get(callbacks.size() - 1);
+        BitArray bits = new BitArray(3);
+        bits.setBit(0, true);
+        bits.setBit(2, true);
+        poll.handle(new AsyncModbusReadResult(merged, bits));
+        BitArray firstBits = first.results.get(0).getBits().get();
+        assertEquals(2, firstBits.size());
+        assertTrue(firstBits.getBit(0));
+        assertFalse(firstBits.getBit(1));
+        BitArray secondBits = second.results.get(0).getBits().get();
+        assertEquals(2, secondBits.size());
+        assertFalse(secondBits.getBit(0));
+        assertTrue(secondBits.getBit(1));
+
+        @SuppressWarnings("unchecked")
+        ModbusFailureCallback<ModbusReadRequestBlueprint> failureCallback = //
+                (ModbusFailureCallback<ModbusReadRequestBlueprint>) (Object) poll;
+        failureCallback.handle(new AsyncModbusFailure<>(merged, new Exception("timeout")));
+        assertEquals(1, second.failures.get(0).getRequest().getReference());
+        assertEquals(2, second.failures.get(0).getRequest().getDataLength());
+    }
+
+    @Test
+    public void testUnregisterReplansPolls() {
+        PollTask task = mock(PollTask.class);
+        when(comms.registerRegularPoll(any(), anyLong(), anyLong(), any(), any())).thenReturn(task);
+        ModbusPollMerger merger = new ModbusPollMerger(comms, 0);
+        Callback callback = new Callback();
+        ModbusPollMerger.Registration first = merger.register(holding(0, 2), 1000, callback, callback);
+        ModbusPollMerger.Registration second = merger.register(holding(2, 2), 1000, callback, callback);
+
+        second.unregister();
+        assertEquals(1, merger.getPollCount());
+        first.unregister();
+        assertEquals(0, merger.getPollCount());
+        // unregistering again is a no-op
+        first.unregister();
+        verify(comms, times(3)).unregisterRegularPoll(task);
+    }
+}
@@ -12,8 +12,10 @@
  */
 package org.openhab.binding.mqtt.generic;
 
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -23,10 +25,15 @@ import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.mqtt.generic.values.NumberValue;
 import org.openhab.binding.mqtt.generic.values.TextValue;
 import org.openhab.binding.mqtt.generic.values.Value;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
 import org.openhab.core.io.transport.mqtt.MqttMessageSubscriber;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.types.Command;
@@ -62,6 +69,34 @@ public class ChannelState implements MqttMessageSubscriber {
     private CompletableFuture<@Nullable Void> future = CompletableFuture.completedFuture(null);
     private final Object futureLock = new Object();
 
+    private static final int MAX_FAST_PARSE_LENGTH = 32;
+
+    private enum FastParseType {
+        NONE,
+        ON_OFF,
+        OPEN_CLOSED,
+        DECIMAL
+    }
+
+    /**
+     * The last received payload and the value and command it resulted in. Only kept for channels without incoming
+     * transformations, as a transformation may map the same payload to another value the next time.
+     */
+    private static class LastMessage {
+        private final byte[] payload;
+        private final String value;
+        private final @Nullable Command command;
+
+        private LastMessage(byte[] payload, String value, @Nullable Command command) {
+            this.payload = payload;
+            this.value = value;
+            this.command = command;
+        }
+    }
+
+    private final FastParseType fastParseType;
+    private volatile @Nullable LastMessage lastMessage;
+
     /**
      * Creates a new channel state.
      *
@@ -78,6 +113,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.channelUID = channelUID;
         this.cachedValue = cachedValue;
         this.readOnly = config.commandTopic.isBlank();
+        this.fastParseType = getFastParseType(cachedValue);
     }
 
     public boolean isReadOnly() {
@@ -92,6 +128,7 @@ public class ChannelState implements MqttMessageSubscriber {
      */
     public void addTransformation(ChannelStateTransformation transformation) {
         transformationsIn.add(transformation);
+        lastMessage = null;
     }
 
     /**
@@ -110,6 +147,7 @@ public class ChannelState implements MqttMessageSubscriber {
     public void clearTransformations() {
         transformationsIn.clear();
         transformationsOut.clear();
+        lastMessage = null;
     }
 
     /**
@@ -152,17 +190,39 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        // String value: Apply transformations
-        String strValue = new String(payload, StandardCharsets.UTF_8);
-        for (ChannelStateTransformation t : transformationsIn) {
-            String transformedValue = t.processValue(strValue);
-            if (transformedValue != null) {
-                strValue = transformedValue;
+        // Without transformations a payload equal to the previous one results in the same value, skip the parsing
+        final boolean untransformed = transformationsIn.isEmpty();
+        final LastMessage lastMessage = this.lastMessage;
+        String strValue;
+        Command command;
+        if (untransformed && lastMessage != null && Arrays.equals(lastMessage.payload, payload)) {
+            strValue = lastMessage.value;
+            command = lastMessage.command;
+        } else {
+            command = untransformed && !config.trigger ? fastParse(payload) : null;
+            if (command != null) {
+                strValue = command.toFullString();
             } else {
-                logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue, t.serviceName);
-                receivedOrTimeout();
-                return;
+                // String value: Apply transformations
+                strValue = new String(payload, StandardCharsets.UTF_8);
+                for (ChannelStateTransformation t : transformationsIn) {
+                    String transformedValue = t.processValue(strValue);
+                    if (transformedValue != null) {
+                        strValue = transformedValue;
+                    } else {
+                        logger.debug("Transformation '{}' returned null on '{}', discarding message", strValue,
+                                t.serviceName);
+                        receivedOrTimeout();
+                        return;
+                    }
+                }
+                if (!config.trigger) {
+                    command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
+                }
             }
+            this.lastMessage = untransformed
+                    ? new LastMessage(Arrays.copyOf(payload, payload.length), strValue, command)
+                    : null;
         }
 
         // Is trigger?: Special handling
@@ -172,7 +232,6 @@ public class ChannelState implements MqttMessageSubscriber {
             return;
         }
 
-        Command command = TypeParser.parseCommand(cachedValue.getSupportedCommandTypes(), strValue);
         if (command == null) {
             logger.warn("Incoming payload '{}' not supported by type '{}'", strValue,
                     cachedValue.getClass().getSimpleName());
@@ -205,6 +264,96 @@ public class ChannelState implements MqttMessageSubscriber {
         receivedOrTimeout();
     }
 
+    /**
+     * Parses the most common payloads, plain numbers and ON/OFF or OPEN/CLOSED, directly from the bytes. Returns null
+     * if the payload has to be parsed by the {@link TypeParser}.
+     */
+    private @Nullable Command fastParse(byte[] payload) {
+        switch (fastParseType) {
+            case ON_OFF:
+                if (equalsAscii(payload, "ON")) {
+                    return OnOffType.ON;
+                } else if (equalsAscii(payload, "OFF")) {
+                    return OnOffType.OFF;
+                }
+                return null;
+            case OPEN_CLOSED:
+                if (equalsAscii(payload, "OPEN")) {
+                    return OpenClosedType.OPEN;
+                } else if (equalsAscii(payload, "CLOSED")) {
+                    return OpenClosedType.CLOSED;
+                }
+                return null;
+            case DECIMAL:
+                BigDecimal value = parseDecimal(payload);
+                return value != null ? new DecimalType(value) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Determines which payloads can be parsed by {@link #fastParse(byte[])} from the command type the
+     * {@link TypeParser} would try first. The commands may differ, for a {@link NumberValue} the fast parser returns a
+     * {@link DecimalType} where the {@link TypeParser} returns a dimensionless {@link QuantityType}, but the value
+     * updates to the same state with both.
+     */
+    private static FastParseType getFastParseType(Value value) {
+        List<Class<? extends Command>> commandTypes = value.getSupportedCommandTypes();
+        if (value.isBinary() || commandTypes.isEmpty()) {
+            return FastParseType.NONE;
+        }
+        Class<? extends Command> first = commandTypes.get(0);
+        if (first == OnOffType.class) {
+            return FastParseType.ON_OFF;
+        } else if (first == OpenClosedType.class) {
+            return FastParseType.OPEN_CLOSED;
+        } else if (first == DecimalType.class || value instanceof NumberValue) {
+            // a dimensionless quantity is handled like a decimal by the number value
+            return FastParseType.DECIMAL;
+        }
+        return FastParseType.NONE;
+    }
+
+    private static boolean equalsAscii(byte[] payload, String expected) {
+        if (payload.length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < payload.length; i++) {
+            if (payload[i] != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a payload of the form [-]digits[.digits], returns null for anything else.
+     */
+    private static @Nullable BigDecimal parseDecimal(byte[] payload) {
+        int length = payload.length;
+        if (length == 0 || length > MAX_FAST_PARSE_LENGTH) {
+            return null;
+        }
+        char[] chars = new char[length];
+        int start = payload[0] == '-' ? 1 : 0;
+        int dot = -1;
+        for (int i = 0; i < length; i++) {
+            byte b = payload[i];
+            if (b >= '0' && b <= '9') {
+                chars[i] = (char) b;
+            } else if (b == '.' && dot < 0 && i > start && i < length - 1) {
+                dot = i;
+                chars[i] = '.';
+            } else if (i == 0 && start == 1 && length > 1) {
+                chars[i] = '-';
+            } else {
+                return null;
+            }
+        }
+        return new BigDecimal(chars);
+    }
+
     /**
      * Returns the state topic. Might be an empty string if this is a stateless channel (TRIGGER kind channel).
      */
@@ -254,6 +403,7 @@ public class ChannelState implements MqttMessageSubscriber {
         this.connection = null;
         this.channelStateUpdateListener = null;
         hasSubscribed = false;
+        lastMessage = null;
         cachedValue.resetState();
     }
 
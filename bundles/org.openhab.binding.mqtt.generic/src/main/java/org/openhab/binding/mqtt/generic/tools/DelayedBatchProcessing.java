@@ -13,11 +13,14 @@
 package org.openhab.binding.mqtt.generic.tools;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -25,47 +28,106 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 
 /**
- * Collects objects over time until a specified delay passed by.
+ * Collects objects over time until a specified delay passed by without new objects.
  * Then call the user back with a list of accumulated objects and start over again.
  *
+ * <p>
+ * A batch is delivered early if it reached the maximum batch size, or if its first object is waiting for the maximum
+ * latency already, so a constant flow of objects doesn't delay the processing forever. Objects are collected in a
+ * queue and a single timer is armed per batch, instead of rescheduling the timer for every object.
+ *
  * @author David Graeff - Initial contribution
  *
  * @param <T> Any object
  */
 @NonNullByDefault
 public class DelayedBatchProcessing<T> implements Consumer<T> {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    public static final int DEFAULT_MAX_LATENCY_FACTOR = 10;
+
+    private static final long NONE = Long.MIN_VALUE;
+
     private final int delay;
+    private final int maxBatchSize;
+    private final int maxLatency;
     private final Consumer<List<T>> consumer;
-    private final List<T> queue = Collections.synchronizedList(new ArrayList<>());
+    private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
     private final ScheduledExecutorService executor;
     protected final AtomicReference<@Nullable ScheduledFuture<?>> futureRef = new AtomicReference<>();
 
+    // guards adding objects and taking a batch, so the start of a batch belongs to the objects it contains
+    private final Object batchLock = new Object();
+    // System.nanoTime() of the first and the last object of the current batch
+    private long firstAccepted = NONE;
+    private volatile long lastAccepted = NONE;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicInteger largestBatchSize = new AtomicInteger();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxObservedLatency = new AtomicLong();
+
     /**
-     * Creates a {@link DelayedBatchProcessing}.
+     * Creates a {@link DelayedBatchProcessing} with the default maximum batch size and a maximum latency of
+     * {@value #DEFAULT_MAX_LATENCY_FACTOR} times the delay.
      *
      * @param delay A delay in milliseconds
      * @param consumer A consumer of the list of collected objects
      * @param executor A scheduled executor service
      */
     public DelayedBatchProcessing(int delay, Consumer<List<T>> consumer, ScheduledExecutorService executor) {
+        this(delay, DEFAULT_MAX_BATCH_SIZE, delay * DEFAULT_MAX_LATENCY_FACTOR, consumer, executor);
+    }
+
+    /**
+     * Creates a {@link DelayedBatchProcessing}.
+     *
+     * @param delay A delay in milliseconds
+     * @param maxBatchSize The maximum number of objects delivered at once
+     * @param maxLatency The maximum time in milliseconds an object is held back
+     * @param consumer A consumer of the list of collected objects
+     * @param executor A scheduled executor service
+     */
+    public DelayedBatchProcessing(int delay, int maxBatchSize, int maxLatency, Consumer<List<T>> consumer,
+            ScheduledExecutorService executor) {
         this.delay = delay;
+        this.maxBatchSize = maxBatchSize;
+        this.maxLatency = maxLatency;
         this.consumer = consumer;
         this.executor = executor;
         if (delay <= 0) {
             throw new IllegalArgumentException("Delay need to be greater than 0!");
         }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Maximum batch size need to be greater than 0!");
+        }
+        if (maxLatency < delay) {
+            throw new IllegalArgumentException("Maximum latency need to be at least the delay!");
+        }
     }
 
     /**
      * Add new object to the batch process list. Every time a new object is received,
-     * the delay timer is rescheduled.
+     * the delivery is delayed, up to the maximum latency.
      *
      * @param t An object
      */
     @Override
     public void accept(T t) {
-        queue.add(t);
-        cancel(futureRef.getAndSet(executor.schedule(this::run, delay, TimeUnit.MILLISECONDS)));
+        long now = System.nanoTime();
+        synchronized (batchLock) {
+            queue.add(t);
+            lastAccepted = now;
+            if (firstAccepted == NONE) {
+                firstAccepted = now;
+            }
+        }
+        if (queueSize.incrementAndGet() == maxBatchSize) {
+            schedule(0, true);
+        } else if (futureRef.get() == null) {
+            schedule(TimeUnit.MILLISECONDS.toNanos(delay), false);
+        }
     }
 
     /**
@@ -75,12 +137,10 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     public List<T> join() {
         cancel(futureRef.getAndSet(null));
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+        synchronized (batchLock) {
+            firstAccepted = NONE;
+            return drain(Integer.MAX_VALUE);
         }
-        return lqueue;
     }
 
     /**
@@ -96,21 +156,133 @@ public class DelayedBatchProcessing<T> implements Consumer<T> {
      */
     public void forceProcessNow() {
         cancel(futureRef.getAndSet(null));
+        do {
+            run();
+        } while (queueSize.get() > 0);
+    }
+
+    /**
+     * Arms the timer, unless it is armed already. An immediate delivery replaces a delayed one.
+     */
+    private void schedule(long delayNanos, boolean replace) {
+        ScheduledFuture<?> current = futureRef.get();
+        if (current != null && !replace) {
+            return;
+        }
+        ScheduledFuture<?> future = executor.schedule(this::timerExpired, delayNanos, TimeUnit.NANOSECONDS);
+        if (futureRef.compareAndSet(current, future)) {
+            cancel(current);
+        } else {
+            // armed concurrently by another thread
+            cancel(future);
+        }
+    }
+
+    private void timerExpired() {
+        // disarm before looking at the queue, so an object added concurrently arms the timer again
+        futureRef.set(null);
+        if (queueSize.get() <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long first;
+        synchronized (batchLock) {
+            first = firstAccepted;
+        }
+        long quietRemaining = TimeUnit.MILLISECONDS.toNanos(delay) - (now - lastAccepted);
+        long latencyRemaining = first == NONE ? quietRemaining
+                : TimeUnit.MILLISECONDS.toNanos(maxLatency) - (now - first);
+        if (quietRemaining > 0 && latencyRemaining > 0 && queueSize.get() < maxBatchSize) {
+            schedule(Math.min(quietRemaining, latencyRemaining), false);
+            return;
+        }
         run();
+        if (queueSize.get() > 0) {
+            // objects of the next batch arrived while delivering, or more than the maximum batch size were queued
+            synchronized (batchLock) {
+                if (firstAccepted == NONE) {
+                    firstAccepted = now;
+                }
+            }
+            schedule(queueSize.get() >= maxBatchSize ? 0 : TimeUnit.MILLISECONDS.toNanos(delay), false);
+        }
     }
 
-    private void run() {
-        List<T> lqueue = new ArrayList<>();
-        synchronized (queue) {
-            lqueue.addAll(queue);
-            queue.clear();
+    private synchronized void run() {
+        long first;
+        List<T> lqueue;
+        synchronized (batchLock) {
+            first = firstAccepted;
+            firstAccepted = NONE;
+            lqueue = drain(maxBatchSize);
         }
 
         if (!lqueue.isEmpty()) {
+            if (first != NONE) {
+                long latency = System.nanoTime() - first;
+                totalLatency.addAndGet(latency);
+                maxObservedLatency.accumulateAndGet(latency, Math::max);
+            }
+            batchCount.incrementAndGet();
+            processedCount.addAndGet(lqueue.size());
+            largestBatchSize.accumulateAndGet(lqueue.size(), Math::max);
             consumer.accept(lqueue);
         }
     }
 
+    private List<T> drain(int max) {
+        List<T> lqueue = new ArrayList<>();
+        T t;
+        while (lqueue.size() < max && (t = queue.poll()) != null) {
+            lqueue.add(t);
+        }
+        queueSize.addAndGet(-lqueue.size());
+        return lqueue;
+    }
+
+    /**
+     * Return the number of batches delivered to the target consumer.
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Return the number of objects delivered to the target consumer.
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * Return the size of the largest batch delivered to the target consumer.
+     */
+    public int getLargestBatchSize() {
+        return largestBatchSize.get();
+    }
+
+    /**
+     * Return the average time in milliseconds between receiving the first object of a batch and delivering it.
+     */
+    public long getAverageLatency() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLatency.get() / batches);
+    }
+
+    /**
+     * Return the longest time in milliseconds between receiving the first object of a batch and delivering it.
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxObservedLatency.get());
+    }
+
+    @Override
+    public String toString() {
+        return "DelayedBatchProcessing [batches=" + getBatchCount() + ", processed=" + getProcessedCount()
+                + ", largestBatch=" + getLargestBatchSize() + ", averageLatency=" + getAverageLatency()
+                + "ms, maxLatency=" + getMaxLatency() + "ms]";
+    }
+
     private static void cancel(@Nullable ScheduledFuture<?> future) {
         if (future != null) {
             future.cancel(false);
@@ -120,4 +120,22 @@ public class ChannelStateTransformationTests {
         verify(callback).stateUpdated(eq(textChannelUID), argThat(arg -> "23.2".equals(arg.toString())));
         assertThat(channelConfig.getCache().getChannelState().toString(), is("23.2"));
     }
+
+    @SuppressWarnings("null")
+    @Test
+    public void repeatedMessageIsTransformedAgain() throws Exception {
+        // the transformation result may change, for example if a MAP file was edited
+        when(jsonPathService.transform(jsonPathPattern, jsonPathJSON)).thenReturn("23.2", "24.5");
+
+        thingHandler.initialize();
+        ChannelState channelConfig = thingHandler.getChannelState(textChannelUID);
+        channelConfig.setChannelStateUpdateListener(thingHandler);
+
+        byte payload[] = jsonPathJSON.getBytes();
+        channelConfig.processMessage(channelConfig.getStateTopic(), payload);
+        channelConfig.processMessage(channelConfig.getStateTopic(), payload);
+
+        verify(jsonPathService, times(2)).transform(jsonPathPattern, jsonPathJSON);
+        assertThat(channelConfig.getCache().getChannelState().toString(), is("24.5"));
+    }
 }
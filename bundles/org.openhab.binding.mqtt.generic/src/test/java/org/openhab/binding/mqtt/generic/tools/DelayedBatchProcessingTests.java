@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.generic.tools;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link DelayedBatchProcessing} class: Objects are delivered after the delay, when the maximum batch size
+ * is reached, or when the maximum latency passed by while objects keep arriving.
+ *
+ * @author agent - Initial contribution
+ */
+public class DelayedBatchProcessingTests {
+    private final ScheduledExecutorService scheduler = new ScheduledThreadPoolExecutor(1);
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private void waitForBatches(int count) throws InterruptedException {
+        for (int i = 0; i < 500 && batches.size() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void deliverAfterDelay() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(50, batches::add, scheduler);
+        processing.accept(1);
+        processing.accept(2);
+        assertTrue(processing.isArmed());
+
+        waitForBatches(1);
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), is(List.of(1, 2)));
+        assertThat(processing.getBatchCount(), is(1L));
+        assertThat(processing.getProcessedCount(), is(2L));
+        assertThat(processing.getLargestBatchSize(), is(2));
+    }
+
+    @Test
+    public void deliverWhenMaxBatchSizeReached() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, 3, 60000, batches::add,
+                scheduler);
+        for (int i = 0; i < 7; i++) {
+            processing.accept(i);
+        }
+
+        waitForBatches(2);
+        assertThat(batches.get(0), is(List.of(0, 1, 2)));
+        assertThat(batches.get(1), is(List.of(3, 4, 5)));
+
+        // the remaining object waits for the delay
+        assertThat(processing.join(), is(List.of(6)));
+        assertThat(batches.size(), is(2));
+    }
+
+    @Test
+    public void deliverWhenMaxLatencyReached() throws InterruptedException {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(200, 500, 400, batches::add,
+                scheduler);
+        // objects keep arriving faster than the delay
+        for (int i = 0; i < 100 && batches.isEmpty(); i++) {
+            processing.accept(i);
+            Thread.sleep(20);
+        }
+
+        assertFalse(batches.isEmpty());
+        assertTrue(processing.getMaxLatency() < 2000);
+        processing.join();
+    }
+
+    @Test
+    public void joinAndForceProcessNow() {
+        DelayedBatchProcessing<Integer> processing = new DelayedBatchProcessing<>(60000, batches::add, scheduler);
+        processing.accept(1);
+        assertThat(processing.join(), is(List.of(1)));
+        assertFalse(processing.isArmed());
+
+        processing.accept(2);
+        processing.accept(3);
+        processing.forceProcessNow();
+        assertFalse(processing.isArmed());
+        assertThat(batches.size(), is(1));
+        assertThat(batches.get(0), is(List.of(2, 3)));
+    }
+
+    @Test
+    public void invalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new DelayedBatchProcessing<>(0, batches::add, scheduler));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DelayedBatchProcessing<>(100, 0, 100, batches::add, scheduler));
+        assertThrows(IllegalArgumentException.class,
+                () -> new DelayedBatchProcessing<>(100, 10, 50, batches::add, scheduler));
+    }
+}
@@ -14,8 +14,10 @@ package org.openhab.binding.mqtt.homeassistant.internal;
 
 import java.lang.ref.WeakReference;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -60,12 +62,38 @@ public class DiscoverComponents implements MqttMessageSubscriber {
     protected @Nullable ComponentDiscovered discoveredListener;
     private int discoverTime;
     private Set<String> topics = new HashSet<>();
+    private final Map<String, DiscoveredConfig> discoveredConfigs = new ConcurrentHashMap<>();
 
     /**
      * Implement this to get notified of new components
      */
     public static interface ComponentDiscovered {
         void componentDiscovered(HaID homeAssistantTopicID, AbstractComponent<?> component);
+
+        /**
+         * Called for a config that was discovered before with the same content, to check whether the component
+         * created from it is still known to the listener. If not, the component is created and discovered again.
+         *
+         * @param groupID The channel group ID of the component
+         * @param configHash The hash of the config, see {@link AbstractComponent#getConfigHash()}
+         * @return true if the listener knows the component with that config
+         */
+        default boolean isComponentKnown(String groupID, int configHash) {
+            return false;
+        }
+    }
+
+    /**
+     * A config of a topic that resulted in a discovered component.
+     */
+    private static class DiscoveredConfig {
+        private final int configHash;
+        private final String groupID;
+
+        private DiscoveredConfig(int configHash, String groupID) {
+            this.configHash = configHash;
+            this.groupID = groupID;
+        }
     }
 
     /**
@@ -96,6 +124,15 @@ public class DiscoverComponents implements MqttMessageSubscriber {
         String config = new String(payload);
         AbstractComponent<?> component = null;
 
+        // Retained configs are received again on every reconnect, skip decoding them if they are unchanged
+        final ComponentDiscovered listener = discoveredListener;
+        final DiscoveredConfig discoveredConfig = discoveredConfigs.get(topic);
+        if (discoveredConfig != null && discoveredConfig.configHash == config.hashCode() && listener != null
+                && listener.isComponentKnown(discoveredConfig.groupID, discoveredConfig.configHash)) {
+            logger.trace("Unchanged HomeAssistant thing {} component {}", haID.objectID, haID.component);
+            return;
+        }
+
         if (config.length() > 0) {
             component = ComponentFactory.createComponent(thingUID, haID, config, updateListener, tracker, scheduler,
                     gson, transformationServiceProvider);
@@ -104,10 +141,13 @@ public class DiscoverComponents implements MqttMessageSubscriber {
             component.setConfigSeen();
 
             logger.trace("Found HomeAssistant thing {} component {}", haID.objectID, haID.component);
-            if (discoveredListener != null) {
-                discoveredListener.componentDiscovered(haID, component);
+            if (listener != null) {
+                discoveredConfigs.put(topic,
+                        new DiscoveredConfig(component.getConfigHash(), component.getGroupUID().getId()));
+                listener.componentDiscovered(haID, component);
             }
         } else {
+            discoveredConfigs.remove(topic);
             logger.debug("Configuration of HomeAssistant thing {} invalid: {}", haID.objectID, config);
         }
     }
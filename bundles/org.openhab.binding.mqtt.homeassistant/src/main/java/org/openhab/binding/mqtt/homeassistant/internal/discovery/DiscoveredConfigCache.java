@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.mqtt.homeassistant.internal.discovery;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.storage.Storage;
+
+/**
+ * Caches the parts of the Home Assistant component configurations needed for the discovery results, keyed by the
+ * config topic and a hash of the payload.
+ *
+ * Retained config topics are received again on every broker (re)connect, usually with unchanged payloads, which then
+ * don't need to be decoded again. If a {@link Storage} is given, the cache is persisted so unchanged payloads are also
+ * recognized after a restart. Persisted entries of topics which were not received for {@link #MAX_AGE} are dropped
+ * when the cache is loaded, so topics removed while openHAB was not running don't stay in the storage forever.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class DiscoveredConfigCache {
+    public static final Duration MAX_AGE = Duration.ofDays(30);
+    // a hit only updates the persisted entry if it was last seen longer ago, to avoid a write on every reconnect
+    private static final long SEEN_UPDATE_INTERVAL = Duration.ofDays(1).toMillis();
+
+    /**
+     * The decoded configuration of a config topic.
+     */
+    public static class Entry {
+        public String hash = "";
+        public String thingId = "";
+        public String thingName = "";
+        public Map<String, String> properties = new HashMap<>();
+        // milliseconds since the epoch the topic was last received at
+        public long lastSeen = 0;
+
+        public Entry() {
+        }
+
+        public Entry(String hash, String thingId, String thingName, Map<String, String> properties) {
+            this.hash = hash;
+            this.thingId = thingId;
+            this.thingName = thingName;
+            this.properties = properties;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final @Nullable Storage<Entry> storage;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DiscoveredConfigCache(@Nullable Storage<Entry> storage) {
+        this.storage = storage;
+        if (storage != null) {
+            long expired = System.currentTimeMillis() - MAX_AGE.toMillis();
+            for (String topic : List.copyOf(storage.getKeys())) {
+                Entry entry = storage.get(topic);
+                if (entry != null && entry.lastSeen >= expired) {
+                    entries.put(topic, entry);
+                } else {
+                    storage.remove(topic);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cached configuration of the topic if the payload is unchanged.
+     *
+     * @param topic The config topic
+     * @param hash The hash of the payload, see {@link #hash(byte[])}
+     * @return The cached configuration or null if the payload has to be decoded
+     */
+    public @Nullable Entry get(String topic, String hash) {
+        Entry entry = entries.get(topic);
+        if (entry != null && entry.hash.equals(hash)) {
+            hits.incrementAndGet();
+            long now = System.currentTimeMillis();
+            if (now - entry.lastSeen > SEEN_UPDATE_INTERVAL) {
+                entry.lastSeen = now;
+                Storage<Entry> storage = this.storage;
+                if (storage != null) {
+                    storage.put(topic, entry);
+                }
+            }
+            return entry;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String topic, Entry entry) {
+        entry.lastSeen = System.currentTimeMillis();
+        entries.put(topic, entry);
+        Storage<Entry> storage = this.storage;
+        if (storage != null) {
+            storage.put(topic, entry);
+        }
+    }
+
+    public void remove(String topic) {
+        if (entries.remove(topic) != null) {
+            Storage<Entry> storage = this.storage;
+            if (storage != null) {
+                storage.remove(topic);
+            }
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Computes the hash of a config payload.
+     */
+    public static String hash(byte[] payload) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(payload));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
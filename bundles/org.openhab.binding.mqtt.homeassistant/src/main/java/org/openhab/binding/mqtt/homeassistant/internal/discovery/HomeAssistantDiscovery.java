@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -36,10 +37,12 @@ import org.openhab.binding.mqtt.homeassistant.internal.HaID;
 import org.openhab.binding.mqtt.homeassistant.internal.HandlerConfiguration;
 import org.openhab.binding.mqtt.homeassistant.internal.config.ChannelConfigurationTypeAdapterFactory;
 import org.openhab.binding.mqtt.homeassistant.internal.config.dto.AbstractChannelConfiguration;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.discovery.DiscoveryResult;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
 import org.openhab.core.config.discovery.DiscoveryService;
 import org.openhab.core.io.transport.mqtt.MqttBrokerConnection;
+import org.openhab.core.storage.StorageService;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.type.ThingType;
@@ -60,7 +63,6 @@ import com.google.gson.GsonBuilder;
 @Component(service = DiscoveryService.class, configurationPid = "discovery.mqttha")
 @NonNullByDefault
 public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
-    @SuppressWarnings("unused")
     private final Logger logger = LoggerFactory.getLogger(HomeAssistantDiscovery.class);
     protected final Map<String, Set<HaID>> componentsPerThingID = new TreeMap<>();
     protected final Map<String, ThingUID> thingIDPerTopic = new TreeMap<>();
@@ -69,6 +71,10 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     private @Nullable ScheduledFuture<?> future;
     private final Gson gson;
 
+    private volatile DiscoveredConfigCache configCache = new DiscoveredConfigCache(null);
+    private final Map<String, String> pendingHashes = new ConcurrentHashMap<>();
+    private final ExecutorService decodeExecutor = ThreadPoolManager.getPool(DECODE_POOL_NAME);
+
     public static final Map<String, String> HA_COMP_TO_NAME = new TreeMap<>();
     {
         HA_COMP_TO_NAME.put("alarm_control_panel", "Alarm Control Panel");
@@ -84,6 +90,8 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
     }
 
     static final String BASE_TOPIC = "homeassistant";
+    static final String STORAGE_NAME = "mqtt.homeassistant.discovery";
+    static final String DECODE_POOL_NAME = "homeassistant-discovery";
 
     @NonNullByDefault({})
     protected MqttChannelTypeProvider typeProvider;
@@ -106,6 +114,16 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         this.mqttTopicDiscovery = null;
     }
 
+    @Reference
+    protected void setStorageService(StorageService storageService) {
+        configCache = new DiscoveredConfigCache(
+                storageService.getStorage(STORAGE_NAME, DiscoveredConfigCache.Entry.class.getClassLoader()));
+    }
+
+    protected void unsetStorageService(StorageService storageService) {
+        configCache = new DiscoveredConfigCache(null);
+    }
+
     @Override
     protected MQTTTopicDiscoveryService getDiscoveryService() {
         return mqttTopicDiscovery;
@@ -138,59 +156,102 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
             return;
         }
 
-        // Reset the found-component timer.
-        // We will collect components for the thing label description for another 2 seconds.
-        final ScheduledFuture<?> future = this.future;
-        if (future != null) {
-            future.cancel(false);
+        // Retained configs are received again on every reconnect, only decode them if they changed
+        final String hash = DiscoveredConfigCache.hash(payload);
+        final DiscoveredConfigCache configCache = this.configCache;
+        DiscoveredConfigCache.Entry cached = configCache.get(topic, hash);
+        if (cached != null) {
+            pendingHashes.remove(topic);
+            addResult(connectionBridge, topic, cached);
+            return;
         }
-        this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
 
+        // Decode changed configs in parallel. If the config of a topic changes again while it is decoded, only the
+        // latest one is used.
+        pendingHashes.put(topic, hash);
+        decodeExecutor.execute(() -> {
+            DiscoveredConfigCache.Entry entry;
+            try {
+                entry = decode(topic, hash, payload);
+            } catch (RuntimeException e) {
+                pendingHashes.remove(topic, hash);
+                logger.debug("Configuration of HomeAssistant component {} invalid: {}", topic, e.getMessage());
+                return;
+            }
+            if (pendingHashes.remove(topic, hash)) {
+                configCache.put(topic, entry);
+                addResult(connectionBridge, topic, entry);
+            }
+        });
+    }
+
+    private DiscoveredConfigCache.Entry decode(String topic, String hash, byte[] payload) {
         AbstractChannelConfiguration config = AbstractChannelConfiguration
                 .fromString(new String(payload, StandardCharsets.UTF_8), gson);
 
+        HaID haID = new HaID(topic);
+        Map<String, String> properties = new HashMap<>();
+        config.appendToProperties(new HashMap<>()).forEach((key, value) -> properties.put(key, value.toString()));
+        return new DiscoveredConfigCache.Entry(hash, config.getThingId(haID.objectID), config.getThingName(),
+                properties);
+    }
+
+    private void addResult(ThingUID connectionBridge, String topic, DiscoveredConfigCache.Entry config) {
         // We will of course find multiple of the same unique Thing IDs, for each different component another one.
         // Therefore the components are assembled into a list and given to the DiscoveryResult label for the user to
         // easily recognize object capabilities.
 
         HaID haID = new HaID(topic);
-        final String thingID = config.getThingId(haID.objectID);
+        final String thingID = config.thingId;
 
         final ThingTypeUID typeID = new ThingTypeUID(MqttBindingConstants.BINDING_ID,
                 MqttBindingConstants.HOMEASSISTANT_MQTT_THING.getId() + "_" + thingID);
 
         final ThingUID thingUID = new ThingUID(typeID, connectionBridge, thingID);
 
-        thingIDPerTopic.put(topic, thingUID);
+        synchronized (componentsPerThingID) {
+            // Reset the found-component timer.
+            // We will collect components for the thing label description for another 2 seconds.
+            final ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+            this.future = scheduler.schedule(this::publishResults, 2, TimeUnit.SECONDS);
+
+            thingIDPerTopic.put(topic, thingUID);
 
-        // We need to keep track of already found component topics for a specific thing
-        Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID, key -> ConcurrentHashMap.newKeySet());
-        components.add(haID);
+            // We need to keep track of already found component topics for a specific thing
+            Set<HaID> components = componentsPerThingID.computeIfAbsent(thingID,
+                    key -> ConcurrentHashMap.newKeySet());
+            components.add(haID);
 
-        final String componentNames = components.stream().map(id -> id.component)
-                .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
+            final String componentNames = components.stream().map(id -> id.component)
+                    .map(c -> HA_COMP_TO_NAME.getOrDefault(c, c)).collect(Collectors.joining(", "));
 
-        final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
+            final List<String> topics = components.stream().map(HaID::toShortTopic).collect(Collectors.toList());
 
-        Map<String, Object> properties = new HashMap<>();
-        HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
-        properties = handlerConfig.appendToProperties(properties);
-        properties = config.appendToProperties(properties);
-        properties.put("deviceId", thingID);
+            Map<String, Object> properties = new HashMap<>();
+            HandlerConfiguration handlerConfig = new HandlerConfiguration(haID.baseTopic, topics);
+            properties = handlerConfig.appendToProperties(properties);
+            properties.putAll(config.properties);
+            properties.put("deviceId", thingID);
 
-        // Because we need the new properties map with the updated "components" list
-        results.put(thingUID.getAsString(),
-                DiscoveryResultBuilder.create(thingUID).withProperties(properties)
-                        .withRepresentationProperty("deviceId").withBridge(connectionBridge)
-                        .withLabel(config.getThingName() + " (" + componentNames + ")").build());
+            // Because we need the new properties map with the updated "components" list
+            results.put(thingUID.getAsString(),
+                    DiscoveryResultBuilder.create(thingUID).withProperties(properties)
+                            .withRepresentationProperty("deviceId").withBridge(connectionBridge)
+                            .withLabel(config.thingName + " (" + componentNames + ")").build());
+        }
     }
 
     protected void publishResults() {
         Collection<DiscoveryResult> localResults;
 
-        localResults = new ArrayList<>(results.values());
-        results.clear();
-        componentsPerThingID.clear();
+        synchronized (componentsPerThingID) {
+            localResults = new ArrayList<>(results.values());
+            results.clear();
+            componentsPerThingID.clear();
+        }
         for (DiscoveryResult result : localResults) {
             final ThingTypeUID typeID = result.getThingTypeUID();
             ThingType type = typeProvider.derive(typeID, MqttBindingConstants.HOMEASSISTANT_MQTT_THING).build();
@@ -198,6 +259,12 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
 
             thingDiscovered(result);
         }
+        logger.debug("Published {} HomeAssistant discovery results, {} unchanged and {} decoded configs",
+                localResults.size(), configCache.getHitCount(), configCache.getMissCount());
+    }
+
+    DiscoveredConfigCache getConfigCache() {
+        return configCache;
     }
 
     @Override
@@ -205,17 +272,26 @@ public class HomeAssistantDiscovery extends AbstractMQTTDiscovery {
         if (!topic.endsWith("/config")) {
             return;
         }
-        if (thingIDPerTopic.containsKey(topic)) {
-            ThingUID thingUID = thingIDPerTopic.remove(topic);
+        pendingHashes.remove(topic);
+        configCache.remove(topic);
+        final ThingUID thingUID;
+        final boolean lastComponent;
+        synchronized (componentsPerThingID) {
+            ThingUID removed = thingIDPerTopic.remove(topic);
+            if (removed == null) {
+                return;
+            }
+            thingUID = removed;
             final String thingID = thingUID.getId();
 
             HaID haID = new HaID(topic);
 
             Set<HaID> components = componentsPerThingID.getOrDefault(thingID, Collections.emptySet());
             components.remove(haID);
-            if (components.isEmpty()) {
-                thingRemoved(thingUID);
-            }
+            lastComponent = components.isEmpty();
+        }
+        if (lastComponent) {
+            thingRemoved(thingUID);
         }
     }
 }
@@ -211,6 +211,7 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         if (started) {
             discoverComponents.stopDiscovery();
             delayedProcessing.join();
+            logger.debug("Home Assistant thing {} batch processing: {}", thing.getUID(), delayedProcessing);
             // haComponents does not need to be synchronised -> the discovery thread is disabled
             haComponents.values().parallelStream().map(AbstractComponent::stop) //
                     // we need to join all the stops, otherwise they might not be done when start is called
@@ -250,6 +251,22 @@ public class HomeAssistantThingHandler extends AbstractMQTTThingHandler
         delayedProcessing.accept(component);
     }
 
+    /**
+     * Callback of {@link DiscoverComponents} for an unchanged config. Marks the known component as seen, like
+     * {@link #accept(List)} does for a discovered component with an unchanged config.
+     */
+    @Override
+    public boolean isComponentKnown(String groupID, int configHash) {
+        synchronized (haComponents) { // sync whenever discoverComponents is started
+            AbstractComponent<?> known = haComponents.get(groupID);
+            if (known == null || known.getConfigHash() != configHash) {
+                return false;
+            }
+            known.setConfigSeen();
+            return true;
+        }
+    }
+
     /**
      * Callback of {@link DelayedBatchProcessing}.
      * Add all newly discovered components to the Thing and start the components.
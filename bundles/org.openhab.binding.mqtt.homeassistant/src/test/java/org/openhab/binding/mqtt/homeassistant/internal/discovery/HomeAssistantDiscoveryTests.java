@@ -83,6 +83,35 @@ public class HomeAssistantDiscoveryTests extends AbstractHomeAssistantTests {
                 "climate/0x847127fffe11dd6a_climate_zigbee2mqtt", "switch/0x847127fffe11dd6a_auto_lock_zigbee2mqtt"));
     }
 
+    @Test
+    public void testUnchangedConfigIsNotDecodedAgain() throws Exception {
+        var discoveryListener = new LatchDiscoveryListener();
+        var latch = discoveryListener.createWaitForThingsDiscoveredLatch(1);
+        var topic = "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config";
+
+        discovery.addDiscoveryListener(discoveryListener);
+        discovery.receivedMessage(HA_UID, bridgeConnection, topic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+        assert latch.await(3, TimeUnit.SECONDS);
+        assertThat(discovery.getConfigCache().getMissCount(), is(1L));
+        assertThat(discovery.getConfigCache().getHitCount(), is(0L));
+
+        // When the same config is received again after a reconnect
+        latch = discoveryListener.createWaitForThingsDiscoveredLatch(1);
+        discovery.receivedMessage(HA_UID, bridgeConnection, topic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+
+        // Then the thing is discovered again from the cached config
+        assert latch.await(3, TimeUnit.SECONDS);
+        assertThat(discovery.getConfigCache().getMissCount(), is(1L));
+        assertThat(discovery.getConfigCache().getHitCount(), is(1L));
+        var discoveryResults = discoveryListener.getDiscoveryResults();
+        assertThat(discoveryResults.size(), is(2));
+        assertThat(discoveryResults.get(1).getThingUID(), is(discoveryResults.get(0).getThingUID()));
+        assertThat(discoveryResults.get(1).getLabel(), is(discoveryResults.get(0).getLabel()));
+        assertThat(discoveryResults.get(1).getProperties(), is(discoveryResults.get(0).getProperties()));
+    }
+
     private static class TestHomeAssistantDiscovery extends HomeAssistantDiscovery {
         public TestHomeAssistantDiscovery(MqttChannelTypeProvider typeProvider) {
             this.typeProvider = typeProvider;
@@ -14,6 +14,7 @@ package org.openhab.binding.mqtt.homeassistant.internal.handler;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -120,6 +121,27 @@ public class HomeAssistantThingHandlerTests extends AbstractHomeAssistantTests {
         verify(channelTypeProvider, times(2)).setChannelGroupType(any(), any());
     }
 
+    @Test
+    public void testUnchangedConfigIsSkipped() {
+        thingHandler.initialize();
+        verify(thingHandler, timeout(SUBSCRIBE_TIMEOUT)).start(any());
+
+        var configTopic = "homeassistant/climate/0x847127fffe11dd6a_climate_zigbee2mqtt/config";
+        thingHandler.discoverComponents.processMessage(configTopic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+        thingHandler.delayedProcessing.forceProcessNow();
+        assertThat(haThing.getChannels().size(), CoreMatchers.is(6));
+
+        // When the same config is received again, e.g. after a reconnect
+        thingHandler.discoverComponents.processMessage(configTopic,
+                getResourceAsByteArray("component/configTS0601ClimateThermostat.json"));
+
+        // Then no new component is created
+        verify(thingHandler, times(1)).componentDiscovered(any(), any());
+        verify(thingHandler, times(1)).isComponentKnown(any(), anyInt());
+        assertThat(haThing.getChannels().size(), CoreMatchers.is(6));
+    }
+
     @Test
     public void testDispose() {
         thingHandler.initialize();
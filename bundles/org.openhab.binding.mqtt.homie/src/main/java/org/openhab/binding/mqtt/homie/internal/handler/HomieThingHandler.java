@@ -142,6 +142,7 @@ public class HomieThingHandler extends AbstractMQTTThingHandler implements Devic
             this.heartBeatTimer = null;
         }
         delayedProcessing.join();
+        logger.debug("Homie device {} batch processing: {}", device.attributes.name, delayedProcessing);
         device.stop();
         super.stop();
     }
@@ -42,6 +42,7 @@ import org.slf4j.LoggerFactory;
 @Component(service = ThingHandlerFactory.class, configurationPid = "binding.network")
 public class NetworkHandlerFactory extends BaseThingHandlerFactory {
     final NetworkBindingConfiguration configuration = new NetworkBindingConfiguration();
+    private final PresenceSweepEngine sweepEngine = new PresenceSweepEngine();
 
     private final Logger logger = LoggerFactory.getLogger(NetworkHandlerFactory.class);
 
@@ -60,6 +61,7 @@ public class NetworkHandlerFactory extends BaseThingHandlerFactory {
     @Override
     @Deactivate
     protected void deactivate(ComponentContext componentContext) {
+        sweepEngine.stop();
         super.deactivate(componentContext);
     }
 
@@ -78,9 +80,9 @@ public class NetworkHandlerFactory extends BaseThingHandlerFactory {
 
         if (thingTypeUID.equals(NetworkBindingConstants.PING_DEVICE)
                 || thingTypeUID.equals(NetworkBindingConstants.BACKWARDS_COMPATIBLE_DEVICE)) {
-            return new NetworkHandler(thing, false, configuration);
+            return new NetworkHandler(thing, false, configuration, sweepEngine);
         } else if (thingTypeUID.equals(NetworkBindingConstants.SERVICE_DEVICE)) {
-            return new NetworkHandler(thing, true, configuration);
+            return new NetworkHandler(thing, true, configuration, sweepEngine);
         } else if (thingTypeUID.equals(NetworkBindingConstants.SPEEDTEST_DEVICE)) {
             return new SpeedTestHandler(thing);
         }
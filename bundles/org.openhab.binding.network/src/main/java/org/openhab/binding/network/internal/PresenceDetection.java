@@ -19,6 +19,7 @@ import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -80,9 +81,11 @@ public class PresenceDetection implements IPRequestReceivedCallback {
     private final PresenceDetectionListener updateListener;
     private @Nullable ScheduledFuture<?> refreshJob;
     protected @Nullable ExecutorService executorService;
+    private @Nullable PresenceSweepEngine sweepEngine;
     private String dhcpState = "off";
     Integer currentCheck = 0;
     int detectionChecks;
+    private volatile int detectionRun;
 
     public PresenceDetection(final PresenceDetectionListener updateListener, int cacheDeviceStateTimeInMS)
             throws IllegalArgumentException {
@@ -156,6 +159,17 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         this.preferResponseTimeAsLatency = preferResponseTimeAsLatency;
     }
 
+    /**
+     * Sets the sweep engine shared with the presence detections of other things. If set, TCP connection attempts
+     * are made without a thread per port and ARP pings are only performed on the interface of the neighbor table
+     * entry of the device, if there is one.
+     *
+     * @param sweepEngine The shared sweep engine or null to perform all checks in own threads
+     */
+    public void setSweepEngine(@Nullable PresenceSweepEngine sweepEngine) {
+        this.sweepEngine = sweepEngine;
+    }
+
     /**
      * Sets the ping method. This method will perform a feature test. If SYSTEM_PING
      * does not work on this system, JAVA_PING will be used instead.
@@ -312,6 +326,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
 
         Set<String> interfaceNames = null;
+        final PresenceSweepEngine sweepEngine = this.sweepEngine;
 
         currentCheck = 0;
         detectionChecks = tcpPorts.size();
@@ -319,7 +334,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             detectionChecks += 1;
         }
         if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
+            interfaceNames = getArpPingInterfaceNames(sweepEngine);
             detectionChecks += interfaceNames.size();
         }
 
@@ -327,10 +342,17 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             return false;
         }
 
-        final ExecutorService executorService = getThreadsFor(detectionChecks);
+        // TCP connection attempts of the sweep engine do not need a thread
+        final ExecutorService executorService = getThreadsFor(
+                sweepEngine != null ? Math.max(1, detectionChecks - tcpPorts.size()) : detectionChecks);
         this.executorService = executorService;
+        final int run = ++detectionRun;
 
         for (Integer tcpPort : tcpPorts) {
+            if (sweepEngine != null) {
+                performServicePing(sweepEngine, tcpPort, run);
+                continue;
+            }
             executorService.execute(() -> {
                 Thread.currentThread().setName("presenceDetectionTCP_" + hostname + " " + String.valueOf(tcpPort));
                 performServicePing(tcpPort);
@@ -377,6 +399,24 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return true;
     }
 
+    /**
+     * Returns the interfaces to perform an ARP ping on. If the neighbor table has an entry for the destination, only
+     * its interface is used, otherwise all interfaces.
+     */
+    private Set<String> getArpPingInterfaceNames(@Nullable PresenceSweepEngine sweepEngine) {
+        if (sweepEngine != null && arpPingMethod != ArpPingUtilEnum.ELI_FULKERSON_ARP_PING_FOR_WINDOWS) {
+            InetAddress destinationAddress = destination.getValue();
+            if (destinationAddress != null) {
+                String interfaceName = sweepEngine.getNeighborInterface(destinationAddress);
+                if (interfaceName != null) {
+                    logger.trace("Neighbor table has an entry for {} on interface {}", hostname, interfaceName);
+                    return Set.of(interfaceName);
+                }
+            }
+        }
+        return networkUtils.getInterfaceNames();
+    }
+
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
@@ -421,6 +461,19 @@ public class PresenceDetection implements IPRequestReceivedCallback {
      * Thread safe.
      */
     private synchronized void checkIfFinished() {
+        checkIfFinished(detectionRun);
+    }
+
+    /**
+     * Like {@link #checkIfFinished()}, for asynchronous checks which may complete after their detection run ended.
+     *
+     * @param run The detection run the check belongs to
+     */
+    private synchronized void checkIfFinished(int run) {
+        if (run != detectionRun || executorService == null) {
+            // the check completed after the timeout of its detection run
+            return;
+        }
         currentCheck += 1;
         if (currentCheck < detectionChecks) {
             return;
@@ -493,6 +546,39 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         }
     }
 
+    /**
+     * Performs a TCP connection attempt with the shared sweep engine, without blocking a thread.
+     *
+     * @param sweepEngine The sweep engine to perform the connection attempt
+     * @param tcpPort The tcp port
+     * @param run The detection run the connection attempt belongs to
+     */
+    protected void performServicePing(PresenceSweepEngine sweepEngine, int tcpPort, int run) {
+        logger.trace("Perform TCP presence detection for {} on port: {}", hostname, tcpPort);
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress == null) {
+            checkIfFinished(run);
+            return;
+        }
+        sweepEngine.servicePing(destinationAddress, tcpPort, timeoutInMS).whenComplete((result, e) -> {
+            if (result != null && result.isSuccess()) {
+                synchronized (this) {
+                    if (run != detectionRun) {
+                        return;
+                    }
+                }
+                PresenceDetectionValue v = updateReachableValue(PresenceDetectionType.TCP_CONNECTION,
+                        getLatency(result, preferResponseTimeAsLatency));
+                v.addReachableTcpService(tcpPort);
+                updateListener.partialDetectionResult(v);
+            } else if (e != null && !(e instanceof CancellationException)) {
+                // This should not happen and might be a user configuration issue, we log a warning message therefore.
+                logger.warn("Could not create a socket connection", e);
+            }
+            checkIfFinished(run);
+        });
+    }
+
     /**
      * Performs an "ARP ping" (ARP request) on the given interface.
      * If it is an iOS device, the {@see NetworkUtils.wakeUpIOS()} method is
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NoRouteToHostException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.network.internal.utils.PingResult;
+import org.openhab.core.cache.ExpiringCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link PresenceSweepEngine} is shared by the presence detections of all things.
+ *
+ * It reads the neighbor table of the kernel (/proc/net/arp on Linux) at most once per
+ * {@link #NEIGHBOR_TABLE_TTL}, so the ARP ping of a device is only performed on the interface the device was seen on
+ * instead of on every interface. TCP connection attempts of all things are multiplexed on a single selector thread
+ * instead of blocking a thread per port.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceSweepEngine {
+    public static final int NEIGHBOR_TABLE_TTL = 5000; // in ms
+    private static final Path ARP_TABLE = Paths.get("/proc/net/arp");
+    private static final String INCOMPLETE_FLAGS = "0x0";
+
+    private final Logger logger = LoggerFactory.getLogger(PresenceSweepEngine.class);
+    private final Path arpTable;
+    private final ExpiringCache<Map<String, String>> neighborTable;
+    private final Queue<TcpProbe> pendingProbes = new ConcurrentLinkedQueue<>();
+    private @Nullable Selector selector;
+    private @Nullable Thread selectorThread;
+
+    /**
+     * A pending TCP connection attempt
+     */
+    private static class TcpProbe {
+        private final SocketChannel channel;
+        private final CompletableFuture<PingResult> future;
+        private final long startTime;
+        private final long deadline;
+
+        private TcpProbe(SocketChannel channel, CompletableFuture<PingResult> future, long startTime,
+                int timeoutInMS) {
+            this.channel = channel;
+            this.future = future;
+            this.startTime = startTime;
+            this.deadline = startTime + TimeUnit.MILLISECONDS.toNanos(timeoutInMS);
+        }
+
+        private void complete(boolean success) {
+            closeQuietly(channel);
+            future.complete(new PingResult(success, (System.nanoTime() - startTime) / 1000000.0));
+        }
+    }
+
+    public PresenceSweepEngine() {
+        this(ARP_TABLE);
+    }
+
+    PresenceSweepEngine(Path arpTable) {
+        this.arpTable = arpTable;
+        this.neighborTable = new ExpiringCache<>(NEIGHBOR_TABLE_TTL, this::readNeighborTable);
+    }
+
+    /**
+     * Return the interface of a complete entry of the neighbor table for the given address.
+     *
+     * @param address The IPv4 address
+     * @return The interface name or null if the address is not in the neighbor table or the table is not available.
+     */
+    public @Nullable String getNeighborInterface(InetAddress address) {
+        Map<String, String> table = neighborTable.getValue();
+        return table != null ? table.get(address.getHostAddress()) : null;
+    }
+
+    private Map<String, String> readNeighborTable() {
+        Map<String, String> table = new HashMap<>();
+        if (!Files.isReadable(arpTable)) {
+            return table;
+        }
+        // IP address, HW type, Flags, HW address, Mask, Device
+        try (BufferedReader reader = Files.newBufferedReader(arpTable)) {
+            // skip the header
+            String line = reader.readLine();
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.trim().split("\\s+");
+                if (columns.length >= 6 && !INCOMPLETE_FLAGS.equals(columns[2])) {
+                    table.put(columns[0], columns[5]);
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Failed to read the neighbor table {}: {}", arpTable, e.getMessage());
+        }
+        logger.trace("Read {} entries from the neighbor table", table.size());
+        return table;
+    }
+
+    /**
+     * Try to establish a tcp connection to the given port. The result is unsuccessful if a timeout occurred
+     * or the connection was denied.
+     *
+     * @param address The destination address
+     * @param port The tcp port. Must be not 0.
+     * @param timeoutInMS Timeout in ms
+     * @return The ping result, completed exceptionally if the connection attempt could not be made
+     */
+    public CompletableFuture<PingResult> servicePing(InetAddress address, int port, int timeoutInMS) {
+        CompletableFuture<PingResult> future = new CompletableFuture<>();
+        long startTime = System.nanoTime();
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            TcpProbe probe = new TcpProbe(channel, future, startTime, timeoutInMS);
+            if (channel.connect(new InetSocketAddress(address, port))) {
+                probe.complete(true);
+            } else {
+                pendingProbes.add(probe);
+                getSelector().wakeup();
+            }
+        } catch (ConnectException | NoRouteToHostException e) {
+            closeQuietly(channel);
+            future.complete(new PingResult(false, (System.nanoTime() - startTime) / 1000000.0));
+        } catch (IOException e) {
+            closeQuietly(channel);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Stop the selector thread and cancel all pending connection attempts.
+     */
+    public synchronized void stop() {
+        Thread thread = selectorThread;
+        if (thread != null) {
+            thread.interrupt();
+            selectorThread = null;
+        }
+        Selector selector = this.selector;
+        if (selector != null) {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the selector: {}", e.getMessage());
+            }
+            this.selector = null;
+        }
+        TcpProbe probe;
+        while ((probe = pendingProbes.poll()) != null) {
+            closeQuietly(probe.channel);
+            probe.future.completeExceptionally(new CancellationException());
+        }
+    }
+
+    private synchronized Selector getSelector() throws IOException {
+        Selector selector = this.selector;
+        if (selector == null || !selector.isOpen()) {
+            Selector newSelector = Selector.open();
+            Thread thread = new Thread(() -> runSelector(newSelector), "OH-binding-network-presenceSweep");
+            thread.setDaemon(true);
+            thread.start();
+            this.selector = newSelector;
+            this.selectorThread = thread;
+            selector = newSelector;
+        }
+        return selector;
+    }
+
+    private void runSelector(Selector selector) {
+        List<TcpProbe> probes = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted() && selector.isOpen()) {
+                TcpProbe probe;
+                while ((probe = pendingProbes.poll()) != null) {
+                    try {
+                        probe.channel.register(selector, SelectionKey.OP_CONNECT, probe);
+                        probes.add(probe);
+                    } catch (ClosedChannelException e) {
+                        probe.complete(false);
+                    }
+                }
+
+                long nextDeadline = probes.stream().mapToLong(p -> p.deadline).min().orElse(Long.MAX_VALUE);
+                if (nextDeadline == Long.MAX_VALUE) {
+                    selector.select();
+                } else {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(nextDeadline - System.nanoTime())));
+                }
+
+                for (SelectionKey key : selector.selectedKeys()) {
+                    TcpProbe connecting = (TcpProbe) key.attachment();
+                    key.cancel();
+                    try {
+                        connecting.complete(connecting.channel.finishConnect());
+                    } catch (IOException e) {
+                        // connection refused, no route to host, ...
+                        connecting.complete(false);
+                    }
+                }
+                selector.selectedKeys().clear();
+
+                long now = System.nanoTime();
+                for (TcpProbe connecting : probes) {
+                    if (!connecting.future.isDone() && connecting.deadline - now <= 0) {
+                        connecting.complete(false);
+                    }
+                }
+                probes.removeIf(connecting -> connecting.future.isDone());
+            }
+        } catch (IOException | RuntimeException e) {
+            if (selector.isOpen()) {
+                logger.warn("Presence sweep selector failed: {}", e.getMessage());
+            }
+        } finally {
+            try {
+                // a new selector is opened with the next connection attempt
+                selector.close();
+            } catch (IOException ignored) {
+            }
+            for (TcpProbe connecting : probes) {
+                closeQuietly(connecting.channel);
+                connecting.future.completeExceptionally(new CancellationException());
+            }
+        }
+    }
+
+    private static void closeQuietly(@Nullable SocketChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
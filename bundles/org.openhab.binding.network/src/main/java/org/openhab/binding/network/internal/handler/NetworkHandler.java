@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.TimeZone;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.network.internal.NetworkBindingConfiguration;
 import org.openhab.binding.network.internal.NetworkBindingConfigurationListener;
 import org.openhab.binding.network.internal.NetworkBindingConstants;
@@ -29,6 +30,7 @@ import org.openhab.binding.network.internal.NetworkHandlerConfiguration;
 import org.openhab.binding.network.internal.PresenceDetection;
 import org.openhab.binding.network.internal.PresenceDetectionListener;
 import org.openhab.binding.network.internal.PresenceDetectionValue;
+import org.openhab.binding.network.internal.PresenceSweepEngine;
 import org.openhab.binding.network.internal.WakeOnLanPacketSender;
 import org.openhab.binding.network.internal.action.NetworkActions;
 import org.openhab.core.library.types.DateTimeType;
@@ -66,6 +68,7 @@ public class NetworkHandler extends BaseThingHandler
 
     private boolean isTCPServiceDevice;
     private NetworkBindingConfiguration configuration;
+    private final @Nullable PresenceSweepEngine sweepEngine;
 
     // How many retries before a device is deemed offline
     int retries;
@@ -77,9 +80,20 @@ public class NetworkHandler extends BaseThingHandler
      * Do not call this directly, but use the {@see NetworkHandlerBuilder} instead.
      */
     public NetworkHandler(Thing thing, boolean isTCPServiceDevice, NetworkBindingConfiguration configuration) {
+        this(thing, isTCPServiceDevice, configuration, null);
+    }
+
+    /**
+     * Do not call this directly, but use the {@see NetworkHandlerBuilder} instead.
+     *
+     * @param sweepEngine The sweep engine shared by the presence detections of all things or null
+     */
+    public NetworkHandler(Thing thing, boolean isTCPServiceDevice, NetworkBindingConfiguration configuration,
+            @Nullable PresenceSweepEngine sweepEngine) {
         super(thing);
         this.isTCPServiceDevice = isTCPServiceDevice;
         this.configuration = configuration;
+        this.sweepEngine = sweepEngine;
         this.configuration.addNetworkBindingConfigurationListener(this);
     }
 
@@ -221,7 +235,10 @@ public class NetworkHandler extends BaseThingHandler
     // Create a new network service and apply all configurations.
     @Override
     public void initialize() {
-        initialize(new PresenceDetection(this, configuration.cacheDeviceStateTimeInMS.intValue()));
+        PresenceDetection presenceDetection = new PresenceDetection(this,
+                configuration.cacheDeviceStateTimeInMS.intValue());
+        presenceDetection.setSweepEngine(sweepEngine);
+        initialize(presenceDetection);
     }
 
     /**
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.network.internal.utils.PingResult;
+
+/**
+ * Tests cases for {@link PresenceSweepEngine}
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class PresenceSweepEngineTest {
+    private @TempDir @NonNullByDefault({}) Path tempDir;
+    private PresenceSweepEngine engine = new PresenceSweepEngine();
+
+    @AfterEach
+    public void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    public void neighborTableInterfaces() throws IOException {
+        Path arpTable = tempDir.resolve("arp");
+        Files.writeString(arpTable,
+                "IP address       HW type     Flags       HW address            Mask     Device\n"
+                        + "192.168.1.1      0x1         0x2         aa:bb:cc:dd:ee:ff     *        eth0\n"
+                        + "192.168.2.20     0x1         0x2         11:22:33:44:55:66     *        wlan0\n"
+                        + "192.168.1.30     0x1         0x0         00:00:00:00:00:00     *        eth0\n");
+        engine = new PresenceSweepEngine(arpTable);
+
+        assertEquals("eth0", engine.getNeighborInterface(InetAddress.getByName("192.168.1.1")));
+        assertEquals("wlan0", engine.getNeighborInterface(InetAddress.getByName("192.168.2.20")));
+        // incomplete entries and unknown addresses fall back to all interfaces
+        assertNull(engine.getNeighborInterface(InetAddress.getByName("192.168.1.30")));
+        assertNull(engine.getNeighborInterface(InetAddress.getByName("192.168.1.40")));
+    }
+
+    @Test
+    public void missingNeighborTable() throws IOException {
+        engine = new PresenceSweepEngine(tempDir.resolve("missing"));
+        assertNull(engine.getNeighborInterface(InetAddress.getByName("192.168.1.1")));
+    }
+
+    @Test
+    public void servicePing() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        InetAddress localhost = InetAddress.getLoopbackAddress();
+        int closedPort;
+        try (ServerSocket serverSocket = new ServerSocket(0, 50, localhost)) {
+            PingResult result = engine.servicePing(localhost, serverSocket.getLocalPort(), 2000).get(5,
+                    TimeUnit.SECONDS);
+            assertTrue(result.isSuccess());
+            assertTrue(result.getExecutionTimeInMS() >= 0);
+            closedPort = serverSocket.getLocalPort();
+        }
+
+        PingResult result = engine.servicePing(localhost, closedPort, 2000).get(5, TimeUnit.SECONDS);
+        assertFalse(result.isSuccess());
+    }
+}
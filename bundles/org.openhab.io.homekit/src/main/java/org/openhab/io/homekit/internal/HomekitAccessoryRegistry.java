@@ -15,24 +15,34 @@ package org.openhab.io.homekit.internal;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.github.hapjava.accessories.HomekitAccessory;
+import io.github.hapjava.characteristics.Characteristic;
 import io.github.hapjava.server.impl.HomekitRoot;
+import io.github.hapjava.services.Service;
 
 /**
  * Stores the created HomekitAccessories. GroupedAccessories are also held here
  * in a pre-created pending state until all required characteristics are found.
  *
+ * A hash of the structure of each accessory (its id, services and characteristics) is kept, and their sum as the
+ * hash of the whole configuration. It is updated with every added or removed accessory, so a changed configuration
+ * is detected without walking all accessories again.
+ *
  * @author Andy Lintner - Initial contribution
  */
 class HomekitAccessoryRegistry {
     private @Nullable HomekitRoot bridge;
     private final Map<String, HomekitAccessory> createdAccessories = new HashMap<>();
+    private final Map<String, Long> accessoryHashes = new HashMap<>();
     private int configurationRevision = 1;
+    private long configurationHash = 0;
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryRegistry.class);
 
     public void setConfigurationRevision(int revision) {
@@ -59,6 +69,7 @@ class HomekitAccessoryRegistry {
     public synchronized void remove(String itemName) {
         if (createdAccessories.containsKey(itemName)) {
             HomekitAccessory accessory = createdAccessories.remove(itemName);
+            removeHash(itemName);
             logger.trace("Removed accessory {} for taggedItem {}", accessory, itemName);
             final HomekitRoot bridge = this.bridge;
             if (bridge != null) {
@@ -93,6 +104,10 @@ class HomekitAccessoryRegistry {
 
     public synchronized void addRootAccessory(String itemName, HomekitAccessory accessory) {
         createdAccessories.put(itemName, accessory);
+        removeHash(itemName);
+        long hash = structureHash(accessory);
+        accessoryHashes.put(itemName, hash);
+        configurationHash += hash;
         final HomekitRoot bridge = this.bridge;
         if (bridge != null) {
             bridge.addAccessory(accessory);
@@ -102,4 +117,58 @@ class HomekitAccessoryRegistry {
     public Map<String, HomekitAccessory> getAllAccessories() {
         return this.createdAccessories;
     }
+
+    /**
+     * Returns the hash of the structure of all accessories, which changes if the HomeKit clients have to fetch the
+     * accessories again.
+     */
+    public synchronized long getConfigurationHash() {
+        return configurationHash;
+    }
+
+    private void removeHash(String itemName) {
+        Long hash = accessoryHashes.remove(itemName);
+        if (hash != null) {
+            configurationHash -= hash;
+        }
+    }
+
+    /**
+     * Computes a FNV-1a hash of the id, the services and the characteristics of an accessory, including the
+     * configuration of its items, which defines e.g. the value ranges and steps of the characteristics. Values like
+     * names are read by the clients at runtime and not part of the structure.
+     */
+    static long structureHash(HomekitAccessory accessory) {
+        StringBuilder structure = new StringBuilder().append(accessory.getId());
+        for (Service service : accessory.getServices()) {
+            appendService(structure, service);
+        }
+        // sorted, as the order of the optional characteristics is not defined
+        HomekitAccessoryFactory.getTaggedItems(accessory).stream().map(HomekitAccessoryRegistry::configuration)
+                .sorted().forEach(configuration -> structure.append('|').append(configuration));
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < structure.length(); i++) {
+            hash ^= structure.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static String configuration(HomekitTaggedItem taggedItem) {
+        Map<String, Object> configuration = taggedItem.getConfiguration();
+        return taggedItem.getCharacteristicType().getTag() + '='
+                + (configuration != null ? new TreeMap<>(configuration) : Map.of());
+    }
+
+    private static void appendService(StringBuilder structure, Service service) {
+        structure.append('|').append(service.getType());
+        for (Characteristic characteristic : service.getCharacteristics()) {
+            structure.append(',').append(characteristic.getClass().getName());
+        }
+        for (Service linkedService : service.getLinkedServices()) {
+            structure.append('[');
+            appendService(structure, linkedService);
+            structure.append(']');
+        }
+    }
 }
@@ -14,6 +14,7 @@ package org.openhab.io.homekit.internal;
 
 import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -21,7 +22,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.common.ThreadPoolManager;
@@ -46,6 +51,9 @@ import io.github.hapjava.server.impl.HomekitRoot;
  * Listens for changes to the item and metadata registry. When changes are detected, check
  * for HomeKit tags and, if present, add the items to the HomekitAccessoryRegistry.
  *
+ * Only the accessories of changed items are created again, and a new configuration revision is only published if the
+ * structure of the accessories changed. The accessories are initially created in parallel.
+ *
  * @author Andy Lintner - Initial contribution
  */
 @NonNullByDefault
@@ -53,6 +61,8 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private final Logger logger = LoggerFactory.getLogger(HomekitChangeListener.class);
     private final static String REVISION_CONFIG = "revision";
     private final static String ACCESSORY_COUNT = "accessory_count";
+    private final static String CONFIGURATION_HASH = "configuration_hash";
+    private final static String THREAD_POOL_NAME = "homekit";
     private final ItemRegistry itemRegistry;
     private final HomekitAccessoryRegistry accessoryRegistry = new HomekitAccessoryRegistry();
     private final MetadataRegistry metadataRegistry;
@@ -61,6 +71,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
     private HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater();
     private HomekitSettings settings;
     private int lastAccessoryCount;
+    private long lastConfigurationHash;
 
     private final Set<String> pendingUpdates = new HashSet<>();
 
@@ -88,6 +99,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         metadataChangeListener = new RegistryChangeListener<Metadata>() {
             @Override
             public void added(final Metadata metadata) {
+                if (!isHomekitMetadata(metadata)) {
+                    return;
+                }
                 try {
                     markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
                 } catch (ItemNotFoundException e) {
@@ -97,6 +111,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
             @Override
             public void removed(final Metadata metadata) {
+                if (!isHomekitMetadata(metadata)) {
+                    return;
+                }
                 try {
                     markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
                 } catch (ItemNotFoundException e) {
@@ -106,6 +123,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
             @Override
             public void updated(final Metadata metadata, final Metadata e1) {
+                if (!isHomekitMetadata(metadata) && !isHomekitMetadata(e1)) {
+                    return;
+                }
                 try {
                     markDirty(itemRegistry.getItem(metadata.getUID().getItemName()));
                     if (!metadata.getUID().getItemName().equals(e1.getUID().getItemName())) {
@@ -118,7 +138,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         };
         itemRegistry.addRegistryChangeListener(this);
         metadataRegistry.addRegistryChangeListener(metadataChangeListener);
-        itemRegistry.getItems().forEach(this::createRootAccessories);
+        createInitialAccessories();
         initialiseRevision();
         logger.info("Created {} HomeKit items.", accessoryRegistry.getAllAccessories().size());
     }
@@ -145,11 +165,42 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
             lastAccessoryCount = 0;
             storage.put(ACCESSORY_COUNT, "" + accessoryRegistry.getAllAccessories().size());
         }
+        try {
+            String configurationHashString = storage.get(CONFIGURATION_HASH);
+            if (configurationHashString == null) {
+                throw new NumberFormatException();
+            }
+            lastConfigurationHash = Long.parseLong(configurationHashString);
+        } catch (NumberFormatException e) {
+            lastConfigurationHash = accessoryRegistry.getConfigurationHash();
+            storage.put(CONFIGURATION_HASH, "" + lastConfigurationHash);
+        }
         accessoryRegistry.setConfigurationRevision(revision);
     }
 
+    private static boolean isHomekitMetadata(Metadata metadata) {
+        return HomekitAccessoryFactory.METADATA_KEY.equals(metadata.getUID().getNamespace());
+    }
+
+    /**
+     * Creates the accessories of all items in parallel, then adds them to the registry in the order of the items.
+     */
+    private void createInitialAccessories() {
+        final ExecutorService executor = ThreadPoolManager.getPool(THREAD_POOL_NAME);
+        final List<CompletableFuture<List<Entry<String, HomekitAccessory>>>> futures = itemRegistry.getItems().stream()
+                .map(item -> CompletableFuture.supplyAsync(() -> createRootAccessories(item), executor))
+                .collect(Collectors.toList());
+        for (CompletableFuture<List<Entry<String, HomekitAccessory>>> future : futures) {
+            try {
+                future.join().forEach(this::addRootAccessory);
+            } catch (CompletionException e) {
+                logger.warn("Could not create HomeKit accessory: {}", e.getMessage(), e.getCause());
+            }
+        }
+    }
+
     @Override
-    public synchronized void added(Item item) {
+    public void added(Item item) {
         markDirty(item);
     }
 
@@ -164,21 +215,25 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      *
      * @param item The item that has been changed or removed.
      */
-    private synchronized void markDirty(Item item) {
+    private void markDirty(Item item) {
         logger.trace("Mark dirty item {}", item.getName());
-        pendingUpdates.add(item.getName());
         /*
          * If findMyAccessoryGroups fails because the accessory group has already been deleted, then we can count on a
          * later update telling us that the accessory group was removed.
          */
-        for (Item accessoryGroup : HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry)) {
-            pendingUpdates.add(accessoryGroup.getName());
+        final List<GroupItem> accessoryGroups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry,
+                metadataRegistry);
+        synchronized (this) {
+            pendingUpdates.add(item.getName());
+            for (Item accessoryGroup : accessoryGroups) {
+                pendingUpdates.add(accessoryGroup.getName());
+            }
         }
         applyUpdatesDebouncer.call();
     }
 
     @Override
-    public synchronized void removed(Item item) {
+    public void removed(Item item) {
         markDirty(item);
     }
 
@@ -197,6 +252,15 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 lastAccessoryCount);
         storage.put(REVISION_CONFIG, "" + newRevision);
         storage.put(ACCESSORY_COUNT, "" + lastAccessoryCount);
+        lastConfigurationHash = accessoryRegistry.getConfigurationHash();
+        storage.put(CONFIGURATION_HASH, "" + lastConfigurationHash);
+    }
+
+    /**
+     * Returns whether the structure of the accessories differs from the one of the last configuration revision.
+     */
+    public boolean isConfigurationChanged() {
+        return accessoryRegistry.getConfigurationHash() != lastConfigurationHash;
     }
 
     private synchronized void applyUpdates() {
@@ -204,11 +268,16 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         for (final String name : pendingUpdates) {
             accessoryRegistry.remove(name);
             logger.trace(" add items {}", name);
-            getItemOptional(name).ifPresent(this::createRootAccessories);
+            getItemOptional(name).ifPresent(item -> createRootAccessories(item).forEach(this::addRootAccessory));
         }
         if (!pendingUpdates.isEmpty()) {
-            makeNewConfigurationRevision();
             pendingUpdates.clear();
+            if (isConfigurationChanged()) {
+                makeNewConfigurationRevision();
+            } else {
+                logger.trace("structure of the accessories is unchanged, keep configuration revision {}",
+                        accessoryRegistry.getConfigurationRevision());
+            }
         }
     }
 
@@ -280,8 +349,9 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
      * Switch light "Light" (gLight) {homekit="Lighting.OnState"}
      *
      * @param item openHAB item
+     * @return the created accessories by the names of their items
      */
-    private void createRootAccessories(Item item) {
+    private List<Entry<String, HomekitAccessory>> createRootAccessories(Item item) {
         final List<Entry<HomekitAccessoryType, HomekitCharacteristicType>> accessoryTypes = HomekitAccessoryFactory
                 .getAccessoryTypes(item, metadataRegistry);
         final List<GroupItem> groups = HomekitAccessoryFactory.getAccessoryGroups(item, itemRegistry, metadataRegistry);
@@ -289,17 +359,26 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
                 && (groups.isEmpty() || groups.stream().noneMatch(g -> g.getBaseItem() == null))) {
             logger.trace("Item {} is a HomeKit accessory of types {}", item.getName(), accessoryTypes);
             final HomekitOHItemProxy itemProxy = new HomekitOHItemProxy(item);
+            final List<Entry<String, HomekitAccessory>> accessories = new ArrayList<>();
             accessoryTypes.forEach(rootAccessory -> createRootAccessory(new HomekitTaggedItem(itemProxy,
-                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry))));
+                    rootAccessory.getKey(), HomekitAccessoryFactory.getItemConfiguration(item, metadataRegistry)))
+                            .ifPresent(accessories::add));
+            return accessories;
         }
+        return List.of();
     }
 
-    private void createRootAccessory(HomekitTaggedItem taggedItem) {
+    private Optional<Entry<String, HomekitAccessory>> createRootAccessory(HomekitTaggedItem taggedItem) {
         try {
-            accessoryRegistry.addRootAccessory(taggedItem.getName(),
-                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings));
+            return Optional.of(Map.entry(taggedItem.getName(),
+                    HomekitAccessoryFactory.create(taggedItem, metadataRegistry, updater, settings)));
         } catch (HomekitException e) {
             logger.warn("Could not add device {}: {}", taggedItem.getItem().getUID(), e.getMessage());
+            return Optional.empty();
         }
     }
+
+    private void addRootAccessory(Entry<String, HomekitAccessory> accessory) {
+        accessoryRegistry.addRootAccessory(accessory.getKey(), accessory.getValue());
+    }
 }
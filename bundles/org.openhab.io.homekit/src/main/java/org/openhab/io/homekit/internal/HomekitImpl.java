@@ -196,6 +196,10 @@ public class HomekitImpl implements Homekit {
                     bridge.start();
                 }, settings.startDelay, TimeUnit.SECONDS);
             } else { // start bridge immediately.
+                if (changeListener.isConfigurationChanged()) {
+                    // accessories were changed while the bridge was stopped
+                    changeListener.makeNewConfigurationRevision();
+                }
                 bridge.start();
             }
         } else {
@@ -16,6 +16,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -282,6 +283,11 @@ abstract class AbstractHomekitAccessoryImpl implements HomekitAccessory {
         characteristics.add(characteristic);
     }
 
+    @NonNullByDefault
+    List<HomekitTaggedItem> getCharacteristics() {
+        return Collections.unmodifiableList(characteristics);
+    }
+
     @NonNullByDefault
     private <T extends Quantity<T>> double convertAndRound(double value, Unit<T> from, Unit<T> to) {
         double rawValue = from.equals(to) ? value : from.getConverterTo(to).convert(value);
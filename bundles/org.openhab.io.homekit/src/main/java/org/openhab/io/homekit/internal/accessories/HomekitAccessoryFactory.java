@@ -395,4 +395,22 @@ public class HomekitAccessoryFactory {
     private static boolean isRootAccessory(Entry<HomekitAccessoryType, HomekitCharacteristicType> accessory) {
         return ((accessory.getValue() == null) || (accessory.getValue() == EMPTY));
     }
+
+    /**
+     * return the accessory item and the characteristic items of a HomeKit accessory. Their configurations define
+     * e.g. the value ranges of the characteristics.
+     *
+     * @param accessory HomeKit accessory
+     * @return list of tagged items, empty if the accessory was not created by this factory
+     */
+    public static List<HomekitTaggedItem> getTaggedItems(HomekitAccessory accessory) {
+        if (!(accessory instanceof AbstractHomekitAccessoryImpl)) {
+            return List.of();
+        }
+        final AbstractHomekitAccessoryImpl accessoryImpl = (AbstractHomekitAccessoryImpl) accessory;
+        final List<HomekitTaggedItem> taggedItems = new ArrayList<>();
+        taggedItems.add(accessoryImpl.getRootAccessory());
+        taggedItems.addAll(accessoryImpl.getCharacteristics());
+        return taggedItems;
+    }
 }
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.items.Metadata;
+import org.openhab.core.items.MetadataKey;
+import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.io.homekit.internal.accessories.HomekitAccessoryFactory;
+
+import io.github.hapjava.accessories.HomekitAccessory;
+
+/**
+ * Tests the structure hash of the {@link HomekitAccessoryRegistry}, which decides whether a new configuration
+ * revision is published.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryRegistryTest {
+
+    private HomekitAccessory createTemperatureSensor(Map<String, Object> configuration) throws HomekitException {
+        NumberItem item = new NumberItem("temperature");
+        Metadata metadata = new Metadata(new MetadataKey(HomekitAccessoryFactory.METADATA_KEY, item.getName()),
+                "TemperatureSensor", configuration);
+        MetadataRegistry metadataRegistry = mock(MetadataRegistry.class);
+        when(metadataRegistry.get(metadata.getUID())).thenReturn(metadata);
+        HomekitTaggedItem taggedItem = new HomekitTaggedItem(new HomekitOHItemProxy(item),
+                HomekitAccessoryType.TEMPERATURE_SENSOR, configuration);
+        return HomekitAccessoryFactory.create(taggedItem, metadataRegistry, new HomekitAccessoryUpdater(),
+                new HomekitSettings());
+    }
+
+    @Test
+    public void testUnchangedAccessoryHasTheSameHash() throws HomekitException {
+        Map<String, Object> configuration = Map.of(HomekitTaggedItem.MIN_VALUE, BigDecimal.valueOf(-20));
+
+        assertEquals(HomekitAccessoryRegistry.structureHash(createTemperatureSensor(configuration)),
+                HomekitAccessoryRegistry.structureHash(createTemperatureSensor(configuration)));
+    }
+
+    @Test
+    public void testChangedValueRangeChangesTheHash() throws HomekitException {
+        long hash = HomekitAccessoryRegistry.structureHash(
+                createTemperatureSensor(Map.of(HomekitTaggedItem.MIN_VALUE, BigDecimal.valueOf(-20))));
+
+        assertNotEquals(hash, HomekitAccessoryRegistry.structureHash(
+                createTemperatureSensor(Map.of(HomekitTaggedItem.MIN_VALUE, BigDecimal.valueOf(-10)))));
+        assertNotEquals(hash, HomekitAccessoryRegistry.structureHash(createTemperatureSensor(Map.of(
+                HomekitTaggedItem.MIN_VALUE, BigDecimal.valueOf(-20), HomekitTaggedItem.STEP, BigDecimal.ONE))));
+    }
+}
@@ -14,6 +14,7 @@ package org.openhab.io.hueemulation.internal;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.IllegalFormatException;
 import java.util.LinkedHashSet;
@@ -99,6 +100,26 @@ public class ConfigStore {
             .registerTypeAdapter(HueSuccessResponseStateChanged.class, new HueSuccessResponseStateChanged.Serializer())
             .registerTypeAdapter(HueGroupEntry.class, new HueGroupEntry.Serializer(this)).create();
 
+    /**
+     * The serialized lights. A light is serialized again if its item, item state, label or last command changed.
+     */
+    public final JsonSnapshot<HueLightEntry> lightsJson = new JsonSnapshot<>(gson,
+            light -> Arrays.asList(light, light.item, light.item.getState(), light.item.getLabel(), light.lastCommand,
+                    light.lastHueChange, light.deviceType));
+
+    /**
+     * The serialized groups. A group is serialized again if its item, its members or one of its fields changed.
+     */
+    public final JsonSnapshot<HueGroupEntry> groupsJson = new JsonSnapshot<>(gson,
+            group -> Arrays.asList(group, group.groupItem,
+                    group.groupItem != null ? group.groupItem.getMembers() : group.lights, group.action, group.name,
+                    group.type, group.roomclass, group.deviceType));
+
+    /**
+     * Only used for the ETag and the statistics of the full data store
+     */
+    public final JsonSnapshot<HueDataStore> dataStoreJson = new JsonSnapshot<>(gson, ds -> Arrays.asList(ds));
+
     @Reference
     protected @NonNullByDefault({}) ConfigurationAdmin configAdmin;
 
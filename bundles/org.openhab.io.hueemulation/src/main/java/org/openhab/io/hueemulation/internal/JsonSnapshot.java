@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.hueemulation.internal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+/**
+ * Keeps the serialized JSON of a map of hue entries, like all lights or all groups.
+ * <p>
+ * Hue clients like the Amazon Echo or the Harmony hub poll those resources constantly. Each entry is only serialized
+ * again if its fingerprint changed, e.g. the state of the item of a light, and the JSON of the whole map is only put
+ * together again if any entry changed. The snapshots come with an ETag, so a client sending the ETag of its last
+ * response in an If-None-Match header gets a "304 Not Modified" response instead.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> The hue entry type
+ */
+@NonNullByDefault
+public class JsonSnapshot<T> {
+    /**
+     * The JSON of a resource and its ETag.
+     */
+    public static class Snapshot {
+        public final String json;
+        public final String etag;
+
+        public Snapshot(String json) {
+            this.json = json;
+            this.etag = Integer.toHexString(json.hashCode()) + "-" + Integer.toHexString(json.length());
+        }
+    }
+
+    private static class CachedEntry {
+        private final List<@Nullable Object> fingerprint;
+        private final String json;
+
+        private CachedEntry(List<@Nullable Object> fingerprint, String json) {
+            this.fingerprint = fingerprint;
+            this.json = json;
+        }
+    }
+
+    private final Gson gson;
+    private final Function<T, List<@Nullable Object>> fingerprint;
+    private final Map<String, CachedEntry> entries = new HashMap<>();
+    private @Nullable Snapshot snapshot;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    /**
+     * @param gson The gson instance to serialize the entries
+     * @param fingerprint Returns everything the JSON of an entry depends on. It is compared by equality, so it must
+     *            contain the entry itself and must be computed before the serialization.
+     */
+    public JsonSnapshot(Gson gson, Function<T, List<@Nullable Object>> fingerprint) {
+        this.gson = gson;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns the JSON of all entries, serializing only the changed entries.
+     *
+     * @param values The entries by their hue IDs, in the order of the JSON object
+     */
+    public synchronized Snapshot get(Map<String, T> values) {
+        boolean changed = values.size() != entries.size();
+        for (Map.Entry<String, T> value : values.entrySet()) {
+            changed |= update(value.getKey(), value.getValue()) != null;
+        }
+        Snapshot snapshot = this.snapshot;
+        if (snapshot == null || changed) {
+            entries.keySet().retainAll(values.keySet());
+            StringBuilder json = new StringBuilder("{");
+            for (String id : values.keySet()) {
+                CachedEntry entry = entries.get(id);
+                if (entry != null) {
+                    if (json.length() > 1) {
+                        json.append(',');
+                    }
+                    json.append(gson.toJson(id)).append(':').append(entry.json);
+                }
+            }
+            snapshot = new Snapshot(json.append('}').toString());
+            this.snapshot = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the JSON of a single entry, serializing it only if it changed.
+     */
+    public synchronized String get(String id, T value) {
+        CachedEntry entry = update(id, value);
+        if (entry != null) {
+            // the snapshot of all entries is out of date
+            snapshot = null;
+            return entry.json;
+        }
+        CachedEntry cached = entries.get(id);
+        return cached != null ? cached.json : gson.toJson(value);
+    }
+
+    /**
+     * @return the new entry, or null if the cached entry is up to date
+     */
+    private @Nullable CachedEntry update(String id, T value) {
+        List<@Nullable Object> currentFingerprint = fingerprint.apply(value);
+        CachedEntry cached = entries.get(id);
+        if (cached != null && cached.fingerprint.equals(currentFingerprint)) {
+            return null;
+        }
+        CachedEntry entry = new CachedEntry(currentFingerprint, gson.toJson(value));
+        entries.put(id, entry);
+        return entry;
+    }
+
+    /**
+     * Creates the response for a snapshot, or a "304 Not Modified" response if the ETag of the snapshot matches the
+     * If-None-Match header of the request.
+     *
+     * @param request The request
+     * @param snapshot The JSON to respond with
+     * @param start The {@link System#nanoTime()} the request processing started, for the latency statistics
+     */
+    public Response respond(Request request, Snapshot snapshot, long start) {
+        EntityTag etag = new EntityTag(snapshot.etag);
+        ResponseBuilder builder = request.evaluatePreconditions(etag);
+        if (builder != null) {
+            notModified.incrementAndGet();
+        } else {
+            builder = Response.ok(snapshot.json);
+        }
+        Response response = builder.tag(etag).build();
+        long latency = System.nanoTime() - start;
+        requests.incrementAndGet();
+        totalLatency.addAndGet(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+        return response;
+    }
+
+    /**
+     * Return the number of responses, including the "304 Not Modified" responses.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Return the number of "304 Not Modified" responses.
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * Return the average time in microseconds to create a response.
+     */
+    public long getAverageLatency() {
+        long count = requests.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.get() / count);
+    }
+
+    /**
+     * Return the longest time in microseconds to create a response.
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatency.get());
+    }
+
+    @Override
+    public String toString() {
+        return getRequestCount() + " requests (" + getNotModifiedCount() + " not modified), average latency "
+                + getAverageLatency() + "us, max latency " + getMaxLatency() + "us";
+    }
+}
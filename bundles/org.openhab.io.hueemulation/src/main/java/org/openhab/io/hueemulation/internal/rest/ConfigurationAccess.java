@@ -22,13 +22,16 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.io.hueemulation.internal.ConfigStore;
 import org.openhab.io.hueemulation.internal.HueEmulationService;
+import org.openhab.io.hueemulation.internal.JsonSnapshot;
 import org.openhab.io.hueemulation.internal.NetworkUtils;
+import org.openhab.io.hueemulation.internal.dto.HueDataStore;
 import org.openhab.io.hueemulation.internal.dto.HueUnauthorizedConfig;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueChangeRequest;
 import org.openhab.io.hueemulation.internal.dto.response.HueResponse;
@@ -40,6 +43,7 @@ import org.osgi.service.jaxrs.whiteboard.JaxrsWhiteboardConstants;
 import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsApplicationSelect;
 import org.osgi.service.jaxrs.whiteboard.propertytypes.JaxrsResource;
 
+import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -78,12 +82,29 @@ public class ConfigurationAccess {
     @Produces(MediaType.APPLICATION_JSON)
     @Operation(summary = "Return the full data store", responses = {
             @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllApi(@Context UriInfo uri,
+    public Response getAllApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
+        long start = System.nanoTime();
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds)).build();
+        return cs.dataStoreJson.respond(request, new JsonSnapshot.Snapshot(serializeDataStore(cs.ds)), start);
+    }
+
+    /**
+     * Serializes the data store like gson would, but reuses the serialized lights and groups.
+     */
+    private String serializeDataStore(HueDataStore ds) {
+        Gson gson = cs.gson;
+        return "{\"config\":" + gson.toJson(ds.config) //
+                + ",\"lights\":" + cs.lightsJson.get(ds.lights).json //
+                + ",\"groups\":" + cs.groupsJson.get(ds.groups).json //
+                + ",\"scenes\":" + gson.toJson(ds.scenes) //
+                + ",\"rules\":" + gson.toJson(ds.rules) //
+                + ",\"sensors\":" + gson.toJson(ds.sensors) //
+                + ",\"schedules\":" + gson.toJson(ds.schedules) //
+                + ",\"resourcelinks\":" + gson.toJson(ds.resourcelinks) //
+                + ",\"capabilities\":" + gson.toJson(ds.capabilities) + "}";
     }
 
     @GET
@@ -27,6 +27,7 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
@@ -247,12 +248,13 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/lights")
     @Operation(summary = "Return all lights", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllLightsApi(@Context UriInfo uri,
+    public Response getAllLightsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
+        long start = System.nanoTime();
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights)).build();
+        return cs.lightsJson.respond(request, cs.lightsJson.get(cs.ds.lights), start);
     }
 
     @GET
@@ -288,7 +290,11 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.lights.get(id))).build();
+        HueLightEntry hueDevice = cs.ds.lights.get(id);
+        if (hueDevice == null) {
+            return Response.ok(cs.gson.toJson(hueDevice)).build();
+        }
+        return Response.ok(cs.lightsJson.get(id, hueDevice)).build();
     }
 
     @SuppressWarnings({ "null", "unused" })
@@ -438,12 +444,13 @@ public class LightsAndGroups implements RegistryChangeListener<Item> {
     @GET
     @Path("{username}/groups")
     @Operation(summary = "Return all groups", responses = { @ApiResponse(responseCode = "200", description = "OK") })
-    public Response getAllGroupsApi(@Context UriInfo uri,
+    public Response getAllGroupsApi(@Context UriInfo uri, @Context Request request,
             @PathParam("username") @Parameter(description = "username") String username) {
+        long start = System.nanoTime();
         if (!userManagement.authorizeUser(username)) {
             return NetworkUtils.singleError(cs.gson, uri, HueResponse.UNAUTHORIZED, "Not Authorized");
         }
-        return Response.ok(cs.gson.toJson(cs.ds.groups)).build();
+        return cs.groupsJson.respond(request, cs.groupsJson.get(cs.ds.groups), start);
     }
 
     @GET
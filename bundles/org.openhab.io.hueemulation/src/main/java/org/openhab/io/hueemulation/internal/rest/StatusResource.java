@@ -142,6 +142,8 @@ public class StatusResource implements RegistryListener {
                 + //
                 "%d published lights (see <a href='%s/api/testuser/lights'>%s/api/testuser/lights</a>)<br>" + //
                 "%d published sensors (see <a href='%s/api/testuser/sensors'>%s/api/testuser/sensors</a>)<br>" + //
+                "<h2>Statistics</h2>" + //
+                "<p>Lights: %s<br>Groups: %s<br>Full data store: %s</p>" + //
                 "<h2>UPnP discovery test</h2>" + //
                 "<p>%s</p>" + //
                 "<table style='border:1px solid black'><tr><td>serial no</td><td>name</td></tr>%s</table>" + //
@@ -177,6 +179,7 @@ public class StatusResource implements RegistryListener {
         return String.format(format, cs.ds.config.linkbutton ? "On" : "Off",
                 cs.getConfig().temporarilyEmulateV1bridge ? "V1" : "V2", url, url, //
                 cs.ds.lights.size(), url, url, cs.ds.sensors.size(), url, url, //
+                cs.lightsJson, cs.groupsJson, cs.dataStoreJson, //
                 selfTestUpnpFound.name().replace('_', ' '), //
                 upnps, reachable, users);
     }
@@ -21,6 +21,8 @@ import static org.mockito.Mockito.verify;
 import java.io.IOException;
 
 import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -240,6 +242,29 @@ public class LightsAndGroupsTests {
         assertThat(((HueStateColorBulb) cs.ds.lights.get("2").state).on, is(true));
     }
 
+    @Test
+    public void getLightsWithETag() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        EntityTag etag = response.getEntityTag();
+        assertThat(response.readEntity(String.class), containsString("\"on\":false"));
+
+        // unchanged lights are not sent again
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag).get();
+        assertEquals(304, response.getStatus());
+
+        // a changed item state is sent
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header(HttpHeaders.IF_NONE_MATCH, etag).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.getEntityTag(), not(etag));
+        assertThat(response.readEntity(String.class), containsString("\"on\":true"));
+        assertThat(cs.lightsJson.getRequestCount(), is(3L));
+        assertThat(cs.lightsJson.getNotModifiedCount(), is(1L));
+    }
+
     @Test
     public void changeOnAndBriValues() {
         assertThat(((HueStateColorBulb) cs.ds.lights.get("2").state).on, is(false));
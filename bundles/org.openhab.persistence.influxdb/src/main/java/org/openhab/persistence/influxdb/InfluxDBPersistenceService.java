@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.influxdb;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Collections;
@@ -19,14 +21,19 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
+import org.openhab.core.items.GroupItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
 import org.openhab.core.items.MetadataRegistry;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
@@ -35,6 +42,7 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBHistoricItem;
 import org.openhab.persistence.influxdb.internal.InfluxDBPersistentItemInfo;
@@ -82,6 +90,8 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
 
     private final Logger logger = LoggerFactory.getLogger(InfluxDBPersistenceService.class);
 
+    private final ExecutorService storeExecutor = ThreadPoolManager.getPool("influxdb");
+
     protected static final String CONFIG_URI = "persistence:influxdb";
 
     // External dependencies
@@ -203,15 +213,29 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
     @Override
     public void store(Item item, @Nullable String alias) {
         if (influxDBRepository != null && influxDBRepository.isConnected()) {
-            InfluxPoint point = itemToStorePointCreator.convert(item, alias);
+            if (configuration.isWriteBufferEnabled()) {
+                // the write is buffered anyway, so don't convert the item on the event thread
+                final ItemToStorePointCreator pointCreator = itemToStorePointCreator;
+                final State state = item.getState();
+                final Instant time = Instant.now();
+                storeExecutor.execute(() -> storePoint(item, pointCreator.convert(item, state, time, alias)));
+            } else {
+                storePoint(item, itemToStorePointCreator.convert(item, alias));
+            }
+        } else {
+            logger.debug("store ignored, InfluxDB is not yet connected");
+        }
+    }
+
+    private void storePoint(Item item, @Nullable InfluxPoint point) {
+        final InfluxDBRepository currentRepository = influxDBRepository;
+        if (currentRepository != null) {
             if (point != null) {
                 logger.trace("Storing item {} in InfluxDB point {}", item, point);
-                influxDBRepository.write(point);
+                currentRepository.write(point);
             } else {
                 logger.trace("Ignoring item {} as is cannot be converted to a InfluxDB point", item);
             }
-        } else {
-            logger.debug("store ignored, InfluxDB is not yet connected");
         }
     }
 
@@ -226,16 +250,46 @@ public class InfluxDBPersistenceService implements QueryablePersistenceService {
                     filter.getBeginDate(), filter.getEndDate(), filter.getPageSize(), filter.getPageNumber());
 
             String query = RepositoryFactory.createQueryCreator(configuration, metadataRegistry).createQuery(filter,
-                    configuration.getRetentionPolicy());
+                    configuration.getRetentionPolicy(), calculateAggregationWindow(filter));
             logger.trace("Query {}", query);
-            List<InfluxRow> results = influxDBRepository.query(query);
-            return results.stream().map(this::mapRow2HistoricItem).collect(Collectors.toList());
+            Iterable<InfluxRow> results = influxDBRepository.query(query);
+            // map lazily, the rows are streamed from the database while iterating
+            return () -> StreamSupport.stream(results.spliterator(), false).map(this::mapRow2HistoricItem).iterator();
         } else {
             logger.debug("query ignored, InfluxDB is not yet connected");
             return Collections.emptyList();
         }
     }
 
+    /**
+     * Calculates the length of the windows the values are aggregated in, so that at most the configured maximum number
+     * of points is returned. Only unpaged queries of numeric items within a closed time range without a state filter
+     * are aggregated.
+     *
+     * @return the window length or null if the raw values should be returned
+     */
+    private @Nullable Duration calculateAggregationWindow(FilterCriteria filter) {
+        int maxPoints = configuration.getQueryMaxPoints();
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        String itemName = filter.getItemName();
+        if (configuration.getQueryAggregation() == InfluxDBAggregation.NONE || maxPoints <= 0 || beginDate == null
+                || endDate == null || itemName == null || filter.getState() != null
+                || filter.getPageSize() != Integer.MAX_VALUE) {
+            return null;
+        }
+        Item item = itemRegistry.get(itemName);
+        if (item instanceof GroupItem) {
+            item = ((GroupItem) item).getBaseItem();
+        }
+        if (!(item instanceof NumberItem)) {
+            return null;
+        }
+        // windows are aligned to the epoch, so the range can touch one more window than it is long
+        long windowMillis = Duration.between(beginDate, endDate).toMillis() / Math.max(1, maxPoints - 1);
+        return Duration.ofSeconds(Math.max(1, (windowMillis + 999) / 1000));
+    }
+
     private HistoricItem mapRow2HistoricItem(InfluxRow row) {
         State state = InfluxDBStateConvertUtils.objectToState(row.getValue(), row.getItemName(), itemRegistry);
         return new InfluxDBHistoricItem(row.getItemName(), state,
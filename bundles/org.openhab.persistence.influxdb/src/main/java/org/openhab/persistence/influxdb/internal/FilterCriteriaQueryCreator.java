@@ -12,7 +12,10 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
+import java.time.Duration;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.persistence.FilterCriteria;
 
 /**
@@ -29,7 +32,23 @@ public interface FilterCriteriaQueryCreator {
      * @param retentionPolicy Name of the retentionPolicy/bucket to use in query
      * @return Created query as an String
      */
-    String createQuery(FilterCriteria criteria, String retentionPolicy);
+    default String createQuery(FilterCriteria criteria, String retentionPolicy) {
+        return createQuery(criteria, retentionPolicy, null);
+    }
+
+    /**
+     * Create query from {@link FilterCriteria}, optionally aggregating the values in the database
+     *
+     * If an aggregation window is given, the values of the item are grouped in windows of that length and every
+     * window is reduced to one value with the configured {@link InfluxDBAggregation}. The state filter and paging of
+     * the criteria are ignored in that case.
+     *
+     * @param criteria Criteria to create query from
+     * @param retentionPolicy Name of the retentionPolicy/bucket to use in query
+     * @param aggregationWindow Length of the aggregation windows or null to return the raw values
+     * @return Created query as an String
+     */
+    String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow);
 
     default String getOperationSymbol(FilterCriteria.Operator operator, InfluxDBVersion version) {
         switch (operator) {
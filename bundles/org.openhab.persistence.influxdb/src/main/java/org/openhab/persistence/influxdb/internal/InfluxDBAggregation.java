@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Aggregation function used to downsample query results in the database
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public enum InfluxDBAggregation {
+    NONE(""),
+    AVG("mean"),
+    MIN("min"),
+    MAX("max"),
+    LAST("last");
+
+    private final String function;
+
+    InfluxDBAggregation(String function) {
+        this.function = function;
+    }
+
+    /**
+     * @return the name of the InfluxQL / Flux function
+     */
+    public String getFunction() {
+        return function;
+    }
+}
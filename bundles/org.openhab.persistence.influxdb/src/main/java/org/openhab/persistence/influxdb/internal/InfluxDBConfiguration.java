@@ -40,6 +40,13 @@ public class InfluxDBConfiguration {
     public static final String ADD_CATEGORY_TAG_PARAM = "addCategoryTag";
     public static final String ADD_LABEL_TAG_PARAM = "addLabelTag";
     public static final String ADD_TYPE_TAG_PARAM = "addTypeTag";
+    public static final String QUERY_AGGREGATION_PARAM = "queryAggregation";
+    public static final String QUERY_MAX_POINTS_PARAM = "queryMaxPoints";
+    public static final String GZIP_PARAM = "gzip";
+    public static final String WRITE_BATCH_SIZE_PARAM = "writeBatchSize";
+    public static final String WRITE_FLUSH_INTERVAL_PARAM = "writeFlushInterval";
+    public static final String WRITE_BUFFER_LIMIT_PARAM = "writeBufferLimit";
+    public static final String WRITE_RETRY_INTERVAL_PARAM = "writeRetryInterval";
     public static InfluxDBConfiguration NO_CONFIGURATION = new InfluxDBConfiguration(Collections.emptyMap());
     private final Logger logger = LoggerFactory.getLogger(InfluxDBConfiguration.class);
     private final String url;
@@ -55,6 +62,15 @@ public class InfluxDBConfiguration {
     private final boolean addTypeTag;
     private final boolean addLabelTag;
 
+    private final InfluxDBAggregation queryAggregation;
+    private final int queryMaxPoints;
+
+    private final boolean gzip;
+    private final int writeBatchSize;
+    private final int writeFlushInterval;
+    private final int writeBufferLimit;
+    private final int writeRetryInterval;
+
     public InfluxDBConfiguration(Map<String, Object> config) {
         url = (String) config.getOrDefault(URL_PARAM, "http://127.0.0.1:8086");
         user = (String) config.getOrDefault(USER_PARAM, "openhab");
@@ -68,6 +84,31 @@ public class InfluxDBConfiguration {
         addCategoryTag = getConfigBooleanValue(config, ADD_CATEGORY_TAG_PARAM, false);
         addLabelTag = getConfigBooleanValue(config, ADD_LABEL_TAG_PARAM, false);
         addTypeTag = getConfigBooleanValue(config, ADD_TYPE_TAG_PARAM, false);
+
+        queryAggregation = parseQueryAggregation(
+                (String) config.getOrDefault(QUERY_AGGREGATION_PARAM, InfluxDBAggregation.NONE.name()));
+        queryMaxPoints = getConfigIntValue(config, QUERY_MAX_POINTS_PARAM, 0);
+
+        gzip = getConfigBooleanValue(config, GZIP_PARAM, false);
+        writeBatchSize = getConfigIntValue(config, WRITE_BATCH_SIZE_PARAM, 0);
+        writeFlushInterval = Math.max(1, getConfigIntValue(config, WRITE_FLUSH_INTERVAL_PARAM, 1000));
+        writeBufferLimit = getConfigIntValue(config, WRITE_BUFFER_LIMIT_PARAM, 10000);
+        writeRetryInterval = Math.max(1, getConfigIntValue(config, WRITE_RETRY_INTERVAL_PARAM, 5000));
+    }
+
+    private static int getConfigIntValue(Map<String, Object> config, String key, int defaultValue) {
+        Object object = config.get(key);
+        if (object instanceof Number) {
+            return ((Number) object).intValue();
+        } else if (object instanceof String) {
+            try {
+                return Integer.parseInt(((String) object).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        } else {
+            return defaultValue;
+        }
     }
 
     private static boolean getConfigBooleanValue(Map<String, Object> config, String key, boolean defaultValue) {
@@ -90,6 +131,15 @@ public class InfluxDBConfiguration {
         }
     }
 
+    private InfluxDBAggregation parseQueryAggregation(String value) {
+        try {
+            return InfluxDBAggregation.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid query aggregation {}, queries won't be aggregated", value);
+            return InfluxDBAggregation.NONE;
+        }
+    }
+
     public boolean isValid() {
         boolean hasVersion = version != InfluxDBVersion.UNKNOWN;
         boolean hasCredentials = false;
@@ -157,6 +207,41 @@ public class InfluxDBConfiguration {
         return addLabelTag;
     }
 
+    public InfluxDBAggregation getQueryAggregation() {
+        return queryAggregation;
+    }
+
+    public int getQueryMaxPoints() {
+        return queryMaxPoints;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * The write buffer is only supported for InfluxDB 2, the 1.X client batches writes itself
+     */
+    public boolean isWriteBufferEnabled() {
+        return version == InfluxDBVersion.V2 && writeBatchSize > 0;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public int getWriteFlushInterval() {
+        return writeFlushInterval;
+    }
+
+    public int getWriteBufferLimit() {
+        return writeBufferLimit;
+    }
+
+    public int getWriteRetryInterval() {
+        return writeRetryInterval;
+    }
+
     public String getUser() {
         return user;
     }
@@ -175,7 +260,10 @@ public class InfluxDBConfiguration {
                 + password.length() + " chars" + '\'' + ", token='" + token.length() + " chars" + '\''
                 + ", databaseName='" + databaseName + '\'' + ", retentionPolicy='" + retentionPolicy + '\''
                 + ", version=" + version + ", replaceUnderscore=" + replaceUnderscore + ", addCategoryTag="
-                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + '}';
+                + addCategoryTag + ", addTypeTag=" + addTypeTag + ", addLabelTag=" + addLabelTag + ", queryAggregation="
+                + queryAggregation + ", queryMaxPoints=" + queryMaxPoints + ", gzip=" + gzip + ", writeBatchSize="
+                + writeBatchSize + ", writeFlushInterval=" + writeFlushInterval + ", writeBufferLimit="
+                + writeBufferLimit + ", writeRetryInterval=" + writeRetryInterval + '}';
         return sb;
     }
 
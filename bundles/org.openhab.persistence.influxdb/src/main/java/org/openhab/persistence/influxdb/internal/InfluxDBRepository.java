@@ -12,7 +12,6 @@
  */
 package org.openhab.persistence.influxdb.internal;
 
-import java.util.List;
 import java.util.Map;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -60,10 +59,13 @@ public interface InfluxDBRepository {
     /**
      * Executes Flux query
      *
+     * The rows are streamed from the server while the result is iterated, each call to
+     * {@link Iterable#iterator()} executes the query again.
+     *
      * @param query Query
      * @return Query results
      */
-    List<InfluxRow> query(String query);
+    Iterable<InfluxRow> query(String query);
 
     /**
      * Write point to database
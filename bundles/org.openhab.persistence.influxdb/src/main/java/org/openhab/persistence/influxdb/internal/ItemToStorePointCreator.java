@@ -43,17 +43,25 @@ public class ItemToStorePointCreator {
     }
 
     public @Nullable InfluxPoint convert(Item item, @Nullable String storeAlias) {
-        if (item.getState() instanceof UnDefType) {
+        return convert(item, item.getState(), Instant.now(), storeAlias);
+    }
+
+    /**
+     * Converts a state the item had at the given time, so the conversion can be done after the state has changed
+     * again.
+     */
+    public @Nullable InfluxPoint convert(Item item, State itemState, Instant time, @Nullable String storeAlias) {
+        if (itemState instanceof UnDefType) {
             return null;
         }
 
         String measurementName = calculateMeasurementName(item, storeAlias);
         String itemName = item.getName();
-        State state = getItemState(item);
+        State state = getItemState(item, itemState);
 
         Object value = InfluxDBStateConvertUtils.stateToObject(state);
 
-        InfluxPoint.Builder point = InfluxPoint.newBuilder(measurementName).withTime(Instant.now()).withValue(value)
+        InfluxPoint.Builder point = InfluxPoint.newBuilder(measurementName).withTime(time).withValue(value)
                 .withTag(TAG_ITEM_NAME, itemName);
 
         addPointTags(item, point);
@@ -74,18 +82,20 @@ public class ItemToStorePointCreator {
         return name;
     }
 
-    private State getItemState(Item item) {
+    private State getItemState(Item item, State itemState) {
         final State state;
         final Optional<Class<? extends State>> desiredConversion = calculateDesiredTypeConversionToStore(item);
         if (desiredConversion.isPresent()) {
-            State convertedState = item.getStateAs(desiredConversion.get());
+            // group items calculate the converted state from their members, only possible for the current state
+            State convertedState = itemState == item.getState() ? item.getStateAs(desiredConversion.get())
+                    : itemState.as(desiredConversion.get());
             if (convertedState != null) {
                 state = convertedState;
             } else {
-                state = item.getState();
+                state = itemState;
             }
         } else {
-            state = item.getState();
+            state = itemState;
         }
         return state;
     }
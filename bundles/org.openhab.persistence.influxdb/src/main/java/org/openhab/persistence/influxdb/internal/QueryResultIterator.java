@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import java.lang.ref.Cleaner;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterator over the rows of a streamed query.
+ *
+ * The client pushes rows from its response thread to the {@link Sink} of the iterator, which blocks while the bounded
+ * buffer is full, so the response is only read as fast as the rows are consumed. A failure of the query is thrown to
+ * the consumer as an {@link UnnexpectedConditionException} instead of ending the iteration early, so callers never
+ * compute on a partial result. If the consumer stops iterating, the query is cancelled once the iterator is closed or
+ * garbage collected.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class QueryResultIterator implements Iterator<InfluxRow>, AutoCloseable {
+    private static final Object END = new Object();
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * The producer side of the iterator. It does not reference the iterator, so the iterator can be garbage collected
+     * while the producer is still running.
+     */
+    public static class Sink {
+        private final Logger logger = LoggerFactory.getLogger(QueryResultIterator.class);
+        private final BlockingQueue<Object> queue;
+        private final long timeoutMillis;
+        private volatile boolean abandoned = false;
+
+        private Sink(int capacity, long timeoutMillis) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        /**
+         * Adds a row, blocking while the buffer is full.
+         *
+         * @param row the next row of the result
+         * @return false if the consumer is gone and the query should be cancelled
+         */
+        public boolean offer(InfluxRow row) {
+            return put(row);
+        }
+
+        /**
+         * Signals that all rows have been added.
+         */
+        public void complete() {
+            put(END);
+        }
+
+        /**
+         * Signals that the query failed. The consumer gets the error after the rows received so far.
+         */
+        public void fail(Throwable error) {
+            put(error);
+        }
+
+        private boolean put(Object element) {
+            if (abandoned) {
+                return false;
+            }
+            try {
+                if (queue.offer(element, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    // the consumer may have gone while waiting
+                    return !abandoned;
+                }
+                logger.debug("Query result was not consumed within {} ms, cancelling query", timeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            abandon();
+            return false;
+        }
+
+        /**
+         * Stops accepting rows and unblocks a waiting producer.
+         */
+        private void abandon() {
+            abandoned = true;
+            queue.clear();
+        }
+    }
+
+    private final Sink sink;
+    private final Cleaner.Cleanable cleanable;
+    private @Nullable Object next;
+
+    /**
+     * @param capacity maximum number of buffered rows
+     * @param timeoutMillis maximum time to wait for the producer or the consumer
+     */
+    public QueryResultIterator(int capacity, long timeoutMillis) {
+        Sink sink = new Sink(capacity, timeoutMillis);
+        this.sink = sink;
+        this.cleanable = CLEANER.register(this, sink::abandon);
+    }
+
+    /**
+     * @return the side of the iterator the rows are added to
+     */
+    public Sink getSink() {
+        return sink;
+    }
+
+    @Override
+    public boolean hasNext() {
+        Object current = next;
+        if (current == null) {
+            try {
+                current = sink.queue.poll(sink.timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (current == null) {
+                close();
+                throw new UnnexpectedConditionException(
+                        "Query didn't return further rows within " + sink.timeoutMillis + " ms");
+            } else if (current instanceof Throwable) {
+                close();
+                Throwable error = (Throwable) current;
+                throw new UnnexpectedConditionException("Query failed: " + error.getMessage(), error);
+            } else if (current == END) {
+                close();
+            }
+            next = current;
+        }
+        return current != END;
+    }
+
+    @Override
+    public InfluxRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        InfluxRow row = (InfluxRow) next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Stops the iteration, the query is cancelled if it is still running.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+}
@@ -16,6 +16,10 @@ import static org.influxdb.querybuilder.BuiltQuery.QueryBuilder.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.StringJoiner;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.influxdb.dto.Query;
@@ -27,6 +31,7 @@ import org.influxdb.querybuilder.clauses.SimpleClause;
 import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataUtils;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -49,13 +54,18 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow) {
         final String tableName;
         final String itemName = criteria.getItemName();
         boolean hasCriteriaName = itemName != null;
 
         tableName = calculateTableName(itemName);
 
+        if (aggregationWindow != null && itemName != null
+                && configuration.getQueryAggregation() != InfluxDBAggregation.NONE) {
+            return createAggregateQuery(criteria, retentionPolicy, tableName, itemName, aggregationWindow);
+        }
+
         Select select = select().column("\"" + COLUMN_VALUE_NAME_V1 + "\"::field")
                 .column("\"" + TAG_ITEM_NAME + "\"::tag")
                 .fromRaw(null, fullQualifiedTableName(retentionPolicy, tableName, hasCriteriaName));
@@ -99,6 +109,37 @@ public class Influx1FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
         return query.getCommand();
     }
 
+    /**
+     * The query builder doesn't support selectors together with GROUP BY time(), so the query is built by hand. The
+     * item tag is grouped by instead of selected, as InfluxQL doesn't allow mixing aggregated and plain columns.
+     */
+    private String createAggregateQuery(FilterCriteria criteria, String retentionPolicy, String tableName,
+            String itemName, Duration aggregationWindow) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (!tableName.equals(itemName)) {
+            where.add(TAG_ITEM_NAME + "='" + itemName.replace("\\", "\\\\").replace("'", "\\'") + "'");
+        }
+        ZonedDateTime beginDate = criteria.getBeginDate();
+        if (beginDate != null) {
+            where.add(COLUMN_TIME_NAME_V1 + ">='" + beginDate.toInstant() + "'");
+        }
+        ZonedDateTime endDate = criteria.getEndDate();
+        if (endDate != null) {
+            where.add(COLUMN_TIME_NAME_V1 + "<='" + endDate.toInstant() + "'");
+        }
+
+        StringBuilder sb = new StringBuilder("SELECT ");
+        sb.append(configuration.getQueryAggregation().getFunction()).append("(\"").append(COLUMN_VALUE_NAME_V1)
+                .append("\") AS \"").append(COLUMN_VALUE_NAME_V1).append("\" FROM ")
+                .append(fullQualifiedTableName(retentionPolicy, tableName, true)).append(where);
+        sb.append(" GROUP BY time(").append(Math.max(1, aggregationWindow.getSeconds())).append("s),")
+                .append(TAG_ITEM_NAME).append(" fill(none)");
+        if (criteria.getOrdering() == FilterCriteria.Ordering.DESCENDING) {
+            sb.append(" ORDER BY time DESC");
+        }
+        return sb.append(';').toString();
+    }
+
     private String calculateTableName(@Nullable String itemName) {
         if (itemName == null) {
             return "/.*/";
@@ -38,6 +38,7 @@ import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.QueryResultIterator;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +53,11 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
+    private static final int QUERY_CHUNK_SIZE = 1000;
+    private static final long QUERY_TIMEOUT_MS = 60000;
+    // error the client reports at the end of every chunked response
+    private static final String CHUNKED_QUERY_DONE = "DONE";
+
     private final Logger logger = LoggerFactory.getLogger(InfluxDB1RepositoryImpl.class);
     private InfluxDBConfiguration configuration;
     @Nullable
@@ -73,6 +79,9 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         createdClient.setDatabase(configuration.getDatabaseName());
         createdClient.setRetentionPolicy(configuration.getRetentionPolicy());
         createdClient.enableBatch(200, 100, TimeUnit.MILLISECONDS);
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         this.client = createdClient;
         return checkConnectionStatus();
     }
@@ -148,12 +157,43 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
     }
 
     @Override
-    public List<InfluxRow> query(String query) {
+    public Iterable<InfluxRow> query(String query) {
         final InfluxDB currentClient = client;
         if (currentClient != null) {
-            Query parsedQuery = new Query(query, configuration.getDatabaseName());
-            List<QueryResult.Result> results = currentClient.query(parsedQuery, TimeUnit.MILLISECONDS).getResults();
-            return convertClientResutToRepository(results);
+            return () -> {
+                QueryResultIterator rows = new QueryResultIterator(QUERY_CHUNK_SIZE, QUERY_TIMEOUT_MS);
+                QueryResultIterator.Sink sink = rows.getSink();
+                Query parsedQuery = new Query(query, configuration.getDatabaseName());
+                currentClient.query(parsedQuery, QUERY_CHUNK_SIZE, (cancellable, queryResult) -> {
+                    String error = queryResult.getError();
+                    if (CHUNKED_QUERY_DONE.equals(error)) {
+                        // the client marks the end of the stream this way, onComplete follows
+                        return;
+                    } else if (error != null) {
+                        sink.fail(new UnnexpectedConditionException(error));
+                        cancellable.cancel();
+                        return;
+                    }
+                    List<QueryResult.Result> results = queryResult.getResults();
+                    if (results != null) {
+                        List<InfluxRow> chunkRows;
+                        try {
+                            chunkRows = convertClientResutToRepository(results);
+                        } catch (RuntimeException e) {
+                            sink.fail(e);
+                            cancellable.cancel();
+                            return;
+                        }
+                        for (InfluxRow row : chunkRows) {
+                            if (!sink.offer(row)) {
+                                cancellable.cancel();
+                                return;
+                            }
+                        }
+                    }
+                }, sink::complete, sink::fail);
+                return rows;
+            };
         } else {
             logger.warn("Returning empty list because queryAPI isn't present");
             return Collections.emptyList();
@@ -164,9 +204,9 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
         List<InfluxRow> rows = new ArrayList<>();
         for (QueryResult.Result result : results) {
             List<QueryResult.Series> seriess = result.getSeries();
-            if (result.getError() != null) {
-                logger.warn("{}", result.getError());
-                continue;
+            String error = result.getError();
+            if (error != null) {
+                throw new UnnexpectedConditionException(error);
             }
             if (seriess == null) {
                 logger.debug("query returned no series");
@@ -197,13 +237,18 @@ public class InfluxDB1RepositoryImpl implements InfluxDBRepository {
                                 throw new IllegalStateException("missing column");
                             }
                             for (int i = 0; i < valuess.size(); i++) {
-                                Double rawTime = (Double) Objects.requireNonNull(valuess.get(i).get(timestampColumn));
-                                Instant time = Instant.ofEpochMilli(rawTime.longValue());
+                                Object rawTime = Objects.requireNonNull(valuess.get(i).get(timestampColumn));
+                                // chunked responses return RFC3339 timestamps instead of epoch values
+                                Instant time = rawTime instanceof String ? Instant.parse((String) rawTime)
+                                        : Instant.ofEpochMilli(((Number) rawTime).longValue());
                                 @Nullable
                                 Object value = valuess.get(i).get(valueColumn);
                                 var currentI = i;
+                                // aggregated queries group by the item tag instead of selecting it
                                 String itemName = Optional.ofNullable(itemNameColumn)
                                         .flatMap(inc -> Optional.ofNullable((String) valuess.get(currentI).get(inc)))
+                                        .or(() -> Optional.ofNullable(series.getTags())
+                                                .map(tags -> tags.get(TAG_ITEM_NAME)))
                                         .orElse(series.getName());
                                 logger.trace("adding historic item {}: time {} value {}", itemName, time, value);
                                 rows.add(new InfluxRow(time, itemName, value));
@@ -17,12 +17,15 @@ import static com.influxdb.query.dsl.functions.restriction.Restrictions.tag;
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 import static org.openhab.persistence.influxdb.internal.InfluxDBStateConvertUtils.stateToObject;
 
+import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.items.MetadataRegistry;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.persistence.influxdb.internal.FilterCriteriaQueryCreator;
+import org.openhab.persistence.influxdb.internal.InfluxDBAggregation;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBMetadataUtils;
 import org.openhab.persistence.influxdb.internal.InfluxDBVersion;
@@ -49,7 +52,7 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
     }
 
     @Override
-    public String createQuery(FilterCriteria criteria, String retentionPolicy) {
+    public String createQuery(FilterCriteria criteria, String retentionPolicy, @Nullable Duration aggregationWindow) {
         Flux flux = Flux.from(retentionPolicy);
 
         RangeFlux range = flux.range();
@@ -64,6 +67,8 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
         flux = range;
 
         String itemName = criteria.getItemName();
+        boolean aggregate = aggregationWindow != null && itemName != null
+                && configuration.getQueryAggregation() != InfluxDBAggregation.NONE;
         if (itemName != null) {
             String measurementName = calculateMeasurementName(itemName);
             boolean needsToUseItemTagName = !measurementName.equals(itemName);
@@ -73,6 +78,13 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
                 flux = flux.filter(tag(TAG_ITEM_NAME).equal(itemName));
             }
 
+            // has to be done before keep(), as aggregateWindow needs the _start and _stop columns
+            if (aggregate && aggregationWindow != null) {
+                flux = flux.expression("aggregateWindow(every: " + Math.max(1, aggregationWindow.getSeconds())
+                        + "s, fn: " + configuration.getQueryAggregation().getFunction()
+                        + ", timeSrc: \"_start\", createEmpty: false)");
+            }
+
             if (needsToUseItemTagName)
                 flux = flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2,
                         TAG_ITEM_NAME });
@@ -80,7 +92,7 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
                 flux = flux.keep(new String[] { FIELD_MEASUREMENT_NAME, COLUMN_TIME_NAME_V2, COLUMN_VALUE_NAME_V2 });
         }
 
-        if (criteria.getState() != null && criteria.getOperator() != null) {
+        if (!aggregate && criteria.getState() != null && criteria.getOperator() != null) {
             Restrictions restrictions = Restrictions.and(Restrictions.field().equal(FIELD_VALUE_NAME),
                     Restrictions.value().custom(stateToObject(criteria.getState()),
                             getOperationSymbol(criteria.getOperator(), InfluxDBVersion.V2)));
@@ -92,7 +104,7 @@ public class Influx2FilterCriteriaQueryCreatorImpl implements FilterCriteriaQuer
             flux = flux.sort().withDesc(desc).withColumns(new String[] { COLUMN_TIME_NAME_V2 });
         }
 
-        if (criteria.getPageSize() != Integer.MAX_VALUE) {
+        if (!aggregate && criteria.getPageSize() != Integer.MAX_VALUE) {
             flux = flux.limit(criteria.getPageSize()).withPropertyValue("offset",
                     criteria.getPageNumber() * criteria.getPageSize());
         }
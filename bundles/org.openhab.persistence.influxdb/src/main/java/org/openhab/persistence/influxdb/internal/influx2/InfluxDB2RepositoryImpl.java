@@ -14,21 +14,24 @@ package org.openhab.persistence.influxdb.internal.influx2;
 
 import static org.openhab.persistence.influxdb.internal.InfluxDBConstants.*;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.persistence.influxdb.internal.InfluxDBConfiguration;
 import org.openhab.persistence.influxdb.internal.InfluxDBConstants;
 import org.openhab.persistence.influxdb.internal.InfluxDBRepository;
 import org.openhab.persistence.influxdb.internal.InfluxPoint;
 import org.openhab.persistence.influxdb.internal.InfluxRow;
+import org.openhab.persistence.influxdb.internal.QueryResultIterator;
 import org.openhab.persistence.influxdb.internal.UnnexpectedConditionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,9 +41,11 @@ import com.influxdb.client.InfluxDBClientFactory;
 import com.influxdb.client.InfluxDBClientOptions;
 import com.influxdb.client.QueryApi;
 import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteApiBlocking;
 import com.influxdb.client.domain.Ready;
 import com.influxdb.client.domain.WritePrecision;
 import com.influxdb.client.write.Point;
+import com.influxdb.query.FluxRecord;
 import com.influxdb.query.FluxTable;
 
 /**
@@ -50,6 +55,10 @@ import com.influxdb.query.FluxTable;
  */
 @NonNullByDefault
 public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
+    private static final int QUERY_BUFFER_SIZE = 1000;
+    private static final long QUERY_TIMEOUT_MS = 60000;
+    private static final String WRITE_THREADPOOL_NAME = "influxdb";
+
     private final Logger logger = LoggerFactory.getLogger(InfluxDB2RepositoryImpl.class);
     private InfluxDBConfiguration configuration;
     @Nullable
@@ -58,6 +67,8 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
     private QueryApi queryAPI;
     @Nullable
     private WriteApi writeAPI;
+    @Nullable
+    private InfluxDB2WriteBuffer writeBuffer;
 
     public InfluxDB2RepositoryImpl(InfluxDBConfiguration configuration) {
         this.configuration = configuration;
@@ -93,8 +104,22 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
         final InfluxDBClient createdClient = InfluxDBClientFactory.create(clientOptions);
         this.client = createdClient;
         logger.debug("Succesfully connected to InfluxDB. Instance ready={}", createdClient.ready());
+        if (configuration.isGzip()) {
+            createdClient.enableGzip();
+        }
         queryAPI = createdClient.getQueryApi();
-        writeAPI = createdClient.getWriteApi();
+        if (configuration.isWriteBufferEnabled()) {
+            WriteApiBlocking writeApiBlocking = createdClient.getWriteApiBlocking();
+            InfluxDB2WriteBuffer buffer = new InfluxDB2WriteBuffer(
+                    lines -> writeApiBlocking.writeRecords(WritePrecision.MS, lines),
+                    ThreadPoolManager.getScheduledPool(WRITE_THREADPOOL_NAME), configuration.getWriteBatchSize(),
+                    configuration.getWriteFlushInterval(), configuration.getWriteBufferLimit(),
+                    configuration.getWriteRetryInterval(), getSpillFile());
+            buffer.start();
+            writeBuffer = buffer;
+        } else {
+            writeAPI = createdClient.getWriteApi();
+        }
         return checkConnectionStatus();
     }
 
@@ -103,6 +128,11 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
      */
     @Override
     public void disconnect() {
+        final InfluxDB2WriteBuffer currentWriteBuffer = this.writeBuffer;
+        if (currentWriteBuffer != null) {
+            currentWriteBuffer.shutdown();
+        }
+        this.writeBuffer = null;
         final InfluxDBClient currentClient = this.client;
         if (currentClient != null) {
             currentClient.close();
@@ -140,14 +170,25 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
      */
     @Override
     public void write(InfluxPoint point) {
+        final InfluxDB2WriteBuffer currentWriteBuffer = writeBuffer;
         final WriteApi currentWriteAPI = writeAPI;
-        if (currentWriteAPI != null) {
+        if (currentWriteBuffer != null) {
+            currentWriteBuffer.add(convertPointToClientFormat(point).toLineProtocol());
+        } else if (currentWriteAPI != null) {
             currentWriteAPI.writePoint(convertPointToClientFormat(point));
         } else {
             logger.warn("Write point {} ignored due to writeAPI isn't present", point);
         }
     }
 
+    /**
+     * Points which can't be buffered in memory while the server is unreachable are kept in a file per bucket
+     */
+    private Path getSpillFile() {
+        String bucket = configuration.getRetentionPolicy().replaceAll("[^\\w.-]", "_");
+        return Paths.get(OpenHAB.getUserDataFolder(), "persistence", "influxdb", bucket + ".lp");
+    }
+
     private Point convertPointToClientFormat(InfluxPoint point) {
         Point clientPoint = Point.measurement(point.getMeasurementName()).time(point.getTime(), WritePrecision.MS);
         setPointValue(point.getValue(), clientPoint);
@@ -176,31 +217,33 @@ public class InfluxDB2RepositoryImpl implements InfluxDBRepository {
      * @return Query results
      */
     @Override
-    public List<InfluxRow> query(String query) {
+    public Iterable<InfluxRow> query(String query) {
         final QueryApi currentQueryAPI = queryAPI;
         if (currentQueryAPI != null) {
-            List<FluxTable> clientResult = currentQueryAPI.query(query);
-            return convertClientResutToRepository(clientResult);
+            return () -> {
+                QueryResultIterator rows = new QueryResultIterator(QUERY_BUFFER_SIZE, QUERY_TIMEOUT_MS);
+                QueryResultIterator.Sink sink = rows.getSink();
+                currentQueryAPI.query(query, (cancellable, record) -> {
+                    if (!sink.offer(convertRecordToRow(record))) {
+                        cancellable.cancel();
+                    }
+                }, sink::fail, sink::complete);
+                return rows;
+            };
         } else {
             logger.warn("Returning empty list because queryAPI isn't present");
             return Collections.emptyList();
         }
     }
 
-    private List<InfluxRow> convertClientResutToRepository(List<FluxTable> clientResult) {
-        return clientResult.stream().flatMap(this::mapRawResultToHistoric).collect(Collectors.toList());
-    }
-
-    private Stream<InfluxRow> mapRawResultToHistoric(FluxTable rawRow) {
-        return rawRow.getRecords().stream().map(r -> {
-            String itemName = (String) r.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
-            if (itemName == null) { // use measurement name if item is not tagged
-                itemName = r.getMeasurement();
-            }
-            Object value = r.getValueByKey(COLUMN_VALUE_NAME_V2);
-            Instant time = (Instant) r.getValueByKey(COLUMN_TIME_NAME_V2);
-            return new InfluxRow(time, itemName, value);
-        });
+    private InfluxRow convertRecordToRow(FluxRecord record) {
+        String itemName = (String) record.getValueByKey(InfluxDBConstants.TAG_ITEM_NAME);
+        if (itemName == null) { // use measurement name if item is not tagged
+            itemName = record.getMeasurement();
+        }
+        Object value = record.getValueByKey(COLUMN_VALUE_NAME_V2);
+        Instant time = (Instant) record.getValueByKey(COLUMN_TIME_NAME_V2);
+        return new InfluxRow(time, itemName, value);
     }
 
     /**
@@ -0,0 +1,315 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal.influx2;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.influxdb.exceptions.BadRequestException;
+
+/**
+ * Write-behind buffer for points in line protocol.
+ *
+ * Lines are collected in memory and written in batches when either the batch size is reached or the flush interval
+ * has elapsed. If a write fails, the batch is kept and retried with an exponential backoff plus a random jitter, so
+ * several instances don't hit a restarting server at the same time. While the server is unreachable, lines exceeding
+ * the in-memory limit are appended to a spill file, which is read back once writes succeed again.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class InfluxDB2WriteBuffer {
+    private static final long MAX_RETRY_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAX_SPILL_FILE_SIZE = 50L * 1024 * 1024;
+
+    /**
+     * Writes a batch of lines, throws if the batch couldn't be written.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<String> lines);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(InfluxDB2WriteBuffer.class);
+
+    private final BatchWriter writer;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+    private final int flushInterval;
+    private final int bufferLimit;
+    private final int retryInterval;
+    private final @Nullable Path spillFile;
+    private final Object flushLock = new Object();
+    // guards the spill file, the file I/O is never done while holding the lock of the buffer
+    private final Object spillLock = new Object();
+
+    private final Deque<String> lines = new ArrayDeque<>();
+    private boolean flushScheduled = false;
+    private int failedAttempts = 0;
+    private long retryAt = 0;
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    /**
+     * @param writer writes a batch to the database
+     * @param scheduler executes the flushes
+     * @param batchSize maximum number of lines per write, reaching it triggers a flush
+     * @param flushInterval maximum time in milliseconds lines are kept before they are written
+     * @param bufferLimit maximum number of lines kept in memory
+     * @param retryInterval delay in milliseconds before the first retry of a failed write
+     * @param spillFile file lines exceeding the buffer limit are written to, or null to drop them
+     */
+    public InfluxDB2WriteBuffer(BatchWriter writer, ScheduledExecutorService scheduler, int batchSize,
+            int flushInterval, int bufferLimit, int retryInterval, @Nullable Path spillFile) {
+        this.writer = writer;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.bufferLimit = Math.max(bufferLimit, batchSize);
+        this.retryInterval = retryInterval;
+        this.spillFile = spillFile;
+    }
+
+    public void start() {
+        flushJob = scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a line to the buffer, never blocks the caller.
+     */
+    public void add(String line) {
+        boolean triggerFlush = false;
+        List<String> overflow = null;
+        synchronized (this) {
+            lines.addLast(line);
+            if (lines.size() > bufferLimit) {
+                overflow = new ArrayList<>(lines.size() - bufferLimit);
+                while (lines.size() > bufferLimit) {
+                    overflow.add(lines.pollFirst());
+                }
+            } else if (lines.size() >= batchSize && !flushScheduled && failedAttempts == 0) {
+                flushScheduled = true;
+                triggerFlush = true;
+            }
+        }
+        if (overflow != null) {
+            spill(overflow);
+        } else if (triggerFlush) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes the buffered lines in batches until the buffer is empty or a write fails.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            synchronized (this) {
+                flushScheduled = false;
+            }
+            if (System.currentTimeMillis() < retryAt) {
+                return;
+            }
+            while (true) {
+                List<String> batch = nextBatch();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    writer.write(batch);
+                    if (failedAttempts > 0) {
+                        logger.info("Writing to InfluxDB succeeded again after {} failed attempts", failedAttempts);
+                    }
+                    synchronized (this) {
+                        failedAttempts = 0;
+                    }
+                    retryAt = 0;
+                } catch (BadRequestException e) {
+                    // the server rejected the data itself, retrying won't help
+                    logger.warn("InfluxDB rejected {} points, dropping them: {}", batch.size(), e.getMessage());
+                } catch (RuntimeException e) {
+                    int attempts;
+                    synchronized (this) {
+                        attempts = ++failedAttempts;
+                        for (int i = batch.size() - 1; i >= 0; i--) {
+                            lines.addFirst(batch.get(i));
+                        }
+                    }
+                    long delay = Math.min(MAX_RETRY_DELAY_MS, (long) retryInterval << Math.min(attempts - 1, 16))
+                            + ThreadLocalRandom.current().nextLong(retryInterval + 1L);
+                    retryAt = System.currentTimeMillis() + delay;
+                    logger.warn("Writing {} points to InfluxDB failed, retrying in {} ms: {}", batch.size(), delay,
+                            e.getMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private List<String> nextBatch() {
+        boolean empty;
+        synchronized (this) {
+            empty = lines.isEmpty();
+        }
+        if (empty) {
+            List<String> spilled = readSpilledLines();
+            synchronized (this) {
+                // the spilled lines are older than the ones added meanwhile
+                for (int i = spilled.size() - 1; i >= 0; i--) {
+                    lines.addFirst(spilled.get(i));
+                }
+            }
+        }
+        synchronized (this) {
+            List<String> batch = new ArrayList<>(Math.min(batchSize, lines.size()));
+            while (batch.size() < batchSize && !lines.isEmpty()) {
+                batch.add(lines.pollFirst());
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Stops the periodic flush and tries to write the buffered lines once. Lines which can't be written are spilled.
+     */
+    public void shutdown() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        retryAt = 0;
+        flush();
+        List<String> remaining;
+        synchronized (this) {
+            remaining = new ArrayList<>(lines);
+            lines.clear();
+        }
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+        }
+    }
+
+    public synchronized int getSize() {
+        return lines.size();
+    }
+
+    private void spill(List<String> overflow) {
+        Path file = spillFile;
+        if (file == null) {
+            logger.warn("InfluxDB write buffer is full, dropping {} points", overflow.size());
+            return;
+        }
+        synchronized (spillLock) {
+            appendToSpillFile(file, overflow);
+        }
+    }
+
+    private void appendToSpillFile(Path file, List<String> overflow) {
+        try {
+            Files.createDirectories(file.getParent());
+            if (Files.exists(file) && Files.size(file) > MAX_SPILL_FILE_SIZE) {
+                logger.warn("InfluxDB spill file {} is full, dropping {} points", file, overflow.size());
+                return;
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND)) {
+                for (String line : overflow) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+            logger.debug("Spilled {} points to {}", overflow.size(), file);
+        } catch (IOException e) {
+            logger.warn("Couldn't spill {} points to {}, dropping them: {}", overflow.size(), file, e.getMessage());
+        }
+    }
+
+    /**
+     * Takes up to bufferLimit lines from the spill file and keeps the remaining ones in the file.
+     *
+     * @return the lines taken from the file
+     */
+    private List<String> readSpilledLines() {
+        Path file = spillFile;
+        if (file == null) {
+            return List.of();
+        }
+        synchronized (spillLock) {
+            return readSpilledLines(file);
+        }
+    }
+
+    private List<String> readSpilledLines(Path file) {
+        List<String> spilled = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return spilled;
+        }
+        Path remainder = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            int remaining = 0;
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                    BufferedWriter out = Files.newBufferedWriter(remainder, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    if (spilled.size() < bufferLimit) {
+                        spilled.add(line);
+                    } else {
+                        out.write(line);
+                        out.newLine();
+                        remaining++;
+                    }
+                }
+            }
+            if (remaining > 0) {
+                Files.move(remainder, file, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+                Files.deleteIfExists(remainder);
+            }
+            logger.debug("Read {} spilled points from {}, {} remaining", spilled.size(), file, remaining);
+        } catch (IOException e) {
+            logger.warn("Couldn't read spilled points from {}: {}", file, e.getMessage());
+            // the points are still in the file, don't write them twice
+            spilled.clear();
+        }
+        return spilled;
+    }
+
+    @Override
+    public String toString() {
+        return "InfluxDB2WriteBuffer [size=" + getSize() + ", failedAttempts=" + failedAttempts + ", spillFile="
+                + spillFile + "]";
+    }
+}
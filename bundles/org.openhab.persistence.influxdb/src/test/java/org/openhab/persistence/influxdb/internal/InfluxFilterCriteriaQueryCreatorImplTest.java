@@ -16,6 +16,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -168,6 +169,33 @@ public class InfluxFilterCriteriaQueryCreatorImplTest {
                         + "|> sort(desc:false, columns:[\"_time\"])"));
     }
 
+    @Test
+    public void testAggregation() {
+        when(influxDBConfiguration.getQueryAggregation()).thenReturn(InfluxDBAggregation.AVG);
+        FilterCriteria criteria = createBaseCriteria();
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime tomorrow = now.plus(1, ChronoUnit.DAYS);
+        criteria.setBeginDate(now);
+        criteria.setEndDate(tomorrow);
+        criteria.setOrdering(FilterCriteria.Ordering.DESCENDING);
+
+        String queryV1 = instanceV1.createQuery(criteria, RETENTION_POLICY, Duration.ofHours(1));
+        String expectedQueryV1 = String.format(
+                "SELECT mean(\"value\") AS \"value\" FROM origin.sampleItem WHERE time>='%s' AND time<='%s' "
+                        + "GROUP BY time(3600s),item fill(none) ORDER BY time DESC;",
+                now.toInstant(), tomorrow.toInstant());
+        assertThat(queryV1, equalTo(expectedQueryV1));
+
+        String queryV2 = instanceV2.createQuery(criteria, RETENTION_POLICY, Duration.ofHours(1));
+        String expectedQueryV2 = String.format("from(bucket:\"origin\")\n\t" + "|> range(start:%s, stop:%s)\n\t"
+                + "|> filter(fn: (r) => r[\"_measurement\"] == \"sampleItem\")\n\t"
+                + "|> aggregateWindow(every: 3600s, fn: mean, timeSrc: \"_start\", createEmpty: false)\n\t"
+                + "|> keep(columns:[\"_measurement\", \"_time\", \"_value\"])\n\t"
+                + "|> sort(desc:true, columns:[\"_time\"])", INFLUX2_DATE_FORMATTER.format(now.toInstant()),
+                INFLUX2_DATE_FORMATTER.format(tomorrow.toInstant()));
+        assertThat(queryV2, equalTo(expectedQueryV2));
+    }
+
     private FilterCriteria createBaseCriteria() {
         return createBaseCriteria(ITEM_NAME);
     }
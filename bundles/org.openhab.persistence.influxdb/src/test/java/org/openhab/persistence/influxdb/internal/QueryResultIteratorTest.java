@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class QueryResultIteratorTest {
+
+    private static InfluxRow row(int value) {
+        return new InfluxRow(Instant.ofEpochMilli(value), "item", value);
+    }
+
+    @Test
+    public void testRowsAreReturnedUntilComplete() {
+        QueryResultIterator rows = new QueryResultIterator(10, 1000);
+        rows.getSink().offer(row(1));
+        rows.getSink().offer(row(2));
+        rows.getSink().complete();
+
+        assertEquals(1, rows.next().getValue());
+        assertEquals(2, rows.next().getValue());
+        assertFalse(rows.hasNext());
+    }
+
+    @Test
+    public void testFailureIsThrownAfterTheReceivedRows() {
+        QueryResultIterator rows = new QueryResultIterator(10, 1000);
+        rows.getSink().offer(row(1));
+        rows.getSink().fail(new IllegalStateException("connection reset"));
+
+        assertEquals(1, rows.next().getValue());
+        UnnexpectedConditionException e = assertThrows(UnnexpectedConditionException.class, rows::hasNext);
+        assertTrue(e.getMessage().contains("connection reset"));
+    }
+
+    @Test
+    public void testMissingRowsAreThrownAfterTimeout() {
+        QueryResultIterator rows = new QueryResultIterator(10, 50);
+        assertThrows(UnnexpectedConditionException.class, rows::hasNext);
+    }
+
+    @Test
+    public void testCloseReleasesBlockedProducer() throws Exception {
+        QueryResultIterator rows = new QueryResultIterator(1, 60000);
+        QueryResultIterator.Sink sink = rows.getSink();
+        sink.offer(row(1));
+        CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(() -> sink.offer(row(2)));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        rows.close();
+        assertFalse(blocked.get(1, TimeUnit.SECONDS));
+        assertFalse(sink.offer(row(3)));
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.influxdb.internal.influx2;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.jdt.annotation.DefaultLocation;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault({ DefaultLocation.RETURN_TYPE, DefaultLocation.PARAMETER })
+public class InfluxDB2WriteBufferTest {
+    private @TempDir Path tempDir;
+
+    private ScheduledExecutorService scheduler;
+    private List<List<String>> written;
+    private boolean failing;
+
+    @BeforeEach
+    public void before() {
+        // flushes are triggered by the tests
+        scheduler = mock(ScheduledExecutorService.class);
+        written = new ArrayList<>();
+        failing = false;
+    }
+
+    private InfluxDB2WriteBuffer createBuffer(int batchSize, int bufferLimit) {
+        return new InfluxDB2WriteBuffer(lines -> {
+            if (failing) {
+                throw new IllegalStateException("unreachable");
+            }
+            written.add(lines);
+        }, scheduler, batchSize, 60000, bufferLimit, 1, tempDir.resolve("bucket.lp"));
+    }
+
+    @Test
+    public void flushWritesInBatches() {
+        InfluxDB2WriteBuffer buffer = createBuffer(2, 10);
+        buffer.add("a value=1 1");
+        buffer.add("b value=2 2");
+        buffer.add("c value=3 3");
+        buffer.flush();
+
+        assertThat(written, equalTo(List.of(List.of("a value=1 1", "b value=2 2"), List.of("c value=3 3"))));
+        assertThat(buffer.getSize(), equalTo(0));
+    }
+
+    @Test
+    public void failedWriteIsRetried() throws InterruptedException {
+        InfluxDB2WriteBuffer buffer = createBuffer(10, 10);
+        failing = true;
+        buffer.add("a value=1 1");
+        buffer.flush();
+        assertThat(buffer.getSize(), equalTo(1));
+
+        failing = false;
+        Thread.sleep(10);
+        buffer.flush();
+        assertThat(written, equalTo(List.of(List.of("a value=1 1"))));
+    }
+
+    @Test
+    public void overflowIsSpilledAndReadBack() throws Exception {
+        InfluxDB2WriteBuffer buffer = createBuffer(10, 10);
+        failing = true;
+        for (int i = 0; i < 15; i++) {
+            buffer.add("a value=" + i + " " + i);
+        }
+        assertThat(buffer.getSize(), equalTo(10));
+        assertThat(Files.readAllLines(tempDir.resolve("bucket.lp")).size(), equalTo(5));
+
+        Thread.sleep(10);
+        failing = false;
+        buffer.flush();
+        assertThat(written.stream().mapToInt(List::size).sum(), equalTo(15));
+        assertThat(Files.exists(tempDir.resolve("bucket.lp")), equalTo(false));
+    }
+}
@@ -18,10 +18,12 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import javax.measure.Quantity;
@@ -84,6 +86,10 @@ public class JdbcBaseDAO {
     protected String sqlCreateItemTable;
     protected String sqlInsertItemValue;
 
+    // resolved statements, see getInsertItemValueSql and getHistItemFilterQuery
+    private final Map<String, String> insertItemValueCache = new ConcurrentHashMap<>();
+    private final Map<String, String> histItemFilterQueryCache = new ConcurrentHashMap<>();
+
     /********
      * INIT *
      ********/
@@ -242,6 +248,14 @@ public class JdbcBaseDAO {
         // databaseProps.setProperty("validationTimeout",""+validationTimeout);
     }
 
+    /**
+     * Drops all cached statements, needs to be called when the sql types have changed.
+     */
+    public void clearSqlCache() {
+        insertItemValueCache.clear();
+        histItemFilterQueryCache.clear();
+    }
+
     public void initAfterFirstDbConnection() {
         logger.debug("JDBC::initAfterFirstDbConnection: Initializing step, after db is connected.");
         // Initialize sqlTypes, depending on DB version for example
@@ -325,19 +339,41 @@ public class JdbcBaseDAO {
 
     public void doStoreItemValue(Item item, ItemVO vo) {
         ItemVO storedVO = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#tablePrimaryValue#" },
-                new String[] { storedVO.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { storedVO.getValue(), storedVO.getValue() };
+        String sql = getInsertItemValueSql(storedVO, false);
+        Object[] params = storeItemValueParams(storedVO);
         logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, storedVO.getValue());
         Yank.execute(sql, params);
     }
 
+    /**
+     * Stores a batch of prepared values. All value objects must belong to the same table, the time of each row is
+     * taken from {@link ItemVO#getTime()} instead of the database clock.
+     */
+    public void doStoreItemValues(List<ItemVO> vol) {
+        if (vol.isEmpty()) {
+            return;
+        }
+        String sql = getInsertItemValueSql(vol.get(0), true);
+        Object[][] params = vol.stream().map(this::storeItemValueBatchParams).toArray(Object[][]::new);
+        logger.debug("JDBC::doStoreItemValues sql={} rows={}", sql, params.length);
+        Yank.executeBatch(sql, params);
+    }
+
+    /**
+     * Converts the current state of an item into a value object for deferred storage.
+     */
+    public ItemVO doPrepareItemValue(Item item, Timestamp time) {
+        ItemVO vo = storeItemValueProvider(item, new ItemVO());
+        vo.setTime(time);
+        return vo;
+    }
+
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        logger.debug("JDBC::doGetHistItemFilterQuery sql={}", sql);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String sql = getHistItemFilterQuery(filter, numberDecimalcount, table, name, timeZone);
+        Object[] params = histItemFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemFilterQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
         // we already retrieve the unit here once as it is a very costly operation
         String itemName = item.getName();
         Unit<? extends Quantity<?>> unit = item instanceof NumberItem ? ((NumberItem) item).getUnit() : null;
@@ -345,6 +381,32 @@ public class JdbcBaseDAO {
                 .collect(Collectors.<HistoricItem> toList());
     }
 
+    /**
+     * Returns the values of a numeric item within the range of the filter aggregated in buckets of the given length.
+     * Every bucket is reduced to one row with the given aggregate function and the time of its first value, or for
+     * LAST to its latest row.
+     *
+     * @param aggregation SQL aggregate function AVG, MIN or MAX, or LAST
+     * @param bucketSeconds length of a bucket in seconds
+     * @return the aggregated values or null if the database doesn't support aggregated queries
+     */
+    public @Nullable List<HistoricItem> doGetHistItemAggregateQuery(NumberItem item, FilterCriteria filter,
+            int numberDecimalcount, String table, ZoneId timeZone, String aggregation, long bucketSeconds) {
+        String bucket = histItemAggregateBucketProvider(bucketSeconds);
+        if (bucket == null) {
+            return null;
+        }
+        String sql = histItemAggregateQueryProvider(filter, numberDecimalcount, table, aggregation, bucket);
+        Object[] params = histItemFilterParams(filter, timeZone);
+        logger.debug("JDBC::doGetHistItemAggregateQuery sql={} params={}", sql, params);
+        List<Object[]> m = Yank.queryObjectArrays(sql, params);
+        String itemName = item.getName();
+        Unit<? extends Quantity<?>> unit = item.getUnit();
+        return m.stream().filter(o -> o[1] != null)
+                .map(o -> new JdbcHistoricItem(itemName, getAggregateState(unit, o[1]), objectAsDate(o[0])))
+                .collect(Collectors.<HistoricItem> toList());
+    }
+
     /*************
      * Providers *
      *************/
@@ -359,13 +421,11 @@ public class JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC ";
         if (filter.getPageSize() != 0x7fffffff) {
@@ -383,6 +443,49 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    protected String histItemAggregateQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
+            String aggregation, String bucket) {
+        String filterString = "";
+        if (filter.getBeginDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME>?";
+        }
+        if (filter.getEndDate() != null) {
+            filterString += filterString.isEmpty() ? " WHERE" : " AND";
+            filterString += " TIME<?";
+        }
+        String orderString = filter.getOrdering() == Ordering.ASCENDING ? " ORDER BY 1 ASC" : " ORDER BY 1 DESC";
+        String queryString;
+        if ("LAST".equals(aggregation)) {
+            // There is no portable LAST aggregate function, so the latest row of every bucket is selected instead:
+            // SELECT time, ROUND(value,3) FROM number_item_0114 WHERE time IN (SELECT MAX(time) FROM number_item_0114
+            // WHERE TIME>? AND TIME<? GROUP BY FLOOR(UNIX_TIMESTAMP(time)/300)) ORDER BY 1 ASC
+            queryString = "SELECT time, " + histItemAggregateValueProvider(aggregation, numberDecimalcount) + " FROM "
+                    + table + " WHERE time IN (SELECT MAX(time) FROM " + table + filterString + " GROUP BY " + bucket
+                    + ")" + orderString;
+        } else {
+            // SELECT MIN(time), ROUND(AVG(value),3) FROM number_item_0114 WHERE TIME>? AND TIME<?
+            // GROUP BY FLOOR(UNIX_TIMESTAMP(time)/300) ORDER BY 1 ASC
+            queryString = "SELECT MIN(time), " + histItemAggregateValueProvider(aggregation, numberDecimalcount)
+                    + " FROM " + table + filterString + " GROUP BY " + bucket + orderString;
+        }
+        logger.debug("JDBC::query queryString = {}", queryString);
+        return queryString;
+    }
+
+    protected String histItemAggregateValueProvider(String aggregation, int numberDecimalcount) {
+        String value = "LAST".equals(aggregation) ? "value" : aggregation + "(value)";
+        return numberDecimalcount > -1 ? "ROUND(" + value + "," + numberDecimalcount + ")" : value;
+    }
+
+    /**
+     * Returns the expression grouping the rows of an item table into buckets of the given length, or null if the
+     * database doesn't support aggregated queries.
+     */
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return "FLOOR(UNIX_TIMESTAMP(time)/" + bucketSeconds + ")";
+    }
+
     private String updateItemTableNamesProvider(List<ItemVO> namesList) {
         logger.debug("JDBC::updateItemTableNamesProvider namesList.size = {}", namesList.size());
         String queryString = "";
@@ -394,6 +497,78 @@ public class JdbcBaseDAO {
         return queryString;
     }
 
+    /**
+     * Returns the statement for the given filter with the dates as parameters, see
+     * {@link #histItemFilterParams(FilterCriteria, ZoneId)}. Statements of the first page are cached per table, so
+     * repeated chart queries neither rebuild the SQL nor miss the prepared statement cache of the driver.
+     */
+    protected String getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+            String simpleName, ZoneId timeZone) {
+        if (filter.getPageNumber() != 0) {
+            return histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName, timeZone);
+        }
+        String key = table + ":" + simpleName + ":" + numberDecimalcount + ":" + (filter.getBeginDate() != null) + ":"
+                + (filter.getEndDate() != null) + ":" + filter.getOrdering() + ":" + filter.getPageSize();
+        return histItemFilterQueryCache.computeIfAbsent(key,
+                k -> histItemFilterQueryProvider(filter, numberDecimalcount, table, simpleName, timeZone));
+    }
+
+    protected Object[] histItemFilterParams(FilterCriteria filter, ZoneId timeZone) {
+        List<Object> params = new ArrayList<>(2);
+        ZonedDateTime beginDate = filter.getBeginDate();
+        if (beginDate != null) {
+            params.add(histItemFilterDateParam(beginDate.withZoneSameInstant(timeZone)));
+        }
+        ZonedDateTime endDate = filter.getEndDate();
+        if (endDate != null) {
+            params.add(histItemFilterDateParam(endDate.withZoneSameInstant(timeZone)));
+        }
+        return params.toArray();
+    }
+
+    protected Object histItemFilterDateParam(ZonedDateTime date) {
+        return Timestamp.valueOf(date.toLocalDateTime());
+    }
+
+    /**
+     * Returns the insert statement for the table of the given value object. It only depends on table and data type, so
+     * it is resolved once and reused.
+     */
+    protected String getInsertItemValueSql(ItemVO vo, boolean batch) {
+        String key = (batch ? "batch:" : "") + vo.getTableName() + ":" + vo.getDbType();
+        return insertItemValueCache.computeIfAbsent(key, k -> insertItemValueProvider(vo,
+                batch ? batchPrimaryValueProvider() : sqlTypes.get("tablePrimaryValue")));
+    }
+
+    protected String insertItemValueProvider(ItemVO vo, String primaryValue) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName(), vo.getDbType(), primaryValue });
+    }
+
+    /**
+     * Value of the time column for batch inserts, see {@link #batchPrimaryValueParam(ItemVO)}.
+     */
+    protected String batchPrimaryValueProvider() {
+        return "?";
+    }
+
+    protected Object batchPrimaryValueParam(ItemVO vo) {
+        return vo.getTime();
+    }
+
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue(), vo.getValue() };
+    }
+
+    protected Object[] storeItemValueBatchParams(ItemVO vo) {
+        Object[] params = storeItemValueParams(vo);
+        Object[] batchParams = new Object[params.length + 1];
+        batchParams[0] = batchPrimaryValueParam(vo);
+        System.arraycopy(params, 0, batchParams, 1, params.length);
+        return batchParams;
+    }
+
     protected ItemVO storeItemValueProvider(Item item, ItemVO vo) {
         String itemType = getItemType(item);
 
@@ -517,6 +692,15 @@ public class JdbcBaseDAO {
         }
     }
 
+    /**
+     * Aggregated values are returned as the numeric type of the aggregate function, which can differ from the type of
+     * the value column.
+     */
+    protected State getAggregateState(@Nullable Unit<? extends Quantity<?>> unit, Object v) {
+        BigDecimal value = v instanceof BigDecimal ? (BigDecimal) v : new BigDecimal(v.toString());
+        return unit == null ? new DecimalType(value) : QuantityType.valueOf(value.doubleValue(), unit);
+    }
+
     protected ZonedDateTime objectAsDate(Object v) {
         if (v instanceof java.lang.String) {
             return ZonedDateTime.ofInstant(Timestamp.valueOf(v.toString()).toInstant(), ZoneId.systemDefault());
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 import javax.measure.Quantity;
 import javax.measure.Unit;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.knowm.yank.Yank;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.items.NumberItem;
@@ -147,22 +148,11 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         Yank.execute(sql, null);
     }
 
-    @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName().toUpperCase(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
-    }
-
     @Override
     public List<HistoricItem> doGetHistItemFilterQuery(Item item, FilterCriteria filter, int numberDecimalcount,
             String table, String name, ZoneId timeZone) {
-        String sql = histItemFilterQueryProvider(filter, numberDecimalcount, table, name, timeZone);
-        List<Object[]> m = Yank.queryObjectArrays(sql, null);
+        String sql = getHistItemFilterQuery(filter, numberDecimalcount, table, name, timeZone);
+        List<Object[]> m = Yank.queryObjectArrays(sql, histItemFilterParams(filter, timeZone));
         logger.debug("JDBC::doGetHistItemFilterQuery got Array length={}", m.size());
         // we already retrieve the unit here once as it is a very costly operation
         String itemName = item.getName();
@@ -173,10 +163,30 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         }).collect(Collectors.<HistoricItem> toList());
     }
 
+    @Override
+    protected String insertItemValueProvider(ItemVO vo, String primaryValue) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName().toUpperCase(), vo.getDbType(), primaryValue });
+    }
+
+    @Override
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue() };
+    }
+
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    /**
+     * Derby has no function to convert a timestamp to epoch seconds, aggregated queries fall back to the raw values.
+     */
+    @Override
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return null;
+    }
+
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -187,13 +197,11 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != 0x7fffffff) {
@@ -205,8 +213,8 @@ public class JdbcDerbyDAO extends JdbcBaseDAO {
             // filterString += " OFFSET " + filter.getPageSize() +" ROWS FETCH
             // FIRST||NEXT " + filter.getPageNumber() * filter.getPageSize() + "
             // ROWS ONLY";
-            filterString += " OFFSET " + filter.getPageSize() + " ROWS FETCH FIRST "
-                    + (filter.getPageNumber() * filter.getPageSize() + 1) + " ROWS ONLY";
+            filterString += " OFFSET " + filter.getPageNumber() * filter.getPageSize() + " ROWS FETCH NEXT "
+                    + filter.getPageSize() + " ROWS ONLY";
         }
 
         // http://www.seemoredata.com/en/showthread.php?132-Round-function-in-Apache-Derby
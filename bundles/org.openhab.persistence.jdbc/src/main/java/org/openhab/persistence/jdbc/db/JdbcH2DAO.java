@@ -12,10 +12,8 @@
  */
 package org.openhab.persistence.jdbc.db;
 
-import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.persistence.jdbc.dto.ItemVO;
-import org.openhab.persistence.jdbc.utils.StringUtilsExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,20 +69,19 @@ public class JdbcH2DAO extends JdbcBaseDAO {
      * ITEM DAOs *
      *************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue() };
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return "DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', time)/" + bucketSeconds;
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
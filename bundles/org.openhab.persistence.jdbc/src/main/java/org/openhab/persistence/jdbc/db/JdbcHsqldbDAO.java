@@ -12,8 +12,8 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
@@ -101,20 +101,31 @@ public class JdbcHsqldbDAO extends JdbcBaseDAO {
      * ITEM DAOs *
      *************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" }, new String[] {
-                        vo.getTableName(), vo.getDbType(), vo.getTableName(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+    protected String insertItemValueProvider(ItemVO vo, String primaryValue) {
+        return StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
+                new String[] { "#tableName#", "#dbType#", "#tableName#", "#tablePrimaryValue#" },
+                new String[] { vo.getTableName(), vo.getDbType(), vo.getTableName(), primaryValue });
+    }
+
+    @Override
+    protected String batchPrimaryValueProvider() {
+        return "CAST( ? as " + sqlTypes.get("tablePrimaryKey") + ")";
+    }
+
+    @Override
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue() };
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return "UNIX_TIMESTAMP(time)/" + bucketSeconds;
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
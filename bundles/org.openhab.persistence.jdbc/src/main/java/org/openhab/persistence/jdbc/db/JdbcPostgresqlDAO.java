@@ -15,8 +15,8 @@ package org.openhab.persistence.jdbc.db;
 import java.time.ZoneId;
 import java.util.List;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.FilterCriteria.Ordering;
 import org.openhab.persistence.jdbc.dto.ItemVO;
@@ -133,20 +133,25 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
      * ITEM DAOs *
      *************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue() };
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected String histItemAggregateValueProvider(String aggregation, int numberDecimalcount) {
+        String value = "LAST".equals(aggregation) ? "value" : aggregation + "(value)";
+        return numberDecimalcount > -1 ? "ROUND(CAST (" + value + " AS numeric)," + numberDecimalcount + ")" : value;
+    }
+
+    @Override
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return "FLOOR(EXTRACT(EPOCH FROM time)/" + bucketSeconds + ")";
+    }
+
     @Override
     protected String histItemFilterQueryProvider(FilterCriteria filter, int numberDecimalcount, String table,
             String simpleName, ZoneId timeZone) {
@@ -157,13 +162,11 @@ public class JdbcPostgresqlDAO extends JdbcBaseDAO {
         String filterString = "";
         if (filter.getBeginDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME>'" + JDBC_DATE_FORMAT.format(filter.getBeginDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME>?";
         }
         if (filter.getEndDate() != null) {
             filterString += filterString.isEmpty() ? " WHERE" : " AND";
-            filterString += " TIME<'" + JDBC_DATE_FORMAT.format(filter.getEndDate().withZoneSameInstant(timeZone))
-                    + "'";
+            filterString += " TIME<?";
         }
         filterString += (filter.getOrdering() == Ordering.ASCENDING) ? " ORDER BY time ASC" : " ORDER BY time DESC";
         if (filter.getPageSize() != 0x7fffffff) {
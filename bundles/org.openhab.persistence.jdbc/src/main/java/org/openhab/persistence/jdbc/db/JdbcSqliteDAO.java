@@ -12,8 +12,12 @@
  */
 package org.openhab.persistence.jdbc.db;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.eclipse.jdt.annotation.Nullable;
 import org.knowm.yank.Yank;
-import org.openhab.core.items.Item;
 import org.openhab.persistence.jdbc.dto.ItemVO;
 import org.openhab.persistence.jdbc.dto.ItemsVO;
 import org.openhab.persistence.jdbc.utils.StringUtilsExt;
@@ -30,6 +34,9 @@ import org.slf4j.LoggerFactory;
 public class JdbcSqliteDAO extends JdbcBaseDAO {
     private final Logger logger = LoggerFactory.getLogger(JdbcSqliteDAO.class);
 
+    private static final DateTimeFormatter SQLITE_DATE_FORMAT = DateTimeFormatter
+            .ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
     /********
      * INIT *
      ********/
@@ -90,20 +97,30 @@ public class JdbcSqliteDAO extends JdbcBaseDAO {
      * ITEM DAOs *
      *************/
     @Override
-    public void doStoreItemValue(Item item, ItemVO vo) {
-        vo = storeItemValueProvider(item, vo);
-        String sql = StringUtilsExt.replaceArrayMerge(sqlInsertItemValue,
-                new String[] { "#tableName#", "#dbType#", "#tablePrimaryValue#" },
-                new String[] { vo.getTableName(), vo.getDbType(), sqlTypes.get("tablePrimaryValue") });
-        Object[] params = new Object[] { vo.getValue() };
-        logger.debug("JDBC::doStoreItemValue sql={} value='{}'", sql, vo.getValue());
-        Yank.execute(sql, params);
+    protected Object[] storeItemValueParams(ItemVO vo) {
+        return new Object[] { vo.getValue() };
+    }
+
+    @Override
+    protected Object batchPrimaryValueParam(ItemVO vo) {
+        // time column is stored as local time text, see tablePrimaryValue
+        return SQLITE_DATE_FORMAT.format(vo.getTime().toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    @Override
+    protected Object histItemFilterDateParam(ZonedDateTime date) {
+        return SQLITE_DATE_FORMAT.format(date);
     }
 
     /****************************
      * SQL generation Providers *
      ****************************/
 
+    @Override
+    protected @Nullable String histItemAggregateBucketProvider(long bucketSeconds) {
+        return "CAST(strftime('%s', time) AS INTEGER)/" + bucketSeconds;
+    }
+
     /*****************
      * H E L P E R S *
      *****************/
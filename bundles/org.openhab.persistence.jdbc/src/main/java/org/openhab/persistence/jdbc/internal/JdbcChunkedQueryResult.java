@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.FilterCriteria.Ordering;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.types.State;
+
+/**
+ * Lazily fetches the result of an unpaged query in chunks.
+ *
+ * Every chunk is a separate query limited to the chunk size, which continues after the timestamp of the last row of
+ * the previous chunk. As the time column is the primary key of the item tables, no rows are skipped or repeated, and
+ * no connection is held between two chunks. Only one chunk is kept in memory at a time.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcChunkedQueryResult implements Iterable<HistoricItem> {
+
+    private final FilterCriteria filter;
+    private final int chunkSize;
+    private final ZoneId timeZone;
+    private final Function<FilterCriteria, List<HistoricItem>> query;
+
+    /**
+     * @param filter the unpaged filter of the query
+     * @param chunkSize maximum number of rows fetched per query
+     * @param timeZone the time zone the filter dates are converted to by the DAO
+     * @param query executes the query for a single chunk
+     */
+    public JdbcChunkedQueryResult(FilterCriteria filter, int chunkSize, ZoneId timeZone,
+            Function<FilterCriteria, List<HistoricItem>> query) {
+        this.filter = filter;
+        this.chunkSize = chunkSize;
+        this.timeZone = timeZone;
+        this.query = query;
+    }
+
+    @Override
+    public Iterator<HistoricItem> iterator() {
+        return new Iterator<HistoricItem>() {
+            private Iterator<HistoricItem> chunk = Collections.emptyIterator();
+            private FilterCriteria next = chunkFilter(filter.getBeginDate(), filter.getEndDate());
+            private boolean lastChunk = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!chunk.hasNext() && !lastChunk) {
+                    List<HistoricItem> items = query.apply(next);
+                    lastChunk = items.size() < chunkSize;
+                    if (!items.isEmpty()) {
+                        next = nextChunkFilter(next, items.get(items.size() - 1));
+                    }
+                    chunk = items.iterator();
+                }
+                return chunk.hasNext();
+            }
+
+            @Override
+            public HistoricItem next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.next();
+            }
+        };
+    }
+
+    private FilterCriteria nextChunkFilter(FilterCriteria current, HistoricItem last) {
+        // The DAOs convert the filter dates to the local time of the database, while the timestamps of the rows are
+        // read in system time. Use the raw local time of the row, so the next chunk starts exactly after it.
+        ZonedDateTime lastTime = ZonedDateTime.of(last.getTimestamp().toLocalDateTime(), timeZone);
+        return filter.getOrdering() == Ordering.ASCENDING ? chunkFilter(lastTime, current.getEndDate())
+                : chunkFilter(current.getBeginDate(), lastTime);
+    }
+
+    private FilterCriteria chunkFilter(@Nullable ZonedDateTime beginDate, @Nullable ZonedDateTime endDate) {
+        FilterCriteria chunkFilter = new FilterCriteria().setOrdering(filter.getOrdering())
+                .setOperator(filter.getOperator()).setPageNumber(0).setPageSize(chunkSize);
+        String itemName = filter.getItemName();
+        if (itemName != null) {
+            chunkFilter.setItemName(itemName);
+        }
+        State state = filter.getState();
+        if (state != null) {
+            chunkFilter.setState(state);
+        }
+        if (beginDate != null) {
+            chunkFilter.setBeginDate(beginDate);
+        }
+        if (endDate != null) {
+            chunkFilter.setEndDate(endDate);
+        }
+        return chunkFilter;
+    }
+}
@@ -60,6 +60,18 @@ public class JdbcConfiguration {
 
     private int errReconnectThreshold = 0;
 
+    // write-behind queue, disabled when batchSize is 0
+    private int batchSize = 0;
+    private int batchInterval = 1000;
+    private int batchQueueSize = 10000;
+
+    // unpaged queries are fetched in chunks of this size, 0 fetches the whole result at once
+    private int queryChunkSize = 10000;
+
+    // aggregate function for downsampled queries of number items, disabled when queryMaxPoints is 0
+    private String queryAggregation = "NONE";
+    private int queryMaxPoints = 0;
+
     public int timerCount = 0;
     public int time1000Statements = 0;
     public long timer1000 = 0;
@@ -173,6 +185,49 @@ public class JdbcConfiguration {
             logger.debug("JDBC::updateConfig: rebuildTableNames={}", rebuildTableNames);
         }
 
+        String bs = (String) configuration.get("batchSize");
+        if (bs != null && !bs.isBlank() && isNumericPattern.matcher(bs).matches()) {
+            batchSize = Integer.parseInt(bs);
+            logger.debug("JDBC::updateConfig: batchSize={}", batchSize);
+        }
+
+        String bi = (String) configuration.get("batchInterval");
+        if (bi != null && !bi.isBlank() && isNumericPattern.matcher(bi).matches()) {
+            batchInterval = Integer.parseInt(bi);
+            logger.debug("JDBC::updateConfig: batchInterval={}", batchInterval);
+        }
+
+        String bq = (String) configuration.get("batchQueueSize");
+        if (bq != null && !bq.isBlank() && isNumericPattern.matcher(bq).matches()) {
+            batchQueueSize = Integer.parseInt(bq);
+            logger.debug("JDBC::updateConfig: batchQueueSize={}", batchQueueSize);
+        }
+
+        String qc = (String) configuration.get("queryChunkSize");
+        if (qc != null && !qc.isBlank() && isNumericPattern.matcher(qc).matches()) {
+            queryChunkSize = Integer.parseInt(qc);
+            logger.debug("JDBC::updateConfig: queryChunkSize={}", queryChunkSize);
+        }
+
+        String qa = (String) configuration.get("queryAggregation");
+        if (qa != null && !qa.isBlank()) {
+            qa = qa.trim().toUpperCase();
+            if ("NONE".equals(qa) || "AVG".equals(qa) || "MIN".equals(qa) || "MAX".equals(qa) || "LAST".equals(qa)) {
+                queryAggregation = qa;
+            } else {
+                logger.warn(
+                        "JDBC::updateConfig: queryAggregation '{}' is not supported, use NONE, AVG, MIN, MAX or LAST",
+                        qa);
+            }
+            logger.debug("JDBC::updateConfig: queryAggregation={}", queryAggregation);
+        }
+
+        String qm = (String) configuration.get("queryMaxPoints");
+        if (qm != null && !qm.isBlank() && isNumericPattern.matcher(qm).matches()) {
+            queryMaxPoints = Integer.parseInt(qm);
+            logger.debug("JDBC::updateConfig: queryMaxPoints={}", queryMaxPoints);
+        }
+
         // undocumented
         String ac = (String) configuration.get("maximumPoolSize");
         if (ac != null && !ac.isBlank()) {
@@ -358,6 +413,38 @@ public class JdbcConfiguration {
         return tableIdDigitCount;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getBatchInterval() {
+        return batchInterval;
+    }
+
+    public int getBatchQueueSize() {
+        return batchQueueSize;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchSize > 0;
+    }
+
+    public int getQueryChunkSize() {
+        return queryChunkSize;
+    }
+
+    public String getQueryAggregation() {
+        return queryAggregation;
+    }
+
+    public int getQueryMaxPoints() {
+        return queryMaxPoints;
+    }
+
+    public boolean isQueryAggregationEnabled() {
+        return queryMaxPoints > 0 && !"NONE".equals(queryAggregation);
+    }
+
     public JdbcBaseDAO getDBDAO() {
         return dBDAO;
     }
@@ -381,6 +468,7 @@ public class JdbcConfiguration {
         dBDAO.initAfterFirstDbConnection();
         // Running once again to prior external configured SqlTypes!
         setSqlTypes();
+        dBDAO.clearSqlCache();
         this.dbConnected = dbConnected;
     }
 
@@ -12,6 +12,8 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 import org.knowm.yank.Yank;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceItemInfo;
@@ -159,24 +162,83 @@ public class JdbcMapper {
         return item;
     }
 
-    public List<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
+    public void storeItemValues(Item item, List<ItemVO> vol) {
+        logger.debug("JDBC::storeItemValues: item={} count={}", item, vol.size());
+        String tableName = getTable(item);
+        if (tableName == null) {
+            logger.error("JDBC::storeItemValues: Unable to store {} values of item '{}'.", vol.size(), item.getName());
+            return;
+        }
+        long timerStart = System.currentTimeMillis();
+        for (ItemVO vo : vol) {
+            vo.setTableName(tableName);
+        }
+        conf.getDBDAO().doStoreItemValues(vol);
+        logTime("storeItemValues", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+    }
+
+    public Iterable<HistoricItem> getHistItemFilterQuery(FilterCriteria filter, int numberDecimalcount, String table,
             Item item) {
         logger.debug(
                 "JDBC::getHistItemFilterQuery filter='{}' numberDecimalcount='{}' table='{}' item='{}' itemName='{}'",
                 (filter != null), numberDecimalcount, table, item, item.getName());
         if (table != null) {
-            long timerStart = System.currentTimeMillis();
-            List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount,
-                    table, item.getName(), timeZoneProvider.getTimeZone());
-            logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
-            errCnt = 0;
-            return result;
+            List<HistoricItem> aggregated = getHistItemAggregateQuery(filter, numberDecimalcount, table, item);
+            if (aggregated != null) {
+                return aggregated;
+            }
+            int chunkSize = conf.getQueryChunkSize();
+            if (chunkSize > 0 && filter.getPageSize() == Integer.MAX_VALUE) {
+                // unpaged queries are fetched lazily in chunks, see JdbcChunkedQueryResult
+                return new JdbcChunkedQueryResult(filter, chunkSize, timeZoneProvider.getTimeZone(),
+                        chunkFilter -> getHistItemFilterQueryChunk(chunkFilter, numberDecimalcount, table, item));
+            }
+            return getHistItemFilterQueryChunk(filter, numberDecimalcount, table, item);
         } else {
             logger.error("JDBC::getHistItemFilterQuery: TABLE is NULL; cannot get data from non-existent table.");
         }
         return null;
     }
 
+    /**
+     * Lets the database downsample unpaged queries of number items within a closed time range, so that at most
+     * queryMaxPoints values are returned.
+     *
+     * @return the aggregated values or null if the query has to return the raw values
+     */
+    private List<HistoricItem> getHistItemAggregateQuery(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        if (!conf.isQueryAggregationEnabled() || !(item instanceof NumberItem) || beginDate == null
+                || endDate == null || filter.getState() != null || filter.getPageSize() != Integer.MAX_VALUE) {
+            return null;
+        }
+        // buckets are aligned to the epoch, so the range can touch one more bucket than it is long
+        long bucketMillis = Duration.between(beginDate, endDate).toMillis()
+                / Math.max(1, conf.getQueryMaxPoints() - 1);
+        long bucketSeconds = Math.max(1, (bucketMillis + 999) / 1000);
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetHistItemAggregateQuery((NumberItem) item, filter,
+                numberDecimalcount, table, timeZoneProvider.getTimeZone(), conf.getQueryAggregation(), bucketSeconds);
+        if (result != null) {
+            logTime("getHistItemAggregateQuery", timerStart, System.currentTimeMillis());
+            errCnt = 0;
+        }
+        return result;
+    }
+
+    private List<HistoricItem> getHistItemFilterQueryChunk(FilterCriteria filter, int numberDecimalcount,
+            String table, Item item) {
+        long timerStart = System.currentTimeMillis();
+        List<HistoricItem> result = conf.getDBDAO().doGetHistItemFilterQuery(item, filter, numberDecimalcount, table,
+                item.getName(), timeZoneProvider.getTimeZone());
+        logTime("getHistItemFilterQuery", timerStart, System.currentTimeMillis());
+        errCnt = 0;
+        return result;
+    }
+
     /***********************
      * DATABASE CONNECTION *
      ***********************/
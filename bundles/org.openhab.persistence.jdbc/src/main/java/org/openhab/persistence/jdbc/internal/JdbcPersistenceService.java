@@ -12,6 +12,7 @@
  */
 package org.openhab.persistence.jdbc.internal;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -19,6 +20,7 @@ import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.i18n.TimeZoneProvider;
 import org.openhab.core.items.GroupItem;
@@ -60,6 +62,8 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
 
     private final ItemRegistry itemRegistry;
 
+    private @Nullable JdbcWriteQueue writeQueue;
+
     @Activate
     public JdbcPersistenceService(final @Reference ItemRegistry itemRegistry,
             final @Reference TimeZoneProvider timeZoneProvider) {
@@ -104,6 +108,7 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void deactivate(final int reason) {
         logger.debug("JDBC::deactivate:  persistence bundle stopping. Disconnecting from database. reason={}", reason);
         // closeConnection();
+        stopWriteQueue();
         initialized = false;
     }
 
@@ -139,6 +144,13 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
                     item, errCnt, conf.getErrReconnectThreshold());
             return;
         }
+        JdbcWriteQueue queue = writeQueue;
+        if (queue != null) {
+            queue.offer(item, conf.getDBDAO().doPrepareItemValue(item, new Timestamp(System.currentTimeMillis())));
+            logger.debug("JDBC: Queued item '{}' as '{}', {} values pending.", item.getName(), item.getState(),
+                    queue.getDepth());
+            return;
+        }
         long timerStart = System.currentTimeMillis();
         storeItemValue(item);
         logger.debug("JDBC: Stored item '{}' as '{}' in SQL database at {} in {} ms.", item.getName(), item.getState(),
@@ -202,10 +214,15 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
         }
 
         long timerStart = System.currentTimeMillis();
-        List<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
+        Iterable<HistoricItem> items = getHistItemFilterQuery(filter, conf.getNumberDecimalcount(), table, item);
 
-        logger.debug("JDBC::query: query for {} returned {} rows in {} ms", itemName, items.size(),
-                System.currentTimeMillis() - timerStart);
+        if (items instanceof List) {
+            logger.debug("JDBC::query: query for {} returned {} rows in {} ms", itemName, ((List<?>) items).size(),
+                    System.currentTimeMillis() - timerStart);
+        } else {
+            logger.debug("JDBC::query: query for {} is fetched in chunks of {} rows", itemName,
+                    conf.getQueryChunkSize());
+        }
 
         // Success
         errCnt = 0;
@@ -215,6 +232,7 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
     public void updateConfig(Map<Object, Object> configuration) {
         logger.debug("JDBC::updateConfig");
 
+        stopWriteQueue();
         conf = new JdbcConfiguration(configuration);
         if (conf.valid && checkDBAccessability()) {
             checkDBSchema();
@@ -223,10 +241,26 @@ public class JdbcPersistenceService extends JdbcMapper implements QueryablePersi
         } else {
             initialized = false;
         }
+        if (conf.valid && conf.isBatchEnabled()) {
+            logger.debug("JDBC::updateConfig: batching writes, batchSize={} batchInterval={} batchQueueSize={}",
+                    conf.getBatchSize(), conf.getBatchInterval(), conf.getBatchQueueSize());
+            writeQueue = new JdbcWriteQueue(this::storeItemValues,
+                    ThreadPoolManager.getScheduledPool(getClass().getSimpleName()), conf.getBatchSize(),
+                    conf.getBatchInterval(), conf.getBatchQueueSize());
+        }
 
         logger.debug("JDBC::updateConfig: configuration complete for service={}.", getId());
     }
 
+    private void stopWriteQueue() {
+        JdbcWriteQueue queue = writeQueue;
+        if (queue != null) {
+            writeQueue = null;
+            queue.shutdown();
+            logger.debug("JDBC::stopWriteQueue: write queue flushed: {}", queue);
+        }
+    }
+
     @Override
     public List<PersistenceStrategy> getDefaultStrategies() {
         return List.of(PersistenceStrategy.Globals.CHANGE);
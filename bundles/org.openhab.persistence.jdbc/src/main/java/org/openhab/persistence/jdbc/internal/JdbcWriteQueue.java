@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.items.Item;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded write-behind queue for item values.
+ *
+ * Values are collected per item and handed to the {@link BatchWriter} when either the configured batch size is
+ * reached or the flush interval has elapsed. Values of the same item with an identical timestamp are coalesced, as
+ * they would overwrite each other in the item table anyway. If the queue is full, the storing thread flushes the
+ * queue itself, so producers are slowed down instead of values being dropped.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JdbcWriteQueue {
+
+    /**
+     * Writes all pending values of one item.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(Item item, List<ItemVO> values);
+    }
+
+    private static class PendingValues {
+        private final Item item;
+        private final List<ItemVO> values = new ArrayList<>();
+
+        private PendingValues(Item item) {
+            this.item = item;
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(JdbcWriteQueue.class);
+
+    private final BatchWriter writer;
+    private final ScheduledExecutorService scheduler;
+    private final int batchSize;
+    private final int capacity;
+    private final Object flushLock = new Object();
+
+    private Map<String, PendingValues> pending = new LinkedHashMap<>();
+    private int size = 0;
+    private boolean flushScheduled = false;
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong backpressure = new AtomicLong();
+    private volatile int maxDepth = 0;
+
+    public JdbcWriteQueue(BatchWriter writer, ScheduledExecutorService scheduler, int batchSize, int interval,
+            int capacity) {
+        this.writer = writer;
+        this.scheduler = scheduler;
+        this.batchSize = batchSize;
+        this.capacity = Math.max(capacity, batchSize);
+        this.flushJob = scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Adds a prepared value to the queue.
+     *
+     * @param item the item the value belongs to
+     * @param vo the prepared value including its timestamp
+     */
+    public void offer(Item item, ItemVO vo) {
+        boolean full;
+        boolean triggerFlush = false;
+        synchronized (this) {
+            PendingValues values = pending.computeIfAbsent(item.getName(), name -> new PendingValues(item));
+            int last = values.values.size() - 1;
+            if (last >= 0 && values.values.get(last).getTime().equals(vo.getTime())) {
+                values.values.set(last, vo);
+                coalesced.incrementAndGet();
+            } else {
+                values.values.add(vo);
+                size++;
+            }
+            enqueued.incrementAndGet();
+            if (size > maxDepth) {
+                maxDepth = size;
+            }
+            full = size >= capacity;
+            if (!full && size >= batchSize && !flushScheduled) {
+                flushScheduled = true;
+                triggerFlush = true;
+            }
+        }
+        if (full) {
+            backpressure.incrementAndGet();
+            logger.debug("JDBC::offer: write queue full ({} values), flushing on storing thread", capacity);
+            flush();
+        } else if (triggerFlush) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes all pending values.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<String, PendingValues> batch;
+            synchronized (this) {
+                flushScheduled = false;
+                if (size == 0) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                size = 0;
+            }
+            long timerStart = System.currentTimeMillis();
+            int count = 0;
+            for (PendingValues values : batch.values()) {
+                try {
+                    writer.write(values.item, values.values);
+                    written.addAndGet(values.values.size());
+                    count += values.values.size();
+                } catch (RuntimeException e) {
+                    failed.addAndGet(values.values.size());
+                    logger.warn("JDBC::flush: Failed to store {} values of item '{}': {}", values.values.size(),
+                            values.item.getName(), e.getMessage());
+                }
+            }
+            batches.incrementAndGet();
+            logger.debug("JDBC::flush: stored {} values of {} items in {} ms. {}", count, batch.size(),
+                    System.currentTimeMillis() - timerStart, this);
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes all pending values.
+     */
+    public void shutdown() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        flush();
+    }
+
+    public synchronized int getDepth() {
+        return size;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public long getEnqueuedCount() {
+        return enqueued.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getBackpressureCount() {
+        return backpressure.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JdbcWriteQueue [depth=" + getDepth() + ", maxDepth=" + maxDepth + ", enqueued=" + enqueued
+                + ", coalesced=" + coalesced + ", written=" + written + ", failed=" + failed + ", batches=" + batches
+                + ", backpressure=" + backpressure + "]";
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.jdbc.internal;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.DefaultLocation;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.persistence.jdbc.dto.ItemVO;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault({ DefaultLocation.RETURN_TYPE, DefaultLocation.PARAMETER })
+public class JdbcWriteQueueTest {
+    private static final int INTERVAL = 1000;
+
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> flushJob;
+    private List<String> written;
+    private String failingItem;
+
+    private final Item itemA = new NumberItem("a");
+    private final Item itemB = new NumberItem("b");
+
+    @BeforeEach
+    public void before() {
+        // flushes are triggered by the tests
+        scheduler = mock(ScheduledExecutorService.class);
+        flushJob = mock(ScheduledFuture.class);
+        doReturn(flushJob).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        written = new ArrayList<>();
+        failingItem = "";
+    }
+
+    private JdbcWriteQueue createQueue(int batchSize, int capacity) {
+        return new JdbcWriteQueue((item, values) -> {
+            if (item.getName().equals(failingItem)) {
+                throw new IllegalStateException("connection lost");
+            }
+            values.forEach(vo -> written.add(item.getName() + "=" + vo.getValue()));
+        }, scheduler, batchSize, INTERVAL, capacity);
+    }
+
+    private static ItemVO value(long time, Object value) {
+        ItemVO vo = new ItemVO();
+        vo.setTime(new Date(time));
+        vo.setValue(value);
+        return vo;
+    }
+
+    @Test
+    public void valuesWithTheSameTimestampAreCoalesced() {
+        JdbcWriteQueue queue = createQueue(10, 100);
+        queue.offer(itemA, value(1, 1));
+        queue.offer(itemA, value(1, 2));
+        queue.offer(itemA, value(2, 3));
+        queue.offer(itemB, value(1, 4));
+        assertThat(queue.getDepth(), equalTo(3));
+
+        queue.flush();
+        assertThat(written, equalTo(List.of("a=2", "a=3", "b=4")));
+        assertThat(queue.getDepth(), equalTo(0));
+        assertThat(queue.getEnqueuedCount(), equalTo(4L));
+        assertThat(queue.getCoalescedCount(), equalTo(1L));
+        assertThat(queue.getWrittenCount(), equalTo(3L));
+    }
+
+    @Test
+    public void fullBatchTriggersFlush() {
+        JdbcWriteQueue queue = createQueue(2, 100);
+        queue.offer(itemA, value(1, 1));
+        verify(scheduler, never()).execute(any());
+
+        queue.offer(itemB, value(1, 2));
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).execute(flush.capture());
+
+        // only one flush is scheduled until it ran
+        queue.offer(itemB, value(2, 3));
+        verify(scheduler).execute(any());
+
+        flush.getValue().run();
+        assertThat(written, equalTo(List.of("a=1", "b=2", "b=3")));
+    }
+
+    @Test
+    public void intervalTriggersFlush() {
+        JdbcWriteQueue queue = createQueue(10, 100);
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleWithFixedDelay(flush.capture(), eq((long) INTERVAL), eq((long) INTERVAL),
+                eq(TimeUnit.MILLISECONDS));
+
+        queue.offer(itemA, value(1, 1));
+        flush.getValue().run();
+        assertThat(written, equalTo(List.of("a=1")));
+        assertThat(queue.getBatchCount(), equalTo(1L));
+
+        // nothing to write
+        flush.getValue().run();
+        assertThat(queue.getBatchCount(), equalTo(1L));
+    }
+
+    @Test
+    public void fullQueueIsFlushedByTheStoringThread() {
+        JdbcWriteQueue queue = createQueue(2, 3);
+        queue.offer(itemA, value(1, 1));
+        queue.offer(itemA, value(2, 2));
+        assertThat(written, equalTo(List.of()));
+
+        queue.offer(itemA, value(3, 3));
+        assertThat(written, equalTo(List.of("a=1", "a=2", "a=3")));
+        assertThat(queue.getDepth(), equalTo(0));
+        assertThat(queue.getMaxDepth(), equalTo(3));
+        assertThat(queue.getBackpressureCount(), equalTo(1L));
+    }
+
+    @Test
+    public void failedItemDoesNotStopOtherItems() {
+        JdbcWriteQueue queue = createQueue(10, 100);
+        failingItem = "a";
+        queue.offer(itemA, value(1, 1));
+        queue.offer(itemB, value(1, 2));
+
+        queue.flush();
+        assertThat(written, equalTo(List.of("b=2")));
+        assertThat(queue.getFailedCount(), equalTo(1L));
+        assertThat(queue.getWrittenCount(), equalTo(1L));
+    }
+
+    @Test
+    public void shutdownWritesPendingValues() {
+        JdbcWriteQueue queue = createQueue(10, 100);
+        queue.offer(itemA, value(1, 1));
+        queue.offer(itemB, value(1, 2));
+
+        queue.shutdown();
+        verify(flushJob).cancel(false);
+        assertThat(written, equalTo(List.of("a=1", "b=2")));
+        assertThat(queue.getDepth(), equalTo(0));
+    }
+}
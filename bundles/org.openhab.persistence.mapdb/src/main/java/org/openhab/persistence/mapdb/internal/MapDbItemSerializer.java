@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.mapdb.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.library.types.DateTimeType;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.UpDownType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.TypeParser;
+
+/**
+ * Compact binary encoding of {@link MapDbItem}s.
+ *
+ * An encoded item consists of a format version, the timestamp, the name and the state. The state is written as a
+ * type tag followed by the primitive values of the most common state types, so no text has to be parsed when reading
+ * them. Other state types are written with their class name and full string representation and parsed with the
+ * {@link TypeParser}, like in the JSON format used before.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MapDbItemSerializer {
+    private static final byte VERSION = 1;
+
+    private static final byte TYPE_DECIMAL = 1;
+    private static final byte TYPE_PERCENT = 2;
+    private static final byte TYPE_QUANTITY = 3;
+    private static final byte TYPE_HSB = 4;
+    private static final byte TYPE_ON_OFF = 5;
+    private static final byte TYPE_OPEN_CLOSED = 6;
+    private static final byte TYPE_UP_DOWN = 7;
+    private static final byte TYPE_STRING = 8;
+    private static final byte TYPE_DATE_TIME = 9;
+    private static final byte TYPE_OTHER = 127;
+
+    public byte[] serialize(MapDbItem item) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeLong(item.getTimestamp().toInstant().toEpochMilli());
+            writeString(out, item.getName());
+            writeState(out, item.getState());
+        }
+        return bytes.toByteArray();
+    }
+
+    public MapDbItem deserialize(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported format version " + version);
+            }
+            MapDbItem item = new MapDbItem();
+            item.setTimestamp(new Date(in.readLong()));
+            item.setName(readString(in));
+            item.setState(readState(in));
+            return item;
+        }
+    }
+
+    private void writeState(DataOutputStream out, State state) throws IOException {
+        // PercentType extends DecimalType and HSBType extends PercentType, so check the subclasses first
+        if (state instanceof HSBType) {
+            HSBType hsb = (HSBType) state;
+            out.writeByte(TYPE_HSB);
+            writeDecimal(out, hsb.getHue().toBigDecimal());
+            writeDecimal(out, hsb.getSaturation().toBigDecimal());
+            writeDecimal(out, hsb.getBrightness().toBigDecimal());
+        } else if (state instanceof PercentType) {
+            out.writeByte(TYPE_PERCENT);
+            writeDecimal(out, ((PercentType) state).toBigDecimal());
+        } else if (state.getClass() == DecimalType.class) {
+            out.writeByte(TYPE_DECIMAL);
+            writeDecimal(out, ((DecimalType) state).toBigDecimal());
+        } else if (state instanceof QuantityType) {
+            out.writeByte(TYPE_QUANTITY);
+            writeString(out, state.toFullString());
+        } else if (state instanceof OnOffType) {
+            out.writeByte(TYPE_ON_OFF);
+            out.writeBoolean(state == OnOffType.ON);
+        } else if (state instanceof OpenClosedType) {
+            out.writeByte(TYPE_OPEN_CLOSED);
+            out.writeBoolean(state == OpenClosedType.OPEN);
+        } else if (state instanceof UpDownType) {
+            out.writeByte(TYPE_UP_DOWN);
+            out.writeBoolean(state == UpDownType.UP);
+        } else if (state.getClass() == StringType.class) {
+            out.writeByte(TYPE_STRING);
+            writeString(out, state.toFullString());
+        } else if (state instanceof DateTimeType) {
+            ZonedDateTime dateTime = ((DateTimeType) state).getZonedDateTime();
+            out.writeByte(TYPE_DATE_TIME);
+            out.writeLong(dateTime.toEpochSecond());
+            out.writeInt(dateTime.getNano());
+            writeString(out, dateTime.getZone().getId());
+        } else {
+            out.writeByte(TYPE_OTHER);
+            writeString(out, state.getClass().getName());
+            writeString(out, state.toFullString());
+        }
+    }
+
+    private State readState(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_DECIMAL:
+                return new DecimalType(readDecimal(in));
+            case TYPE_PERCENT:
+                return new PercentType(readDecimal(in));
+            case TYPE_HSB:
+                return new HSBType(new DecimalType(readDecimal(in)), new PercentType(readDecimal(in)),
+                        new PercentType(readDecimal(in)));
+            case TYPE_QUANTITY:
+                return new QuantityType<>(readString(in));
+            case TYPE_ON_OFF:
+                return OnOffType.from(in.readBoolean());
+            case TYPE_OPEN_CLOSED:
+                return in.readBoolean() ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+            case TYPE_UP_DOWN:
+                return in.readBoolean() ? UpDownType.UP : UpDownType.DOWN;
+            case TYPE_STRING:
+                return new StringType(readString(in));
+            case TYPE_DATE_TIME:
+                Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                return new DateTimeType(ZonedDateTime.ofInstant(instant, ZoneId.of(readString(in))));
+            case TYPE_OTHER:
+                String typeName = readString(in);
+                String value = readString(in);
+                try {
+                    @SuppressWarnings("unchecked")
+                    Class<? extends State> stateType = (Class<? extends State>) Class.forName(typeName);
+                    State state = TypeParser.parseState(List.of(stateType), value);
+                    if (state == null) {
+                        throw new IOException("Couldn't parse '" + value + "' as " + typeName);
+                    }
+                    return state;
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("Unknown state type " + typeName, e);
+                }
+            default:
+                throw new IOException("Unknown state type tag " + type);
+        }
+    }
+
+    private void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        // DataOutputStream.writeUTF is limited to 64 kB
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -18,22 +18,28 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.mapdb.BTreeKeySerializer;
 import org.mapdb.DB;
 import org.mapdb.DBMaker;
+import org.mapdb.Serializer;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
@@ -43,9 +49,11 @@ import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.core.persistence.strategy.PersistenceStrategy;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
+import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,30 +68,43 @@ import com.google.gson.GsonBuilder;
  * @author Martin Kühl - Port to 3.x
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class, QueryablePersistenceService.class })
+@Component(service = { PersistenceService.class,
+        QueryablePersistenceService.class }, configurationPid = "org.openhab.mapdb", //
+        property = Constants.SERVICE_PID + "=org.openhab.mapdb")
+@ConfigurableService(category = "persistence", label = "MapDB Persistence Service", description_uri = MapDbPersistenceService.CONFIG_URI)
 public class MapDbPersistenceService implements QueryablePersistenceService {
 
+    protected static final String CONFIG_URI = "persistence:mapdb";
+    private static final String CONFIG_COMMIT_INTERVAL = "commitInterval";
+
     private static final String SERVICE_ID = "mapdb";
     private static final String SERVICE_LABEL = "MapDB";
     private static final Path DB_DIR = new File(OpenHAB.getUserDataFolder(), "persistence").toPath().resolve("mapdb");
     private static final Path BACKUP_DIR = DB_DIR.resolve("backup");
     private static final String DB_FILE_NAME = "storage.mapdb";
+    private static final String JSON_MAP_NAME = "itemStore";
+    private static final String BINARY_MAP_NAME = "itemStoreBinary";
 
     private final Logger logger = LoggerFactory.getLogger(MapDbPersistenceService.class);
 
-    private final ExecutorService threadPool = ThreadPoolManager.getPool(getClass().getSimpleName());
+    private final ScheduledExecutorService threadPool = ThreadPoolManager
+            .getScheduledPool(getClass().getSimpleName());
 
     /** holds the local instance of the MapDB database */
 
     private @NonNullByDefault({}) DB db;
-    private @NonNullByDefault({}) Map<String, String> map;
+    private @NonNullByDefault({}) Map<String, byte[]> map;
+
+    private final MapDbItemSerializer serializer = new MapDbItemSerializer();
+    private final AtomicBoolean commitScheduled = new AtomicBoolean();
 
-    private transient Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter())
-            .create();
+    /** minimum time between two commits in milliseconds, 0 commits after every store */
+    private volatile long commitInterval = 0;
 
     @Activate
-    public void activate() {
+    public void activate(final Map<String, Object> config) {
         logger.debug("MapDB persistence service is being activated");
+        modified(config);
 
         try {
             Files.createDirectories(DB_DIR);
@@ -96,7 +117,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         File dbFile = DB_DIR.resolve(DB_FILE_NAME).toFile();
         try {
             db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-            map = db.createTreeMap("itemStore").makeOrGet();
+            map = openMap(db);
         } catch (RuntimeException re) {
             Throwable cause = re.getCause();
             if (cause instanceof ClassNotFoundException) {
@@ -129,7 +150,7 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
                 }
 
                 db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
-                map = db.createTreeMap("itemStore").makeOrGet();
+                map = openMap(db);
             } else {
                 logger.warn("Failed to create or open the MapDB: {}", re.getMessage());
                 logger.warn("MapDB persistence service activation has failed.");
@@ -138,14 +159,72 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         logger.debug("MapDB persistence service is now activated");
     }
 
+    @Modified
+    protected void modified(final Map<String, Object> config) {
+        Object interval = config.get(CONFIG_COMMIT_INTERVAL);
+        long newInterval = 0;
+        if (interval != null && !interval.toString().isBlank()) {
+            try {
+                newInterval = Math.max(0, Long.parseLong(interval.toString().trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring illegal commit interval '{}', committing after every store", interval);
+            }
+        }
+        commitInterval = newInterval;
+        logger.debug("MapDB commit interval is {} ms", newInterval);
+    }
+
     @Deactivate
     public void deactivate() {
         logger.debug("MapDB persistence service deactivated");
         if (db != null) {
+            // pending group commits are cancelled when the db is closed, so commit them now
+            if (commitScheduled.getAndSet(false)) {
+                db.commit();
+            }
             db.close();
         }
     }
 
+    /**
+     * Opens the map of binary encoded items and moves the items of the JSON map used by previous versions to it.
+     * Items which can't be converted are kept in the JSON map, so they are not lost and retried on the next start.
+     */
+    private Map<String, byte[]> openMap(DB db) {
+        Map<String, byte[]> binaryMap = db.createTreeMap(BINARY_MAP_NAME).keySerializer(BTreeKeySerializer.STRING)
+                .valueSerializer(Serializer.BYTE_ARRAY).makeOrGet();
+        if (db.exists(JSON_MAP_NAME)) {
+            Gson mapper = new GsonBuilder().registerTypeHierarchyAdapter(State.class, new StateTypeAdapter()).create();
+            Map<String, String> jsonMap = db.getTreeMap(JSON_MAP_NAME);
+            int total = jsonMap.size();
+            List<String> moved = new ArrayList<>();
+            for (Map.Entry<String, String> entry : jsonMap.entrySet()) {
+                if (binaryMap.containsKey(entry.getKey())) {
+                    moved.add(entry.getKey());
+                    continue;
+                }
+                Optional<MapDbItem> item = deserializeJson(mapper, entry.getValue());
+                if (item.isPresent()) {
+                    Optional<byte[]> data = serialize(item.get());
+                    if (data.isPresent()) {
+                        binaryMap.put(entry.getKey(), data.get());
+                        moved.add(entry.getKey());
+                    }
+                }
+            }
+            moved.forEach(jsonMap::remove);
+            if (jsonMap.isEmpty()) {
+                db.delete(JSON_MAP_NAME);
+                logger.info("Migrated {} items from JSON to binary encoding", total);
+            } else {
+                logger.warn("Migrated {} of {} items from JSON to binary encoding, keeping the others: {}",
+                        moved.size(), total, jsonMap.keySet());
+            }
+            db.commit();
+        }
+        return binaryMap;
+    }
+
     @Override
     public String getId() {
         return SERVICE_ID;
@@ -182,30 +261,49 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         mItem.setName(localAlias);
         mItem.setState(state);
         mItem.setTimestamp(new Date());
-        String json = serialize(mItem);
-        map.put(localAlias, json);
-        commit();
-        if (logger.isDebugEnabled()) {
-            logger.debug("Stored '{}' with state '{}' as '{}' in MapDB database", localAlias, state, json);
+        Optional<byte[]> data = serialize(mItem);
+        if (data.isEmpty()) {
+            return;
         }
+        map.put(localAlias, data.get());
+        commit();
+        logger.debug("Stored '{}' with state '{}' in MapDB database", localAlias, state);
     }
 
     @Override
     public Iterable<HistoricItem> query(FilterCriteria filter) {
-        String json = map.get(filter.getItemName());
-        if (json == null) {
+        byte[] data = map.get(filter.getItemName());
+        if (data == null) {
             return List.of();
         }
-        Optional<MapDbItem> item = deserialize(json);
+        Optional<MapDbItem> item = deserialize(data);
         return item.isPresent() ? List.of(item.get()) : List.of();
     }
 
-    private String serialize(MapDbItem item) {
-        return mapper.toJson(item);
+    private Optional<byte[]> serialize(MapDbItem item) {
+        try {
+            return Optional.of(serializer.serialize(item));
+        } catch (IOException e) {
+            logger.warn("Couldn't serialize '{}': {}", item, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<MapDbItem> deserialize(byte[] data) {
+        try {
+            MapDbItem item = serializer.deserialize(data);
+            if (logger.isTraceEnabled()) {
+                logger.trace("Deserialized '{}' with state '{}'", item.getName(), item.getState());
+            }
+            return Optional.of(item);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Couldn't deserialize item: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     @SuppressWarnings("null")
-    private Optional<MapDbItem> deserialize(String json) {
+    private Optional<MapDbItem> deserializeJson(Gson mapper, String json) {
         MapDbItem item = mapper.<MapDbItem> fromJson(json, MapDbItem.class);
         if (item == null || !item.isValid()) {
             logger.warn("Deserialized invalid item: {}", item);
@@ -217,8 +315,22 @@ public class MapDbPersistenceService implements QueryablePersistenceService {
         return Optional.of(item);
     }
 
+    /**
+     * Commits the changes asynchronously. With a commit interval, the stores within the interval are committed
+     * together.
+     */
     private void commit() {
-        threadPool.submit(() -> db.commit());
+        long interval = commitInterval;
+        if (interval <= 0) {
+            threadPool.submit(() -> db.commit());
+        } else if (commitScheduled.compareAndSet(false, true)) {
+            threadPool.schedule(() -> {
+                // reset first, so stores during the commit schedule the next one
+                if (commitScheduled.getAndSet(false)) {
+                    db.commit();
+                }
+            }, interval, TimeUnit.MILLISECONDS);
+        }
     }
 
     private static <T> Stream<T> streamOptional(Optional<T> opt) {
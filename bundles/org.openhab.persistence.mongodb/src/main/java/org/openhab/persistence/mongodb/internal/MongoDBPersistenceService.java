@@ -12,15 +12,18 @@
  */
 package org.openhab.persistence.mongodb.internal;
 
+import java.lang.ref.Cleaner;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import org.bson.types.ObjectId;
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -59,7 +62,9 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.mongodb.AggregationOptions;
 import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
 import com.mongodb.DBCollection;
 import com.mongodb.DBCursor;
 import com.mongodb.DBObject;
@@ -83,12 +88,19 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
     private static final String FIELD_TIMESTAMP = "timestamp";
     private static final String FIELD_VALUE = "value";
 
+    // number of documents fetched per round-trip while iterating query results
+    private static final int QUERY_BATCH_SIZE = 1000;
+
+    private static final Set<String> QUERY_AGGREGATIONS = Set.of("avg", "min", "max", "last");
+
     private final Logger logger = LoggerFactory.getLogger(MongoDBPersistenceService.class);
 
     private String url = "";
     private String db = "";
     private String collection = "";
     private boolean collectionPerItem;
+    private String queryAggregation = "";
+    private int queryMaxPoints = 0;
 
     private boolean initialized = false;
 
@@ -127,6 +139,23 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         collection = dbCollection == null ? "" : dbCollection;
         collectionPerItem = dbCollection == null || dbCollection.isBlank();
 
+        @Nullable
+        String configAggregation = (String) config.get("queryAggregation");
+        // accepted in any case like the other persistence services, e.g. AVG, used as the $avg accumulator
+        queryAggregation = configAggregation == null ? "" : configAggregation.trim().toLowerCase();
+        if (!queryAggregation.isEmpty() && !"none".equals(queryAggregation)
+                && !QUERY_AGGREGATIONS.contains(queryAggregation)) {
+            logger.warn("Unsupported MongoDB query aggregation {}, use NONE, AVG, MIN, MAX or LAST.",
+                    configAggregation);
+        }
+        Object configMaxPoints = config.get("queryMaxPoints");
+        try {
+            queryMaxPoints = configMaxPoints == null ? 0 : Integer.parseInt(configMaxPoints.toString().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid MongoDB queryMaxPoints {}, queries won't be aggregated.", configMaxPoints);
+            queryMaxPoints = 0;
+        }
+
         if (!tryConnectToDatabase()) {
             logger.warn("Failed to connect to MongoDB server. Trying to reconnect later.");
         }
@@ -349,7 +378,6 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
             return Collections.emptyList();
         }
 
-        List<HistoricItem> items = new ArrayList<>();
         BasicDBObject query = new BasicDBObject();
         if (filter.getItemName() != null) {
             query.put(FIELD_ITEM, filter.getItemName());
@@ -381,35 +409,122 @@ public class MongoDBPersistenceService implements QueryablePersistenceService {
         logger.debug("Query: {}", query);
 
         Integer sortDir = (filter.getOrdering() == Ordering.ASCENDING) ? 1 : -1;
-        DBCursor cursor = collection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
-                .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize());
-
-        while (cursor.hasNext()) {
-            BasicDBObject obj = (BasicDBObject) cursor.next();
-
-            final State state;
-            if (item instanceof NumberItem) {
-                state = new DecimalType(obj.getDouble(FIELD_VALUE));
-            } else if (item instanceof DimmerItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof SwitchItem) {
-                state = OnOffType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof ContactItem) {
-                state = OpenClosedType.valueOf(obj.getString(FIELD_VALUE));
-            } else if (item instanceof RollershutterItem) {
-                state = new PercentType(obj.getInt(FIELD_VALUE));
-            } else if (item instanceof DateTimeItem) {
-                state = new DateTimeType(
-                        ZonedDateTime.ofInstant(obj.getDate(FIELD_VALUE).toInstant(), ZoneId.systemDefault()));
-            } else {
-                state = new StringType(obj.getString(FIELD_VALUE));
+        final DBCollection queryCollection = collection;
+        final Item queryItem = item;
+
+        @Nullable
+        List<DBObject> pipeline = createAggregationPipeline(filter, item, query, sortDir);
+        if (pipeline != null) {
+            logger.debug("Aggregation pipeline: {}", pipeline);
+            return () -> {
+                Cursor cursor = queryCollection.aggregate(pipeline,
+                        AggregationOptions.builder().batchSize(QUERY_BATCH_SIZE).allowDiskUse(true).build());
+                return new CursorIterator(cursor, obj -> toHistoricItem(queryItem, realItemName, obj));
+            };
+        }
+
+        // the documents are fetched lazily in batches while iterating, so large results don't need to fit into memory
+        return () -> {
+            DBCursor cursor = queryCollection.find(query).sort(new BasicDBObject(FIELD_TIMESTAMP, sortDir))
+                    .skip(filter.getPageNumber() * filter.getPageSize()).limit(filter.getPageSize())
+                    .batchSize(QUERY_BATCH_SIZE);
+            return new CursorIterator(cursor, obj -> toHistoricItem(queryItem, realItemName, obj));
+        };
+    }
+
+    /**
+     * Iterates over the documents of a cursor. The cursor is closed at the end of the iteration, or once the iterator
+     * is garbage collected if the consumer stops iterating early.
+     */
+    private static class CursorIterator implements Iterator<HistoricItem> {
+        private static final Cleaner CLEANER = Cleaner.create();
+
+        private final Cursor cursor;
+        private final Function<BasicDBObject, HistoricItem> mapper;
+        private final Cleaner.Cleanable cleanable;
+
+        private CursorIterator(Cursor cursor, Function<BasicDBObject, HistoricItem> mapper) {
+            this.cursor = cursor;
+            this.mapper = mapper;
+            // the clean action must not reference the iterator, otherwise it never becomes unreachable
+            this.cleanable = CLEANER.register(this, cursor::close);
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext;
+            try {
+                hasNext = cursor.hasNext();
+            } catch (RuntimeException e) {
+                cleanable.clean();
+                throw e;
             }
+            if (!hasNext) {
+                cleanable.clean();
+            }
+            return hasNext;
+        }
 
-            items.add(new MongoDBItem(realItemName, state,
-                    ZonedDateTime.ofInstant(obj.getDate(FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault())));
+        @Override
+        public HistoricItem next() {
+            return mapper.apply((BasicDBObject) cursor.next());
+        }
+    }
+
+    /**
+     * Creates a pipeline which lets the database downsample the query, so that at most queryMaxPoints values are
+     * returned. The time range is split into buckets aligned to the epoch, and every bucket is reduced to one value
+     * with the time of its first document. Only unpaged queries of number items within a closed time range without a
+     * state filter are aggregated.
+     *
+     * @return the aggregation pipeline or null if the raw documents should be returned
+     */
+    private @Nullable List<DBObject> createAggregationPipeline(FilterCriteria filter, Item item, DBObject query,
+            Integer sortDir) {
+        ZonedDateTime beginDate = filter.getBeginDate();
+        ZonedDateTime endDate = filter.getEndDate();
+        if (queryMaxPoints <= 0 || !QUERY_AGGREGATIONS.contains(queryAggregation) || !(item instanceof NumberItem)
+                || beginDate == null || endDate == null || filter.getState() != null
+                || filter.getPageSize() != Integer.MAX_VALUE) {
+            return null;
+        }
+        // the range can touch one more bucket than it is long
+        long bucketMillis = Math.max(1000,
+                Duration.between(beginDate, endDate).toMillis() / Math.max(1, queryMaxPoints - 1) + 1);
+        String timestamp = "$" + FIELD_TIMESTAMP;
+        BasicDBObject bucket = new BasicDBObject("$subtract", List.of(timestamp, new BasicDBObject("$mod",
+                List.of(new BasicDBObject("$subtract", List.of(timestamp, new Date(0))), bucketMillis))));
+        BasicDBObject group = new BasicDBObject(FIELD_ID, bucket)
+                .append(FIELD_VALUE, new BasicDBObject("$" + queryAggregation, "$" + FIELD_VALUE))
+                .append(FIELD_TIMESTAMP, new BasicDBObject("$min", timestamp));
+        // sort before grouping, so $last returns the latest value of a bucket
+        return List.of(new BasicDBObject("$match", query),
+                new BasicDBObject("$sort", new BasicDBObject(FIELD_TIMESTAMP, 1)),
+                new BasicDBObject("$group", group),
+                new BasicDBObject("$sort", new BasicDBObject(FIELD_TIMESTAMP, sortDir)));
+    }
+
+    private HistoricItem toHistoricItem(Item item, String realItemName, BasicDBObject obj) {
+        final State state;
+        if (item instanceof NumberItem) {
+            state = new DecimalType(obj.getDouble(FIELD_VALUE));
+        } else if (item instanceof DimmerItem) {
+            state = new PercentType(obj.getInt(FIELD_VALUE));
+        } else if (item instanceof SwitchItem) {
+            state = OnOffType.valueOf(obj.getString(FIELD_VALUE));
+        } else if (item instanceof ContactItem) {
+            state = OpenClosedType.valueOf(obj.getString(FIELD_VALUE));
+        } else if (item instanceof RollershutterItem) {
+            state = new PercentType(obj.getInt(FIELD_VALUE));
+        } else if (item instanceof DateTimeItem) {
+            state = new DateTimeType(
+                    ZonedDateTime.ofInstant(obj.getDate(FIELD_VALUE).toInstant(), ZoneId.systemDefault()));
+        } else {
+            state = new StringType(obj.getString(FIELD_VALUE));
         }
 
-        return items;
+        return new MongoDBItem(realItemName, state,
+                ZonedDateTime.ofInstant(obj.getDate(FIELD_TIMESTAMP).toInstant(), ZoneId.systemDefault()));
     }
 
     private @Nullable String convertOperator(Operator operator) {
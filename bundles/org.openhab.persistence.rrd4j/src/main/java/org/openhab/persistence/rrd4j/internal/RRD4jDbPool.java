@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.rrd4j.core.RrdBackendFactory;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded cache of open {@link RrdDb} handles.
+ *
+ * Opening a database file reads and parses its header, so handles are kept open and reused. Every file has its own
+ * lock, so accesses to different files run in parallel while accesses to the same file are serialized. If more than
+ * the capacity of files is open, the least recently used handles which are not in use are closed.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbPool {
+
+    /**
+     * Opens a database, returns null if it can't be opened or created.
+     */
+    @FunctionalInterface
+    public interface Opener {
+        @Nullable
+        RrdDb open(RrdBackendFactory factory) throws IOException;
+    }
+
+    /**
+     * Accesses an open database while holding its lock.
+     */
+    @FunctionalInterface
+    public interface Accessor<T> {
+        T access(RrdDb db) throws IOException;
+    }
+
+    private static class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private @Nullable RrdDb db;
+        private int users = 0;
+        // set under the lock once the pool is closed, handles opened afterwards are closed after each access
+        private boolean closed = false;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(RRD4jDbPool.class);
+
+    private final RrdBackendFactory factory;
+    private final int capacity;
+
+    // access ordered, so the iteration starts with the least recently used entry
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed = false;
+
+    public RRD4jDbPool(RrdBackendFactory factory, int capacity) {
+        this.factory = factory;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Executes the accessor on the database of the given file, opening it if necessary. Once the pool is closed, the
+     * database is opened for this access only and closed again afterwards.
+     *
+     * @param path the path of the database file
+     * @param opener opens or creates the database if it is not open yet
+     * @param accessor accesses the database
+     * @return the result of the accessor or null if the database couldn't be opened
+     * @throws IOException if opening or accessing the database failed
+     */
+    public <T> @Nullable T execute(String path, Opener opener, Accessor<T> accessor) throws IOException {
+        Entry entry;
+        synchronized (entries) {
+            if (closed) {
+                entry = new Entry();
+                entry.closed = true;
+            } else {
+                entry = entries.computeIfAbsent(path, p -> new Entry());
+            }
+            entry.users++;
+        }
+        entry.lock.lock();
+        try {
+            RrdDb db = entry.db;
+            if (db == null || db.isClosed()) {
+                db = opener.open(factory);
+                if (db == null) {
+                    return null;
+                }
+                if (entry.closed) {
+                    try {
+                        return accessor.access(db);
+                    } finally {
+                        close(db);
+                    }
+                }
+                entry.db = db;
+            }
+            return accessor.access(db);
+        } finally {
+            entry.lock.unlock();
+            release(path, entry);
+        }
+    }
+
+    private void release(String path, Entry entry) {
+        List<RrdDb> evicted = new ArrayList<>();
+        synchronized (entries) {
+            entry.users--;
+            if (entry.users == 0 && entry.db == null) {
+                entries.remove(path, entry);
+            }
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > capacity && iterator.hasNext()) {
+                Entry candidate = iterator.next();
+                if (candidate.users == 0) {
+                    iterator.remove();
+                    RrdDb db = candidate.db;
+                    if (db != null) {
+                        evicted.add(db);
+                    }
+                }
+            }
+        }
+        evicted.forEach(this::close);
+    }
+
+    /**
+     * Closes all open databases, waiting for running accesses to finish.
+     */
+    public void close() {
+        List<Entry> open;
+        synchronized (entries) {
+            closed = true;
+            open = new ArrayList<>(entries.values());
+            entries.clear();
+        }
+        for (Entry entry : open) {
+            entry.lock.lock();
+            try {
+                entry.closed = true;
+                RrdDb db = entry.db;
+                if (db != null) {
+                    close(db);
+                    entry.db = null;
+                }
+            } finally {
+                entry.lock.unlock();
+            }
+        }
+    }
+
+    private void close(RrdDb db) {
+        try {
+            db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database '{}': {}", db.getPath(), e.getMessage());
+        }
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -18,7 +18,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -67,14 +66,18 @@ import org.openhab.core.types.State;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.ConfigurationPolicy;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.DsType;
 import org.rrd4j.core.FetchData;
 import org.rrd4j.core.FetchRequest;
+import org.rrd4j.core.RrdBackendFactory;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.RrdDef;
+import org.rrd4j.core.RrdNioBackendFactory;
+import org.rrd4j.core.RrdRandomAccessFileBackendFactory;
 import org.rrd4j.core.Sample;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -89,8 +92,8 @@ import org.slf4j.LoggerFactory;
  * @author Karel Goderis - remove TimerThread dependency
  */
 @NonNullByDefault
-@Component(service = { PersistenceService.class,
-        QueryablePersistenceService.class }, configurationPid = "org.openhab.rrd4j", configurationPolicy = ConfigurationPolicy.OPTIONAL)
+@Component(service = { PersistenceService.class, QueryablePersistenceService.class,
+        RRD4jPersistenceService.class }, configurationPid = "org.openhab.rrd4j", configurationPolicy = ConfigurationPolicy.OPTIONAL)
 public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private static final String DEFAULT_OTHER = "default_other";
@@ -111,7 +114,14 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
 
     private final Logger logger = LoggerFactory.getLogger(RRD4jPersistenceService.class);
 
-    private final Map<String, ScheduledFuture<?>> scheduledJobs = new HashMap<>();
+    private static final String CONFIG_BACKEND = "backend";
+    private static final String CONFIG_POOL_SIZE = "poolSize";
+    private static final int DEFAULT_POOL_SIZE = 500;
+
+    private final Map<String, Item> pendingStores = new ConcurrentHashMap<>();
+    private @Nullable ScheduledFuture<?> flushJob;
+
+    private volatile RRD4jDbPool pool = new RRD4jDbPool(new RrdRandomAccessFileBackendFactory(), DEFAULT_POOL_SIZE);
 
     protected final ItemRegistry itemRegistry;
 
@@ -131,94 +141,121 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     }
 
     @Override
-    public synchronized void store(final Item item, @Nullable final String alias) {
+    public void store(final Item item, @Nullable final String alias) {
         if (!isSupportedItemType(item)) {
             logger.trace("Ignoring item '{}' since its type {} is not supported", item.getName(), item.getType());
             return;
         }
         final String name = alias == null ? item.getName() : alias;
-        RrdDb db = getDB(name);
-        if (db != null) {
-            ConsolFun function = getConsolidationFunction(db);
-            long now = System.currentTimeMillis() / 1000;
-            if (function != ConsolFun.AVERAGE) {
-                try {
-                    // we store the last value again, so that the value change
-                    // in the database is not interpolated, but
-                    // happens right at this spot
-                    if (now - 1 > db.getLastUpdateTime()) {
-                        // only do it if there is not already a value
-                        double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                        if (!Double.isNaN(lastValue)) {
-                            Sample sample = db.createSample();
-                            sample.setTime(now - 1);
-                            sample.setValue(DATASOURCE_STATE, lastValue);
-                            sample.update();
-                            logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
-                        }
+        try {
+            pool.execute(getDBPath(name), factory -> openDB(name, factory), db -> {
+                store(db, item, name);
+                return null;
+            });
+        } catch (IOException e) {
+            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+        }
+    }
+
+    private void store(RrdDb db, Item item, String name) {
+        ConsolFun function = getConsolidationFunction(db);
+        long now = System.currentTimeMillis() / 1000;
+        if (function != ConsolFun.AVERAGE) {
+            try {
+                // we store the last value again, so that the value change
+                // in the database is not interpolated, but
+                // happens right at this spot
+                if (now - 1 > db.getLastUpdateTime()) {
+                    // only do it if there is not already a value
+                    double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                    if (!Double.isNaN(lastValue)) {
+                        Sample sample = db.createSample();
+                        sample.setTime(now - 1);
+                        sample.setValue(DATASOURCE_STATE, lastValue);
+                        sample.update();
+                        logger.debug("Stored '{}' as value '{}' in rrd4j database (again)", name, lastValue);
                     }
-                } catch (IOException e) {
-                    logger.debug("Error storing last value (again): {}", e.getMessage());
                 }
+            } catch (IOException e) {
+                logger.debug("Error storing last value (again): {}", e.getMessage());
             }
-            try {
-                Sample sample = db.createSample();
-                sample.setTime(now);
-
-                Double value = null;
-
-                if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
-                    NumberItem nItem = (NumberItem) item;
-                    QuantityType<?> qState = (QuantityType<?>) item.getState();
-                    Unit<? extends Quantity<?>> unit = nItem.getUnit();
-                    if (unit != null) {
-                        QuantityType<?> convertedState = qState.toUnit(unit);
-                        if (convertedState != null) {
-                            value = convertedState.doubleValue();
-                        } else {
-                            logger.warn(
-                                    "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
-                                    qState, unit);
-                        }
+        }
+        try {
+            Sample sample = db.createSample();
+            sample.setTime(now);
+
+            Double value = null;
+
+            if (item instanceof NumberItem && item.getState() instanceof QuantityType) {
+                NumberItem nItem = (NumberItem) item;
+                QuantityType<?> qState = (QuantityType<?>) item.getState();
+                Unit<? extends Quantity<?>> unit = nItem.getUnit();
+                if (unit != null) {
+                    QuantityType<?> convertedState = qState.toUnit(unit);
+                    if (convertedState != null) {
+                        value = convertedState.doubleValue();
                     } else {
-                        value = qState.doubleValue();
+                        logger.warn(
+                                "Failed to convert state '{}' to unit '{}'. Please check your item definition for correctness.",
+                                qState, unit);
                     }
                 } else {
-                    DecimalType state = item.getStateAs(DecimalType.class);
-                    if (state != null) {
-                        value = state.toBigDecimal().doubleValue();
-                    }
+                    value = qState.doubleValue();
                 }
-                if (value != null) {
-                    if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) { // counter values must be
-                                                                                          // adjusted by stepsize
-                        value = value * db.getRrdDef().getStep();
-                    }
-                    sample.setValue(DATASOURCE_STATE, value);
-                    sample.update();
-                    logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
+            } else {
+                DecimalType state = item.getStateAs(DecimalType.class);
+                if (state != null) {
+                    value = state.toBigDecimal().doubleValue();
                 }
-            } catch (IllegalArgumentException e) {
-                String message = e.getMessage();
-                if (message != null && message.contains("at least one second step is required")) {
-                    // we try to store the value one second later
-                    ScheduledFuture<?> job = scheduledJobs.get(name);
-                    if (job != null) {
-                        job.cancel(true);
-                        scheduledJobs.remove(name);
-                    }
-                    job = scheduler.schedule(() -> store(item, name), 1, TimeUnit.SECONDS);
-                    scheduledJobs.put(name, job);
-                } else {
-                    logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+            }
+            if (value != null) {
+                if (db.getDatasource(DATASOURCE_STATE).getType() == DsType.COUNTER) { // counter values must be
+                                                                                      // adjusted by stepsize
+                    value = value * db.getRrdDef().getStep();
                 }
-            } catch (Exception e) {
+                sample.setValue(DATASOURCE_STATE, value);
+                sample.update();
+                logger.debug("Stored '{}' as value '{}' in rrd4j database", name, value);
+            }
+        } catch (IllegalArgumentException e) {
+            String message = e.getMessage();
+            if (message != null && message.contains("at least one second step is required")) {
+                // we try to store the value one second later
+                storeLater(item, name);
+            } else {
                 logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
             }
-            try {
-                db.close();
-            } catch (IOException e) {
-                logger.debug("Error closing rrd4j database: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.warn("Could not persist '{}' to rrd4j database: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Queues the item to be stored again by the flusher. Only the latest update per database is kept, and all queued
+     * items are stored by a single job.
+     */
+    private void storeLater(Item item, String name) {
+        pendingStores.put(name, item);
+        synchronized (pendingStores) {
+            if (flushJob == null) {
+                try {
+                    flushJob = scheduler.schedule(this::flushPendingStores, 1, TimeUnit.SECONDS);
+                } catch (RejectedExecutionException e) {
+                    // this happens if the system is shut down
+                    logger.debug("Could not schedule storing '{}': {}", name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void flushPendingStores() {
+        synchronized (pendingStores) {
+            flushJob = null;
+        }
+        for (String name : new ArrayList<>(pendingStores.keySet())) {
+            Item item = pendingStores.remove(name);
+            if (item != null) {
+                store(item, name);
             }
         }
     }
@@ -232,12 +269,37 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
     public Iterable<HistoricItem> query(FilterCriteria filter) {
         String itemName = filter.getItemName();
 
-        RrdDb db = getDB(itemName);
-        if (db == null) {
-            logger.debug("Could not find item '{}' in rrd4j database", itemName);
+        try {
+            List<HistoricItem> items = pool.execute(getDBPath(itemName), factory -> openDB(itemName, factory),
+                    db -> query(db, filter, itemName));
+            if (items == null) {
+                logger.debug("Could not find item '{}' in rrd4j database", itemName);
+                return List.of();
+            }
+            return items;
+        } catch (IOException e) {
+            logger.warn("Could not query rrd4j database for item '{}': {}", itemName, e.getMessage());
             return List.of();
         }
+    }
 
+    /**
+     * Fetches the values of an item for a chart. The database is accessed through the pool, so charts do not open a
+     * second handle on a file the service is writing to.
+     *
+     * @param itemName the name of the item
+     * @param start the start of the chart in seconds since the epoch
+     * @param end the end of the chart in seconds since the epoch
+     * @return the values or null if the item has no database
+     * @throws IOException if the database couldn't be read
+     */
+    public @Nullable FetchData fetchChartData(String itemName, long start, long end) throws IOException {
+        String path = getDBPath(itemName);
+        return pool.execute(path, factory -> new File(path).exists() ? new RrdDb(path, factory) : null,
+                db -> db.createFetchRequest(getConsolidationFunction(db), start, end).fetchData());
+    }
+
+    private List<HistoricItem> query(RrdDb db, FilterCriteria filter, String itemName) throws IOException {
         Item item = null;
         Unit<?> unit = null;
         try {
@@ -255,57 +317,52 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         long end = filter.getEndDate() == null ? System.currentTimeMillis() / 1000
                 : filter.getEndDate().toInstant().getEpochSecond();
 
-        try {
-            if (filter.getBeginDate() == null) {
-                // as rrd goes back for years and gets more and more
-                // inaccurate, we only support descending order
-                // and a single return value
-                // if there is no begin date is given - this case is
-                // required specifically for the historicState()
-                // query, which we want to support
-                if (filter.getOrdering() == Ordering.DESCENDING && filter.getPageSize() == 1
-                        && filter.getPageNumber() == 0) {
-                    if (filter.getEndDate() == null) {
-                        // we are asked only for the most recent value!
-                        double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
-                        if (!Double.isNaN(lastValue)) {
-                            HistoricItem rrd4jItem = new RRD4jItem(itemName, mapToState(lastValue, item, unit),
-                                    ZonedDateTime.ofInstant(Instant.ofEpochMilli(db.getLastArchiveUpdateTime() * 1000),
-                                            ZoneId.systemDefault()));
-                            return List.of(rrd4jItem);
-                        } else {
-                            return List.of();
-                        }
+        if (filter.getBeginDate() == null) {
+            // as rrd goes back for years and gets more and more
+            // inaccurate, we only support descending order
+            // and a single return value
+            // if there is no begin date is given - this case is
+            // required specifically for the historicState()
+            // query, which we want to support
+            if (filter.getOrdering() == Ordering.DESCENDING && filter.getPageSize() == 1
+                    && filter.getPageNumber() == 0) {
+                if (filter.getEndDate() == null) {
+                    // we are asked only for the most recent value!
+                    double lastValue = db.getLastDatasourceValue(DATASOURCE_STATE);
+                    if (!Double.isNaN(lastValue)) {
+                        HistoricItem rrd4jItem = new RRD4jItem(itemName, mapToState(lastValue, item, unit),
+                                ZonedDateTime.ofInstant(Instant.ofEpochMilli(db.getLastArchiveUpdateTime() * 1000),
+                                        ZoneId.systemDefault()));
+                        return List.of(rrd4jItem);
                     } else {
-                        start = end;
+                        return List.of();
                     }
                 } else {
-                    throw new UnsupportedOperationException("rrd4j does not allow querys without a begin date, "
-                            + "unless order is descending and a single value is requested");
+                    start = end;
                 }
             } else {
-                start = filter.getBeginDate().toInstant().getEpochSecond();
+                throw new UnsupportedOperationException("rrd4j does not allow querys without a begin date, "
+                        + "unless order is descending and a single value is requested");
             }
+        } else {
+            start = filter.getBeginDate().toInstant().getEpochSecond();
+        }
 
-            FetchRequest request = db.createFetchRequest(getConsolidationFunction(db), start, end, 1);
-            FetchData result = request.fetchData();
-
-            List<HistoricItem> items = new ArrayList<>();
-            long ts = result.getFirstTimestamp();
-            long step = result.getRowCount() > 1 ? result.getStep() : 0;
-            for (double value : result.getValues(DATASOURCE_STATE)) {
-                if (!Double.isNaN(value) && (((ts >= start) && (ts <= end)) || (start == end))) {
-                    RRD4jItem rrd4jItem = new RRD4jItem(itemName, mapToState(value, item, unit),
-                            ZonedDateTime.ofInstant(Instant.ofEpochMilli(ts * 1000), ZoneId.systemDefault()));
-                    items.add(rrd4jItem);
-                }
-                ts += step;
+        FetchRequest request = db.createFetchRequest(getConsolidationFunction(db), start, end, 1);
+        FetchData result = request.fetchData();
+
+        List<HistoricItem> items = new ArrayList<>();
+        long ts = result.getFirstTimestamp();
+        long step = result.getRowCount() > 1 ? result.getStep() : 0;
+        for (double value : result.getValues(DATASOURCE_STATE)) {
+            if (!Double.isNaN(value) && (((ts >= start) && (ts <= end)) || (start == end))) {
+                RRD4jItem rrd4jItem = new RRD4jItem(itemName, mapToState(value, item, unit),
+                        ZonedDateTime.ofInstant(Instant.ofEpochMilli(ts * 1000), ZoneId.systemDefault()));
+                items.add(rrd4jItem);
             }
-            return items;
-        } catch (IOException e) {
-            logger.warn("Could not query rrd4j database for item '{}': {}", itemName, e.getMessage());
-            return List.of();
+            ts += step;
         }
+        return items;
     }
 
     @Override
@@ -313,35 +370,33 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         return Set.of();
     }
 
-    protected synchronized @Nullable RrdDb getDB(String alias) {
-        RrdDb db = null;
-        File file = new File(DB_FOLDER + File.separator + alias + ".rrd");
-        try {
-            if (file.exists()) {
-                // recreate the RrdDb instance from the file
-                db = new RrdDb(file.getAbsolutePath());
-            } else {
-                File folder = new File(DB_FOLDER);
-                if (!folder.exists()) {
-                    folder.mkdirs();
-                }
-                RrdDef rrdDef = getRrdDef(alias, file);
-                if (rrdDef != null) {
-                    // create a new database file
-                    db = new RrdDb(rrdDef);
-                } else {
-                    logger.debug(
-                            "Did not create rrd4j database for item '{}' since no rrd definition could be determined. This is likely due to an unsupported item type.",
-                            alias);
-                }
-            }
-        } catch (IOException e) {
-            logger.error("Could not create rrd4j database file '{}': {}", file.getAbsolutePath(), e.getMessage());
-        } catch (RejectedExecutionException e) {
-            // this happens if the system is shut down
-            logger.debug("Could not create rrd4j database file '{}': {}", file.getAbsolutePath(), e.getMessage());
+    private static String getDBPath(String alias) {
+        return DB_FOLDER + File.separator + alias + ".rrd";
+    }
+
+    /**
+     * Opens the database of the given alias, creating it if it doesn't exist yet. Only called by the pool while it
+     * holds the lock of the file.
+     */
+    private @Nullable RrdDb openDB(String alias, RrdBackendFactory factory) throws IOException {
+        File file = new File(getDBPath(alias));
+        if (file.exists()) {
+            // recreate the RrdDb instance from the file
+            return new RrdDb(file.getAbsolutePath(), factory);
         }
-        return db;
+        File folder = new File(DB_FOLDER);
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        RrdDef rrdDef = getRrdDef(alias, file);
+        if (rrdDef == null) {
+            logger.debug(
+                    "Did not create rrd4j database for item '{}' since no rrd definition could be determined. This is likely due to an unsupported item type.",
+                    alias);
+            return null;
+        }
+        // create a new database file
+        return new RrdDb(rrdDef, factory);
     }
 
     private @Nullable RrdDefConfig getRrdDefConfig(String itemName) {
@@ -487,6 +542,8 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         defaultOther.addArchives("LAST,0.5,1,720:LAST,0.5,12,10080:LAST,0.5,180,35040:LAST,0.5,2880,21900");
         rrdDefs.put(DEFAULT_OTHER, defaultOther);
 
+        configurePool(config);
+
         if (config.isEmpty()) {
             logger.debug("using default configuration only");
             return;
@@ -496,8 +553,9 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         while (keys.hasNext()) {
             String key = keys.next();
 
-            if (key.equals("service.pid") || key.equals("component.name")) {
-                // ignore service.pid and name
+            if (key.equals("service.pid") || key.equals("component.name") || key.equals(CONFIG_BACKEND)
+                    || key.equals(CONFIG_POOL_SIZE)) {
+                // ignore service.pid and name, the pool configuration is already processed
                 continue;
             }
 
@@ -554,6 +612,36 @@ public class RRD4jPersistenceService implements QueryablePersistenceService {
         }
     }
 
+    @Deactivate
+    protected void deactivate() {
+        ScheduledFuture<?> job = flushJob;
+        if (job != null) {
+            job.cancel(false);
+            flushJob = null;
+        }
+        pendingStores.clear();
+        pool.close();
+    }
+
+    private void configurePool(final Map<String, Object> config) {
+        Object backend = config.get(CONFIG_BACKEND);
+        boolean nio = backend != null && "NIO".equalsIgnoreCase(backend.toString().trim());
+        int poolSize = DEFAULT_POOL_SIZE;
+        Object size = config.get(CONFIG_POOL_SIZE);
+        if (size != null && !size.toString().isBlank()) {
+            try {
+                poolSize = Integer.parseInt(size.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring illegal pool size '{}', using {}", size, DEFAULT_POOL_SIZE);
+            }
+        }
+        RrdBackendFactory factory = nio ? new RrdNioBackendFactory() : new RrdRandomAccessFileBackendFactory();
+        RRD4jDbPool oldPool = pool;
+        pool = new RRD4jDbPool(factory, poolSize);
+        oldPool.close();
+        logger.debug("Using {} backend with a pool of {} databases", nio ? "NIO" : "file", poolSize);
+    }
+
     private class RrdArchiveDef {
         public @Nullable ConsolFun fcn;
         public double xff;
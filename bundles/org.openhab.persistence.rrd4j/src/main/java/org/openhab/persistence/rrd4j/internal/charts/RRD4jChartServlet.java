@@ -15,7 +15,6 @@ package org.openhab.persistence.rrd4j.internal.charts;
 import java.awt.Color;
 import java.awt.Font;
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
@@ -43,8 +42,7 @@ import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
-import org.rrd4j.ConsolFun;
-import org.rrd4j.core.RrdDb;
+import org.rrd4j.core.FetchData;
 import org.rrd4j.graph.RrdGraph;
 import org.rrd4j.graph.RrdGraphDef;
 import org.slf4j.Logger;
@@ -104,6 +102,9 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
     @Reference
     protected ItemUIRegistry itemUIRegistry;
 
+    @Reference
+    protected RRD4jPersistenceService persistenceService;
+
     @Activate
     protected void activate() {
         try {
@@ -165,29 +166,34 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
      * @param graphDef the graph definition to fill
      * @param item the item to add a line for
      * @param counter defines the number of the datasource and is used to determine the line color
+     * @param start the start of the chart in seconds since the epoch
+     * @param end the end of the chart in seconds since the epoch
      */
-    protected void addLine(RrdGraphDef graphDef, Item item, int counter) {
+    protected void addLine(RrdGraphDef graphDef, Item item, int counter, long start, long end) {
         Color color = LINECOLORS[counter % LINECOLORS.length];
         String label = itemUIRegistry.getLabel(item.getName());
-        String rrdName = RRD4jPersistenceService.DB_FOLDER + File.separator + item.getName() + ".rrd";
-        ConsolFun consolFun;
         if (label != null && label.contains("[") && label.contains("]")) {
             label = label.substring(0, label.indexOf('['));
         }
+        // the values are read through the database pool of the persistence service
+        FetchData data;
         try {
-            RrdDb db = new RrdDb(rrdName);
-            consolFun = db.getRrdDef().getArcDefs()[0].getConsolFun();
-            db.close();
+            data = persistenceService.fetchChartData(item.getName(), start, end);
         } catch (IOException e) {
-            consolFun = ConsolFun.MAX;
+            logger.debug("Could not read rrd4j database of item '{}': {}", item.getName(), e.getMessage());
+            return;
+        }
+        if (data == null) {
+            logger.debug("Could not find rrd4j database of item '{}'", item.getName());
+            return;
         }
         if (item instanceof NumberItem) {
             // we only draw a line
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), "state", data);
             graphDef.line(Integer.toString(counter), color, label, 2);
         } else {
             // we draw a line and fill the area beneath it with a transparent color
-            graphDef.datasource(Integer.toString(counter), rrdName, "state", consolFun); // RRD4jService.getConsolidationFunction(item));
+            graphDef.datasource(Integer.toString(counter), "state", data);
             Color areaColor = AREACOLORS[counter % LINECOLORS.length];
 
             graphDef.area(Integer.toString(counter), areaColor);
@@ -227,6 +233,8 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
         RrdGraphDef graphDef = new RrdGraphDef();
 
         long period = (startTime.getTime() - endTime.getTime()) / 1000;
+        long start = startTime.getTime() / 1000;
+        long end = endTime.getTime() / 1000;
 
         graphDef.setWidth(width);
         graphDef.setHeight(height);
@@ -244,7 +252,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
             String[] itemNames = items.split(",");
             for (String itemName : itemNames) {
                 Item item = itemUIRegistry.getItem(itemName);
-                addLine(graphDef, item, seriesCounter++);
+                addLine(graphDef, item, seriesCounter++, start, end);
             }
         }
 
@@ -256,7 +264,7 @@ public class RRD4jChartServlet implements Servlet, ChartProvider {
                 if (item instanceof GroupItem) {
                     GroupItem groupItem = (GroupItem) item;
                     for (Item member : groupItem.getMembers()) {
-                        addLine(graphDef, member, seriesCounter++);
+                        addLine(graphDef, member, seriesCounter++, start, end);
                     }
                 } else {
                     throw new ItemNotFoundException("Item '" + item.getName() + "' defined in groups is not a group.");
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.persistence.rrd4j.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.rrd4j.core.RrdBackendFactory;
+import org.rrd4j.core.RrdDb;
+
+/**
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RRD4jDbPoolTest {
+
+    private final RrdBackendFactory factory = mock(RrdBackendFactory.class);
+    private final Map<String, RrdDb> opened = new HashMap<>();
+
+    private RRD4jDbPool.Opener opener(String path) {
+        return f -> {
+            RrdDb db = mock(RrdDb.class);
+            opened.put(path, db);
+            return db;
+        };
+    }
+
+    private void access(RRD4jDbPool pool, String path) throws IOException {
+        pool.execute(path, opener(path), db -> null);
+    }
+
+    @Test
+    public void testDatabaseIsOpenedOnce() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 2);
+        RrdDb first = pool.execute("a", opener("a"), db -> db);
+        RrdDb second = pool.execute("a", f -> fail("opened twice"), db -> db);
+
+        assertSame(first, second);
+        assertEquals(1, pool.getSize());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedDatabaseIsClosed() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 2);
+        access(pool, "a");
+        access(pool, "b");
+        access(pool, "a");
+        access(pool, "c");
+
+        assertEquals(2, pool.getSize());
+        verify(opened.get("b")).close();
+        verify(opened.get("a"), never()).close();
+        verify(opened.get("c"), never()).close();
+    }
+
+    @Test
+    public void testDatabaseInUseIsNotClosed() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 1);
+        pool.execute("a", opener("a"), db -> {
+            access(pool, "b");
+            verify(db, never()).close();
+            return null;
+        });
+
+        // the other database is closed to keep the capacity
+        assertEquals(1, pool.getSize());
+        verify(opened.get("b")).close();
+        verify(opened.get("a"), never()).close();
+    }
+
+    @Test
+    public void testMissingDatabaseIsNotKept() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 2);
+
+        assertNull(pool.execute("a", f -> null, db -> db));
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void testCloseClosesAllDatabases() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 2);
+        access(pool, "a");
+        access(pool, "b");
+
+        pool.close();
+        assertEquals(0, pool.getSize());
+        verify(opened.get("a")).close();
+        verify(opened.get("b")).close();
+    }
+
+    @Test
+    public void testDatabaseOpenedAfterCloseIsNotKept() throws IOException {
+        RRD4jDbPool pool = new RRD4jDbPool(factory, 2);
+        pool.close();
+
+        access(pool, "a");
+        assertEquals(0, pool.getSize());
+        verify(opened.get("a")).close();
+    }
+}
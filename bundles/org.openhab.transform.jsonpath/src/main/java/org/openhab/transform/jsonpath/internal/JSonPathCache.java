@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.jsonpath.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.InvalidPathException;
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Caches compiled JsonPath expressions and recently parsed documents.
+ *
+ * Compiled expressions are kept in a bounded LRU cache. Parsed documents are only kept for a short time, as they are
+ * meant to be shared by the transformations applied to the same payload, e.g. the channels of a thing extracting
+ * different values from one response. A document is looked up by the identity of the source string first, and by its
+ * content if the caller created a new string from the same payload.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class JSonPathCache {
+
+    public static final int DEFAULT_PATH_CAPACITY = 256;
+    public static final int DEFAULT_DOCUMENT_CAPACITY = 8;
+    public static final long DEFAULT_DOCUMENT_TTL_MS = 5000;
+
+    private static class CachedDocument {
+        private final String source;
+        private final DocumentContext document;
+        private final long expiresAt;
+
+        private CachedDocument(String source, DocumentContext document, long expiresAt) {
+            this.source = source;
+            this.document = document;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, JsonPath> paths;
+    private final @Nullable CachedDocument[] documents;
+    private final long documentTtl;
+    private int nextDocument = 0;
+
+    private final AtomicLong pathHits = new AtomicLong();
+    private final AtomicLong pathMisses = new AtomicLong();
+    private final AtomicLong documentHits = new AtomicLong();
+    private final AtomicLong documentMisses = new AtomicLong();
+
+    public JSonPathCache() {
+        this(DEFAULT_PATH_CAPACITY, DEFAULT_DOCUMENT_CAPACITY, DEFAULT_DOCUMENT_TTL_MS);
+    }
+
+    /**
+     * @param pathCapacity maximum number of compiled expressions
+     * @param documentCapacity maximum number of parsed documents
+     * @param documentTtl time in milliseconds a parsed document is reused
+     */
+    public JSonPathCache(int pathCapacity, int documentCapacity, long documentTtl) {
+        this.paths = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, JsonPath> eldest) {
+                return size() > pathCapacity;
+            }
+        };
+        this.documents = new CachedDocument[Math.max(1, documentCapacity)];
+        this.documentTtl = documentTtl;
+    }
+
+    /**
+     * Returns the compiled expression, compiling it if it is not cached yet.
+     *
+     * @throws InvalidPathException if the expression is invalid
+     */
+    public JsonPath getPath(String jsonPathExpression) {
+        JsonPath path;
+        synchronized (paths) {
+            path = paths.get(jsonPathExpression);
+        }
+        if (path != null) {
+            pathHits.incrementAndGet();
+            return path;
+        }
+        pathMisses.incrementAndGet();
+        path = JsonPath.compile(jsonPathExpression);
+        synchronized (paths) {
+            paths.put(jsonPathExpression, path);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the parsed document, parsing it if it was not parsed recently.
+     *
+     * The returned document must only be read from.
+     *
+     * @throws InvalidJsonException if the source is not valid JSON
+     */
+    public DocumentContext getDocument(String source) {
+        long now = System.currentTimeMillis();
+        DocumentContext document = findDocument(source, now);
+        if (document != null) {
+            documentHits.incrementAndGet();
+            return document;
+        }
+        documentMisses.incrementAndGet();
+        document = JsonPath.parse(source);
+        synchronized (documents) {
+            documents[nextDocument] = new CachedDocument(source, document, now + documentTtl);
+            nextDocument = (nextDocument + 1) % documents.length;
+        }
+        return document;
+    }
+
+    private @Nullable DocumentContext findDocument(String source, long now) {
+        List<CachedDocument> candidates = new ArrayList<>(documents.length);
+        synchronized (documents) {
+            for (CachedDocument cached : documents) {
+                if (cached == null || cached.expiresAt < now) {
+                    continue;
+                }
+                if (cached.source == source) {
+                    return cached.document;
+                }
+                if (cached.source.length() == source.length()) {
+                    candidates.add(cached);
+                }
+            }
+        }
+        // compare the content outside the lock, as it is linear in the size of the document
+        for (CachedDocument candidate : candidates) {
+            if (candidate.source.equals(source)) {
+                return candidate.document;
+            }
+        }
+        return null;
+    }
+
+    public long getPathHitCount() {
+        return pathHits.get();
+    }
+
+    public long getPathMissCount() {
+        return pathMisses.get();
+    }
+
+    public long getDocumentHitCount() {
+        return documentHits.get();
+    }
+
+    public long getDocumentMissCount() {
+        return documentMisses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "JSonPathCache [pathHits=" + pathHits + ", pathMisses=" + pathMisses + ", documentHits=" + documentHits
+                + ", documentMisses=" + documentMisses + "]";
+    }
+}
@@ -43,6 +43,8 @@ public class JSonPathTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final JSonPathCache cache = new JSonPathCache();
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -60,7 +62,8 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath jsonPath = cache.getPath(jsonPathExpression);
+            Object transformationResult = cache.getDocument(source).read(jsonPath);
             logger.debug("transformation resulted in '{}'", transformationResult);
             if (transformationResult == null) {
                 return null;
@@ -76,6 +79,19 @@ public class JSonPathTransformationService implements TransformationService {
         }
     }
 
+    /**
+     * Compiles the expression into the cache, so callers with a fixed expression find it there.
+     *
+     * @throws InvalidPathException if the expression is invalid
+     */
+    public void compile(String jsonPathExpression) {
+        cache.getPath(jsonPathExpression);
+    }
+
+    public JSonPathCache getCache() {
+        return cache;
+    }
+
     private String flattenList(List<?> list) {
         if (list.size() == 1) {
             return list.get(0).toString();
@@ -24,9 +24,12 @@ import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.core.types.Type;
+import org.openhab.transform.jsonpath.internal.JSonPathTransformationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.jayway.jsonpath.InvalidPathException;
+
 /**
  * Profile to offer the JSonPathTransformationservice on a ItemChannelLink
  *
@@ -69,6 +72,7 @@ public class JSonPathTransformationProfile implements StateProfile {
         if (paramFunction instanceof String && paramSource instanceof String) {
             function = (String) paramFunction;
             sourceFormat = (String) paramSource;
+            precompile(function);
         } else {
             logger.error("Parameter '{}' and '{}' have to be Strings. Profile will be inactive.", FUNCTION_PARAM,
                     SOURCE_FORMAT_PARAM);
@@ -77,6 +81,20 @@ public class JSonPathTransformationProfile implements StateProfile {
         }
     }
 
+    /**
+     * Compiles the function into the cache of the service, so invalid expressions are reported when the profile is
+     * created. The profiles linked to the same channel share the parsed state through the document cache.
+     */
+    private void precompile(String function) {
+        if (service instanceof JSonPathTransformationService) {
+            try {
+                ((JSonPathTransformationService) service).compile(function);
+            } catch (InvalidPathException e) {
+                logger.warn("Parameter '{}' is not a valid JsonPath expression: {}", FUNCTION_PARAM, e.getMessage());
+            }
+        }
+    }
+
     @Override
     public ProfileTypeUID getProfileTypeUID() {
         return PROFILE_TYPE_UID;
@@ -127,4 +127,47 @@ public class JSonPathTransformationServiceTest {
         String transformedResponse = processor.transform("$.data", json);
         assertEquals(list, transformedResponse);
     }
+
+    @Test
+    public void testDocumentIsParsedOnceForSeveralPaths() throws TransformationException {
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        assertEquals("2", processor.transform("$[1].id", jsonArray));
+        // a new string with the same content
+        assertEquals("alice", processor.transform("$[1].name", new String(jsonArray)));
+        assertEquals("bob", processor.transform("$[0].name", jsonArray));
+
+        JSonPathCache cache = processor.getCache();
+        assertEquals(1, cache.getDocumentMissCount());
+        assertEquals(3, cache.getDocumentHitCount());
+        assertEquals(3, cache.getPathMissCount());
+        assertEquals(1, cache.getPathHitCount());
+    }
+
+    @Test
+    public void testExpiredDocumentIsParsedAgain() {
+        JSonPathCache cache = new JSonPathCache(10, 2, -1);
+        cache.getDocument(jsonArray);
+        cache.getDocument(jsonArray);
+
+        assertEquals(2, cache.getDocumentMissCount());
+        assertEquals(0, cache.getDocumentHitCount());
+    }
+
+    @Test
+    public void testDocumentIsFoundAmongDocumentsOfEqualLength() {
+        JSonPathCache cache = new JSonPathCache(10, 4, 60000);
+        String first = "{\"id\":1}";
+        String second = "{\"id\":2}";
+        cache.getDocument(first);
+        cache.getDocument(second);
+        // the first cached document has the same length, but a different content
+        int secondId = cache.getDocument(new String(second)).read("$.id");
+        int firstId = cache.getDocument(new String(first)).read("$.id");
+
+        assertEquals(2, secondId);
+        assertEquals(1, firstId);
+
+        assertEquals(2, cache.getDocumentMissCount());
+        assertEquals(2, cache.getDocumentHitCount());
+    }
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.transform.regex.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * A bounded LRU cache of compiled regular expressions.
+ *
+ * Expressions are parsed once into either a substitution of the form {@code s/<regex>/<substitution>/<options>} or a
+ * pattern which has to match the whole input, and the compiled {@link Pattern} is reused for every transformation with
+ * the same expression.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RegExPatternCache {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+
+    /**
+     * A parsed and compiled regular expression.
+     */
+    public static class CompiledRegEx {
+        private final Pattern pattern;
+        private final @Nullable String substitution;
+        private final boolean global;
+
+        private CompiledRegEx(Pattern pattern, @Nullable String substitution, boolean global) {
+            this.pattern = pattern;
+            this.substitution = substitution;
+            this.global = global;
+        }
+
+        public Pattern getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return the substitution if this is the substitution form, null if the pattern has to match the input
+         */
+        public @Nullable String getSubstitution() {
+            return substitution;
+        }
+
+        /**
+         * @return whether all occurrences are substituted instead of the first one only
+         */
+        public boolean isGlobal() {
+            return global;
+        }
+    }
+
+    private final Map<String, CompiledRegEx> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RegExPatternCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RegExPatternCache(int capacity) {
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, CompiledRegEx> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled form of the given expression, compiling it if it is not cached yet.
+     *
+     * @param regExpression the expression as passed to the transformation
+     * @return the compiled expression
+     * @throws PatternSyntaxException if the expression is not a valid regular expression
+     */
+    public CompiledRegEx get(String regExpression) {
+        CompiledRegEx compiled;
+        synchronized (cache) {
+            compiled = cache.get(regExpression);
+        }
+        if (compiled != null) {
+            hits.incrementAndGet();
+            return compiled;
+        }
+        misses.incrementAndGet();
+        // compile outside the lock, a concurrent miss of the same expression only compiles it twice
+        compiled = compile(regExpression);
+        synchronized (cache) {
+            cache.put(regExpression, compiled);
+        }
+        return compiled;
+    }
+
+    private static CompiledRegEx compile(String regExpression) {
+        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
+        if (substMatcher.matches()) {
+            return new CompiledRegEx(Pattern.compile(substMatcher.group(1)), substMatcher.group(2),
+                    "g".equals(substMatcher.group(3)));
+        }
+        return new CompiledRegEx(Pattern.compile("^" + regExpression + "$", Pattern.DOTALL), null, false);
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RegExPatternCache [size=" + getSize() + ", hits=" + hits + ", misses=" + misses + "]";
+    }
+}
@@ -13,12 +13,13 @@
 package org.openhab.transform.regex.internal;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationService;
+import org.openhab.transform.regex.internal.RegExPatternCache.CompiledRegEx;
 import org.osgi.service.component.annotations.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,7 +39,7 @@ public class RegExTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
-    private static final Pattern SUBSTR_PATTERN = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
+    private final RegExPatternCache patternCache = new RegExPatternCache();
 
     @Override
     public @Nullable String transform(String regExpression, String source) throws TransformationException {
@@ -48,25 +49,39 @@ public class RegExTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, regExpression);
 
+        return transform(compile(regExpression), regExpression, source);
+    }
+
+    /**
+     * Returns the compiled form of the given expression from the cache, so callers with a fixed expression can
+     * resolve it once.
+     *
+     * @throws PatternSyntaxException if the expression is not a valid regular expression
+     */
+    public CompiledRegEx compile(String regExpression) {
+        return patternCache.get(regExpression);
+    }
+
+    /**
+     * Transforms the source with an already compiled expression.
+     *
+     * @param compiled the compiled expression
+     * @param regExpression the expression the compiled one was created from, used for logging
+     * @param source the string to transform
+     * @return the transformed string or null if the pattern doesn't match
+     */
+    public @Nullable String transform(CompiledRegEx compiled, String regExpression, String source) {
         String result = "";
 
-        Matcher substMatcher = SUBSTR_PATTERN.matcher(regExpression);
-        if (substMatcher.matches()) {
+        String substitution = compiled.getSubstitution();
+        if (substitution != null) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
-            String substitution = substMatcher.group(2);
-            String options = substMatcher.group(3);
-            if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
-            } else {
-                result = source.trim().replaceFirst(regex, substitution);
-            }
-            if (result != null) {
-                return result;
-            }
+            Matcher substMatcher = compiled.getPattern().matcher(source.trim());
+            return compiled.isGlobal() ? substMatcher.replaceAll(substitution)
+                    : substMatcher.replaceFirst(substitution);
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Matcher matcher = compiled.getPattern().matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -94,4 +109,8 @@ public class RegExTransformationService implements TransformationService {
 
         return result;
     }
+
+    public RegExPatternCache getPatternCache() {
+        return patternCache;
+    }
 }
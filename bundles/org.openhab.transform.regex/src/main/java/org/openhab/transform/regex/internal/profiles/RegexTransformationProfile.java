@@ -12,6 +12,8 @@
  */
 package org.openhab.transform.regex.internal.profiles;
 
+import java.util.regex.PatternSyntaxException;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.core.library.types.StringType;
 import org.openhab.core.thing.profiles.ProfileCallback;
@@ -24,6 +26,7 @@ import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.core.types.Type;
+import org.openhab.transform.regex.internal.RegExTransformationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -68,6 +71,7 @@ public class RegexTransformationProfile implements StateProfile {
         if (paramFunction instanceof String && paramSource instanceof String) {
             function = (String) paramFunction;
             sourceFormat = (String) paramSource;
+            precompile(function);
         } else {
             logger.error("Parameter '{}' and '{}' have to be Strings. Profile will be inactive.", FUNCTION_PARAM,
                     SOURCE_FORMAT_PARAM);
@@ -76,6 +80,20 @@ public class RegexTransformationProfile implements StateProfile {
         }
     }
 
+    /**
+     * Compiles the function into the pattern cache of the service, so the first transformation doesn't have to, and
+     * invalid expressions are reported when the profile is created.
+     */
+    private void precompile(String function) {
+        if (service instanceof RegExTransformationService) {
+            try {
+                ((RegExTransformationService) service).compile(function);
+            } catch (PatternSyntaxException e) {
+                logger.warn("Parameter '{}' is not a valid regular expression: {}", FUNCTION_PARAM, e.getMessage());
+            }
+        }
+    }
+
     @Override
     public ProfileTypeUID getProfileTypeUID() {
         return PROFILE_TYPE_UID;
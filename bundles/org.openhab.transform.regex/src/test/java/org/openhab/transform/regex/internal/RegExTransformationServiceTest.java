@@ -75,4 +75,34 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_compiledPatternIsCached() throws TransformationException {
+        // method under test
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "X12,Y54");
+        processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "A1");
+        String transformedResponse = processor.transform("s/([A-Z]+)([0-9]+),*/var$1=$2 /g", "B2,C3");
+
+        // Asserts
+        assertEquals("varB=2 varC=3 ", transformedResponse);
+        assertEquals(1, processor.getPatternCache().getSize());
+        assertEquals(1, processor.getPatternCache().getMissCount());
+        assertEquals(2, processor.getPatternCache().getHitCount());
+    }
+
+    @Test
+    public void testPatternCache_evictsLeastRecentlyUsed() {
+        RegExPatternCache cache = new RegExPatternCache(2);
+        cache.get("(a)");
+        cache.get("(b)");
+        cache.get("(a)");
+        cache.get("(c)");
+
+        // Asserts
+        assertEquals(2, cache.getSize());
+        cache.get("(a)");
+        assertEquals(2, cache.getHitCount());
+        cache.get("(b)");
+        assertEquals(4, cache.getMissCount());
+    }
 }
@@ -13,12 +13,22 @@
 package org.openhab.transform.xpath.internal;
 
 import java.io.StringReader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.xpath.XPath;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -35,14 +45,55 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  *
+ * <p>
+ * Parsers and compiled expressions are not thread-safe, so they are kept per thread and reused. Simple absolute paths
+ * like <code>/a/b/c</code>, <code>/a/b/c/text()</code> or <code>/a/b/@c</code> are evaluated while streaming the
+ * document with StAX, which stops as soon as the first matching node is found.
+ *
  * @author Thomas.Eichstaedt-Engelen
  */
 @NonNullByDefault
 @Component(property = { "openhab.transform=XPATH" })
 public class XPathTransformationService implements TransformationService {
 
+    private static final int CACHE_SIZE = 128;
+
+    private static final String NAME = "[A-Za-z_][\\w.\\-]*";
+    private static final Pattern SIMPLE_PATH_PATTERN = Pattern
+            .compile("(/" + NAME + ")+(/@" + NAME + "|/text\\(\\))?");
+
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final ThreadLocal<@Nullable DocumentBuilder> documentBuilder = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, XPathExpression>> expressions = ThreadLocal.withInitial(() -> lruMap());
+    private final Map<String, Optional<SimplePath>> simplePaths = Collections.synchronizedMap(lruMap());
+    private final XMLInputFactory xmlInputFactory;
+
+    /**
+     * An absolute path of element names without predicates, optionally selecting an attribute or the text of the last
+     * element.
+     */
+    private static class SimplePath {
+        private final String[] elements;
+        private final @Nullable String attribute;
+        private final boolean text;
+
+        private SimplePath(String[] elements, @Nullable String attribute, boolean text) {
+            this.elements = elements;
+            this.attribute = attribute;
+            this.text = text;
+        }
+    }
+
+    public XPathTransformationService() {
+        xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        // adjacent text and CDATA sections form a single text node in XPath
+        xmlInputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
     @Override
     public @Nullable String transform(String xpathExpression, String source) throws TransformationException {
         if (xpathExpression == null || source == null) {
@@ -51,28 +102,26 @@ public class XPathTransformationService implements TransformationService {
 
         logger.debug("about to transform '{}' by the function '{}'", source, xpathExpression);
 
-        StringReader stringReader = null;
+        Optional<SimplePath> simplePath = simplePaths.computeIfAbsent(xpathExpression, this::parseSimplePath);
+        if (simplePath.isPresent()) {
+            try {
+                String transformationResult = evaluateStreaming(simplePath.get(), source);
+                if (transformationResult != null) {
+                    logger.debug("transformation resulted in '{}'", transformationResult);
+                    return transformationResult;
+                }
+            } catch (XMLStreamException e) {
+                logger.trace("Streaming evaluation failed, evaluating on the document: {}", e.getMessage());
+            }
+        }
 
-        try {
-            DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-            // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
-            domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
-            domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
-            domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
-            domFactory.setXIncludeAware(false);
-            domFactory.setExpandEntityReferences(false);
-            domFactory.setNamespaceAware(true);
-            domFactory.setValidating(false);
-            DocumentBuilder builder = domFactory.newDocumentBuilder();
-
-            stringReader = new StringReader(source);
+        try (StringReader stringReader = new StringReader(source)) {
             InputSource inputSource = new InputSource(stringReader);
             inputSource.setEncoding("UTF-8");
 
-            Document doc = builder.parse(inputSource);
+            Document doc = getDocumentBuilder().parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = getExpression(xpathExpression);
 
             String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
 
@@ -81,10 +130,175 @@ public class XPathTransformationService implements TransformationService {
             return transformationResult;
         } catch (Exception e) {
             throw new TransformationException("transformation throws exceptions", e);
+        }
+    }
+
+    private DocumentBuilder getDocumentBuilder() throws ParserConfigurationException {
+        DocumentBuilder builder = documentBuilder.get();
+        if (builder != null) {
+            builder.reset();
+            return builder;
+        }
+        DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        // see https://cheatsheetseries.owasp.org/cheatsheets/XML_External_Entity_Prevention_Cheat_Sheet.html
+        domFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+        domFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+        domFactory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        domFactory.setXIncludeAware(false);
+        domFactory.setExpandEntityReferences(false);
+        domFactory.setNamespaceAware(true);
+        domFactory.setValidating(false);
+        builder = domFactory.newDocumentBuilder();
+        documentBuilder.set(builder);
+        return builder;
+    }
+
+    private XPathExpression getExpression(String xpathExpression) throws XPathExpressionException {
+        Map<String, XPathExpression> cache = expressions.get();
+        XPathExpression expr = cache.get(xpathExpression);
+        if (expr == null) {
+            expr = XPathFactory.newInstance().newXPath().compile(xpathExpression);
+            cache.put(xpathExpression, expr);
+        }
+        return expr;
+    }
+
+    private Optional<SimplePath> parseSimplePath(String xpathExpression) {
+        if (!SIMPLE_PATH_PATTERN.matcher(xpathExpression).matches()) {
+            return Optional.empty();
+        }
+        String[] steps = xpathExpression.substring(1).split("/");
+        String last = steps[steps.length - 1];
+        if (last.startsWith("@")) {
+            return Optional.of(new SimplePath(copy(steps, steps.length - 1), last.substring(1), false));
+        } else if ("text()".equals(last)) {
+            return Optional.of(new SimplePath(copy(steps, steps.length - 1), null, true));
+        }
+        return Optional.of(new SimplePath(steps, null, false));
+    }
+
+    private static String[] copy(String[] steps, int length) {
+        String[] copy = new String[length];
+        System.arraycopy(steps, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * Evaluates a simple path while streaming the document.
+     *
+     * @return the string value of the first matching node, or null if the document contains constructs which have to
+     *         be evaluated on the parsed document
+     * @throws XMLStreamException if the document is not well-formed before the first matching node
+     */
+    private @Nullable String evaluateStreaming(SimplePath path, String source) throws XMLStreamException {
+        XMLStreamReader reader = xmlInputFactory.createXMLStreamReader(new StringReader(source));
+        try {
+            // number of open elements, and number of those matching the leading elements of the path
+            int depth = 0;
+            int matched = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.DTD:
+                    case XMLStreamConstants.ENTITY_REFERENCE:
+                        return null;
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        if (matched != depth - 1 || matched == path.elements.length
+                                || !isElement(reader, path.elements[matched])) {
+                            break;
+                        }
+                        matched++;
+                        if (matched < path.elements.length) {
+                            break;
+                        }
+                        String attribute = path.attribute;
+                        if (attribute != null) {
+                            String value = getAttribute(reader, attribute);
+                            if (value != null) {
+                                return value;
+                            }
+                        } else if (path.text) {
+                            int event = reader.next();
+                            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                                return reader.getText();
+                            } else if (event != XMLStreamConstants.END_ELEMENT) {
+                                return null;
+                            }
+                            // an empty element has no text node, continue with the next one
+                            matched--;
+                            depth--;
+                        } else {
+                            return readStringValue(reader);
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (matched == depth) {
+                            matched--;
+                        }
+                        depth--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            // no matching node, the string value of an empty node set is the empty string
+            return "";
         } finally {
-            if (stringReader != null) {
-                stringReader.close();
+            reader.close();
+        }
+    }
+
+    private boolean isElement(XMLStreamReader reader, String name) {
+        String namespace = reader.getNamespaceURI();
+        return name.equals(reader.getLocalName()) && (namespace == null || namespace.isEmpty());
+    }
+
+    private @Nullable String getAttribute(XMLStreamReader reader, String name) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String namespace = reader.getAttributeNamespace(i);
+            if (name.equals(reader.getAttributeLocalName(i)) && (namespace == null || namespace.isEmpty())) {
+                return reader.getAttributeValue(i);
             }
         }
+        return null;
+    }
+
+    /**
+     * Reads the concatenated text of the current element and all its descendants.
+     */
+    private @Nullable String readStringValue(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder value = new StringBuilder();
+        int level = 1;
+        while (level > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    level++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    level--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    value.append(reader.getText());
+                    break;
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    return null;
+                default:
+                    break;
+            }
+        }
+        return value.toString();
+    }
+
+    private static <V> Map<String, V> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.@Nullable Entry<String, V> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
     }
 }
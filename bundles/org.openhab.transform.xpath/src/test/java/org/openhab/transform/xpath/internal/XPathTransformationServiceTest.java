@@ -38,4 +38,40 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testTransformBySimplePath() throws TransformationException {
+        assertEquals("8", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@data", source));
+        assertEquals("Di.",
+                processor.transform("/xml_api_reply/weather/forecast_conditions/day_of_week/@data", source));
+        assertEquals("", processor.transform("/xml_api_reply/weather/current_conditions/temp_c/@missing", source));
+        assertEquals("", processor.transform("/weather/current_conditions", source));
+    }
+
+    @Test
+    public void testSimplePathReturnsSameAsDocumentEvaluation() throws TransformationException {
+        String xml = "<?xml version=\"1.0\"?><PTZStatus version=\"2.0\"><AbsoluteHigh><elevation/>"
+                + "<azimuth>450</azimuth><zoom> 1<![CDATA[0]]><unit>x</unit></zoom></AbsoluteHigh>"
+                + "<AbsoluteHigh><elevation>5</elevation></AbsoluteHigh></PTZStatus>";
+
+        assertEquals("450", processor.transform("/PTZStatus/AbsoluteHigh/azimuth/text()", xml));
+        assertEquals("450", processor.transform("/PTZStatus/AbsoluteHigh/azimuth/text()[1]", xml));
+        assertEquals(" 10x", processor.transform("/PTZStatus/AbsoluteHigh/zoom", xml));
+        assertEquals(" 10x", processor.transform("/PTZStatus/AbsoluteHigh/zoom[1]", xml));
+        assertEquals("5", processor.transform("/PTZStatus/AbsoluteHigh/elevation/text()", xml));
+        assertEquals("5", processor.transform("/PTZStatus/AbsoluteHigh/elevation/text()[1]", xml));
+    }
+
+    @Test
+    public void testSimplePathDoesNotMatchNamespacedElements() throws TransformationException {
+        String xml = "<PTZStatus xmlns=\"http://www.hikvision.com/ver20/XMLSchema\"><azimuth>450</azimuth></PTZStatus>";
+
+        assertEquals("", processor.transform("/PTZStatus/azimuth", xml));
+        assertEquals("450", processor.transform("/*[local-name()='PTZStatus']/*[local-name()='azimuth']", xml));
+    }
+
+    @Test
+    public void testSimplePathOnInvalidXmlThrowsException() {
+        assertThrows(TransformationException.class, () -> processor.transform("/a/b", "<a><c></a>"));
+    }
 }
@@ -15,9 +15,12 @@ package org.openhab.transform.xslt.internal;
 import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -43,6 +46,25 @@ public class XsltTransformationService implements TransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    /**
+     * A compiled stylesheet and the state of the file it was compiled from.
+     */
+    private static class CachedTemplates {
+        private final Templates templates;
+        private final long lastModified;
+        private final long length;
+
+        private CachedTemplates(Templates templates, long lastModified, long length) {
+            this.templates = templates;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+    }
+
+    // Templates are thread-safe, a TransformerFactory is not
+    private final Map<String, CachedTemplates> templates = new ConcurrentHashMap<>();
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
     /**
      * Transforms the input <code>source</code> by XSLT.
      *
@@ -60,12 +82,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File file;
 
         try {
             String path = OpenHAB.getConfigFolder() + File.separator + TransformationService.TRANSFORM_FOLDER_NAME
                     + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            file = new File(path);
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -73,7 +95,7 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException(message, e);
         }
 
-        logger.debug("about to transform '{}' by the function '{}'", source, xsl);
+        logger.debug("about to transform '{}' by the function '{}'", source, file);
 
         StringReader xml = new StringReader(source);
         StringWriter out = new StringWriter();
@@ -81,7 +103,7 @@ public class XsltTransformationService implements TransformationService {
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            transformer = getTemplates(file).newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -92,4 +114,24 @@ public class XsltTransformationService implements TransformationService {
 
         return out.toString();
     }
+
+    /**
+     * Returns the compiled stylesheet of the given file, compiling it again if the file has changed since it was
+     * compiled.
+     */
+    private Templates getTemplates(File file) throws TransformerConfigurationException {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        CachedTemplates cached = templates.get(file.getPath());
+        if (cached != null && cached.lastModified == lastModified && cached.length == length) {
+            return cached.templates;
+        }
+        Templates compiled;
+        synchronized (transformerFactory) {
+            compiled = transformerFactory.newTemplates(new StreamSource(file));
+        }
+        templates.put(file.getPath(), new CachedTemplates(compiled, lastModified, length));
+        logger.debug("Compiled XSLT file '{}'", file);
+        return compiled;
+    }
 }
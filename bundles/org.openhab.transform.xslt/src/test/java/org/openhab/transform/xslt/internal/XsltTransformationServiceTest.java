@@ -14,9 +14,16 @@ package org.openhab.transform.xslt.internal;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.transform.TransformationException;
+import org.openhab.core.transform.TransformationService;
 
 /**
  * @author Thomas.Eichstaedt-Engelen
@@ -38,4 +45,27 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         // Asserts
         assertEquals("8", transformedResponse);
     }
+
+    @Test
+    public void testChangedFileIsCompiledAgain() throws TransformationException, IOException {
+        Path file = Path.of(OpenHAB.getConfigFolder(), TransformationService.TRANSFORM_FOLDER_NAME, "test_changed.xsl");
+        try {
+            Files.writeString(file, stylesheet("temp_c"));
+            assertEquals("8", processor.transform("test_changed.xsl", source));
+            assertEquals("8", processor.transform("test_changed.xsl", source));
+
+            Files.writeString(file, stylesheet("temp_f"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+            assertEquals("46", processor.transform("test_changed.xsl", source));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private String stylesheet(String element) {
+        return "<?xml version=\"1.0\"?>"
+                + "<xsl:stylesheet xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\" version=\"1.0\">"
+                + "<xsl:output method=\"text\"/><xsl:template match=\"/\"><xsl:value-of select=\"//current_conditions/"
+                + element + "/@data\"/></xsl:template></xsl:stylesheet>";
+    }
 }
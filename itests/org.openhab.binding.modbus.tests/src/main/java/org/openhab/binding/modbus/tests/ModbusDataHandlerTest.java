@@ -29,6 +29,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -616,6 +617,59 @@ public class ModbusDataHandlerTest extends AbstractModbusOSGiTest {
         // no datetime, conversion not possible without transformation
     }
 
+    @Test
+    public void testOnRegistersUnchangedValueIsNotTransformedAgain() {
+        AtomicInteger transformations = new AtomicInteger();
+        mockTransformation("COUNT", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformations.incrementAndGet();
+                return source;
+            }
+        });
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "COUNT(foobar)", ModbusConstants.ValueType.INT16, null,
+                new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 }), null, bundleContext);
+        assertSingleStateUpdate(dataHandler, CHANNEL_NUMBER, new DecimalType(5));
+        int transformationsPerRead = transformations.get();
+        assertThat(transformationsPerRead, is(not(equalTo(0))));
+
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        // registers of the value unchanged, other registers changed
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05, (byte) 0x00, (byte) 0x01 })));
+        assertThat(transformations.get(), is(equalTo(transformationsPerRead)));
+
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x06 })));
+        assertThat(transformations.get(), is(equalTo(2 * transformationsPerRead)));
+    }
+
+    @Test
+    public void testOnRegistersUnchangedValueIsTransformedAgainAfterFailure() {
+        AtomicInteger transformations = new AtomicInteger();
+        mockTransformation("FAIL", new TransformationService() {
+
+            @Override
+            public String transform(String function, String source) throws TransformationException {
+                transformations.incrementAndGet();
+                return "not a number";
+            }
+        });
+        ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,
+                "0", "FAIL(foobar)", ModbusConstants.ValueType.INT16, null,
+                new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 }), null, bundleContext);
+        int transformationsPerRead = transformations.get();
+        assertThat(transformationsPerRead, is(not(equalTo(0))));
+
+        // registers of the value unchanged, but the previous value could not be transformed
+        ModbusReadRequestBlueprint request = Mockito.mock(ModbusReadRequestBlueprint.class);
+        dataHandler.onReadResult(new AsyncModbusReadResult(request,
+                new ModbusRegisterArray(new byte[] { (byte) 0x00, (byte) 0x05 })));
+        assertThat(transformations.get(), is(equalTo(2 * transformationsPerRead)));
+    }
+
     @Test
     public void testOnRegistersNaNFloatInRegisters() throws InvalidSyntaxException {
         ModbusDataThingHandler dataHandler = testReadHandlingGeneric(ModbusReadFunctionCode.READ_MULTIPLE_REGISTERS,